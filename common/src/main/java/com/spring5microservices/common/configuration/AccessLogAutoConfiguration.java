@@ -0,0 +1,62 @@
+package com.spring5microservices.common.configuration;
+
+import com.spring5microservices.common.log.AccessLogPolicy;
+import com.spring5microservices.common.log.AccessLogVerbosity;
+import com.spring5microservices.common.log.AccessLogger;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ *    Configuration of the logs written for every request, out of the threads that manage them, shared by all the
+ * microservices that include this library. It can be disabled with {@code accessLog.enabled: false}, or replaced
+ * defining another {@link AccessLogger} bean.
+ */
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "accessLog", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Getter
+public class AccessLogAutoConfiguration {
+
+    @Value("${accessLog.samplingRate:1.0}")
+    private double samplingRate;
+
+    @Value("${accessLog.verbosity:SUMMARY}")
+    private AccessLogVerbosity verbosity;
+
+    @Value("${accessLog.bufferSize:8192}")
+    private int bufferSize;
+
+
+    /**
+     * {@link AccessLogger} used to log the received requests.
+     *
+     * @return {@link AccessLogger}
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public AccessLogger accessLogger(final ObjectProvider<MeterRegistry> meterRegistry) {
+        AccessLogger accessLogger = new AccessLogger(
+                "access-log",
+                AccessLogPolicy.of(
+                        samplingRate,
+                        verbosity
+                ),
+                bufferSize
+        );
+        meterRegistry.ifAvailable(registry ->
+                Gauge.builder("access.log.dropped", accessLogger, AccessLogger::getDroppedRecords)
+                        .description("Number of logs discarded because there were too many pending to write")
+                        .register(registry)
+        );
+        return accessLogger;
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.spring5microservices.common.log;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ *    Decides which logs are written by {@link AccessLogger}: a {@code samplingRate} of the access records and the
+ * messages of read-only requests, with the information defined by {@link AccessLogVerbosity}. The access records of
+ * failed requests and the other messages are always written, unless the verbosity is {@link AccessLogVerbosity#NONE}.
+ */
+@Getter
+@ToString
+public final class AccessLogPolicy {
+
+    private final double samplingRate;
+
+    private final AccessLogVerbosity verbosity;
+
+
+    private AccessLogPolicy(final double samplingRate,
+                            final AccessLogVerbosity verbosity) {
+        this.samplingRate = samplingRate;
+        this.verbosity = verbosity;
+    }
+
+
+    /**
+     * Creates a {@link AccessLogPolicy} with the given parameters.
+     *
+     * @param samplingRate
+     *    Ratio of logs to write, between 0 and 1
+     * @param verbosity
+     *    {@link AccessLogVerbosity} of the logs
+     *
+     * @return {@link AccessLogPolicy}
+     *
+     * @throws IllegalArgumentException if {@code samplingRate} is not between 0 and 1 or {@code verbosity} is {@code null}
+     */
+    public static AccessLogPolicy of(final double samplingRate,
+                                     final AccessLogVerbosity verbosity) {
+        Assert.isTrue(0 <= samplingRate && 1 >= samplingRate, "samplingRate must be between 0 and 1");
+        Assert.notNull(verbosity, "verbosity must be not null");
+        return new AccessLogPolicy(
+                samplingRate,
+                verbosity
+        );
+    }
+
+
+    /**
+     * Checks if a new access record, or message of a read-only request, has to be written.
+     *
+     * @return {@code true} if the log has to be written, {@code false} otherwise
+     */
+    public boolean isSampled() {
+        if (AccessLogVerbosity.NONE == verbosity || 0 == samplingRate) {
+            return false;
+        }
+        return 1 == samplingRate ||
+                ThreadLocalRandom.current().nextDouble() < samplingRate;
+    }
+
+
+    /**
+     * Checks if the details of the logs have to be written.
+     *
+     * @return {@code true} if the verbosity is {@link AccessLogVerbosity#DETAILED}, {@code false} otherwise
+     */
+    public boolean isDetailed() {
+        return AccessLogVerbosity.DETAILED == verbosity;
+    }
+
+
+    /**
+     * Checks if the logs are enabled.
+     *
+     * @return {@code false} if the verbosity is {@link AccessLogVerbosity#NONE}, {@code true} otherwise
+     */
+    public boolean isEnabled() {
+        return AccessLogVerbosity.NONE != verbosity;
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.spring5microservices.common.log;
+
+/**
+ *    Slot of {@link AccessLogRingBuffer}, allocated once and reused by all the logs written in it: the callers only
+ * store references to the given values, and the message is built later by the thread that drains the buffer.
+ */
+final class AccessLogRecord {
+
+    enum Type {
+        ACCESS,
+        MESSAGE
+    }
+
+    Type type;
+
+    long timestampInMilliseconds;
+
+    String threadName;
+
+    String traceId;
+
+    String spanId;
+
+    // Used by MESSAGE records
+    String template;
+    int numberOfArguments;
+    Object argument1;
+    Object argument2;
+    Object argument3;
+    Object argument4;
+
+    // Used by ACCESS records
+    String operation;
+    Object target;
+    int status;
+    long durationInNanoseconds;
+
+    // Only written with AccessLogVerbosity.DETAILED
+    Object detail;
+
+
+    /**
+     * Removes the references to the stored values, so they can be garbage collected.
+     */
+    void clear() {
+        type = null;
+        threadName = null;
+        traceId = null;
+        spanId = null;
+        template = null;
+        numberOfArguments = 0;
+        argument1 = null;
+        argument2 = null;
+        argument3 = null;
+        argument4 = null;
+        operation = null;
+        target = null;
+        detail = null;
+    }
+
+}
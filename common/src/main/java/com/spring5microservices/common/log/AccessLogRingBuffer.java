@@ -0,0 +1,156 @@
+package com.spring5microservices.common.log;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ *    Bounded and lock-free buffer of {@link AccessLogRecord}s, with several producers and only one consumer. All
+ * the records are allocated when it is created and reused, so writing in it does not generate garbage.
+ * <p>
+ *    Every slot has a sequence that says who can use it: a producer when it is equal to the position claimed, the
+ * consumer when it is equal to that position + 1. So producers never wait for each other more than a failed CAS,
+ * and when the buffer is full the new records are discarded instead of blocking the callers.
+ */
+final class AccessLogRingBuffer {
+
+    private final AccessLogRecord[] records;
+
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong producerPosition;
+
+    // Only accessed by the consumer thread
+    private long consumerPosition;
+
+
+    /**
+     * Construct a {@link AccessLogRingBuffer}
+     *
+     * @param capacity
+     *    Maximum number of records, it will be rounded up to the next power of 2
+     *
+     * @throws IllegalArgumentException if {@code capacity} is not a positive value
+     */
+    AccessLogRingBuffer(final int capacity) {
+        Assert.isTrue(0 < capacity, "capacity must be a positive value");
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.records = new AccessLogRecord[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.records[i] = new AccessLogRecord();
+            this.sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.producerPosition = new AtomicLong(0);
+        this.consumerPosition = 0;
+    }
+
+
+    /**
+     * Claims the next free slot, that must be published using {@link AccessLogRingBuffer#publish(long)}.
+     *
+     * @return position of the claimed slot, or -1 if the buffer is full
+     */
+    long claim() {
+        while (true) {
+            final long position = producerPosition.get();
+            final long difference = sequences.get(index(position)) - position;
+            if (0 == difference) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            }
+            // The consumer has not read yet the record stored one lap ago
+            else if (0 > difference) {
+                return -1;
+            }
+        }
+    }
+
+
+    /**
+     * Returns the {@link AccessLogRecord} of a claimed position, to store on it the information to log.
+     *
+     * @param position
+     *    Position returned by {@link AccessLogRingBuffer#claim()}
+     *
+     * @return {@link AccessLogRecord}
+     */
+    AccessLogRecord get(final long position) {
+        return records[index(position)];
+    }
+
+
+    /**
+     *    Makes available to the consumer the {@link AccessLogRecord} of a claimed position. It is a volatile write, so
+     * the producer can check after it if the consumer is waiting, without missing the record when the consumer has
+     * checked {@link AccessLogRingBuffer#hasPublished()} meanwhile.
+     *
+     * @param position
+     *    Position returned by {@link AccessLogRingBuffer#claim()}
+     */
+    void publish(final long position) {
+        sequences.set(index(position), position + 1);
+    }
+
+
+    /**
+     * Checks if there is a published {@link AccessLogRecord} pending to consume. It must be invoked by the consumer.
+     *
+     * @return {@code true} if {@link AccessLogRingBuffer#drain(Consumer)} would consume a record, {@code false} otherwise
+     */
+    boolean hasPublished() {
+        return sequences.get(index(consumerPosition)) == consumerPosition + 1;
+    }
+
+
+    /**
+     *    Sends to {@code consumer} all the published {@link AccessLogRecord}s, in the order they were claimed, releasing
+     * their slots. It must be invoked always by the same thread.
+     *
+     * @param consumer
+     *    {@link Consumer} of the records
+     *
+     * @return number of consumed records
+     */
+    int drain(final Consumer<AccessLogRecord> consumer) {
+        int numberOfRecords = 0;
+        while (true) {
+            final int index = index(consumerPosition);
+            if (sequences.get(index) != consumerPosition + 1) {
+                return numberOfRecords;
+            }
+            final AccessLogRecord record = records[index];
+            try {
+                consumer.accept(record);
+            } finally {
+                record.clear();
+                sequences.lazySet(index, consumerPosition + records.length);
+                consumerPosition++;
+                numberOfRecords++;
+            }
+        }
+    }
+
+
+    /**
+     * Returns the maximum number of records.
+     */
+    int getCapacity() {
+        return records.length;
+    }
+
+
+    private int index(final long position) {
+        return (int) (position & mask);
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.spring5microservices.common.log;
+
+/**
+ * Information included by {@link AccessLogger} in every log.
+ */
+public enum AccessLogVerbosity {
+
+    // Nothing is logged
+    NONE,
+
+    // Messages and access records, without their details (usually whole DTOs or bodies)
+    SUMMARY,
+
+    // Messages and access records, including their details
+    DETAILED
+
+}
@@ -0,0 +1,486 @@
+package com.spring5microservices.common.log;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ *    Writes access records and messages out of the threads that serve the requests: the callers only store the given
+ * values in a preallocated {@link AccessLogRingBuffer}, and one background thread builds the messages and sends them
+ * to the configured writer. So:
+ * <p>
+ *   - No access record (see {@link AccessLogger#logAccess(String, Object, int, long)}) nor message of a read-only
+ *     request (see {@link AccessLogger#logSampled(String)}) is written if it is not sampled by the
+ *     {@link AccessLogPolicy}. The other messages are always written, because they could be needed to audit the
+ *     changes, unless the verbosity is {@link AccessLogVerbosity#NONE}.
+ *   - The details of the logs (usually whole DTOs or bodies) are only converted to {@link String} with
+ *     {@link AccessLogVerbosity#DETAILED}.
+ *   - When the buffer is full, the new logs are discarded instead of blocking the callers (see
+ *     {@link AccessLogger#getDroppedRecords()}).
+ *   - When there is nothing to write, the background thread waits until a caller adds a new log, instead of
+ *     checking the buffer periodically.
+ * <p>
+ *    The messages use {@code {}} as placeholder of the arguments, and the {@code traceId} and {@code spanId} of the
+ * caller's {@link ThreadContext} are included in the one of the writer.
+ */
+public class AccessLogger implements AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final String PLACEHOLDER = "{}";
+    private static final String TRACE_ID = "traceId";
+    private static final String SPAN_ID = "spanId";
+
+    private final AccessLogPolicy policy;
+
+    private final AccessLogRingBuffer buffer;
+
+    private final Consumer<String> writer;
+
+    private final AtomicLong droppedRecords;
+
+    // Only used by the writer thread
+    private final StringBuilder messageBuilder;
+
+    private final Thread writerThread;
+
+    private volatile boolean running;
+
+    // The writer thread is waiting for new logs, so it must be woken up
+    private volatile boolean writerWaiting;
+
+
+    /**
+     * Construct a {@link AccessLogger} that writes in the Log4j logger with the given name.
+     *
+     * @param loggerName
+     *    Name of the Log4j logger, whose info level will be used
+     * @param policy
+     *    {@link AccessLogPolicy} with the logs to write
+     * @param bufferSize
+     *    Maximum number of logs pending to write
+     *
+     * @throws IllegalArgumentException if {@code policy} is {@code null} or {@code bufferSize} is not a positive value
+     */
+    public AccessLogger(final String loggerName,
+                        final AccessLogPolicy policy,
+                        final int bufferSize) {
+        this(
+                policy,
+                bufferSize,
+                LogManager.getLogger(loggerName)::info,
+                loggerName
+        );
+    }
+
+
+    /**
+     * Construct a {@link AccessLogger} that sends the built messages to the given {@code writer}.
+     *
+     * @param policy
+     *    {@link AccessLogPolicy} with the logs to write
+     * @param bufferSize
+     *    Maximum number of logs pending to write
+     * @param writer
+     *    {@link Consumer} of the built messages
+     *
+     * @throws IllegalArgumentException if {@code policy} or {@code writer} are {@code null} or {@code bufferSize} is
+     *                                  not a positive value
+     */
+    public AccessLogger(final AccessLogPolicy policy,
+                        final int bufferSize,
+                        final Consumer<String> writer) {
+        this(
+                policy,
+                bufferSize,
+                writer,
+                AccessLogger.class.getSimpleName()
+        );
+    }
+
+
+    private AccessLogger(final AccessLogPolicy policy,
+                         final int bufferSize,
+                         final Consumer<String> writer,
+                         final String threadName) {
+        Assert.notNull(policy, "policy must be not null");
+        Assert.notNull(writer, "writer must be not null");
+        this.policy = policy;
+        this.buffer = new AccessLogRingBuffer(bufferSize);
+        this.writer = writer;
+        this.droppedRecords = new AtomicLong(0);
+        this.messageBuilder = new StringBuilder(256);
+        this.running = true;
+        this.writerWaiting = false;
+        this.writerThread = new Thread(this::writeRecords, "access-log-" + threadName);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+
+    /**
+     * Logs the given message, replacing every {@code {}} of {@code template} by the next given argument.
+     *
+     * @param template
+     *    Message to log
+     */
+    public void log(final String template) {
+        log(template, 0, null, null, null, null, null);
+    }
+
+
+    public void log(final String template,
+                    final Object argument1) {
+        log(template, 1, argument1, null, null, null, null);
+    }
+
+
+    public void log(final String template,
+                    final Object argument1,
+                    final Object argument2) {
+        log(template, 2, argument1, argument2, null, null, null);
+    }
+
+
+    public void log(final String template,
+                    final Object argument1,
+                    final Object argument2,
+                    final Object argument3) {
+        log(template, 3, argument1, argument2, argument3, null, null);
+    }
+
+
+    public void log(final String template,
+                    final Object argument1,
+                    final Object argument2,
+                    final Object argument3,
+                    final Object argument4) {
+        log(template, 4, argument1, argument2, argument3, argument4, null);
+    }
+
+
+    /**
+     *    Logs the given message, adding {@code detail} at the end of it only with {@link AccessLogVerbosity#DETAILED}.
+     * Only its reference is stored, so {@code detail} must not be modified after invoking this method.
+     *
+     * @param message
+     *    Message to log
+     * @param detail
+     *    Additional information to log
+     */
+    public void logWithDetail(final String message,
+                              final Object detail) {
+        log(message, 0, null, null, null, null, detail);
+    }
+
+
+    /**
+     *    Logs the given message, adding {@code detail} at the end of it only with {@link AccessLogVerbosity#DETAILED}.
+     * Only its reference is stored, so {@code detail} must not be modified after invoking this method.
+     *
+     * @param template
+     *    Message to log, with {@code {}} as placeholder of {@code argument}
+     * @param argument
+     *    Value to include in {@code template}
+     * @param detail
+     *    Additional information to log
+     */
+    public void logWithDetail(final String template,
+                              final Object argument,
+                              final Object detail) {
+        log(template, 1, argument, null, null, null, detail);
+    }
+
+
+    /**
+     *    Logs the given message like {@link AccessLogger#log(String)}, but only if it is sampled by the
+     * {@link AccessLogPolicy}. Used by the read-only requests, whose messages are not needed to audit the changes.
+     *
+     * @param template
+     *    Message to log
+     */
+    public void logSampled(final String template) {
+        if (policy.isSampled()) {
+            log(template, 0, null, null, null, null, null);
+        }
+    }
+
+
+    public void logSampled(final String template,
+                           final Object argument1) {
+        if (policy.isSampled()) {
+            log(template, 1, argument1, null, null, null, null);
+        }
+    }
+
+
+    public void logSampled(final String template,
+                           final Object argument1,
+                           final Object argument2) {
+        if (policy.isSampled()) {
+            log(template, 2, argument1, argument2, null, null, null);
+        }
+    }
+
+
+    public void logSampled(final String template,
+                           final Object argument1,
+                           final Object argument2,
+                           final Object argument3) {
+        if (policy.isSampled()) {
+            log(template, 3, argument1, argument2, argument3, null, null);
+        }
+    }
+
+
+    /**
+     *    Logs the given message like {@link AccessLogger#logWithDetail(String, Object)}, but only if it is sampled by
+     * the {@link AccessLogPolicy}. Used by the read-only requests, whose messages are not needed to audit the changes.
+     *
+     * @param message
+     *    Message to log
+     * @param detail
+     *    Additional information to log
+     */
+    public void logSampledWithDetail(final String message,
+                                     final Object detail) {
+        if (policy.isSampled()) {
+            log(message, 0, null, null, null, null, detail);
+        }
+    }
+
+
+    /**
+     * Logs a finished request, always if it failed (its {@code status} is 500 or greater).
+     *
+     * @param operation
+     *    Type of request, for example the HTTP method
+     * @param target
+     *    Requested resource, for example the URI
+     * @param status
+     *    Result of the request, for example the HTTP status code
+     * @param durationInNanoseconds
+     *    Time required to complete the request
+     */
+    public void logAccess(final String operation,
+                          final Object target,
+                          final int status,
+                          final long durationInNanoseconds) {
+        if (!policy.isEnabled() ||
+                (500 > status && !policy.isSampled())) {
+            return;
+        }
+        final long position = buffer.claim();
+        if (-1 == position) {
+            droppedRecords.incrementAndGet();
+            return;
+        }
+        final AccessLogRecord record = fillCommonFields(
+                buffer.get(position),
+                AccessLogRecord.Type.ACCESS
+        );
+        record.operation = operation;
+        record.target = target;
+        record.status = status;
+        record.durationInNanoseconds = durationInNanoseconds;
+        publish(position);
+    }
+
+
+    /**
+     * Checks if the details of the logs are written, to avoid building them when they will not be used.
+     *
+     * @return {@code true} if the verbosity is {@link AccessLogVerbosity#DETAILED}, {@code false} otherwise
+     */
+    public boolean isDetailed() {
+        return policy.isDetailed();
+    }
+
+
+    /**
+     * Returns the number of logs discarded because the buffer was full.
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+
+    /**
+     * Stops the background thread, once the pending logs have been written.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private void log(final String template,
+                     final int numberOfArguments,
+                     final Object argument1,
+                     final Object argument2,
+                     final Object argument3,
+                     final Object argument4,
+                     final Object detail) {
+        if (!policy.isEnabled()) {
+            return;
+        }
+        final long position = buffer.claim();
+        if (-1 == position) {
+            droppedRecords.incrementAndGet();
+            return;
+        }
+        final AccessLogRecord record = fillCommonFields(
+                buffer.get(position),
+                AccessLogRecord.Type.MESSAGE
+        );
+        record.template = template;
+        record.numberOfArguments = numberOfArguments;
+        record.argument1 = argument1;
+        record.argument2 = argument2;
+        record.argument3 = argument3;
+        record.argument4 = argument4;
+        record.detail = policy.isDetailed()
+                ? detail
+                : null;
+        publish(position);
+    }
+
+
+    private void publish(final long position) {
+        buffer.publish(position);
+        if (writerWaiting) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+
+    private AccessLogRecord fillCommonFields(final AccessLogRecord record,
+                                             final AccessLogRecord.Type type) {
+        record.type = type;
+        record.timestampInMilliseconds = System.currentTimeMillis();
+        record.threadName = Thread.currentThread().getName();
+        record.traceId = ThreadContext.get(TRACE_ID);
+        record.spanId = ThreadContext.get(SPAN_ID);
+        return record;
+    }
+
+
+    private void writeRecords() {
+        while (running) {
+            if (0 < drain()) {
+                continue;
+            }
+            // Checked after setting writerWaiting, so a log published meanwhile is never missed
+            writerWaiting = true;
+            if (running && !buffer.hasPublished()) {
+                LockSupport.park(this);
+            }
+            writerWaiting = false;
+        }
+        drain();
+    }
+
+
+    private int drain() {
+        return buffer.drain(record -> {
+            try {
+                write(record);
+            } catch (Throwable t) {
+                droppedRecords.incrementAndGet();
+            }
+        });
+    }
+
+
+    private void write(final AccessLogRecord record) {
+        final StringBuilder message = messageBuilder;
+        message.setLength(0);
+        if (AccessLogRecord.Type.ACCESS == record.type) {
+            message.append(record.operation)
+                    .append(' ')
+                    .append(record.target)
+                    .append(" status=")
+                    .append(record.status)
+                    .append(" durationMs=");
+            appendMilliseconds(message, record.durationInNanoseconds);
+        }
+        else {
+            appendTemplate(message, record);
+            if (null != record.detail) {
+                message.append(" detail=")
+                        .append(record.detail);
+            }
+        }
+        message.append(" thread=")
+                .append(record.threadName);
+
+        putInThreadContext(TRACE_ID, record.traceId);
+        putInThreadContext(SPAN_ID, record.spanId);
+        writer.accept(message.toString());
+    }
+
+
+    private static void appendTemplate(final StringBuilder message,
+                                       final AccessLogRecord record) {
+        final String template = null == record.template
+                ? "null"
+                : record.template;
+        int start = 0;
+        for (int i = 1; i <= record.numberOfArguments; i++) {
+            final int placeholder = template.indexOf(PLACEHOLDER, start);
+            if (-1 == placeholder) {
+                break;
+            }
+            message.append(template, start, placeholder)
+                    .append(getArgument(record, i));
+            start = placeholder + PLACEHOLDER.length();
+        }
+        message.append(template, start, template.length());
+    }
+
+
+    private static void appendMilliseconds(final StringBuilder message,
+                                           final long nanoseconds) {
+        final long microseconds = Math.max(0, nanoseconds) / 1_000;
+        final long fraction = microseconds % 1_000;
+        message.append(microseconds / 1_000)
+                .append('.');
+        if (100 > fraction) {
+            message.append(10 > fraction ? "00" : "0");
+        }
+        message.append(fraction);
+    }
+
+
+    private static Object getArgument(final AccessLogRecord record,
+                                      final int index) {
+        switch (index) {
+            case 1: return record.argument1;
+            case 2: return record.argument2;
+            case 3: return record.argument3;
+            default: return record.argument4;
+        }
+    }
+
+
+    private static void putInThreadContext(final String key,
+                                           final String value) {
+        if (null == value) {
+            ThreadContext.remove(key);
+        }
+        else {
+            ThreadContext.put(key, value);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.spring5microservices.common.log;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static com.spring5microservices.common.log.AccessLogVerbosity.DETAILED;
+import static com.spring5microservices.common.log.AccessLogVerbosity.NONE;
+import static com.spring5microservices.common.log.AccessLogVerbosity.SUMMARY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AccessLogPolicyTest {
+
+    static Stream<Arguments> ofTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            samplingRate,   verbosity,   expectedException
+                Arguments.of( -0.1,           SUMMARY,     IllegalArgumentException.class ),
+                Arguments.of( 1.1,            SUMMARY,     IllegalArgumentException.class ),
+                Arguments.of( 0.5,            null,        IllegalArgumentException.class ),
+                Arguments.of( 0,              NONE,        null ),
+                Arguments.of( 0.5,            DETAILED,    null )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("ofTestCases")
+    @DisplayName("of: test cases")
+    public void of_testCases(double samplingRate,
+                             AccessLogVerbosity verbosity,
+                             Class<? extends Exception> expectedException) {
+        if (null != expectedException) {
+            assertThrows(expectedException, () -> AccessLogPolicy.of(samplingRate, verbosity));
+        } else {
+            AccessLogPolicy policy = AccessLogPolicy.of(samplingRate, verbosity);
+            assertEquals(samplingRate, policy.getSamplingRate());
+            assertEquals(verbosity, policy.getVerbosity());
+        }
+    }
+
+
+    static Stream<Arguments> isSampledTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            samplingRate,   verbosity,   expectedResult
+                Arguments.of( 1,              NONE,        false ),
+                Arguments.of( 0,              SUMMARY,     false ),
+                Arguments.of( 0,              DETAILED,    false ),
+                Arguments.of( 1,              SUMMARY,     true ),
+                Arguments.of( 1,              DETAILED,    true )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("isSampledTestCases")
+    @DisplayName("isSampled: test cases")
+    public void isSampled_testCases(double samplingRate,
+                                    AccessLogVerbosity verbosity,
+                                    boolean expectedResult) {
+        AccessLogPolicy policy = AccessLogPolicy.of(samplingRate, verbosity);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(expectedResult, policy.isSampled());
+        }
+    }
+
+}
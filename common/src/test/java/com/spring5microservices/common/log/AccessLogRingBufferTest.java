@@ -0,0 +1,98 @@
+package com.spring5microservices.common.log;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AccessLogRingBufferTest {
+
+    static Stream<Arguments> constructorTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            capacity,   expectedException,                expectedCapacity
+                Arguments.of( 0,          IllegalArgumentException.class,   null ),
+                Arguments.of( 1,          null,                             1 ),
+                Arguments.of( 5,          null,                             8 ),
+                Arguments.of( 16,         null,                             16 )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("constructorTestCases")
+    @DisplayName("constructor: test cases")
+    public void constructor_testCases(int capacity,
+                                      Class<? extends Exception> expectedException,
+                                      Integer expectedCapacity) {
+        if (null != expectedException) {
+            assertThrows(expectedException, () -> new AccessLogRingBuffer(capacity));
+        } else {
+            assertEquals(expectedCapacity, new AccessLogRingBuffer(capacity).getCapacity());
+        }
+    }
+
+
+    @Test
+    @DisplayName("claim: when the buffer is full then -1 is returned until it is drained")
+    public void claim_whenBufferIsFull_thenMinusOneIsReturnedUntilItIsDrained() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(2);
+
+        publish(buffer, "A");
+        publish(buffer, "B");
+        assertEquals(-1, buffer.claim());
+
+        assertEquals(2, buffer.drain(r -> {}));
+        assertEquals(2, buffer.claim());
+    }
+
+
+    @Test
+    @DisplayName("drain: when there are claimed but not published records then only the previous ones are consumed")
+    public void drain_whenThereAreClaimedButNotPublishedRecords_thenOnlyThePreviousOnesAreConsumed() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(4);
+        List<String> consumed = new ArrayList<>();
+
+        publish(buffer, "A");
+        long notPublished = buffer.claim();
+        buffer.get(notPublished).template = "B";
+        publish(buffer, "C");
+
+        assertEquals(1, buffer.drain(r -> consumed.add(r.template)));
+        assertEquals(List.of("A"), consumed);
+
+        buffer.publish(notPublished);
+        assertEquals(2, buffer.drain(r -> consumed.add(r.template)));
+        assertEquals(List.of("A", "B", "C"), consumed);
+    }
+
+
+    @Test
+    @DisplayName("drain: when records are consumed then they are cleared")
+    public void drain_whenRecordsAreConsumed_thenTheyAreCleared() {
+        AccessLogRingBuffer buffer = new AccessLogRingBuffer(1);
+
+        long position = publish(buffer, "A");
+        buffer.drain(r -> {});
+
+        assertNull(buffer.get(position).template);
+    }
+
+
+    private static long publish(final AccessLogRingBuffer buffer,
+                                final String template) {
+        long position = buffer.claim();
+        buffer.get(position).template = template;
+        buffer.publish(position);
+        return position;
+    }
+
+}
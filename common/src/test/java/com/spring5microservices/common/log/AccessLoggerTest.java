@@ -0,0 +1,168 @@
+package com.spring5microservices.common.log;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.spring5microservices.common.log.AccessLogVerbosity.DETAILED;
+import static com.spring5microservices.common.log.AccessLogVerbosity.NONE;
+import static com.spring5microservices.common.log.AccessLogVerbosity.SUMMARY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AccessLoggerTest {
+
+    @Test
+    @DisplayName("log: when the verbosity is summary then the arguments are included but not the detail")
+    public void log_whenVerbosityIsSummary_thenArgumentsAreIncludedButNotTheDetail() {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        try (AccessLogger accessLogger = new AccessLogger(AccessLogPolicy.of(1, SUMMARY), 16, messages::add)) {
+            accessLogger.log("Searching {} with {} and {}", "pizzas", 1, null);
+            accessLogger.logWithDetail("Saving {}", "pizza", new StringBuilder("body"));
+        }
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(0).startsWith("Searching pizzas with 1 and null thread="));
+        assertTrue(messages.get(1).startsWith("Saving pizza thread="));
+    }
+
+
+    @Test
+    @DisplayName("logWithDetail: when the verbosity is detailed then the detail is included")
+    public void logWithDetail_whenVerbosityIsDetailed_thenTheDetailIsIncluded() {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        try (AccessLogger accessLogger = new AccessLogger(AccessLogPolicy.of(1, DETAILED), 16, messages::add)) {
+            accessLogger.logWithDetail("Saving {} {}", "pizza", "body");
+            accessLogger.logWithDetail("Refreshing", "token");
+        }
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(0).startsWith("Saving pizza {} detail=body thread="));
+        assertTrue(messages.get(1).startsWith("Refreshing detail=token thread="));
+    }
+
+
+    @Test
+    @DisplayName("logAccess: when the record is not sampled then only failed requests and the messages are written")
+    public void logAccess_whenRecordIsNotSampled_thenOnlyFailedRequestsAndTheMessagesAreWritten() {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        try (AccessLogger accessLogger = new AccessLogger(AccessLogPolicy.of(0, SUMMARY), 16, messages::add)) {
+            accessLogger.log("Adding user: {} to the blacklist", "user1");
+            accessLogger.logAccess("GET", "/pizza/1", 200, 1_000_000);
+            accessLogger.logAccess("POST", "/pizza", 503, 12_345_678);
+        }
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(0).startsWith("Adding user: user1 to the blacklist thread="));
+        assertTrue(messages.get(1).startsWith("POST /pizza status=503 durationMs=12.345 thread="));
+    }
+
+
+    @Test
+    @DisplayName("logSampled: when the message is not sampled then it is not written")
+    public void logSampled_whenMessageIsNotSampled_thenItIsNotWritten() {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        try (AccessLogger accessLogger = new AccessLogger(AccessLogPolicy.of(0, DETAILED), 16, messages::add)) {
+            accessLogger.logSampled("Searching the pizza with name: {}", "Carbonara");
+            accessLogger.logSampledWithDetail("Extracting authorization information", "token");
+            accessLogger.logWithDetail("Updating the pizza with identifier: {}", 1, "body");
+        }
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).startsWith("Updating the pizza with identifier: 1 detail=body thread="));
+    }
+
+
+    @Test
+    @DisplayName("logSampled: when the message is sampled then it is written")
+    public void logSampled_whenMessageIsSampled_thenItIsWritten() {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        try (AccessLogger accessLogger = new AccessLogger(AccessLogPolicy.of(1, SUMMARY), 16, messages::add)) {
+            accessLogger.logSampled("Returning the page: {} and size: {}", 0, 20);
+        }
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).startsWith("Returning the page: 0 and size: 20 thread="));
+    }
+
+
+    @Test
+    @DisplayName("log: when the writer is waiting for new records then it is woken up by the next one")
+    public void log_whenWriterIsWaitingForNewRecords_thenItIsWokenUpByTheNextOne() throws InterruptedException {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        try (AccessLogger accessLogger = new AccessLogger(AccessLogPolicy.of(1, SUMMARY), 16, messages::add)) {
+            Thread writerThread = getWriterThread();
+            // Without records, the writer waits without timeout instead of checking the buffer periodically
+            waitUntil(() -> Thread.State.WAITING == writerThread.getState());
+
+            accessLogger.log("Message {}", 1);
+            waitUntil(() -> 1 == messages.size());
+
+            waitUntil(() -> Thread.State.WAITING == writerThread.getState());
+            accessLogger.log("Message {}", 2);
+            waitUntil(() -> 2 == messages.size());
+        }
+        assertTrue(messages.get(0).startsWith("Message 1 thread="));
+        assertTrue(messages.get(1).startsWith("Message 2 thread="));
+    }
+
+
+    @Test
+    @DisplayName("logAccess: when the verbosity is none then nothing is written")
+    public void logAccess_whenVerbosityIsNone_thenNothingIsWritten() {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        try (AccessLogger accessLogger = new AccessLogger(AccessLogPolicy.of(1, NONE), 16, messages::add)) {
+            accessLogger.log("Message");
+            accessLogger.logAccess("POST", "/pizza", 500, 1_000);
+        }
+        assertTrue(messages.isEmpty());
+    }
+
+
+    @Test
+    @DisplayName("log: when the buffer is full then the new records are dropped")
+    public void log_whenBufferIsFull_thenNewRecordsAreDropped() throws InterruptedException {
+        List<String> messages = new CopyOnWriteArrayList<>();
+        Object writerLock = new Object();
+        AccessLogger accessLogger;
+        synchronized (writerLock) {
+            accessLogger = new AccessLogger(
+                    AccessLogPolicy.of(1, SUMMARY),
+                    2,
+                    m -> {
+                        synchronized (writerLock) {
+                            messages.add(m);
+                        }
+                    }
+            );
+            // The writer is blocked, so no slot of the buffer is released
+            for (int i = 0; i < 10; i++) {
+                accessLogger.log("Message {}", i);
+            }
+            Thread.sleep(50);
+        }
+        accessLogger.close();
+
+        assertEquals(10, messages.size() + accessLogger.getDroppedRecords());
+        assertTrue(0 < accessLogger.getDroppedRecords());
+    }
+
+
+    private static Thread getWriterThread() {
+        return Thread.getAllStackTraces()
+                .keySet()
+                .stream()
+                .filter(t -> t.getName().equals("access-log-" + AccessLogger.class.getSimpleName()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+
+    private static void waitUntil(final BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(0 < deadline - System.nanoTime(), "The condition was not met on time");
+            Thread.sleep(1);
+        }
+    }
+
+}
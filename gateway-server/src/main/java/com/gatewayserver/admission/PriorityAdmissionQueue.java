@@ -0,0 +1,294 @@
+package com.gatewayserver.admission;
+
+import lombok.Getter;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ *    Limits the number of requests sent at the same time to the downstream services. When that limit has been
+ * reached, the new requests wait in a bounded queue sorted by {@link RequestPriority} and arrival order, so the
+ * highest priority ones are sent first when a request finishes:
+ * <p>
+ *   1. If the queue is full, the lowest priority waiting request is rejected when a higher priority one arrives.
+ *      Otherwise, the new request is rejected.
+ * <p>
+ *   2. A waiting request is never sent after its deadline, it is expired instead.
+ * <p>
+ *    Every {@link Waiter} is notified only once with its {@link Outcome}, always outside the internal lock, so the
+ * listeners can safely invoke this queue again.
+ */
+public class PriorityAdmissionQueue {
+
+    private final int maxConcurrency;
+
+    private final int maxQueueSize;
+
+    private final TreeSet<Waiter> waiters;
+
+    private final int[] numberOfWaitersByPriority;
+
+    private long nextSequence;
+
+    private int inFlight;
+
+
+    /**
+     * Construct a {@link PriorityAdmissionQueue}
+     *
+     * @param maxConcurrency
+     *    Maximum number of requests sent at the same time to the downstream services
+     * @param maxQueueSize
+     *    Maximum number of requests waiting to be sent
+     *
+     * @throws IllegalArgumentException if {@code maxConcurrency} is not greater than 0 or {@code maxQueueSize} is negative
+     */
+    public PriorityAdmissionQueue(final int maxConcurrency,
+                                  final int maxQueueSize) {
+        Assert.isTrue(0 < maxConcurrency, "maxConcurrency must be greater than 0");
+        Assert.isTrue(0 <= maxQueueSize, "maxQueueSize must be equal or greater than 0");
+        this.maxConcurrency = maxConcurrency;
+        this.maxQueueSize = maxQueueSize;
+        this.waiters = new TreeSet<>(
+                Comparator.comparing(Waiter::getPriority)
+                        .thenComparingLong(w -> w.sequence)
+        );
+        this.numberOfWaitersByPriority = new int[RequestPriority.values().length];
+        this.nextSequence = 0;
+        this.inFlight = 0;
+    }
+
+
+    /**
+     * Requests the permission to send a new request to the downstream service.
+     *
+     * @param waiter
+     *    {@link Waiter} with the request information
+     *
+     * @return {@code true} if the {@link Waiter} has to wait for its {@link Outcome}, {@code false} if it has already
+     *         been notified
+     */
+    public boolean submit(final Waiter waiter) {
+        Assert.notNull(waiter, "waiter must be not null");
+        final List<Waiter> resolvedWaiters = new ArrayList<>(2);
+        final boolean isQueued;
+        synchronized (this) {
+            Assert.isTrue(!waiter.isSubmitted, "waiter has already been submitted");
+            waiter.isSubmitted = true;
+            waiter.sequence = nextSequence++;
+            if (inFlight < maxConcurrency && waiters.isEmpty()) {
+                inFlight++;
+                resolve(waiter, Outcome.ADMITTED, resolvedWaiters);
+            }
+            else if (waiters.size() < maxQueueSize) {
+                enqueue(waiter);
+            }
+            else if (!waiters.isEmpty() && waiter.getPriority().isHigherThan(waiters.last().getPriority())) {
+                resolve(dequeue(waiters.last()), Outcome.REJECTED, resolvedWaiters);
+                enqueue(waiter);
+            }
+            else {
+                resolve(waiter, Outcome.REJECTED, resolvedWaiters);
+            }
+            isQueued = null == waiter.outcome;
+        }
+        notify(resolvedWaiters);
+        return isQueued;
+    }
+
+
+    /**
+     *    Releases the permission obtained by the given {@link Waiter}, sending the next waiting requests whose
+     * deadline has not been reached yet. Invoking it several times with the same {@link Waiter} has no effect.
+     *
+     * @param waiter
+     *    {@link Waiter} whose request has finished
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     */
+    public void release(final Waiter waiter,
+                        final long nowInNanoseconds) {
+        final List<Waiter> resolvedWaiters = new ArrayList<>();
+        synchronized (this) {
+            if (Outcome.ADMITTED != waiter.outcome || waiter.isReleased) {
+                return;
+            }
+            waiter.isReleased = true;
+            inFlight--;
+            while (inFlight < maxConcurrency && !waiters.isEmpty()) {
+                final Waiter next = dequeue(waiters.first());
+                if (nowInNanoseconds > next.getDeadlineInNanoseconds()) {
+                    resolve(next, Outcome.EXPIRED, resolvedWaiters);
+                } else {
+                    inFlight++;
+                    resolve(next, Outcome.ADMITTED, resolvedWaiters);
+                }
+            }
+        }
+        notify(resolvedWaiters);
+    }
+
+
+    /**
+     * Expires the given {@link Waiter} if it is still waiting, because its deadline has been reached.
+     *
+     * @param waiter
+     *    {@link Waiter} to expire
+     *
+     * @return {@code true} if the {@link Waiter} was expired, {@code false} if it was not waiting
+     */
+    public boolean expire(final Waiter waiter) {
+        final List<Waiter> resolvedWaiters = new ArrayList<>(1);
+        synchronized (this) {
+            if (!isWaiting(waiter)) {
+                return false;
+            }
+            resolve(dequeue(waiter), Outcome.EXPIRED, resolvedWaiters);
+        }
+        notify(resolvedWaiters);
+        return true;
+    }
+
+
+    /**
+     *    Discards the given {@link Waiter} because its request has been cancelled: it is removed from the queue if it
+     * is still waiting, or its permission released if it was already admitted. Its listener is not notified.
+     *
+     * @param waiter
+     *    {@link Waiter} to discard
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     */
+    public void cancel(final Waiter waiter,
+                       final long nowInNanoseconds) {
+        synchronized (this) {
+            if (isWaiting(waiter)) {
+                dequeue(waiter);
+                waiter.outcome = Outcome.CANCELLED;
+                return;
+            }
+        }
+        release(waiter, nowInNanoseconds);
+    }
+
+
+    /**
+     * Returns the number of requests currently sent to the downstream services.
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+
+    /**
+     * Returns the number of requests with the given {@link RequestPriority} currently waiting.
+     */
+    public synchronized int getQueueSize(final RequestPriority priority) {
+        return numberOfWaitersByPriority[priority.ordinal()];
+    }
+
+
+    private boolean isWaiting(final Waiter waiter) {
+        return waiter.isSubmitted &&
+                null == waiter.outcome;
+    }
+
+
+    private void enqueue(final Waiter waiter) {
+        waiters.add(waiter);
+        numberOfWaitersByPriority[waiter.getPriority().ordinal()]++;
+    }
+
+
+    private Waiter dequeue(final Waiter waiter) {
+        waiters.remove(waiter);
+        numberOfWaitersByPriority[waiter.getPriority().ordinal()]--;
+        return waiter;
+    }
+
+
+    private void resolve(final Waiter waiter,
+                         final Outcome outcome,
+                         final List<Waiter> resolvedWaiters) {
+        waiter.outcome = outcome;
+        resolvedWaiters.add(waiter);
+    }
+
+
+    private void notify(final List<Waiter> resolvedWaiters) {
+        for (Waiter waiter : resolvedWaiters) {
+            waiter.getListener().accept(waiter.outcome);
+        }
+    }
+
+
+    /**
+     * Final result of a {@link Waiter}.
+     */
+    public enum Outcome {
+
+        // The request can be sent to the downstream service
+        ADMITTED,
+
+        // The request was cancelled before being admitted
+        CANCELLED,
+
+        // The deadline of the request was reached while it was waiting
+        EXPIRED,
+
+        // The queue was full and the request had the lowest priority
+        REJECTED
+
+    }
+
+
+    /**
+     * Request waiting for the permission to be sent to the downstream service.
+     */
+    public static class Waiter {
+
+        @Getter
+        private final RequestPriority priority;
+
+        @Getter
+        private final long deadlineInNanoseconds;
+
+        @Getter
+        private final Consumer<Outcome> listener;
+
+        // Managed by PriorityAdmissionQueue, always using its lock
+        private long sequence;
+        private boolean isSubmitted;
+        private boolean isReleased;
+        private Outcome outcome;
+
+
+        /**
+         * Construct a {@link Waiter}
+         *
+         * @param priority
+         *    {@link RequestPriority} of the request
+         * @param deadlineInNanoseconds
+         *    Time in nanoseconds after which the request must not be sent
+         * @param listener
+         *    {@link Consumer} notified with the {@link Outcome} of the request
+         *
+         * @throws IllegalArgumentException if {@code priority} or {@code listener} are {@code null}
+         */
+        public Waiter(final RequestPriority priority,
+                      final long deadlineInNanoseconds,
+                      final Consumer<Outcome> listener) {
+            Assert.notNull(priority, "priority must be not null");
+            Assert.notNull(listener, "listener must be not null");
+            this.priority = priority;
+            this.deadlineInNanoseconds = deadlineInNanoseconds;
+            this.listener = listener;
+        }
+
+    }
+
+}
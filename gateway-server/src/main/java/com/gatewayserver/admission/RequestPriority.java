@@ -0,0 +1,28 @@
+package com.gatewayserver.admission;
+
+/**
+ *    Priorities used to decide which requests are sent first to the downstream services when the gateway is
+ * overloaded, sorted from the highest to the lowest one.
+ */
+public enum RequestPriority {
+
+    CRITICAL,
+    HIGH,
+    NORMAL,
+    LOW;
+
+
+    /**
+     * Checks if the current priority is greater than the given one.
+     *
+     * @param other
+     *    {@link RequestPriority} to compare
+     *
+     * @return {@code true} if the current priority is greater than {@code other}, {@code false} otherwise
+     */
+    public boolean isHigherThan(final RequestPriority other) {
+        return null != other &&
+                ordinal() < other.ordinal();
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.gatewayserver.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Successful response returned by a downstream service, stored to be used when that service is not available.
+ */
+@AllArgsConstructor
+@Getter
+public class StaleResponse {
+
+    private final int httpStatus;
+
+    private final HttpHeaders headers;
+
+    private final byte[] body;
+
+    private final long storedAtInNanoseconds;
+
+    private final long maxStaleInNanoseconds;
+
+
+    /**
+     * Returns the number of seconds since the response was received from the downstream service.
+     *
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return age of the response in seconds
+     */
+    public long getAgeInSeconds(final long nowInNanoseconds) {
+        return TimeUnit.NANOSECONDS.toSeconds(
+                Math.max(0, nowInNanoseconds - storedAtInNanoseconds)
+        );
+    }
+
+
+    /**
+     * Checks if the response is too old to be returned.
+     *
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return {@code true} if the response should not be returned, {@code false} otherwise
+     */
+    public boolean isExpired(final long nowInNanoseconds) {
+        return nowInNanoseconds - storedAtInNanoseconds > maxStaleInNanoseconds;
+    }
+
+
+    /**
+     * Returns the approximate memory size of the response, used to limit the memory of {@link StaleResponseStore}.
+     */
+    public long getSizeInBytes() {
+        return body.length;
+    }
+
+}
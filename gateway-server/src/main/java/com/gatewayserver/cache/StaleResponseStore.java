@@ -0,0 +1,142 @@
+package com.gatewayserver.cache;
+
+import org.springframework.util.Assert;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.ofNullable;
+
+/**
+ *    In memory store of the last successful response of every key. It is bounded both by the number of responses
+ * and their total size, removing the least recently used ones when any limit is exceeded.
+ */
+public class StaleResponseStore {
+
+    private final int maxEntries;
+
+    private final long maxSizeInBytes;
+
+    private final LinkedHashMap<String, StaleResponse> responses;
+
+    private long sizeInBytes;
+
+    private long hits;
+
+    private long misses;
+
+
+    /**
+     * Construct a {@link StaleResponseStore}
+     *
+     * @param maxEntries
+     *    Maximum number of stored responses
+     * @param maxSizeInBytes
+     *    Maximum total size of the stored responses
+     *
+     * @throws IllegalArgumentException if {@code maxEntries} or {@code maxSizeInBytes} are not greater than 0
+     */
+    public StaleResponseStore(final int maxEntries,
+                              final long maxSizeInBytes) {
+        Assert.isTrue(0 < maxEntries, "maxEntries must be greater than 0");
+        Assert.isTrue(0 < maxSizeInBytes, "maxSizeInBytes must be greater than 0");
+        this.maxEntries = maxEntries;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.responses = new LinkedHashMap<>(16, 0.75f, true);
+        this.sizeInBytes = 0;
+    }
+
+
+    /**
+     * Stores the given {@link StaleResponse}, replacing the previous one of {@code key} if exists.
+     *
+     * @param key
+     *    Identifier of the response
+     * @param response
+     *    {@link StaleResponse} to store
+     *
+     * @return {@code true} if {@code response} was stored, {@code false} if it is bigger than the allowed size
+     */
+    public synchronized boolean put(final String key,
+                                    final StaleResponse response) {
+        if (response.getSizeInBytes() > maxSizeInBytes) {
+            return false;
+        }
+        ofNullable(responses.put(key, response))
+                .ifPresent(previous -> sizeInBytes -= previous.getSizeInBytes());
+        sizeInBytes += response.getSizeInBytes();
+
+        Iterator<Map.Entry<String, StaleResponse>> iterator = responses.entrySet().iterator();
+        while ((responses.size() > maxEntries || sizeInBytes > maxSizeInBytes) && iterator.hasNext()) {
+            StaleResponse eldest = iterator.next().getValue();
+            iterator.remove();
+            sizeInBytes -= eldest.getSizeInBytes();
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns the {@link StaleResponse} stored for the given {@code key}, if it has not expired.
+     *
+     * @param key
+     *    Identifier of the response
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return {@link Optional} with the {@link StaleResponse} if exists and it is not expired,
+     *         {@link Optional#empty()} otherwise
+     */
+    public synchronized Optional<StaleResponse> get(final String key,
+                                                    final long nowInNanoseconds) {
+        final StaleResponse response = responses.get(key);
+        if (null == response) {
+            misses++;
+            return empty();
+        }
+        if (response.isExpired(nowInNanoseconds)) {
+            responses.remove(key);
+            sizeInBytes -= response.getSizeInBytes();
+            misses++;
+            return empty();
+        }
+        hits++;
+        return Optional.of(response);
+    }
+
+
+    /**
+     * Returns the number of stored responses.
+     */
+    public synchronized int size() {
+        return responses.size();
+    }
+
+
+    /**
+     * Returns the total size of the stored responses.
+     */
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+
+    /**
+     * Returns how many times a stored response has been returned.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+
+    /**
+     * Returns how many times there was no stored response to return.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.gatewayserver.compression;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encodings the gateway can apply to the responses, in order of preference.
+ */
+@AllArgsConstructor
+@Getter
+public enum ContentEncoding {
+
+    GZIP("gzip");
+
+    private static final String ANY_ENCODING = "*";
+
+    private final String name;
+
+
+    /**
+     * Checks if the client accepts this encoding, according to the {@link HttpHeaders#ACCEPT_ENCODING} of its request.
+     *
+     * @param acceptEncodingHeaders
+     *    Values of the {@link HttpHeaders#ACCEPT_ENCODING} header
+     *
+     * @return {@code true} if the encoding is included with a quality greater than 0, {@code false} otherwise
+     */
+    public boolean isAcceptedBy(final List<String> acceptEncodingHeaders) {
+        if (null == acceptEncodingHeaders) {
+            return false;
+        }
+        Boolean anyAccepted = null;
+        for (String header : acceptEncodingHeaders) {
+            for (String value : header.split(",")) {
+                final String[] parts = value.split(";");
+                final String encoding = parts[0].trim().toLowerCase(Locale.ROOT);
+                final boolean accepted = 0 < getQuality(parts);
+                if (name.equals(encoding)) {
+                    return accepted;
+                }
+                if (ANY_ENCODING.equals(encoding)) {
+                    anyAccepted = accepted;
+                }
+            }
+        }
+        return Boolean.TRUE.equals(anyAccepted);
+    }
+
+
+    private static double getQuality(final String[] encodingParts) {
+        for (int i = 1; i < encodingParts.length; i++) {
+            final String parameter = encodingParts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.gatewayserver.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ *    Compresses a body in gzip format chunk by chunk, so it is not required to have all of it in memory. Its
+ * {@link Deflater} keeps native memory, so the instances are reused by {@link GzipCompressorPool} instead of creating
+ * one for every response.
+ */
+public class GzipCompressor {
+
+    // Magic number, deflate method, no flags, no modification time, no extra flags and unknown operating system
+    private static final byte[] HEADER = {
+            (byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private static final int TRAILER_SIZE = 8;
+
+    private final Deflater deflater;
+
+    private final CRC32 crc;
+
+    private final byte[] output;
+
+    private boolean headerWritten;
+
+    private long compressionTimeInNanoseconds;
+
+
+    /**
+     * Construct a {@link GzipCompressor}
+     *
+     * @param level
+     *    Compression level, from 1 (fastest) to 9 (smallest)
+     * @param outputBufferSize
+     *    Size of the buffer used to get the compressed content from {@link Deflater}
+     */
+    public GzipCompressor(final int level,
+                          final int outputBufferSize) {
+        this.deflater = new Deflater(level, true);
+        this.crc = new CRC32();
+        this.output = new byte[outputBufferSize];
+        reset();
+    }
+
+
+    /**
+     * Compresses the given chunk of the body, releasing it.
+     *
+     * @param chunk
+     *    {@link DataBuffer} with the next part of the body
+     * @param bufferFactory
+     *    {@link DataBufferFactory} used to create the returned {@link DataBuffer}
+     *
+     * @return {@link DataBuffer} with the compressed content available, empty if {@link Deflater} needs more input
+     */
+    public DataBuffer compress(final DataBuffer chunk,
+                               final DataBufferFactory bufferFactory) {
+        final long start = System.nanoTime();
+        try {
+            final DataBuffer result = bufferFactory.allocateBuffer(output.length);
+            writeHeaderIfRequired(result);
+            final ByteBuffer input = chunk.asByteBuffer();
+            crc.update(input.duplicate());
+            deflater.setInput(input);
+            while (!deflater.needsInput()) {
+                write(result);
+            }
+            return result;
+        } finally {
+            DataBufferUtils.release(chunk);
+            compressionTimeInNanoseconds += System.nanoTime() - start;
+        }
+    }
+
+
+    /**
+     * Returns the content pending to write once all the body has been compressed, including the gzip trailer.
+     *
+     * @param bufferFactory
+     *    {@link DataBufferFactory} used to create the returned {@link DataBuffer}
+     *
+     * @return {@link DataBuffer} with the last part of the compressed body
+     */
+    public DataBuffer finish(final DataBufferFactory bufferFactory) {
+        final long start = System.nanoTime();
+        try {
+            final DataBuffer result = bufferFactory.allocateBuffer(output.length);
+            writeHeaderIfRequired(result);
+            deflater.finish();
+            while (!deflater.finished()) {
+                write(result);
+            }
+            final byte[] trailer = new byte[TRAILER_SIZE];
+            writeLittleEndian(trailer, 0, crc.getValue());
+            writeLittleEndian(trailer, 4, deflater.getBytesRead());
+            result.write(trailer);
+            return result;
+        } finally {
+            compressionTimeInNanoseconds += System.nanoTime() - start;
+        }
+    }
+
+
+    /**
+     * Returns the number of uncompressed bytes received.
+     */
+    public long getBytesRead() {
+        return deflater.getBytesRead();
+    }
+
+
+    /**
+     * Returns the number of compressed bytes returned, including the gzip header and trailer.
+     */
+    public long getBytesWritten() {
+        return deflater.getBytesWritten() +
+                (headerWritten ? HEADER.length : 0) +
+                (deflater.finished() ? TRAILER_SIZE : 0);
+    }
+
+
+    /**
+     * Returns the time spent compressing the body.
+     */
+    public long getCompressionTimeInNanoseconds() {
+        return compressionTimeInNanoseconds;
+    }
+
+
+    /**
+     * Prepares this {@link GzipCompressor} to compress a new body.
+     */
+    public void reset() {
+        deflater.reset();
+        crc.reset();
+        headerWritten = false;
+        compressionTimeInNanoseconds = 0;
+    }
+
+
+    /**
+     * Releases the native memory used by this {@link GzipCompressor}, so it cannot be used anymore.
+     */
+    public void end() {
+        deflater.end();
+    }
+
+
+    private void writeHeaderIfRequired(final DataBuffer result) {
+        if (!headerWritten) {
+            result.write(HEADER);
+            headerWritten = true;
+        }
+    }
+
+
+    private void write(final DataBuffer result) {
+        final int length = deflater.deflate(output);
+        if (0 < length) {
+            result.write(output, 0, length);
+        }
+    }
+
+
+    private static void writeLittleEndian(final byte[] destination,
+                                          final int offset,
+                                          final long value) {
+        for (int i = 0; i < 4; i++) {
+            destination[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+}
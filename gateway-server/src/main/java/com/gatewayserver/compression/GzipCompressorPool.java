@@ -0,0 +1,99 @@
+package com.gatewayserver.compression;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *    Bounded pool of {@link GzipCompressor}s shared by all the routes. When it is empty a new {@link GzipCompressor}
+ * is created, and when it is full the returned ones are discarded releasing their native memory.
+ */
+public class GzipCompressorPool {
+
+    private final int level;
+
+    private final int outputBufferSize;
+
+    private final ArrayBlockingQueue<GzipCompressor> compressors;
+
+    private final AtomicLong created;
+
+
+    /**
+     * Construct a {@link GzipCompressorPool}
+     *
+     * @param level
+     *    Compression level, from 1 (fastest) to 9 (smallest)
+     * @param outputBufferSize
+     *    Size of the buffer used by every {@link GzipCompressor}
+     * @param maxSize
+     *    Maximum number of idle {@link GzipCompressor}s kept
+     *
+     * @throws IllegalArgumentException if {@code level} is not between 1 and 9, or {@code outputBufferSize} or
+     *                                  {@code maxSize} are not greater than 0
+     */
+    public GzipCompressorPool(final int level,
+                              final int outputBufferSize,
+                              final int maxSize) {
+        Assert.isTrue(1 <= level && 9 >= level, "level must be between 1 and 9");
+        Assert.isTrue(0 < outputBufferSize, "outputBufferSize must be greater than 0");
+        Assert.isTrue(0 < maxSize, "maxSize must be greater than 0");
+        this.level = level;
+        this.outputBufferSize = outputBufferSize;
+        this.compressors = new ArrayBlockingQueue<>(maxSize);
+        this.created = new AtomicLong(0);
+    }
+
+
+    /**
+     * Returns an idle {@link GzipCompressor}, or a new one if there is none.
+     *
+     * @return {@link GzipCompressor} ready to compress a new body
+     */
+    public GzipCompressor borrow() {
+        final GzipCompressor compressor = compressors.poll();
+        if (null != compressor) {
+            return compressor;
+        }
+        created.incrementAndGet();
+        return new GzipCompressor(
+                level,
+                outputBufferSize
+        );
+    }
+
+
+    /**
+     * Returns to the pool the given {@link GzipCompressor}, that must not be used anymore by the caller.
+     *
+     * @param compressor
+     *    {@link GzipCompressor} to return
+     */
+    public void release(final GzipCompressor compressor) {
+        if (null == compressor) {
+            return;
+        }
+        compressor.reset();
+        if (!compressors.offer(compressor)) {
+            compressor.end();
+        }
+    }
+
+
+    /**
+     * Returns the number of idle {@link GzipCompressor}s.
+     */
+    public int getIdle() {
+        return compressors.size();
+    }
+
+
+    /**
+     * Returns the number of {@link GzipCompressor}s created because the pool was empty.
+     */
+    public long getCreated() {
+        return created.get();
+    }
+
+}
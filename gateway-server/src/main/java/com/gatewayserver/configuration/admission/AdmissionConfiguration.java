@@ -0,0 +1,83 @@
+package com.gatewayserver.configuration.admission;
+
+import com.gatewayserver.admission.PriorityAdmissionQueue;
+import com.gatewayserver.admission.RequestPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the {@link PriorityAdmissionQueue} used by the {@code PriorityAdmission} filters of the routes.
+ */
+@Configuration
+@Getter
+public class AdmissionConfiguration {
+
+    @Value("${admission.maxConcurrency:512}")
+    private int maxConcurrency;
+
+    @Value("${admission.maxQueueSize:1024}")
+    private int maxQueueSize;
+
+    @Value("${admission.maxQueueTimeInMilliseconds.critical:2000}")
+    private long criticalMaxQueueTimeInMilliseconds;
+
+    @Value("${admission.maxQueueTimeInMilliseconds.high:1000}")
+    private long highMaxQueueTimeInMilliseconds;
+
+    @Value("${admission.maxQueueTimeInMilliseconds.normal:500}")
+    private long normalMaxQueueTimeInMilliseconds;
+
+    @Value("${admission.maxQueueTimeInMilliseconds.low:200}")
+    private long lowMaxQueueTimeInMilliseconds;
+
+
+    /**
+     * {@link PriorityAdmissionQueue} shared by all the routes, because the overload is suffered by the whole gateway.
+     *
+     * @return {@link PriorityAdmissionQueue}
+     */
+    @Bean
+    public PriorityAdmissionQueue priorityAdmissionQueue(final MeterRegistry meterRegistry) {
+        PriorityAdmissionQueue admissionQueue = new PriorityAdmissionQueue(
+                maxConcurrency,
+                maxQueueSize
+        );
+        Gauge.builder("gateway.admission.inflight", admissionQueue, PriorityAdmissionQueue::getInFlight)
+                .description("Number of admitted requests currently sent to the downstream services")
+                .register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            Gauge.builder("gateway.admission.queued", admissionQueue, q -> q.getQueueSize(priority))
+                    .description("Number of requests waiting to be sent to the downstream services")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+        return admissionQueue;
+    }
+
+
+    /**
+     * Returns the maximum time a request with the given {@link RequestPriority} can wait to be sent.
+     *
+     * @param priority
+     *    {@link RequestPriority} of the request
+     *
+     * @return maximum time to wait in milliseconds
+     */
+    public long getMaxQueueTimeInMilliseconds(final RequestPriority priority) {
+        switch (priority) {
+            case CRITICAL:
+                return criticalMaxQueueTimeInMilliseconds;
+            case HIGH:
+                return highMaxQueueTimeInMilliseconds;
+            case NORMAL:
+                return normalMaxQueueTimeInMilliseconds;
+            default:
+                return lowMaxQueueTimeInMilliseconds;
+        }
+    }
+
+}
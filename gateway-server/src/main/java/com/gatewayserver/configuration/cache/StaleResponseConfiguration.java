@@ -0,0 +1,45 @@
+package com.gatewayserver.configuration.cache;
+
+import com.gatewayserver.cache.StaleResponseStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the responses stored to be returned when a downstream service is not available.
+ */
+@Configuration
+@Getter
+public class StaleResponseConfiguration {
+
+    @Value("${staleIfError.maxEntries:1000}")
+    private int maxEntries;
+
+    @Value("${staleIfError.maxSizeInBytes:10485760}")
+    private long maxSizeInBytes;
+
+
+    @Bean
+    public StaleResponseStore staleResponseStore(final MeterRegistry meterRegistry) {
+        StaleResponseStore store = new StaleResponseStore(
+                maxEntries,
+                maxSizeInBytes
+        );
+        Gauge.builder("gateway.stale.entries", store, StaleResponseStore::size)
+                .description("Number of stored responses to use when a service is not available")
+                .register(meterRegistry);
+        Gauge.builder("gateway.stale.bytes", store, StaleResponseStore::getSizeInBytes)
+                .description("Total size of the stored responses to use when a service is not available")
+                .register(meterRegistry);
+        meterRegistry.more()
+                .counter("gateway.stale.hits", Tags.empty(), store, StaleResponseStore::getHits);
+        meterRegistry.more()
+                .counter("gateway.stale.misses", Tags.empty(), store, StaleResponseStore::getMisses);
+        return store;
+    }
+
+}
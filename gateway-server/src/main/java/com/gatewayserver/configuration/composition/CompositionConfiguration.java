@@ -0,0 +1,40 @@
+package com.gatewayserver.configuration.composition;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Configuration of the endpoints that compose the responses of several microservices.
+ */
+@Configuration
+@Getter
+public class CompositionConfiguration {
+
+    @Value("${composition.orderService.uri:http://order-service}")
+    private String orderServiceUri;
+
+    @Value("${composition.order.timeoutInMilliseconds:2000}")
+    private long orderTimeoutInMilliseconds;
+
+    @Value("${composition.ingredientSummary.timeoutInMilliseconds:1000}")
+    private long ingredientSummaryTimeoutInMilliseconds;
+
+
+    /**
+     * {@link WebClient} used to invoke the microservices, resolving their instances with the load balancer.
+     *
+     * @return {@link WebClient}
+     */
+    @Bean
+    public WebClient compositionWebClient(final WebClient.Builder webClientBuilder,
+                                          final ReactorLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction) {
+        return webClientBuilder
+                .filter(loadBalancerExchangeFilterFunction)
+                .build();
+    }
+
+}
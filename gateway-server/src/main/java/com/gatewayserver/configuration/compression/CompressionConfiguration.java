@@ -0,0 +1,49 @@
+package com.gatewayserver.configuration.compression;
+
+import com.gatewayserver.compression.GzipCompressorPool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the responses compressed by the {@code Compression} filters of the routes.
+ */
+@Configuration
+@Getter
+public class CompressionConfiguration {
+
+    @Value("${compression.level:6}")
+    private int level;
+
+    @Value("${compression.bufferSizeInBytes:8192}")
+    private int bufferSizeInBytes;
+
+    @Value("${compression.pool.maxSize:64}")
+    private int poolMaxSize;
+
+
+    /**
+     * {@link GzipCompressorPool} shared by all the routes.
+     *
+     * @return {@link GzipCompressorPool}
+     */
+    @Bean
+    public GzipCompressorPool gzipCompressorPool(final MeterRegistry meterRegistry) {
+        GzipCompressorPool pool = new GzipCompressorPool(
+                level,
+                bufferSizeInBytes,
+                poolMaxSize
+        );
+        Gauge.builder("gateway.compression.pool.idle", pool, GzipCompressorPool::getIdle)
+                .description("Number of compressors ready to be used")
+                .register(meterRegistry);
+        meterRegistry.more()
+                .counter("gateway.compression.pool.created", Tags.empty(), pool, GzipCompressorPool::getCreated);
+        return pool;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.gatewayserver.configuration.hedge;
+
+import com.gatewayserver.hedge.HedgeBudget;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the hedged requests sent by the {@code Hedge} filters of the routes.
+ */
+@Configuration
+@Getter
+public class HedgeConfiguration {
+
+    @Value("${hedging.budget.percentage:5}")
+    private double budgetPercentage;
+
+    @Value("${hedging.budget.maxTokens:10}")
+    private int budgetMaxTokens;
+
+
+    /**
+     * {@link HedgeBudget} shared by all the routes.
+     *
+     * @return {@link HedgeBudget}
+     */
+    @Bean
+    public HedgeBudget hedgeBudget(final MeterRegistry meterRegistry) {
+        HedgeBudget hedgeBudget = new HedgeBudget(
+                budgetPercentage,
+                budgetMaxTokens
+        );
+        Gauge.builder("gateway.hedge.budget", hedgeBudget, HedgeBudget::getBalance)
+                .description("Number of hedged requests that can be sent now")
+                .register(meterRegistry);
+        return hedgeBudget;
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.gatewayserver.configuration.httpclient;
+
+import com.gatewayserver.filter.RoutePoolNettyRoutingFilter;
+import com.gatewayserver.httpclient.RouteHttpClientRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ *    Configuration of the {@link HttpClient}s used by the routes with their own protocol or connection pool settings
+ * (see {@link com.gatewayserver.httpclient.RoutePoolSettings}).
+ */
+@Configuration
+@Getter
+public class RouteHttpClientConfiguration {
+
+    @Value("${connectionPool.warmUp.timeoutInMilliseconds:5000}")
+    private long warmUpTimeoutInMilliseconds;
+
+
+    /**
+     * {@link RouteHttpClientRegistry} with the {@link HttpClient} of every route with its own settings.
+     *
+     * @return {@link RouteHttpClientRegistry}
+     */
+    @Bean
+    public RouteHttpClientRegistry routeHttpClientRegistry(final HttpClientProperties properties,
+                                                           final ServerProperties serverProperties,
+                                                           final HttpClientSslConfigurer sslConfigurer,
+                                                           final ObjectProvider<HttpClientCustomizer> customizers,
+                                                           final MeterRegistry meterRegistry) {
+        return new RouteHttpClientRegistry(
+                properties,
+                serverProperties,
+                sslConfigurer,
+                customizers.orderedStream()
+                        .collect(toList()),
+                meterRegistry
+        );
+    }
+
+
+    /**
+     *    Spring Cloud Gateway does not allow to replace its {@link NettyRoutingFilter}, so it is replaced here by
+     * {@link RoutePoolNettyRoutingFilter} once it has been created.
+     *
+     * @return {@link BeanPostProcessor}
+     */
+    @Bean
+    public static BeanPostProcessor routePoolNettyRoutingFilterPostProcessor(final ObjectProvider<HttpClient> httpClient,
+                                                                             final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                                                             final ObjectProvider<HttpClientProperties> properties,
+                                                                             final ObjectProvider<RouteHttpClientRegistry> routeHttpClientRegistry) {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessAfterInitialization(final Object bean,
+                                                         final String beanName) {
+                if (NettyRoutingFilter.class != bean.getClass()) {
+                    return bean;
+                }
+                return new RoutePoolNettyRoutingFilter(
+                        httpClient.getObject(),
+                        headersFiltersProvider,
+                        properties.getObject(),
+                        routeHttpClientRegistry.getObject()
+                );
+            }
+        };
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.gatewayserver.configuration.idempotency;
+
+import com.gatewayserver.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the responses stored to be returned to the retries of the requests with an idempotency key.
+ */
+@Configuration
+@Getter
+public class IdempotencyConfiguration {
+
+    @Value("${idempotency.maxEntries:10000}")
+    private int maxEntries;
+
+    @Value("${idempotency.maxSizeInBytes:10485760}")
+    private long maxSizeInBytes;
+
+
+    @Bean
+    public IdempotencyStore idempotencyStore(final MeterRegistry meterRegistry) {
+        IdempotencyStore store = new IdempotencyStore(
+                maxEntries,
+                maxSizeInBytes
+        );
+        Gauge.builder("gateway.idempotency.entries", store, IdempotencyStore::size)
+                .description("Number of idempotency keys in progress or with a stored response")
+                .register(meterRegistry);
+        Gauge.builder("gateway.idempotency.bytes", store, IdempotencyStore::getSizeInBytes)
+                .description("Total size of the responses stored for the idempotency keys")
+                .register(meterRegistry);
+        meterRegistry.more()
+                .counter("gateway.idempotency.replays", Tags.empty(), store, IdempotencyStore::getReplays);
+        return store;
+    }
+
+}
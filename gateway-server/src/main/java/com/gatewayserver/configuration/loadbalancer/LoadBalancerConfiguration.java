@@ -0,0 +1,75 @@
+package com.gatewayserver.configuration.loadbalancer;
+
+import com.gatewayserver.filter.LoadBalancerStatisticsFilter;
+import com.gatewayserver.loadbalancer.BoundedLoadRendezvousHashing;
+import com.gatewayserver.loadbalancer.InstanceStatisticsRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *    Replaces the default round robin load balancer of the services by {@link PeakEwmaLoadBalancerClientConfiguration},
+ * that sends the requests to the instances with the lowest latency. It can be disabled with the property
+ * {@code loadBalancer.peakEwma.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(value = "loadBalancer.peakEwma.enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerClientConfiguration.class)
+@Getter
+public class LoadBalancerConfiguration {
+
+    @Value("${loadBalancer.peakEwma.decayTimeInMilliseconds:10000}")
+    private long decayTimeInMilliseconds;
+
+    @Value("${loadBalancer.peakEwma.failurePenaltyInMilliseconds:1000}")
+    private long failurePenaltyInMilliseconds;
+
+    @Value("${loadBalancer.consistentHash.loadFactor:1.25}")
+    private double consistentHashLoadFactor;
+
+
+    @Bean
+    public InstanceStatisticsRegistry instanceStatisticsRegistry(final MeterRegistry meterRegistry) {
+        InstanceStatisticsRegistry statisticsRegistry = new InstanceStatisticsRegistry(
+                TimeUnit.MILLISECONDS.toNanos(decayTimeInMilliseconds)
+        );
+        Gauge.builder("gateway.loadbalancer.instances", statisticsRegistry, InstanceStatisticsRegistry::size)
+                .description("Number of service instances with latency statistics")
+                .register(meterRegistry);
+        return statisticsRegistry;
+    }
+
+
+    /**
+     *    {@link BoundedLoadRendezvousHashing} used to choose the instance of the requests of the routes with the filter
+     * {@link com.gatewayserver.filter.factory.ConsistentHashGatewayFilterFactory}.
+     *
+     * @return {@link BoundedLoadRendezvousHashing}
+     */
+    @Bean
+    public BoundedLoadRendezvousHashing boundedLoadRendezvousHashing(final MeterRegistry meterRegistry) {
+        BoundedLoadRendezvousHashing rendezvousHashing = new BoundedLoadRendezvousHashing(consistentHashLoadFactor);
+        FunctionCounter.builder("gateway.loadbalancer.hash.spillover", rendezvousHashing, BoundedLoadRendezvousHashing::getSpillovers)
+                .description("Number of requests sent to another instance because the one of their key was overloaded")
+                .register(meterRegistry);
+        return rendezvousHashing;
+    }
+
+
+    @Bean
+    public LoadBalancerStatisticsFilter loadBalancerStatisticsFilter(final InstanceStatisticsRegistry instanceStatisticsRegistry) {
+        return new LoadBalancerStatisticsFilter(
+                instanceStatisticsRegistry,
+                TimeUnit.MILLISECONDS.toNanos(failurePenaltyInMilliseconds)
+        );
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.gatewayserver.configuration.loadbalancer;
+
+import com.gatewayserver.loadbalancer.BoundedLoadRendezvousHashing;
+import com.gatewayserver.loadbalancer.InstanceStatisticsRegistry;
+import com.gatewayserver.loadbalancer.PeakEwmaLoadBalancer;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ *    Load balancer configuration used in the child context created for every service. It must not be annotated with
+ * {@link org.springframework.context.annotation.Configuration}, otherwise it would be shared by all of them.
+ */
+public class PeakEwmaLoadBalancerClientConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(final Environment environment,
+                                                                                   final LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                                   final InstanceStatisticsRegistry instanceStatisticsRegistry,
+                                                                                   final BoundedLoadRendezvousHashing boundedLoadRendezvousHashing) {
+        final String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId,
+                instanceStatisticsRegistry,
+                boundedLoadRendezvousHashing
+        );
+    }
+
+}
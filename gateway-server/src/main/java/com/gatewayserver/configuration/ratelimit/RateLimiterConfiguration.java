@@ -0,0 +1,60 @@
+package com.gatewayserver.configuration.ratelimit;
+
+import com.gatewayserver.limiter.LocalRateLimiter;
+import com.gatewayserver.limiter.PrincipalKeyResolver;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Configuration of the rate limiters that can be used in the routes of the gateway.
+ */
+@Configuration
+@Getter
+public class RateLimiterConfiguration {
+
+    @Value("${rateLimiter.local.numberOfStripes:64}")
+    private int localNumberOfStripes;
+
+    @Value("${rateLimiter.local.idleTimeInSeconds:300}")
+    private long localIdleTimeInSeconds;
+
+
+    /**
+     * In memory {@link LocalRateLimiter}, used by default in the {@code RequestRateLimiter} filters.
+     *
+     * @return {@link LocalRateLimiter}
+     */
+    @Bean
+    @Primary
+    public LocalRateLimiter localRateLimiter(final ConfigurationService configurationService,
+                                             final MeterRegistry meterRegistry) {
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(
+                configurationService,
+                localNumberOfStripes,
+                localIdleTimeInSeconds
+        );
+        Gauge.builder("gateway.ratelimiter.buckets", rateLimiter, LocalRateLimiter::getNumberOfBuckets)
+                .description("Number of token buckets stored by the local rate limiter")
+                .register(meterRegistry);
+        return rateLimiter;
+    }
+
+
+    /**
+     * {@link PrincipalKeyResolver} used by default in the {@code RequestRateLimiter} filters.
+     *
+     * @return {@link PrincipalKeyResolver}
+     */
+    @Bean
+    @Primary
+    public PrincipalKeyResolver principalKeyResolver() {
+        return new PrincipalKeyResolver();
+    }
+
+}
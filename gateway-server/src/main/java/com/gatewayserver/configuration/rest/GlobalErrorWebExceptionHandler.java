@@ -1,22 +1,18 @@
 package com.gatewayserver.configuration.rest;
 
-import com.spring5microservices.common.dto.ErrorResponseDto;
+import com.gatewayserver.util.ResponseUtil;
 import com.spring5microservices.common.enums.RestApiErrorCode;
-import com.spring5microservices.common.util.JsonUtil;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static com.spring5microservices.common.enums.RestApiErrorCode.INTERNAL;
@@ -149,25 +145,12 @@ public class GlobalErrorWebExceptionHandler {
                                           final List<String> errorMessages,
                                           final ServerWebExchange exchange,
                                           final HttpStatus httpStatus) {
-        exchange.getResponse()
-                .setRawStatusCode(httpStatus.value());
-        exchange.getResponse()
-                .getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        ErrorResponseDto error = new ErrorResponseDto(errorCode, errorMessages);
-        byte[] responseMessageBytes = JsonUtil
-                .toJson(error)
-                .orElse("")
-                .getBytes(StandardCharsets.UTF_8);
-
-        DataBuffer bufferResponseMessage = exchange.getResponse()
-                .bufferFactory()
-                .wrap(responseMessageBytes);
-
-        return exchange.getResponse()
-                .writeWith(
-                        Mono.just(bufferResponseMessage)
-                );
+        return ResponseUtil.writeErrorResponse(
+                exchange,
+                errorCode,
+                errorMessages,
+                httpStatus
+        );
     }
 
 }
\ No newline at end of file
@@ -13,4 +13,9 @@ public final class RestRoutes {
         public static final String SECURITY_OAUTH_SERVICE = "/security-oauth-service/redirect";
     }
 
+    public static final class COMPOSITION {
+        public static final String ROOT = "/composition";
+        public static final String ORDER_WITH_INGREDIENT_SUMMARY = "/order/{orderId}/withIngredientSummary";
+    }
+
 }
@@ -0,0 +1,74 @@
+package com.gatewayserver.configuration.security;
+
+import com.gatewayserver.filter.PrincipalWebFilter;
+import com.gatewayserver.security.PrincipalVerifier;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *    Configuration of the verification of the access tokens, used to identify the principal of the requests. It is
+ * only enabled if the web service of the security server that returns the information of an access token is configured.
+ */
+@Configuration
+@ConditionalOnProperty(name = "security.restApi.authenticationInformation")
+@Getter
+public class PrincipalConfiguration {
+
+    @Value("${security.restApi.authenticationInformation}")
+    private String authenticationInformationWebService;
+
+    @Value("${security.restApi.clientId}")
+    private String clientId;
+
+    @Value("${security.restApi.clientPassword}")
+    private String clientPassword;
+
+    @Value("${security.principal.timeoutInMilliseconds:500}")
+    private long timeoutInMilliseconds;
+
+    @Value("${security.principal.maxEntries:10000}")
+    private int maxEntries;
+
+    // Time a verified token is used without asking the security server again
+    @Value("${security.principal.ttlInSeconds:60}")
+    private long ttlInSeconds;
+
+
+    @Bean
+    public PrincipalVerifier principalVerifier(final WebClient.Builder webClientBuilder,
+                                               final ReactorLoadBalancerExchangeFilterFunction loadBalancerExchangeFilterFunction,
+                                               final MeterRegistry meterRegistry) {
+        PrincipalVerifier verifier = new PrincipalVerifier(
+                webClientBuilder.clone()
+                        .filter(loadBalancerExchangeFilterFunction)
+                        .build(),
+                authenticationInformationWebService,
+                clientId,
+                clientPassword,
+                Duration.ofMillis(timeoutInMilliseconds),
+                maxEntries,
+                TimeUnit.SECONDS.toNanos(ttlInSeconds)
+        );
+        Gauge.builder("gateway.principal.verifiedTokens", verifier, PrincipalVerifier::size)
+                .description("Number of verified access tokens kept in memory")
+                .register(meterRegistry);
+        return verifier;
+    }
+
+
+    @Bean
+    public PrincipalWebFilter principalWebFilter(final PrincipalVerifier principalVerifier) {
+        return new PrincipalWebFilter(principalVerifier);
+    }
+
+}
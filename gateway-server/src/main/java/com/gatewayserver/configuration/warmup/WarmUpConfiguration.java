@@ -0,0 +1,62 @@
+package com.gatewayserver.configuration.warmup;
+
+import com.gatewayserver.httpclient.RoutePoolWarmUpRunner;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ *    Configuration of the warm-up executed when the gateway starts (see {@link RoutePoolWarmUpRunner}), before
+ * reporting it is ready to receive requests.
+ */
+@Configuration
+@Getter
+public class WarmUpConfiguration {
+
+    @Value("${warmUp.enabled:true}")
+    private boolean enabled;
+
+    // Maximum time of the whole warm-up, after which the gateway is reported as ready anyway
+    @Value("${warmUp.timeoutInMilliseconds:60000}")
+    private long timeoutInMilliseconds;
+
+    // Used by the routes without their own connection pool
+    @Value("${warmUp.connectionsPerInstance:1}")
+    private int connectionsPerInstance;
+
+    @Value("${warmUp.path:/actuator/health}")
+    private String path;
+
+    // Paths of the gateway requested with GET once the connections have been opened
+    @Value("${warmUp.syntheticRequests.paths:}")
+    private List<String> syntheticRequestPaths;
+
+    @Value("${warmUp.syntheticRequests.iterations:1}")
+    private int syntheticRequestIterations;
+
+
+    /**
+     *    Reports the gateway {@link org.springframework.boot.actuate.health.Status#OUT_OF_SERVICE} while the warm-up
+     * is in progress, so it does not receive requests until then.
+     *
+     * @return {@link HealthIndicator}
+     */
+    @Bean
+    public HealthIndicator warmUpHealthIndicator(final RoutePoolWarmUpRunner routePoolWarmUpRunner) {
+        return () -> {
+            final Health.Builder builder = routePoolWarmUpRunner.isFinished()
+                    ? Health.up()
+                    : Health.outOfService();
+            return builder
+                    .withDetail("successfulRequests", routePoolWarmUpRunner.getSuccessfulRequests())
+                    .withDetail("durationInMilliseconds", routePoolWarmUpRunner.getDurationInMilliseconds())
+                    .build();
+        };
+    }
+
+}
@@ -1,23 +1,32 @@
 package com.gatewayserver.controller;
 
+import com.gatewayserver.cache.StaleResponse;
+import com.gatewayserver.cache.StaleResponseStore;
 import com.gatewayserver.configuration.rest.RestRoutes;
+import com.gatewayserver.filter.factory.StaleIfErrorGatewayFilterFactory;
 import com.spring5microservices.common.dto.ErrorResponseDto;
 import com.spring5microservices.common.enums.RestApiErrorCode;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.spring5microservices.common.enums.RestApiErrorCode.INTERNAL;
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
 import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 /**
- * Rest services to work with problems in accessible microservices
+ *    Rest services to work with problems in accessible microservices. If the route uses the {@code StaleIfError}
+ * filter, the last successful response of the request is returned instead of an error.
  */
 @AllArgsConstructor
 @Log4j2
@@ -25,62 +34,111 @@ import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 @RequestMapping(RestRoutes.CIRCUIT_BREAKER.ROOT)
 public class CircuitBreakerController {
 
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private final StaleResponseStore staleResponseStore;
+
+
     @RequestMapping(RestRoutes.CIRCUIT_BREAKER.ORDER_SERVICE)
-    public Mono<ResponseEntity<ErrorResponseDto>> orderServiceFailureRedirect() {
-        String errorMessage = "Sorry, orders service is down at this moment. Please try again later";
-        log.error(errorMessage);
-        return Mono.just(
-                buildErrorResponse(
-                      INTERNAL,
-                      errorMessage,
-                      SERVICE_UNAVAILABLE
-                )
+    public Mono<ResponseEntity<?>> orderServiceFailureRedirect(final ServerWebExchange exchange) {
+        return buildFallbackResponse(
+                exchange,
+                "Sorry, orders service is down at this moment. Please try again later"
         );
     }
 
 
     @RequestMapping(RestRoutes.CIRCUIT_BREAKER.PIZZA_SERVICE)
-    public Mono<ResponseEntity<ErrorResponseDto>> pizzaServiceFailureRedirect() {
-        String errorMessage = "Sorry, pizza service is down at this moment. Please try again later";
-        log.error(errorMessage);
-        return Mono.just(
-                buildErrorResponse(
-                        INTERNAL,
-                        errorMessage,
-                        SERVICE_UNAVAILABLE
-                )
+    public Mono<ResponseEntity<?>> pizzaServiceFailureRedirect(final ServerWebExchange exchange) {
+        return buildFallbackResponse(
+                exchange,
+                "Sorry, pizza service is down at this moment. Please try again later"
         );
     }
 
 
     @RequestMapping(RestRoutes.CIRCUIT_BREAKER.SECURITY_SERVICE)
-    public Mono<ResponseEntity<ErrorResponseDto>> securityServiceFailureRedirect() {
-        String errorMessage = "Sorry, security service is down at this moment. Please try again later";
-        log.error(errorMessage);
-        return Mono.just(
-                buildErrorResponse(
-                        INTERNAL,
-                        errorMessage,
-                        SERVICE_UNAVAILABLE
-                )
+    public Mono<ResponseEntity<?>> securityServiceFailureRedirect(final ServerWebExchange exchange) {
+        return buildFallbackResponse(
+                exchange,
+                "Sorry, security service is down at this moment. Please try again later"
         );
     }
 
 
     @RequestMapping(RestRoutes.CIRCUIT_BREAKER.SECURITY_OAUTH_SERVICE)
-    public Mono<ResponseEntity<ErrorResponseDto>> securityOauthServiceFailureRedirect() {
-        String errorMessage = "Sorry, security Oauth service is down at this moment. Please try again later";
-        log.error(errorMessage);
+    public Mono<ResponseEntity<?>> securityOauthServiceFailureRedirect(final ServerWebExchange exchange) {
+        return buildFallbackResponse(
+                exchange,
+                "Sorry, security Oauth service is down at this moment. Please try again later"
+        );
+    }
+
+
+    /**
+     *    Returns the last successful response stored for the current request if exists, otherwise an error response
+     * with the given {@code errorMessage}.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param errorMessage
+     *    {@link String} of error message to include
+     *
+     * @return {@link Mono} with the suitable {@link ResponseEntity}
+     */
+    private Mono<ResponseEntity<?>> buildFallbackResponse(final ServerWebExchange exchange,
+                                                          final String errorMessage) {
+        final long nowInNanoseconds = System.nanoTime();
+        final Optional<String> key = ofNullable(exchange.getAttribute(StaleIfErrorGatewayFilterFactory.STALE_RESPONSE_KEY_ATTR));
+
         return Mono.just(
-                buildErrorResponse(
-                        INTERNAL,
-                        errorMessage,
-                        SERVICE_UNAVAILABLE
-                )
+                key.flatMap(k -> staleResponseStore.get(k, nowInNanoseconds))
+                        .<ResponseEntity<?>>map(staleResponse -> {
+                            log.warn(
+                                    format("%s. Returning stale response of: %s",
+                                            errorMessage,
+                                            key.get()
+                                    )
+                            );
+                            return buildStaleResponse(
+                                    staleResponse,
+                                    nowInNanoseconds
+                            );
+                        })
+                        .orElseGet(() -> {
+                            log.error(errorMessage);
+                            return buildErrorResponse(
+                                    INTERNAL,
+                                    errorMessage,
+                                    SERVICE_UNAVAILABLE
+                            );
+                        })
         );
     }
 
 
+    /**
+     * Builds the {@link ResponseEntity} response using a stored one, adding the headers that shows it is stale.
+     *
+     * @param staleResponse
+     *    {@link StaleResponse} to return
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return {@link ResponseEntity} with the suitable response
+     */
+    private ResponseEntity<byte[]> buildStaleResponse(final StaleResponse staleResponse,
+                                                      final long nowInNanoseconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(staleResponse.getHeaders());
+        headers.set(HttpHeaders.AGE, String.valueOf(staleResponse.getAgeInSeconds(nowInNanoseconds)));
+        headers.set(HttpHeaders.WARNING, STALE_WARNING);
+        return ResponseEntity.status(staleResponse.getHttpStatus())
+                .headers(headers)
+                .body(staleResponse.getBody());
+    }
+
+
     /**
      * Builds the {@link ResponseEntity} response related with an error, using the provided parameters.
      *
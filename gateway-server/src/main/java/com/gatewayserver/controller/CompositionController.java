@@ -0,0 +1,53 @@
+package com.gatewayserver.controller;
+
+import com.gatewayserver.configuration.rest.RestRoutes;
+import com.gatewayserver.dto.OrderWithIngredientSummaryDto;
+import com.gatewayserver.service.OrderCompositionService;
+import com.spring5microservices.common.log.AccessLogger;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rest services that compose the responses of several microservices, avoiding several requests from the clients.
+ */
+@AllArgsConstructor
+@RestController
+@RequestMapping(RestRoutes.COMPOSITION.ROOT)
+public class CompositionController {
+
+    private final AccessLogger accessLogger;
+
+    private final OrderCompositionService orderCompositionService;
+
+
+    /**
+     * Returns the order with the given {@code orderId}, including its lines and the summary of its ingredients.
+     *
+     * @param orderId
+     *    Identifier of the order to search
+     * @param authorization
+     *    Authorization header sent to the microservices
+     *
+     * @return {@link Mono} with the {@link OrderWithIngredientSummaryDto}
+     */
+    @GetMapping(RestRoutes.COMPOSITION.ORDER_WITH_INGREDIENT_SUMMARY)
+    public Mono<ResponseEntity<OrderWithIngredientSummaryDto>> getOrderWithIngredientSummary(@PathVariable final Integer orderId,
+                                                                                             @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) final String authorization) {
+        accessLogger.logSampled(
+                "Composing the order with identifier: {} and its ingredient's summary",
+                orderId
+        );
+        return orderCompositionService.getOrderWithIngredientSummary(
+                orderId,
+                authorization
+        );
+    }
+
+}
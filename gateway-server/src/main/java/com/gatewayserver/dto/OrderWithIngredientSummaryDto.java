@@ -0,0 +1,28 @@
+package com.gatewayserver.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ *    Composition of an order with its lines and the summary of its ingredients. The content of every part is the
+ * one returned by order-service, so it is not duplicated here. If any part could not be obtained, it will be
+ * {@code null} and the reason is included in {@code errors}.
+ */
+@AllArgsConstructor
+@Builder
+@Data
+@NoArgsConstructor
+public class OrderWithIngredientSummaryDto {
+
+    private JsonNode order;
+
+    private JsonNode ingredientSummary;
+
+    private List<String> errors;
+
+}
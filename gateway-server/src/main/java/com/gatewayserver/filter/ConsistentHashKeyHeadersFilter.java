@@ -0,0 +1,55 @@
+package com.gatewayserver.filter;
+
+import com.gatewayserver.loadbalancer.PeakEwmaLoadBalancer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ *    Keeps {@link PeakEwmaLoadBalancer#HASH_KEY_HEADER} internal to the gateway: it is removed from the received
+ * requests, so the clients cannot choose the instance of the downstream service, and from the ones sent to the
+ * downstream services.
+ */
+@Component
+public class ConsistentHashKeyHeadersFilter implements GlobalFilter, HttpHeadersFilter, Ordered {
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange,
+                             GatewayFilterChain chain) {
+        if (!exchange.getRequest().getHeaders().containsKey(PeakEwmaLoadBalancer.HASH_KEY_HEADER)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(
+                exchange.mutate()
+                        .request(r ->
+                                r.headers(h -> h.remove(PeakEwmaLoadBalancer.HASH_KEY_HEADER))
+                        )
+                        .build()
+        );
+    }
+
+
+    @Override
+    public HttpHeaders filter(final HttpHeaders input,
+                              final ServerWebExchange exchange) {
+        if (!input.containsKey(PeakEwmaLoadBalancer.HASH_KEY_HEADER)) {
+            return input;
+        }
+        final HttpHeaders filtered = new HttpHeaders();
+        filtered.addAll(input);
+        filtered.remove(PeakEwmaLoadBalancer.HASH_KEY_HEADER);
+        return filtered;
+    }
+
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.gatewayserver.filter;
+
+import com.gatewayserver.loadbalancer.InstanceStatisticsRegistry;
+import com.gatewayserver.loadbalancer.PeakEwmaStatistics;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import static java.util.Optional.ofNullable;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ *    Updates the {@link PeakEwmaStatistics} of the service instance chosen by the load balancer, with the time
+ * required to manage every request sent to it. Failed requests are registered with a penalty latency, so
+ * instances that fail fast do not seem the best ones.
+ * <p>
+ *    The requests sent to other instances by the filters of the routes, like the hedged ones, can be measured in the
+ * same way using {@link LoadBalancerStatisticsFilter#measure(ServiceInstance, Mono, Predicate)}.
+ */
+public class LoadBalancerStatisticsFilter implements GlobalFilter, Ordered {
+
+    /**
+     * Executed just after choosing the service instance, to measure only the time spent by it.
+     */
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+
+    private final InstanceStatisticsRegistry statisticsRegistry;
+
+    private final long failurePenaltyInNanoseconds;
+
+
+    public LoadBalancerStatisticsFilter(final InstanceStatisticsRegistry statisticsRegistry,
+                                        final long failurePenaltyInNanoseconds) {
+        this.statisticsRegistry = statisticsRegistry;
+        this.failurePenaltyInNanoseconds = failurePenaltyInNanoseconds;
+    }
+
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange,
+                             GatewayFilterChain chain) {
+        final Optional<PeakEwmaStatistics> statistics = getChosenInstance(exchange)
+                .map(statisticsRegistry::getStatistics);
+        if (statistics.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        final PeakEwmaStatistics instanceStatistics = statistics.get();
+        final long requestStartTimeInNanoSeconds = System.nanoTime();
+        instanceStatistics.onStart();
+        return chain.filter(exchange)
+                .doFinally(signal ->
+                        onFinish(
+                                instanceStatistics,
+                                requestStartTimeInNanoSeconds,
+                                signal,
+                                isFailed(exchange, signal)
+                        )
+                );
+    }
+
+
+    /**
+     *    Updates the {@link PeakEwmaStatistics} of the given {@link ServiceInstance} with the time required to complete
+     * {@code request}, sent to it without using the load balancer.
+     *
+     * @param instance
+     *    {@link ServiceInstance} that receives the request
+     * @param request
+     *    {@link Mono} that sends the request when it is subscribed
+     * @param isFailedResponse
+     *    {@link Predicate} to know if the returned response means the instance was not able to manage the request
+     *
+     * @return {@link Mono} with the response of {@code request}
+     */
+    public <T> Mono<T> measure(final ServiceInstance instance,
+                               final Mono<T> request,
+                               final Predicate<T> isFailedResponse) {
+        return Mono.defer(() -> {
+            final PeakEwmaStatistics instanceStatistics = statisticsRegistry.getStatistics(instance);
+            final AtomicBoolean failedResponse = new AtomicBoolean(false);
+            final long requestStartTimeInNanoSeconds = System.nanoTime();
+            instanceStatistics.onStart();
+            return request
+                    .doOnNext(response ->
+                            failedResponse.set(
+                                    isFailedResponse.test(response)
+                            )
+                    )
+                    .doFinally(signal ->
+                            onFinish(
+                                    instanceStatistics,
+                                    requestStartTimeInNanoSeconds,
+                                    signal,
+                                    SignalType.ON_ERROR == signal || failedResponse.get()
+                            )
+                    );
+        });
+    }
+
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+
+    private Optional<ServiceInstance> getChosenInstance(final ServerWebExchange exchange) {
+        return ofNullable(exchange.<Response<ServiceInstance>>getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR))
+                .filter(Response::hasServer)
+                .map(Response::getServer);
+    }
+
+
+    private void onFinish(final PeakEwmaStatistics instanceStatistics,
+                          final long requestStartTimeInNanoSeconds,
+                          final SignalType signal,
+                          final boolean failed) {
+        if (SignalType.CANCEL == signal) {
+            instanceStatistics.onDiscard();
+        } else {
+            final long nowInNanoseconds = System.nanoTime();
+            final long latencyInNanoseconds = nowInNanoseconds - requestStartTimeInNanoSeconds;
+            instanceStatistics.onComplete(
+                    failed
+                            ? Math.max(latencyInNanoseconds, failurePenaltyInNanoseconds)
+                            : latencyInNanoseconds,
+                    nowInNanoseconds
+            );
+        }
+    }
+
+
+    /**
+     * Checks if the service instance was not able to manage the request: an error was thrown or returned a server error.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the response information
+     * @param signal
+     *    {@link SignalType} that finished the request
+     *
+     * @return {@code true} if the request failed, {@code false} otherwise
+     */
+    private boolean isFailed(final ServerWebExchange exchange,
+                             final SignalType signal) {
+        if (SignalType.ON_ERROR == signal) {
+            return true;
+        }
+        return ofNullable(exchange.getResponse().getStatusCode())
+                .map(HttpStatus::is5xxServerError)
+                .orElse(false);
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.gatewayserver.filter;
+
+import com.gatewayserver.security.PrincipalVerifier;
+import com.gatewayserver.util.RequestUtil;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Optional;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ *    Sets as principal of the {@link ServerWebExchange} the user the access token included in the
+ * {@link HttpHeaders#AUTHORIZATION} belongs to, once it has been verified by {@link PrincipalVerifier}. The requests
+ * without a valid access token are sent without principal.
+ * <p>
+ *    The request is sent to the microservices as it was received, they still verify the token. The principal is only
+ * used by the gateway, for example to apply the policy of the user in
+ * {@link com.gatewayserver.limiter.LocalRateLimiter}.
+ */
+public class PrincipalWebFilter implements WebFilter, Ordered {
+
+    public static final String TOKEN_PREFIX = "Bearer ";
+
+    /**
+     * Executed before the gateway filters, that could use the principal.
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    private final PrincipalVerifier principalVerifier;
+
+
+    public PrincipalWebFilter(final PrincipalVerifier principalVerifier) {
+        this.principalVerifier = principalVerifier;
+    }
+
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange,
+                             final WebFilterChain chain) {
+        final Optional<String> token = getAccessToken(exchange);
+        if (token.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        return principalVerifier.verify(
+                        RequestUtil.sha256(token.get().getBytes(StandardCharsets.UTF_8)),
+                        token.get(),
+                        System.nanoTime()
+                )
+                .flatMap(username ->
+                        chain.filter(
+                                username.map(u ->
+                                                exchange.mutate()
+                                                        .principal(Mono.just(new VerifiedPrincipal(u)))
+                                                        .build()
+                                        )
+                                        .orElse(exchange)
+                        )
+                );
+    }
+
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+
+    private Optional<String> getAccessToken(final ServerWebExchange exchange) {
+        return ofNullable(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .filter(a -> a.startsWith(TOKEN_PREFIX))
+                .map(a -> a.substring(TOKEN_PREFIX.length()).trim())
+                .filter(t -> !t.isEmpty());
+    }
+
+
+    /**
+     * {@link Principal} of a user whose access token has been verified.
+     */
+    static class VerifiedPrincipal implements Principal {
+
+        private final String name;
+
+        VerifiedPrincipal(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+    }
+
+}
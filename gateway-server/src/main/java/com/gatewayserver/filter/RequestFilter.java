@@ -1,5 +1,7 @@
 package com.gatewayserver.filter;
 
+import com.spring5microservices.common.log.AccessLogger;
+import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -20,7 +22,6 @@ import java.io.ByteArrayOutputStream;
 import java.net.URI;
 import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -30,8 +31,10 @@ import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.G
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
 
 /**
- * Used to log all the request.
+ *    Used to log all the request, using {@link AccessLogger} to avoid building the messages in the threads that manage
+ * them. The body of the requests is only logged with {@link com.spring5microservices.common.log.AccessLogVerbosity#DETAILED}.
  */
+@AllArgsConstructor
 @Component
 @Log4j2
 public class RequestFilter implements GlobalFilter {
@@ -52,6 +55,8 @@ public class RequestFilter implements GlobalFilter {
             HttpMethod.PUT
     );
 
+    private final AccessLogger accessLogger;
+
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange,
@@ -90,7 +95,8 @@ public class RequestFilter implements GlobalFilter {
                 .map(REST_METHODS_TO_LOG_BODY_REQUEST::contains)
                 .orElse(false);
 
-        return ROUTE_ID_TO_LOG_BODY_REQUEST.contains(
+        return accessLogger.isDetailed() &&
+        ROUTE_ID_TO_LOG_BODY_REQUEST.contains(
                 getRouteId(exchange)
         ) &&
         isRestMethodWithBody;
@@ -115,12 +121,10 @@ public class RequestFilter implements GlobalFilter {
                             try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
                                 Channels.newChannel(baos)
                                         .write(dataBuffer.asByteBuffer().asReadOnlyBuffer());
-                                String body = baos.toString(StandardCharsets.UTF_8);
-                                log.info(
-                                        format(
-                                                "Body of incoming request: %s",
-                                                body
-                                        )
+                                accessLogger.logWithDetail(
+                                        "Body of incoming request to: {}",
+                                        request.getURI(),
+                                        baos.toString(StandardCharsets.UTF_8)
                                 );
                             } catch (Exception e) {
                                 log.error(
@@ -144,13 +148,12 @@ public class RequestFilter implements GlobalFilter {
      *    {@link ServerWebExchange} with incoming request
      */
     private void logRequestData(final ServerWebExchange exchange) {
-        log.info(
-                format("Incoming request: %s with method: %s, is routed to id: %s and uri: %s",
-                        getRequestURI(exchange),
-                        getRequestMethodValue(exchange),
-                        getRouteId(exchange),
-                        getRouteURI(exchange)
-                )
+        accessLogger.log(
+                "Incoming request: {} with method: {}, is routed to id: {} and uri: {}",
+                getRequestURI(exchange),
+                getRequestMethodValue(exchange),
+                getRouteId(exchange),
+                getRouteURI(exchange)
         );
     }
 
@@ -194,24 +197,13 @@ public class RequestFilter implements GlobalFilter {
      */
     private void logResponseData(final ServerWebExchange exchange,
                                  final long requestStartTimeInNanoSeconds) {
-        final String requestURI = getRequestURI(exchange);
-        final String method = getRequestMethodValue(exchange);
-
-        final String httpStatus = getResponseHttpStatus(exchange)
-                .map(HttpStatus::value)
-                .map(Objects::toString)
-                .orElse(NO_VALUE_FOUND);
-
-        final double requestFinalTimeInMilliseconds = (System.nanoTime() - requestStartTimeInNanoSeconds) * 0.000001;
-        final String requestFinalTimeInMillisecondsText = String.format("%.03f", requestFinalTimeInMilliseconds);
-
-        log.info(
-                format("Outgoing response with method: %s, uri: %s, returned HTTP status: %s, required time in milliseconds to manage it: %s",
-                        method,
-                        requestURI,
-                        httpStatus,
-                        requestFinalTimeInMillisecondsText
-                )
+        accessLogger.logAccess(
+                getRequestMethodValue(exchange),
+                getRequestURI(exchange),
+                getResponseHttpStatus(exchange)
+                        .map(HttpStatus::value)
+                        .orElse(0),
+                System.nanoTime() - requestStartTimeInNanoSeconds
         );
     }
 
@@ -235,10 +227,11 @@ public class RequestFilter implements GlobalFilter {
     }
 
 
-    private String getRequestURI(final ServerWebExchange exchange) {
+    private Object getRequestURI(final ServerWebExchange exchange) {
         return ofNullable(exchange)
                 .map(ServerWebExchange::getRequest)
-                .map(this::getRequestURI)
+                .map(ServerHttpRequest::getURI)
+                .map(Object.class::cast)
                 .orElse(NO_VALUE_FOUND);
     }
 
@@ -277,9 +270,8 @@ public class RequestFilter implements GlobalFilter {
     }
 
 
-    private String getRouteURI(final ServerWebExchange exchange) {
+    private Object getRouteURI(final ServerWebExchange exchange) {
         return getServerWebExchangeAttribute(exchange, GATEWAY_REQUEST_URL_ATTR)
-                .map(Object::toString)
                 .orElse(NO_VALUE_FOUND);
     }
 
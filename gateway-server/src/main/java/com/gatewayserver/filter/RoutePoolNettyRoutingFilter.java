@@ -0,0 +1,60 @@
+package com.gatewayserver.filter;
+
+import com.gatewayserver.httpclient.RouteHttpClientRegistry;
+import com.gatewayserver.httpclient.RoutePoolSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ *    {@link NettyRoutingFilter} that sends the requests of the routes with {@link RoutePoolSettings} using their own
+ * {@link HttpClient}, instead of the one shared by the gateway.
+ * <p>
+ *    The time the request is sent is saved in its Reactor context, so the {@link HttpClient} of the route can measure
+ * how long it waited for a connection.
+ */
+public class RoutePoolNettyRoutingFilter extends NettyRoutingFilter {
+
+    private final RouteHttpClientRegistry routeHttpClientRegistry;
+
+
+    public RoutePoolNettyRoutingFilter(final HttpClient httpClient,
+                                       final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                       final HttpClientProperties properties,
+                                       final RouteHttpClientRegistry routeHttpClientRegistry) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.routeHttpClientRegistry = routeHttpClientRegistry;
+    }
+
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange,
+                             final GatewayFilterChain chain) {
+        return super.filter(exchange, chain)
+                .contextWrite(context ->
+                        context.put(
+                                RouteHttpClientRegistry.ACQUIRE_START_TIME_CONTEXT_KEY,
+                                System.nanoTime()
+                        )
+                );
+    }
+
+
+    @Override
+    protected HttpClient getHttpClient(final Route route,
+                                       final ServerWebExchange exchange) {
+        return routeHttpClientRegistry.getHttpClient(route)
+                .orElseGet(() ->
+                        super.getHttpClient(route, exchange)
+                );
+    }
+
+}
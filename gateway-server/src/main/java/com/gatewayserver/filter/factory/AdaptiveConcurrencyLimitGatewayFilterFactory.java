@@ -0,0 +1,361 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.limiter.GradientConcurrencyLimiter;
+import com.gatewayserver.util.ResponseUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.spring5microservices.common.enums.RestApiErrorCode.INTERNAL;
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ *    Limits the number of concurrent requests sent to the downstream service of a route, adapting that limit
+ * using the observed latency (see {@link GradientConcurrencyLimiter}). The requests that exceed the current
+ * limit are rejected with {@link HttpStatus#SERVICE_UNAVAILABLE} and a {@link HttpHeaders#RETRY_AFTER} header,
+ * before being sent to the downstream service.
+ * <p>
+ * Configuration example in a route:
+ * <pre>
+ *    filters:
+ *      - name: AdaptiveConcurrencyLimit
+ *        args:
+ *          initialLimit: 20
+ *          maxLimit: 200
+ * </pre>
+ * <p>
+ *    Every route keeps its limiter while the routes are refreshed with the same settings. It is replaced, with its
+ * metrics, when they change, and removed when the route no longer uses this filter.
+ */
+@Component
+@Log4j2
+public class AdaptiveConcurrencyLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitGatewayFilterFactory.Config>
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    private static final String NO_ROUTE_ID = "no route id";
+
+    private static final String METRIC_LIMIT = "gateway.concurrency.limit";
+    private static final String METRIC_IN_FLIGHT = "gateway.concurrency.inflight";
+    private static final String METRIC_REJECTED = "gateway.concurrency.rejected";
+    private static final String METRIC_TAG_ROUTE = "route";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RouteLimiter> limiters;
+
+    // Routes whose filter has been created since the last refresh of the routes
+    private final Set<String> appliedRouteIds;
+
+
+    @Autowired
+    public AdaptiveConcurrencyLimitGatewayFilterFactory(final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.limiters = new ConcurrentHashMap<>();
+        this.appliedRouteIds = ConcurrentHashMap.newKeySet();
+    }
+
+
+    @Override
+    public GatewayFilter apply(final Config config) {
+        final GradientConcurrencyLimiter limiter = getOrCreateLimiter(config);
+        // Deferred, so the slot is only reserved when the request is sent, and released even if the chain throws
+        return (exchange, chain) -> Mono.defer(() -> {
+            if (!limiter.tryAcquire()) {
+                return rejectRequest(
+                        exchange,
+                        config
+                );
+            }
+            final long requestStartTimeInNanoSeconds = System.nanoTime();
+            return Mono.defer(() ->
+                            chain.filter(exchange)
+                    )
+                    .doFinally(signal -> {
+                        if (SignalType.CANCEL == signal) {
+                            limiter.releaseIgnoringSample();
+                        } else {
+                            limiter.release(
+                                    System.nanoTime() - requestStartTimeInNanoSeconds,
+                                    isDropped(exchange, signal)
+                            );
+                        }
+                    });
+        });
+    }
+
+
+    /**
+     *    Once the routes have been refreshed, removes the limiters, and their metrics, of the routes that no longer use
+     * this filter: every filter of the current routes has been created by {@link #apply(Config)} during the refresh.
+     *
+     * @param event
+     *    {@link RefreshRoutesResultEvent} with the result of the refresh
+     */
+    @Override
+    public void onApplicationEvent(final RefreshRoutesResultEvent event) {
+        // If the refresh failed, the previous routes are still used
+        if (event.isSuccess()) {
+            limiters.keySet()
+                    .stream()
+                    .filter(id -> !appliedRouteIds.contains(id))
+                    .forEach(id ->
+                            limiters.computeIfPresent(
+                                    id,
+                                    (routeId, existing) -> {
+                                        log.info(
+                                                format("Removing the concurrency limiter of the route: %s",
+                                                        routeId
+                                                )
+                                        );
+                                        removeMetrics(routeId);
+                                        return null;
+                                    }
+                            )
+                    );
+        }
+        appliedRouteIds.clear();
+    }
+
+
+    /**
+     *    Returns the {@link GradientConcurrencyLimiter} related with the route of the given {@link Config}. The same
+     * one is used every time the route is refreshed with the same settings, so neither the learned limit nor the
+     * requests in flight are lost. Otherwise, a new one is created and its metrics replace the previous ones.
+     *
+     * @param config
+     *    {@link Config} with the limiter configuration
+     *
+     * @return {@link GradientConcurrencyLimiter}
+     */
+    private GradientConcurrencyLimiter getOrCreateLimiter(final Config config) {
+        final String routeId = getRouteId(config);
+        final LimiterSettings settings = LimiterSettings.of(config);
+        appliedRouteIds.add(routeId);
+        return limiters.compute(
+                routeId,
+                (id, existing) -> {
+                    if (null != existing && existing.settings.equals(settings)) {
+                        return existing;
+                    }
+                    if (null != existing) {
+                        log.info(
+                                format("Replacing the concurrency limiter of the route: %s with the settings: %s",
+                                        id,
+                                        settings
+                                )
+                        );
+                        removeMetrics(id);
+                    }
+                    final GradientConcurrencyLimiter limiter = settings.createLimiter();
+                    registerMetrics(id, limiter);
+                    return new RouteLimiter(settings, limiter);
+                }
+        ).limiter;
+    }
+
+
+    private void registerMetrics(final String routeId,
+                                 final GradientConcurrencyLimiter limiter) {
+        final Tags tags = Tags.of(METRIC_TAG_ROUTE, routeId);
+        Gauge.builder(METRIC_LIMIT, limiter, GradientConcurrencyLimiter::getLimit)
+                .description("Current concurrency limit of the route")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_IN_FLIGHT, limiter, GradientConcurrencyLimiter::getInFlight)
+                .description("Number of requests of the route currently sent to the downstream service")
+                .tags(tags)
+                .register(meterRegistry);
+        meterRegistry.more()
+                .counter(METRIC_REJECTED, tags, limiter, GradientConcurrencyLimiter::getRejected);
+    }
+
+
+    private void removeMetrics(final String routeId) {
+        List.of(METRIC_LIMIT, METRIC_IN_FLIGHT, METRIC_REJECTED)
+                .forEach(name ->
+                        meterRegistry.find(name)
+                                .tag(METRIC_TAG_ROUTE, routeId)
+                                .meters()
+                                .forEach(meterRegistry::remove)
+                );
+    }
+
+
+    /**
+     * Rejects the current request because the concurrency limit of the route has been reached.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param config
+     *    {@link Config} with the limiter configuration
+     *
+     * @return {@link Mono} with the suitable Http response
+     */
+    private Mono<Void> rejectRequest(final ServerWebExchange exchange,
+                                     final Config config) {
+        final String errorMessage = format("Too many concurrent requests sent to: %s. Please try again later",
+                getRouteId(config)
+        );
+        log.debug(errorMessage);
+        exchange.getResponse()
+                .getHeaders()
+                .set(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterInSeconds()));
+
+        return ResponseUtil.writeErrorResponse(
+                exchange,
+                INTERNAL,
+                List.of(errorMessage),
+                SERVICE_UNAVAILABLE
+        );
+    }
+
+
+    /**
+     * Checks if the downstream service was not able to manage the request: an error was thrown or it was overloaded.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the response information
+     * @param signal
+     *    {@link SignalType} that finished the request
+     *
+     * @return {@code true} if the request was dropped, {@code false} otherwise
+     */
+    private boolean isDropped(final ServerWebExchange exchange,
+                              final SignalType signal) {
+        if (SignalType.ON_ERROR == signal) {
+            return true;
+        }
+        return getResponseHttpStatus(exchange)
+                .map(s -> SERVICE_UNAVAILABLE == s || GATEWAY_TIMEOUT == s)
+                .orElse(false);
+    }
+
+
+    private Optional<HttpStatus> getResponseHttpStatus(final ServerWebExchange exchange) {
+        return ofNullable(exchange.getResponse().getStatusCode());
+    }
+
+
+    private String getRouteId(final Config config) {
+        return ofNullable(config.getRouteId())
+                .orElse(NO_ROUTE_ID);
+    }
+
+
+    /**
+     * {@link GradientConcurrencyLimiter} of a route and the settings used to create it.
+     */
+    @AllArgsConstructor
+    private static class RouteLimiter {
+
+        private final LimiterSettings settings;
+
+        private final GradientConcurrencyLimiter limiter;
+
+    }
+
+
+    /**
+     * Values of {@link Config} used to create a {@link GradientConcurrencyLimiter}.
+     */
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    private static class LimiterSettings {
+
+        private final int initialLimit;
+
+        private final int minLimit;
+
+        private final int maxLimit;
+
+        private final double smoothing;
+
+        private final double rttTolerance;
+
+        private final double backoffRatio;
+
+        private final int longWindow;
+
+
+        static LimiterSettings of(final Config config) {
+            return new LimiterSettings(
+                    config.getInitialLimit(),
+                    config.getMinLimit(),
+                    config.getMaxLimit(),
+                    config.getSmoothing(),
+                    config.getRttTolerance(),
+                    config.getBackoffRatio(),
+                    config.getLongWindow()
+            );
+        }
+
+
+        GradientConcurrencyLimiter createLimiter() {
+            return new GradientConcurrencyLimiter(
+                    initialLimit,
+                    minLimit,
+                    maxLimit,
+                    smoothing,
+                    rttTolerance,
+                    backoffRatio,
+                    longWindow
+            );
+        }
+
+    }
+
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private int initialLimit = 20;
+
+        private int minLimit = 5;
+
+        private int maxLimit = 200;
+
+        private double smoothing = 0.2;
+
+        private double rttTolerance = 1.5;
+
+        private double backoffRatio = 0.9;
+
+        private int longWindow = 600;
+
+        private long retryAfterInSeconds = 1;
+
+    }
+
+}
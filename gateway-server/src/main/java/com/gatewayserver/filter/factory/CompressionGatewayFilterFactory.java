@@ -0,0 +1,389 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.compression.ContentEncoding;
+import com.gatewayserver.compression.GzipCompressor;
+import com.gatewayserver.compression.GzipCompressorPool;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+
+/**
+ *    Compresses the responses of a route when the client accepts it, their content type is included in
+ * {@code contentTypes} and their size is at least {@code minResponseSizeInBytes}. The responses already encoded by
+ * the downstream service are sent as they are.
+ * <p>
+ *    When the size of a response is not known (it has no {@link HttpHeaders#CONTENT_LENGTH}), its first chunks are
+ * kept in memory until {@code minResponseSizeInBytes} is reached, so the small ones are not compressed.
+ * <p>
+ * Configuration example in a route:
+ * <pre>
+ *    filters:
+ *      - name: Compression
+ *        args:
+ *          minResponseSizeInBytes: 2048
+ *          contentTypes: application/json, application/*+json
+ * </pre>
+ */
+@Component
+public class CompressionGatewayFilterFactory extends AbstractGatewayFilterFactory<CompressionGatewayFilterFactory.Config> {
+
+    private static final String NO_ROUTE_ID = "no route id";
+
+    private static final ContentEncoding ENCODING = ContentEncoding.GZIP;
+
+    private static final String CHUNKED_TRANSFER_ENCODING = "chunked";
+    private static final String IDENTITY_ENCODING = "identity";
+    private static final String NO_TRANSFORM = "no-transform";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+
+    private static final String SKIPPED_METRIC = "gateway.compression.skipped";
+
+    private final GzipCompressorPool compressorPool;
+
+    private final MeterRegistry meterRegistry;
+
+
+    @Autowired
+    public CompressionGatewayFilterFactory(final GzipCompressorPool compressorPool,
+                                           final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.compressorPool = compressorPool;
+        this.meterRegistry = meterRegistry;
+    }
+
+
+    @Override
+    public GatewayFilter apply(final Config config) {
+        final String routeId = ofNullable(config.getRouteId())
+                .orElse(NO_ROUTE_ID);
+        final List<MediaType> contentTypes = ofNullable(config.getContentTypes())
+                .orElseGet(List::of)
+                .stream()
+                .map(MediaType::parseMediaType)
+                .collect(toList());
+
+        // Must wrap the response before the filters that need its original body, like StaleIfError
+        return new OrderedGatewayFilter(
+                (exchange, chain) -> {
+                    if (HttpMethod.HEAD == exchange.getRequest().getMethod() ||
+                            !ENCODING.isAcceptedBy(exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT_ENCODING))) {
+                        countSkipped(routeId, "notAccepted");
+                        return chain.filter(exchange);
+                    }
+                    return chain.filter(
+                            exchange.mutate()
+                                    .response(
+                                            getDecoratedResponse(exchange, routeId, contentTypes, config)
+                                    )
+                                    .build()
+                    );
+                },
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2
+        );
+    }
+
+
+    /**
+     * Decorates the outgoing {@link ServerHttpResponse} to compress its body if it is required.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param routeId
+     *    Identifier of the route
+     * @param contentTypes
+     *    {@link MediaType}s of the responses that can be compressed
+     * @param config
+     *    {@link Config} of the route
+     *
+     * @return {@link ServerHttpResponse} with the decorated response
+     */
+    private ServerHttpResponse getDecoratedResponse(final ServerWebExchange exchange,
+                                                    final String routeId,
+                                                    final List<MediaType> contentTypes,
+                                                    final Config config) {
+        return new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                final HttpHeaders headers = getHeaders();
+                final String skipReason = getSkipReason(getStatusCode(), headers, contentTypes);
+                if (null != skipReason) {
+                    countSkipped(routeId, skipReason);
+                    return super.writeWith(body);
+                }
+                if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                    headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
+                final long contentLength = headers.getContentLength();
+                if (0 <= contentLength && contentLength < config.getMinResponseSizeInBytes()) {
+                    countSkipped(routeId, "size");
+                    return super.writeWith(body);
+                }
+                final ResponseCompression compression = new ResponseCompression(
+                        getDelegate(),
+                        routeId,
+                        0 <= contentLength
+                                ? 0
+                                : config.getMinResponseSizeInBytes()
+                );
+                return super.writeWith(
+                        compression.apply(
+                                Flux.from(body)
+                        )
+                );
+            }
+        };
+    }
+
+
+    /**
+     * Checks if the response must be sent as it is, whatever its size is.
+     *
+     * @param httpStatus
+     *    {@link HttpStatus} of the response
+     * @param headers
+     *    {@link HttpHeaders} of the response
+     * @param contentTypes
+     *    {@link MediaType}s of the responses that can be compressed
+     *
+     * @return the reason to not compress the response, {@code null} if it can be compressed
+     */
+    private static String getSkipReason(final HttpStatus httpStatus,
+                                        final HttpHeaders headers,
+                                        final List<MediaType> contentTypes) {
+        if (null != httpStatus &&
+                (httpStatus.is1xxInformational() || HttpStatus.NO_CONTENT == httpStatus || HttpStatus.NOT_MODIFIED == httpStatus)) {
+            return "status";
+        }
+        final String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (null != contentEncoding && !IDENTITY_ENCODING.equalsIgnoreCase(contentEncoding.trim())) {
+            return "encoded";
+        }
+        if (ofNullable(headers.getCacheControl())
+                .map(c -> c.contains(NO_TRANSFORM))
+                .orElse(false)) {
+            return "noTransform";
+        }
+        final MediaType contentType = headers.getContentType();
+        if (null == contentType ||
+                contentTypes.stream().noneMatch(t -> t.includes(contentType))) {
+            return "contentType";
+        }
+        return null;
+    }
+
+
+    private void countSkipped(final String routeId,
+                              final String reason) {
+        meterRegistry.counter(
+                        SKIPPED_METRIC,
+                        "route", routeId,
+                        "reason", reason
+                )
+                .increment();
+    }
+
+
+    /**
+     *    Compresses the body of one response. Its chunks are kept until {@code minSizeInBytes} is reached, sending them
+     * uncompressed if the body finishes before.
+     */
+    private class ResponseCompression {
+
+        private final ServerHttpResponse response;
+
+        private final String routeId;
+
+        private final int minSizeInBytes;
+
+        private final List<DataBuffer> pending;
+
+        private int pendingSizeInBytes;
+
+        private boolean decided;
+
+        private GzipCompressor compressor;
+
+
+        ResponseCompression(final ServerHttpResponse response,
+                            final String routeId,
+                            final int minSizeInBytes) {
+            this.response = response;
+            this.routeId = routeId;
+            this.minSizeInBytes = minSizeInBytes;
+            this.pending = new ArrayList<>();
+            this.pendingSizeInBytes = 0;
+            this.decided = false;
+        }
+
+
+        Flux<DataBuffer> apply(final Flux<DataBuffer> body) {
+            return body
+                    .concatMap(this::onNext)
+                    .concatWith(
+                            Flux.defer(this::onComplete)
+                    )
+                    .doFinally(this::onFinally);
+        }
+
+
+        private synchronized Flux<DataBuffer> onNext(final DataBuffer chunk) {
+            if (decided) {
+                return null == compressor
+                        ? Flux.just(chunk)
+                        : nonEmpty(compressor.compress(chunk, response.bufferFactory()));
+            }
+            pending.add(chunk);
+            pendingSizeInBytes += chunk.readableByteCount();
+            if (pendingSizeInBytes < minSizeInBytes) {
+                return Flux.empty();
+            }
+            startCompression();
+            final List<DataBuffer> compressed = new ArrayList<>(pending.size());
+            for (DataBuffer pendingChunk : pending) {
+                compressed.add(
+                        compressor.compress(pendingChunk, response.bufferFactory())
+                );
+            }
+            pending.clear();
+            return Flux.fromIterable(compressed)
+                    .concatMap(this::nonEmpty);
+        }
+
+
+        private synchronized Flux<DataBuffer> onComplete() {
+            if (!decided) {
+                decided = true;
+                countSkipped(routeId, "size");
+                final List<DataBuffer> uncompressed = new ArrayList<>(pending);
+                pending.clear();
+                return Flux.fromIterable(uncompressed);
+            }
+            return null == compressor
+                    ? Flux.empty()
+                    : Flux.just(compressor.finish(response.bufferFactory()));
+        }
+
+
+        private synchronized void onFinally(final SignalType signalType) {
+            pending.forEach(DataBufferUtils::release);
+            pending.clear();
+            if (null == compressor) {
+                return;
+            }
+            if (SignalType.ON_COMPLETE == signalType) {
+                recordMetrics();
+                compressorPool.release(compressor);
+            }
+            // Otherwise it could still be in use by a cancelled chunk, so its memory will be released by the GC
+            compressor = null;
+        }
+
+
+        private void startCompression() {
+            decided = true;
+            compressor = compressorPool.borrow();
+            final HttpHeaders headers = response.getHeaders();
+            // Without any of them, the connection would be closed to mark the end of the body
+            if (null != headers.remove(HttpHeaders.CONTENT_LENGTH) && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+                headers.set(HttpHeaders.TRANSFER_ENCODING, CHUNKED_TRANSFER_ENCODING);
+            }
+            headers.set(HttpHeaders.CONTENT_ENCODING, ENCODING.getName());
+            // The compressed content is not byte by byte equal to the original one
+            final String eTag = headers.getETag();
+            if (null != eTag && !eTag.startsWith(WEAK_ETAG_PREFIX)) {
+                headers.setETag(WEAK_ETAG_PREFIX + eTag);
+            }
+        }
+
+
+        private void recordMetrics() {
+            final long bytesRead = compressor.getBytesRead();
+            final long bytesWritten = compressor.getBytesWritten();
+            if (0 < bytesWritten) {
+                DistributionSummary.builder("gateway.compression.ratio")
+                        .description("Size of the responses before compressing them divided by their compressed size")
+                        .tag("route", routeId)
+                        .register(meterRegistry)
+                        .record((double) bytesRead / bytesWritten);
+            }
+            meterRegistry.timer(
+                            "gateway.compression.time",
+                            "route", routeId
+                    )
+                    .record(compressor.getCompressionTimeInNanoseconds(), TimeUnit.NANOSECONDS);
+            meterRegistry.counter(
+                            "gateway.compression.bytes",
+                            "route", routeId,
+                            "type", "uncompressed"
+                    )
+                    .increment(bytesRead);
+            meterRegistry.counter(
+                            "gateway.compression.bytes",
+                            "route", routeId,
+                            "type", "compressed"
+                    )
+                    .increment(bytesWritten);
+        }
+
+
+        private Flux<DataBuffer> nonEmpty(final DataBuffer dataBuffer) {
+            if (0 < dataBuffer.readableByteCount()) {
+                return Flux.just(dataBuffer);
+            }
+            DataBufferUtils.release(dataBuffer);
+            return Flux.empty();
+        }
+
+    }
+
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private int minResponseSizeInBytes = 1024;
+
+        private List<String> contentTypes = List.of(
+                MediaType.APPLICATION_JSON_VALUE,
+                "application/*+json",
+                MediaType.APPLICATION_XML_VALUE,
+                "application/*+xml",
+                "application/javascript",
+                "text/css",
+                MediaType.TEXT_HTML_VALUE,
+                MediaType.TEXT_PLAIN_VALUE
+        );
+
+    }
+
+}
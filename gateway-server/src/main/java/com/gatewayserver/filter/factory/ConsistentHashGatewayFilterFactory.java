@@ -0,0 +1,120 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.limiter.PrincipalKeyResolver;
+import com.gatewayserver.loadbalancer.BoundedLoadRendezvousHashing;
+import com.gatewayserver.loadbalancer.PeakEwmaLoadBalancer;
+import com.gatewayserver.util.RequestUtil;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ *    Sends all the requests of the same principal to the same instance of the downstream service, so the local caches
+ * of the services (tokens, users, pizzas, etc) are used as much as possible. The instance is chosen by
+ * {@link BoundedLoadRendezvousHashing}, so when an instance is overloaded some of its requests are sent to the next
+ * one, and when an instance is added or removed only the principals related with it change of instance.
+ * <p>
+ *    The gateway cannot decrypt the received tokens, so by default the key used to choose the instance is a digest of
+ * the credentials included in the request (see {@link RequestUtil#getCredentialsDigest(ServerHttpRequest)}), or the
+ * remote address resolved by {@link PrincipalKeyResolver} of the anonymous ones. The credentials are not verified,
+ * but they are only used to choose the instance, and the bounded load prevents a caller from overloading one. With
+ * {@link Config#getKeyHeader()}, the value of that header is used instead if it is included in the request.
+ * <p>
+ *    Only the routes with a load balanced uri are affected, and it requires the default load balancer of the gateway
+ * (see {@link PeakEwmaLoadBalancer}).
+ * <p>
+ * Configuration example in a route:
+ * <pre>
+ *    uri: lb://pizza-service
+ *    filters:
+ *      - name: ConsistentHash
+ *        args:
+ *          keyHeader: X-Username
+ * </pre>
+ */
+@Component
+public class ConsistentHashGatewayFilterFactory extends AbstractGatewayFilterFactory<ConsistentHashGatewayFilterFactory.Config> {
+
+    private final PrincipalKeyResolver principalKeyResolver;
+
+
+    @Autowired
+    public ConsistentHashGatewayFilterFactory(final PrincipalKeyResolver principalKeyResolver) {
+        super(Config.class);
+        this.principalKeyResolver = principalKeyResolver;
+    }
+
+
+    /**
+     *    The returned filter is executed just before the load balancer chooses an instance, adding to the request the
+     * hash of its key. Only the hash is included, so the credentials of the principal are never copied.
+     */
+    @Override
+    public GatewayFilter apply(final Config config) {
+        return new OrderedGatewayFilter(
+                (exchange, chain) -> {
+                    final long keyHash = BoundedLoadRendezvousHashing.hash(
+                            getKey(exchange, config)
+                    );
+                    return chain.filter(
+                            exchange.mutate()
+                                    .request(r ->
+                                            r.headers(h ->
+                                                    h.set(PeakEwmaLoadBalancer.HASH_KEY_HEADER, Long.toHexString(keyHash))
+                                            )
+                                    )
+                                    .build()
+                    );
+                },
+                ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1
+        );
+    }
+
+
+    /**
+     * Returns the key used to choose the instance that will receive the request.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param config
+     *    {@link Config} of the route
+     *
+     * @return value of {@link Config#getKeyHeader()} if it was included in the request, the digest of the credentials
+     *         or the remote address otherwise
+     */
+    private String getKey(final ServerWebExchange exchange,
+                          final Config config) {
+        return ofNullable(config.getKeyHeader())
+                .map(h -> exchange.getRequest().getHeaders().getFirst(h))
+                .filter(k -> !k.isBlank())
+                .or(() ->
+                        RequestUtil.getCredentialsDigest(exchange.getRequest())
+                )
+                .orElseGet(() ->
+                        principalKeyResolver.resolveRemoteAddressKey(exchange)
+                );
+    }
+
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        // If it is not configured or not included in the request, the principal that sent it is used
+        private String keyHeader;
+
+    }
+
+}
@@ -0,0 +1,539 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.filter.LoadBalancerStatisticsFilter;
+import com.gatewayserver.hedge.HedgeBudget;
+import com.gatewayserver.hedge.LatencyPercentileTracker;
+import com.gatewayserver.httpclient.RouteHttpClientRegistry;
+import com.gatewayserver.util.RequestUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ *    Hedges the {@link HttpMethod#GET} requests of a load balanced route: if the instance chosen by the load balancer
+ * has not answered after a delay, a second request is sent to a different instance of the service, returning the
+ * first response and cancelling the other request. The request only fails if both of them fail.
+ * <p>
+ *    The requests are sent with the same {@link HttpClient} and response timeout that
+ * {@link org.springframework.cloud.gateway.filter.NettyRoutingFilter} would use for the route (see
+ * {@link RouteHttpClientRegistry}), and the latencies of the hedged instances are included in their load balancer
+ * statistics (see {@link LoadBalancerStatisticsFilter}).
+ * <p>
+ *    The delay is the configured percentile of the latest latencies of the route, so only the slowest requests are
+ * hedged, and the total number of hedged requests is limited by {@link HedgeBudget}. As the responses are buffered
+ * before returning them, it should be used only in routes with small responses (streams of server-sent events are
+ * never hedged).
+ * <p>
+ * Configuration example in a route:
+ * <pre>
+ *    uri: lb://pizza-service
+ *    filters:
+ *      - name: Hedge
+ *        args:
+ *          percentile: 95
+ *          maxDelayInMilliseconds: 500
+ * </pre>
+ */
+@Component
+@Log4j2
+public class HedgeGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgeGatewayFilterFactory.Config> {
+
+    private static final String NO_ROUTE_ID = "no route id";
+    private static final String LOAD_BALANCER_SCHEME = "lb";
+
+    private static final String METRIC_REQUESTS = "gateway.hedge.requests";
+    private static final String METRIC_FIRED = "gateway.hedge.fired";
+    private static final String METRIC_WINS = "gateway.hedge.wins";
+    private static final String METRIC_BUDGET_EXHAUSTED = "gateway.hedge.budget.exhausted";
+    private static final String METRIC_TAG_ROUTE = "route";
+
+    private final HttpClient httpClient;
+
+    private final HttpClientProperties httpClientProperties;
+
+    private final RouteHttpClientRegistry routeHttpClientRegistry;
+
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+
+    private final ObjectProvider<LoadBalancerStatisticsFilter> loadBalancerStatisticsFilter;
+
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+
+    private final HedgeBudget hedgeBudget;
+
+    private final MeterRegistry meterRegistry;
+
+
+    @Autowired
+    public HedgeGatewayFilterFactory(final HttpClient httpClient,
+                                     final HttpClientProperties httpClientProperties,
+                                     final RouteHttpClientRegistry routeHttpClientRegistry,
+                                     final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                     final ObjectProvider<LoadBalancerStatisticsFilter> loadBalancerStatisticsFilter,
+                                     final LoadBalancerClientFactory loadBalancerClientFactory,
+                                     final HedgeBudget hedgeBudget,
+                                     final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.httpClient = httpClient;
+        this.httpClientProperties = httpClientProperties;
+        this.routeHttpClientRegistry = routeHttpClientRegistry;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.loadBalancerStatisticsFilter = loadBalancerStatisticsFilter;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.hedgeBudget = hedgeBudget;
+        this.meterRegistry = meterRegistry;
+    }
+
+
+    /**
+     *    The returned filter is executed just after the load balancer has chosen an instance, sending the requests
+     * itself instead of {@link org.springframework.cloud.gateway.filter.NettyRoutingFilter}, but with the same
+     * {@link HttpClient} and response timeout of the route.
+     */
+    @Override
+    public GatewayFilter apply(final Config config) {
+        final RouteHedging routeHedging = new RouteHedging(config);
+        return new OrderedGatewayFilter(
+                (exchange, chain) -> {
+                    final Optional<ServiceInstance> primaryInstance = getChosenInstance(exchange);
+                    if (HttpMethod.GET != exchange.getRequest().getMethod() ||
+                            RequestUtil.isEventStreamRequest(exchange.getRequest()) ||
+                            isAlreadyRouted(exchange) ||
+                            primaryInstance.isEmpty() ||
+                            !isLoadBalancedRoute(exchange)) {
+                        return chain.filter(exchange);
+                    }
+                    setAlreadyRouted(exchange);
+                    return hedgeRequest(
+                            exchange,
+                            primaryInstance.get(),
+                            routeHedging
+                    );
+                },
+                // After the filters that choose the instance and record its statistics
+                LoadBalancerStatisticsFilter.ORDER + 1
+        );
+    }
+
+
+    /**
+     * Sends the request to {@code primaryInstance} and, if required, to another instance of the service.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param primaryInstance
+     *    {@link ServiceInstance} chosen by the load balancer
+     * @param routeHedging
+     *    {@link RouteHedging} with the information of the route
+     *
+     * @return {@link Mono} with the written response
+     */
+    private Mono<Void> hedgeRequest(final ServerWebExchange exchange,
+                                    final ServiceInstance primaryInstance,
+                                    final RouteHedging routeHedging) {
+        routeHedging.getRequests().increment();
+        hedgeBudget.deposit();
+
+        final URI primaryUri = exchange.getRequiredAttribute(GATEWAY_REQUEST_URL_ATTR);
+        final HttpHeaders requestHeaders = getRequestHeaders(exchange);
+        final Route route = exchange.getRequiredAttribute(GATEWAY_ROUTE_ATTR);
+        final HttpClient routeHttpClient = getHttpClient(route);
+        final Duration responseTimeout = getResponseTimeout(route);
+
+        // The primary instance is measured by LoadBalancerStatisticsFilter
+        final AtomicReference<Throwable> primaryError = new AtomicReference<>();
+        final Mono<AttemptResponse> primaryAttempt = sendAttempt(
+                routeHttpClient,
+                primaryUri,
+                requestHeaders,
+                responseTimeout,
+                false,
+                routeHedging
+        )
+        .doOnError(primaryError::set);
+
+        final Mono<AttemptResponse> hedgedAttempt = Mono.delay(routeHedging.getDelay())
+                .flatMap(t -> chooseOtherInstance(route.getUri().getHost(), primaryInstance))
+                .filter(instance -> tryWithdrawBudget(routeHedging))
+                .flatMap(instance -> {
+                    log.debug(
+                            format("Hedging request: %s to instance: %s:%s",
+                                    primaryUri,
+                                    instance.getHost(),
+                                    instance.getPort()
+                            )
+                    );
+                    routeHedging.getFired().increment();
+                    return measure(
+                            instance,
+                            sendAttempt(
+                                    routeHttpClient,
+                                    LoadBalancerUriTools.reconstructURI(instance, primaryUri),
+                                    requestHeaders,
+                                    responseTimeout,
+                                    true,
+                                    routeHedging
+                            )
+                    );
+                });
+
+        // Returns the first response, failing only if both attempts fail or the request was not hedged
+        return Mono.firstWithValue(primaryAttempt, hedgedAttempt)
+                .onErrorMap(e ->
+                        ofNullable(primaryError.get())
+                                .orElse(e)
+                )
+                .onErrorMap(TimeoutException.class, e ->
+                        new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, e.getMessage(), e)
+                )
+                .flatMap(attempt -> {
+                    if (attempt.isHedged()) {
+                        routeHedging.getWins().increment();
+                    }
+                    return writeResponse(exchange, attempt);
+                });
+    }
+
+
+    private boolean tryWithdrawBudget(final RouteHedging routeHedging) {
+        if (hedgeBudget.tryWithdraw()) {
+            return true;
+        }
+        routeHedging.getBudgetExhausted().increment();
+        return false;
+    }
+
+
+    /**
+     * Returns a random instance of the service different to the given one.
+     *
+     * @param serviceId
+     *    Identifier of the service
+     * @param primaryInstance
+     *    {@link ServiceInstance} that has already received the request
+     *
+     * @return {@link Mono} with the other {@link ServiceInstance}, {@link Mono#empty()} if there is no other one
+     */
+    private Mono<ServiceInstance> chooseOtherInstance(final String serviceId,
+                                                      final ServiceInstance primaryInstance) {
+        final ServiceInstanceListSupplier supplier = loadBalancerClientFactory.getLazyProvider(
+                        serviceId,
+                        ServiceInstanceListSupplier.class
+                )
+                .getIfAvailable();
+        if (null == supplier) {
+            return Mono.empty();
+        }
+        return supplier.get()
+                .next()
+                .flatMap(instances -> {
+                    final List<ServiceInstance> otherInstances = instances.stream()
+                            .filter(i -> !i.getHost().equals(primaryInstance.getHost()) ||
+                                    i.getPort() != primaryInstance.getPort())
+                            .collect(toList());
+
+                    return otherInstances.isEmpty()
+                            ? Mono.empty()
+                            : Mono.just(
+                                    otherInstances.get(ThreadLocalRandom.current().nextInt(otherInstances.size()))
+                              );
+                });
+    }
+
+
+    private Mono<AttemptResponse> sendAttempt(final HttpClient routeHttpClient,
+                                              final URI uri,
+                                              final HttpHeaders requestHeaders,
+                                              final Duration responseTimeout,
+                                              final boolean hedged,
+                                              final RouteHedging routeHedging) {
+        return Mono.defer(() -> {
+            final long startTimeInNanoseconds = System.nanoTime();
+            final Mono<AttemptResponse> attempt = routeHttpClient
+                    .headers(h -> requestHeaders.forEach(h::set))
+                    .get()
+                    .uri(uri)
+                    .responseSingle((response, body) -> {
+                        final HttpHeaders responseHeaders = new HttpHeaders();
+                        response.responseHeaders()
+                                .forEach(e -> responseHeaders.add(e.getKey(), e.getValue()));
+                        return body.asByteArray()
+                                .defaultIfEmpty(new byte[0])
+                                .map(bytes ->
+                                        new AttemptResponse(
+                                                response.status().code(),
+                                                responseHeaders,
+                                                bytes,
+                                                hedged
+                                        )
+                                );
+                    })
+                    .doOnNext(response ->
+                            routeHedging.getLatencyTracker()
+                                    .record(System.nanoTime() - startTimeInNanoseconds)
+                    )
+                    .contextWrite(context ->
+                            context.put(
+                                    RouteHttpClientRegistry.ACQUIRE_START_TIME_CONTEXT_KEY,
+                                    startTimeInNanoseconds
+                            )
+                    );
+
+            return null == responseTimeout
+                    ? attempt
+                    : attempt.timeout(
+                            responseTimeout,
+                            Mono.error(() ->
+                                    new TimeoutException(
+                                            format("Response took longer than timeout: %s", responseTimeout)
+                                    )
+                            )
+                      );
+        });
+    }
+
+
+    private Mono<AttemptResponse> measure(final ServiceInstance instance,
+                                          final Mono<AttemptResponse> attempt) {
+        return ofNullable(loadBalancerStatisticsFilter.getIfAvailable())
+                .map(filter ->
+                        filter.measure(
+                                instance,
+                                attempt,
+                                response -> HttpStatus.Series.SERVER_ERROR == HttpStatus.Series.resolve(response.getHttpStatus())
+                        )
+                )
+                .orElse(attempt);
+    }
+
+
+    /**
+     * Returns the {@link HttpClient} that {@link org.springframework.cloud.gateway.filter.NettyRoutingFilter} would use
+     * to send the requests of the given {@link Route}.
+     */
+    private HttpClient getHttpClient(final Route route) {
+        return routeHttpClientRegistry.getHttpClient(route)
+                .orElse(httpClient);
+    }
+
+
+    /**
+     *    Returns the response timeout of the given {@link Route}: the one of its metadata or, if it is not included,
+     * the global one. A negative value in the metadata disables it.
+     *
+     * @return {@link Duration} with the timeout, {@code null} if there is no timeout
+     */
+    private Duration getResponseTimeout(final Route route) {
+        final Object routeResponseTimeout = route.getMetadata().get(RESPONSE_TIMEOUT_ATTR);
+        if (routeResponseTimeout instanceof Number) {
+            final long routeResponseTimeoutInMilliseconds = ((Number) routeResponseTimeout).longValue();
+            return 0 <= routeResponseTimeoutInMilliseconds
+                    ? Duration.ofMillis(routeResponseTimeoutInMilliseconds)
+                    : null;
+        }
+        return httpClientProperties.getResponseTimeout();
+    }
+
+
+    private Mono<Void> writeResponse(final ServerWebExchange exchange,
+                                     final AttemptResponse attempt) {
+        final ServerHttpResponse response = exchange.getResponse();
+        response.setRawStatusCode(attempt.getHttpStatus());
+        response.getHeaders().putAll(
+                HttpHeadersFilter.filter(
+                        getHeadersFilters(),
+                        attempt.getHeaders(),
+                        exchange,
+                        HttpHeadersFilter.Type.RESPONSE
+                )
+        );
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(attempt.getBody().length);
+        return response.writeWith(
+                Mono.just(
+                        response.bufferFactory().wrap(attempt.getBody())
+                )
+        );
+    }
+
+
+    private HttpHeaders getRequestHeaders(final ServerWebExchange exchange) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.putAll(
+                HttpHeadersFilter.filterRequest(
+                        getHeadersFilters(),
+                        exchange
+                )
+        );
+        // Every attempt is sent to a different host
+        headers.remove(HttpHeaders.HOST);
+        return headers;
+    }
+
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        return headersFiltersProvider.getIfAvailable(List::of);
+    }
+
+
+    private Optional<ServiceInstance> getChosenInstance(final ServerWebExchange exchange) {
+        return ofNullable(exchange.<Response<ServiceInstance>>getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR))
+                .filter(Response::hasServer)
+                .map(Response::getServer);
+    }
+
+
+    private boolean isLoadBalancedRoute(final ServerWebExchange exchange) {
+        return ofNullable(exchange.<Route>getAttribute(GATEWAY_ROUTE_ATTR))
+                .map(r -> LOAD_BALANCER_SCHEME.equals(r.getUri().getScheme()))
+                .orElse(false);
+    }
+
+
+    /**
+     * Response received from one instance.
+     */
+    @AllArgsConstructor
+    @Getter
+    private static class AttemptResponse {
+
+        private final int httpStatus;
+
+        private final HttpHeaders headers;
+
+        private final byte[] body;
+
+        private final boolean hedged;
+
+    }
+
+
+    /**
+     * Latencies and metrics of a route.
+     */
+    @Getter
+    private class RouteHedging {
+
+        private final Config config;
+
+        private final LatencyPercentileTracker latencyTracker;
+
+        private final Counter requests;
+
+        private final Counter fired;
+
+        private final Counter wins;
+
+        private final Counter budgetExhausted;
+
+
+        RouteHedging(final Config config) {
+            final Tags tags = Tags.of(
+                    METRIC_TAG_ROUTE,
+                    ofNullable(config.getRouteId()).orElse(NO_ROUTE_ID)
+            );
+            this.config = config;
+            this.latencyTracker = new LatencyPercentileTracker(
+                    config.getWindowSize(),
+                    config.getPercentile(),
+                    config.getMinSamples(),
+                    config.getRecalculationInterval()
+            );
+            this.requests = meterRegistry.counter(METRIC_REQUESTS, tags);
+            this.fired = meterRegistry.counter(METRIC_FIRED, tags);
+            this.wins = meterRegistry.counter(METRIC_WINS, tags);
+            this.budgetExhausted = meterRegistry.counter(METRIC_BUDGET_EXHAUSTED, tags);
+        }
+
+
+        /**
+         *    Returns the time to wait before sending the hedged request: the percentile of the latencies if there
+         * were enough of them, the initial delay otherwise. Always between the configured minimum and maximum ones.
+         */
+        Duration getDelay() {
+            final long delayInNanoseconds = latencyTracker.getPercentileInNanoseconds()
+                    .orElse(TimeUnit.MILLISECONDS.toNanos(config.getInitialDelayInMilliseconds()));
+
+            return Duration.ofNanos(
+                    Math.min(
+                            TimeUnit.MILLISECONDS.toNanos(config.getMaxDelayInMilliseconds()),
+                            Math.max(
+                                    TimeUnit.MILLISECONDS.toNanos(config.getMinDelayInMilliseconds()),
+                                    delayInNanoseconds
+                            )
+                    )
+            );
+        }
+
+    }
+
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private double percentile = 95;
+
+        private long initialDelayInMilliseconds = 100;
+
+        private long minDelayInMilliseconds = 10;
+
+        private long maxDelayInMilliseconds = 1000;
+
+        private int windowSize = 1000;
+
+        private int minSamples = 100;
+
+        private int recalculationInterval = 100;
+
+    }
+
+}
@@ -0,0 +1,402 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.idempotency.IdempotencyStore;
+import com.gatewayserver.idempotency.IdempotencyStore.Reservation;
+import com.gatewayserver.idempotency.IdempotentResponse;
+import com.gatewayserver.util.RequestUtil;
+import com.gatewayserver.util.ResponseUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.spring5microservices.common.enums.RestApiErrorCode.VALIDATION;
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.cacheRequestBody;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+
+/**
+ *    Manages the {@code Idempotency-Key} header of the {@link HttpMethod#POST} and {@link HttpMethod#PATCH} requests
+ * of a route, so the clients can retry them safely:
+ * <p>
+ *   - The first request with a key is sent to the downstream service, and its response stored in
+ *     {@link IdempotencyStore} during {@code ttlInSeconds}.
+ * <p>
+ *   - The next requests with the same key get the stored response, with the header {@code Idempotent-Replayed}, without
+ *     sending them to the downstream service.
+ * <p>
+ *   - The requests received while the first one is in progress wait for its response, up to {@code maxWaitInMilliseconds}.
+ *     After that, they are rejected with {@link HttpStatus#CONFLICT}.
+ * <p>
+ *   - The requests with the same key but a different body are rejected with {@link HttpStatus#UNPROCESSABLE_ENTITY}.
+ * <p>
+ *    The keys are scoped by the credentials included in the request (or its remote address if there are none), the
+ * Http method and the path, so a stored response is only returned to the requests that present exactly the same
+ * credentials. The server errors, the transient client ones (like {@link HttpStatus#TOO_MANY_REQUESTS}) and the
+ * responses bigger than {@code maxBodySizeInBytes} are not stored, so their retries are sent again to the downstream
+ * service.
+ * <p>
+ *    The body of the requests with a key is kept in memory to compare it, so the route should limit its size with the
+ * {@code RequestBodyLimit} filter.
+ * <p>
+ * Configuration example in a route:
+ * <pre>
+ *    filters:
+ *      - name: Idempotency
+ *        args:
+ *          ttlInSeconds: 86400
+ *          maxWaitInMilliseconds: 5000
+ * </pre>
+ */
+@Component
+public class IdempotencyGatewayFilterFactory extends AbstractGatewayFilterFactory<IdempotencyGatewayFilterFactory.Config> {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String NO_ROUTE_ID = "no route id";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final List<String> HEADERS_TO_STORE = List.of(
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.LOCATION
+    );
+
+    // Client errors that could be different if the request is sent again
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(
+            HttpStatus.REQUEST_TIMEOUT.value(),
+            HttpStatus.CONFLICT.value(),
+            HttpStatus.TOO_EARLY.value(),
+            HttpStatus.TOO_MANY_REQUESTS.value()
+    );
+
+    private static final String METRIC_REQUESTS = "gateway.idempotency.requests";
+    private static final String METRIC_TAG_OUTCOME = "outcome";
+    private static final String METRIC_TAG_ROUTE = "route";
+
+    private final IdempotencyStore store;
+
+    private final MeterRegistry meterRegistry;
+
+
+    @Autowired
+    public IdempotencyGatewayFilterFactory(final IdempotencyStore store,
+                                           final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+    }
+
+
+    @Override
+    public GatewayFilter apply(final Config config) {
+        final String routeId = ofNullable(config.getRouteId())
+                .orElse(NO_ROUTE_ID);
+
+        // Must wrap the response before NettyWriteResponseFilter writes it, but after Compression to store it as it is
+        return new OrderedGatewayFilter(
+                (exchange, chain) -> {
+                    final String idempotencyKey = exchange.getRequest()
+                            .getHeaders()
+                            .getFirst(IDEMPOTENCY_KEY_HEADER);
+                    if (null == idempotencyKey ||
+                            !config.getMethods().contains(exchange.getRequest().getMethod())) {
+                        return chain.filter(exchange);
+                    }
+                    if (idempotencyKey.isBlank() || MAX_KEY_LENGTH < idempotencyKey.length()) {
+                        return ResponseUtil.writeErrorResponse(
+                                exchange,
+                                VALIDATION,
+                                List.of(
+                                        format("The header %s must contain between 1 and %d characters",
+                                                IDEMPOTENCY_KEY_HEADER,
+                                                MAX_KEY_LENGTH
+                                        )
+                                ),
+                                BAD_REQUEST
+                        );
+                    }
+                    final String key = getKey(exchange, routeId, idempotencyKey);
+                    return cacheRequestBody(
+                            exchange,
+                            cachedRequest ->
+                                    manageRequest(
+                                            exchange.mutate()
+                                                    .request(cachedRequest)
+                                                    .build(),
+                                            chain,
+                                            key,
+                                            getRequestHash(exchange),
+                                            routeId,
+                                            config
+                                    )
+                    );
+                },
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1
+        );
+    }
+
+
+    /**
+     * Sends the request to the downstream service, or returns the response of the previous one with the same key.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param chain
+     *    {@link GatewayFilterChain} used to send the request
+     * @param key
+     *    Idempotency key of the request, scoped by credentials, method and path
+     * @param requestHash
+     *    Hash of the body of the request
+     * @param routeId
+     *    Identifier of the route
+     * @param config
+     *    {@link Config} of the route
+     *
+     * @return {@link Mono} with the written response
+     */
+    private Mono<Void> manageRequest(final ServerWebExchange exchange,
+                                     final GatewayFilterChain chain,
+                                     final String key,
+                                     final String requestHash,
+                                     final String routeId,
+                                     final Config config) {
+        return Mono.defer(() -> {
+            final Reservation reservation = store.reserve(key, requestHash, System.nanoTime());
+            if (reservation.isMismatch()) {
+                countRequest(routeId, "mismatch");
+                return ResponseUtil.writeErrorResponse(
+                        exchange,
+                        VALIDATION,
+                        List.of(
+                                format("The %s was already used by a request with a different body",
+                                        IDEMPOTENCY_KEY_HEADER
+                                )
+                        ),
+                        UNPROCESSABLE_ENTITY
+                );
+            }
+            if (reservation.isAcquired()) {
+                countRequest(routeId, "executed");
+                return sendRequest(exchange, chain, key, config);
+            }
+            if (null != reservation.getResponse()) {
+                countRequest(routeId, "replayed");
+                return writeStoredResponse(exchange, reservation.getResponse());
+            }
+            return reservation.getPendingResponse()
+                    .timeout(Duration.ofMillis(config.getMaxWaitInMilliseconds()))
+                    .flatMap(response -> {
+                        if (response.isEmpty()) {
+                            // The request in progress failed, so this one can be sent
+                            return manageRequest(exchange, chain, key, requestHash, routeId, config);
+                        }
+                        countRequest(routeId, "waited");
+                        return writeStoredResponse(exchange, response.get());
+                    })
+                    .onErrorResume(TimeoutException.class, e -> {
+                        countRequest(routeId, "conflict");
+                        return ResponseUtil.writeErrorResponse(
+                                exchange,
+                                VALIDATION,
+                                List.of(
+                                        format("A request with the same %s is still in progress. Please try again later",
+                                                IDEMPOTENCY_KEY_HEADER
+                                        )
+                                ),
+                                CONFLICT
+                        );
+                    });
+        });
+    }
+
+
+    /**
+     *    Sends the request to the downstream service, storing its response if it can be returned to the retries. The
+     * key is released if the request fails or it is cancelled before storing the response.
+     */
+    private Mono<Void> sendRequest(final ServerWebExchange exchange,
+                                   final GatewayFilterChain chain,
+                                   final String key,
+                                   final Config config) {
+        final ServerHttpResponse response = exchange.getResponse();
+        final ServerHttpResponseDecorator decoratedResponse = new ServerHttpResponseDecorator(response) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                final Integer status = getRawStatusCode();
+                if (!isStorable(status)) {
+                    return super.writeWith(body);
+                }
+                final ByteArrayOutputStream content = new ByteArrayOutputStream();
+                final boolean[] discarded = { false };
+                // Copied before writing the body, because the next filters could modify them (e.g. Compression)
+                final HttpHeaders headers = getHeadersToStore(getHeaders());
+                return super.writeWith(
+                        Flux.from(body)
+                                .doOnNext(buffer -> {
+                                    final int size = buffer.readableByteCount();
+                                    if (discarded[0] || content.size() + size > config.getMaxBodySizeInBytes()) {
+                                        discarded[0] = true;
+                                        content.reset();
+                                        return;
+                                    }
+                                    final byte[] bytes = new byte[size];
+                                    buffer.asByteBuffer().get(bytes);
+                                    content.writeBytes(bytes);
+                                })
+                                .doOnComplete(() -> {
+                                    if (!discarded[0]) {
+                                        store.complete(
+                                                key,
+                                                new IdempotentResponse(
+                                                        status,
+                                                        headers,
+                                                        content.toByteArray(),
+                                                        System.nanoTime(),
+                                                        TimeUnit.SECONDS.toNanos(config.getTtlInSeconds())
+                                                )
+                                        );
+                                    }
+                                })
+                );
+            }
+        };
+        return chain.filter(
+                        exchange.mutate()
+                                .response(decoratedResponse)
+                                .build()
+                )
+                // Does nothing if the response was stored
+                .doFinally(signal -> store.release(key));
+    }
+
+
+    private Mono<Void> writeStoredResponse(final ServerWebExchange exchange,
+                                           final IdempotentResponse storedResponse) {
+        final ServerHttpResponse response = exchange.getResponse();
+        response.setRawStatusCode(storedResponse.getHttpStatus());
+        response.getHeaders().putAll(storedResponse.getHeaders());
+        response.getHeaders().set(IDEMPOTENT_REPLAYED_HEADER, Boolean.TRUE.toString());
+        return response.writeWith(
+                Mono.fromSupplier(() ->
+                        response.bufferFactory()
+                                .wrap(storedResponse.getBody())
+                )
+        );
+    }
+
+
+    private boolean isStorable(final Integer status) {
+        return null != status &&
+                HttpStatus.INTERNAL_SERVER_ERROR.value() > status &&
+                !TRANSIENT_STATUSES.contains(status);
+    }
+
+
+    private String getKey(final ServerWebExchange exchange,
+                          final String routeId,
+                          final String idempotencyKey) {
+        final String scope = RequestUtil.getCredentialsDigest(exchange.getRequest())
+                .map(credentials -> "credentials:" + credentials)
+                .orElseGet(() ->
+                        "ip:" + ofNullable(exchange.getRequest().getRemoteAddress())
+                                .map(InetSocketAddress::getHostString)
+                                .orElse("unknown")
+                );
+        return routeId
+                + " " + scope
+                + " " + exchange.getRequest().getMethodValue()
+                + " " + exchange.getRequest().getURI().getRawPath()
+                + " " + idempotencyKey;
+    }
+
+
+    /**
+     * Returns the hash of the body cached by {@code cacheRequestBody}, or the one of an empty body if there is none.
+     */
+    private static String getRequestHash(final ServerWebExchange exchange) {
+        final DataBuffer body = exchange.getAttribute(CACHED_REQUEST_BODY_ATTR);
+        if (null == body) {
+            return RequestUtil.sha256(new byte[0]);
+        }
+        // The view does not change the read position of the cached body
+        final byte[] bytes = new byte[body.readableByteCount()];
+        body.asByteBuffer().get(bytes);
+        return RequestUtil.sha256(bytes);
+    }
+
+
+    private static HttpHeaders getHeadersToStore(final HttpHeaders responseHeaders) {
+        final HttpHeaders headers = new HttpHeaders();
+        HEADERS_TO_STORE.forEach(h ->
+                ofNullable(responseHeaders.get(h))
+                        .ifPresent(values -> headers.put(h, List.copyOf(values)))
+        );
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+
+    private void countRequest(final String routeId,
+                              final String outcome) {
+        meterRegistry.counter(
+                METRIC_REQUESTS,
+                METRIC_TAG_OUTCOME, outcome,
+                METRIC_TAG_ROUTE, routeId
+        ).increment();
+    }
+
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private Set<HttpMethod> methods = Set.of(
+                HttpMethod.PATCH,
+                HttpMethod.POST
+        );
+
+        private long ttlInSeconds = 3600;
+
+        private long maxWaitInMilliseconds = 10000;
+
+        private int maxBodySizeInBytes = 262144;
+
+    }
+
+}
@@ -0,0 +1,325 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.admission.PriorityAdmissionQueue;
+import com.gatewayserver.admission.PriorityAdmissionQueue.Outcome;
+import com.gatewayserver.admission.PriorityAdmissionQueue.Waiter;
+import com.gatewayserver.admission.RequestPriority;
+import com.gatewayserver.configuration.admission.AdmissionConfiguration;
+import com.gatewayserver.util.ResponseUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.spring5microservices.common.enums.RestApiErrorCode.INTERNAL;
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ *    Sends the requests of a route to the downstream service through the {@link PriorityAdmissionQueue} shared by
+ * the whole gateway, so when it is overloaded the requests with the highest {@link RequestPriority} are sent first,
+ * and the lowest priority ones are rejected first. The requests that could not be sent before their deadline are
+ * rejected with {@link HttpStatus#SERVICE_UNAVAILABLE} and a {@link HttpHeaders#RETRY_AFTER} header.
+ * <p>
+ *    The gateway does not verify the received credentials, so they are not taken into account: any caller could send
+ * the ones of a privileged client to skip the load shedding. The priority of every request is resolved using the
+ * route, its path and its Http method, in the following order:
+ * <p>
+ *   1. {@link Config#getPathPriorities()}: the first pattern that matches with the path of the request.
+ * <p>
+ *   2. {@link Config#getWritePriority()}: requests that modify the data, like {@link HttpMethod#POST}.
+ * <p>
+ *   3. {@link Config#getPriority()}: otherwise.
+ * <p>
+ * Configuration example in a route:
+ * <pre>
+ *    filters:
+ *      - name: PriorityAdmission
+ *        args:
+ *          priority: NORMAL
+ *          writePriority: HIGH
+ *          pathPriorities:
+ *            "[/pizza/export]": LOW
+ *            "[/pizza/page/**]": LOW
+ * </pre>
+ */
+@Component
+@Log4j2
+public class PriorityAdmissionGatewayFilterFactory extends AbstractGatewayFilterFactory<PriorityAdmissionGatewayFilterFactory.Config> {
+
+    private static final String NO_ROUTE_ID = "no route id";
+
+    private static final String METRIC_QUEUE_TIME = "gateway.admission.queue.time";
+    private static final String METRIC_SHED = "gateway.admission.shed";
+    private static final String METRIC_TAG_PRIORITY = "priority";
+    private static final String METRIC_TAG_REASON = "reason";
+    private static final String METRIC_TAG_ROUTE = "route";
+
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(
+            HttpMethod.DELETE,
+            HttpMethod.PATCH,
+            HttpMethod.POST,
+            HttpMethod.PUT
+    );
+
+    private final PriorityAdmissionQueue admissionQueue;
+
+    private final AdmissionConfiguration admissionConfiguration;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<RequestPriority, Timer> queueTimers;
+
+
+    @Autowired
+    public PriorityAdmissionGatewayFilterFactory(final PriorityAdmissionQueue admissionQueue,
+                                                 final AdmissionConfiguration admissionConfiguration,
+                                                 final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.admissionQueue = admissionQueue;
+        this.admissionConfiguration = admissionConfiguration;
+        this.meterRegistry = meterRegistry;
+        this.queueTimers = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            this.queueTimers.put(
+                    priority,
+                    Timer.builder(METRIC_QUEUE_TIME)
+                            .description("Time the requests waited to be sent to the downstream services")
+                            .tag(METRIC_TAG_PRIORITY, priority.name())
+                            .register(meterRegistry)
+            );
+        }
+    }
+
+
+    /**
+     *    The returned filter is executed just before the load balancer chooses an instance, so the choice is made
+     * with the current state of the instances once the request has been admitted.
+     */
+    @Override
+    public GatewayFilter apply(final Config config) {
+        final Map<PathPattern, RequestPriority> pathPriorities = parsePathPriorities(config);
+        return new OrderedGatewayFilter(
+                (exchange, chain) -> {
+                    final RequestPriority priority = resolvePriority(exchange, config, pathPriorities);
+                    final long maxQueueTimeInNanoseconds = TimeUnit.MILLISECONDS.toNanos(
+                            getMaxQueueTimeInMilliseconds(priority, config)
+                    );
+                    final long submitTimeInNanoseconds = System.nanoTime();
+                    final Sinks.One<Outcome> outcomeSink = Sinks.one();
+                    final Waiter waiter = new Waiter(
+                            priority,
+                            submitTimeInNanoseconds + maxQueueTimeInNanoseconds,
+                            outcomeSink::tryEmitValue
+                    );
+                    return waitForOutcome(waiter, outcomeSink, maxQueueTimeInNanoseconds)
+                            .doOnCancel(() ->
+                                    admissionQueue.cancel(waiter, System.nanoTime())
+                            )
+                            .flatMap(outcome -> {
+                                if (Outcome.ADMITTED != outcome) {
+                                    return shedRequest(exchange, config, priority, outcome);
+                                }
+                                queueTimers.get(priority)
+                                        .record(System.nanoTime() - submitTimeInNanoseconds, TimeUnit.NANOSECONDS);
+
+                                return chain.filter(exchange)
+                                        .doFinally(signal ->
+                                                admissionQueue.release(waiter, System.nanoTime())
+                                        );
+                            });
+                },
+                ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1
+        );
+    }
+
+
+    /**
+     * Submits the given {@link Waiter}, expiring it if it is still waiting when its deadline is reached.
+     *
+     * @param waiter
+     *    {@link Waiter} with the request information
+     * @param outcomeSink
+     *    {@link Sinks.One} notified by the {@link Waiter}
+     * @param maxQueueTimeInNanoseconds
+     *    Maximum time the request can wait to be sent
+     *
+     * @return {@link Mono} with the {@link Outcome} of the request
+     */
+    private Mono<Outcome> waitForOutcome(final Waiter waiter,
+                                         final Sinks.One<Outcome> outcomeSink,
+                                         final long maxQueueTimeInNanoseconds) {
+        return Mono.defer(() -> {
+            if (!admissionQueue.submit(waiter)) {
+                return outcomeSink.asMono();
+            }
+            final Disposable expiration = Schedulers.parallel()
+                    .schedule(
+                            () -> admissionQueue.expire(waiter),
+                            maxQueueTimeInNanoseconds,
+                            TimeUnit.NANOSECONDS
+                    );
+            return outcomeSink.asMono()
+                    .doFinally(signal -> expiration.dispose());
+        });
+    }
+
+
+    /**
+     * Returns the {@link RequestPriority} of the request included in the given {@link ServerWebExchange}.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param config
+     *    {@link Config} with the priorities of the route
+     * @param pathPriorities
+     *    {@link Config#getPathPriorities()} with their patterns already parsed
+     *
+     * @return {@link RequestPriority}
+     */
+    private RequestPriority resolvePriority(final ServerWebExchange exchange,
+                                            final Config config,
+                                            final Map<PathPattern, RequestPriority> pathPriorities) {
+        if (!pathPriorities.isEmpty()) {
+            final PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+            for (Map.Entry<PathPattern, RequestPriority> pathPriority : pathPriorities.entrySet()) {
+                if (pathPriority.getKey().matches(path)) {
+                    return pathPriority.getValue();
+                }
+            }
+        }
+        if (WRITE_METHODS.contains(exchange.getRequest().getMethod()) &&
+                null != config.getWritePriority()) {
+            return config.getWritePriority();
+        }
+        return config.getPriority();
+    }
+
+
+    private static Map<PathPattern, RequestPriority> parsePathPriorities(final Config config) {
+        return config.getPathPriorities()
+                .entrySet()
+                .stream()
+                .collect(
+                        Collectors.toMap(
+                                e -> PathPatternParser.defaultInstance.parse(e.getKey()),
+                                Map.Entry::getValue,
+                                (p1, p2) -> p1,
+                                LinkedHashMap::new
+                        )
+                );
+    }
+
+
+    private long getMaxQueueTimeInMilliseconds(final RequestPriority priority,
+                                               final Config config) {
+        return ofNullable(config.getMaxQueueTimeInMilliseconds())
+                .orElseGet(() ->
+                        admissionConfiguration.getMaxQueueTimeInMilliseconds(priority)
+                );
+    }
+
+
+    /**
+     * Rejects the current request because it could not be admitted.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param config
+     *    {@link Config} with the priorities of the route
+     * @param priority
+     *    {@link RequestPriority} of the request
+     * @param outcome
+     *    {@link Outcome} of the request
+     *
+     * @return {@link Mono} with the suitable Http response
+     */
+    private Mono<Void> shedRequest(final ServerWebExchange exchange,
+                                   final Config config,
+                                   final RequestPriority priority,
+                                   final Outcome outcome) {
+        meterRegistry.counter(
+                METRIC_SHED,
+                METRIC_TAG_PRIORITY, priority.name(),
+                METRIC_TAG_REASON, outcome.name(),
+                METRIC_TAG_ROUTE, getRouteId(config)
+        ).increment();
+
+        final String errorMessage = format("The gateway is overloaded and the request sent to: %s could not be managed. Please try again later",
+                getRouteId(config)
+        );
+        log.debug(
+                format("%s (priority: %s, reason: %s)",
+                        errorMessage,
+                        priority,
+                        outcome
+                )
+        );
+        exchange.getResponse()
+                .getHeaders()
+                .set(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterInSeconds()));
+
+        return ResponseUtil.writeErrorResponse(
+                exchange,
+                INTERNAL,
+                List.of(errorMessage),
+                SERVICE_UNAVAILABLE
+        );
+    }
+
+
+    private String getRouteId(final Config config) {
+        return ofNullable(config.getRouteId())
+                .orElse(NO_ROUTE_ID);
+    }
+
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private RequestPriority priority = RequestPriority.NORMAL;
+
+        private RequestPriority writePriority;
+
+        // Sorted as they were configured, the first one that matches is used
+        private Map<String, RequestPriority> pathPriorities = new LinkedHashMap<>();
+
+        // If it is not configured, the one related with the priority of every request is used
+        private Long maxQueueTimeInMilliseconds;
+
+        private long retryAfterInSeconds = 1;
+
+    }
+
+}
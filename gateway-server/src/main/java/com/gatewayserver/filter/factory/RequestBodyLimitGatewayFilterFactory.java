@@ -0,0 +1,363 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.util.ResponseUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.spring5microservices.common.enums.RestApiErrorCode.VALIDATION;
+import static java.lang.String.format;
+import static java.util.Optional.empty;
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
+import static org.springframework.http.HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+
+/**
+ *    Rejects the requests of a route whose body is bigger than {@code maxSizeInBytes} or whose
+ * {@link HttpHeaders#CONTENT_TYPE} is not one of {@code contentTypes}, before sending them to the downstream service.
+ * The body is never buffered:
+ * <p>
+ *   - If the request has a {@link HttpHeaders#CONTENT_LENGTH}, it is rejected before reading its body.
+ * <p>
+ *   - Otherwise, the received bytes are counted while the body is sent to the downstream service, and the request is
+ *     rejected (and its connection with the downstream service closed) once the limit is exceeded.
+ * <p>
+ *    With {@code validateJsonStart}, the JSON bodies must start with an object or an array, so the ones that are not
+ * JSON at all are rejected when their first chunk is received, instead of when the service deserializes them. The
+ * newline delimited JSON bodies, allowed by default, are not validated.
+ * <p>
+ * Configuration example in a route:
+ * <pre>
+ *    filters:
+ *      - name: RequestBodyLimit
+ *        args:
+ *          maxSizeInBytes: 65536
+ *          contentTypes: application/json, application/x-ndjson
+ * </pre>
+ */
+@Component
+@Log4j2
+public class RequestBodyLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<RequestBodyLimitGatewayFilterFactory.Config> {
+
+    /**
+     * Executed before any other filter could read or buffer the body.
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private static final String NO_ROUTE_ID = "no route id";
+
+    private static final String CHUNKED_TRANSFER_ENCODING = "chunked";
+
+    private static final String METRIC_REJECTED = "gateway.request.rejected";
+    private static final String METRIC_TAG_REASON = "reason";
+    private static final String METRIC_TAG_ROUTE = "route";
+
+    private final MeterRegistry meterRegistry;
+
+
+    @Autowired
+    public RequestBodyLimitGatewayFilterFactory(final MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+
+    @Override
+    public GatewayFilter apply(final Config config) {
+        final String routeId = getRouteId(config);
+        final List<MediaType> contentTypes = ofNullable(config.getContentTypes())
+                .orElseGet(List::of)
+                .stream()
+                .map(MediaType::parseMediaType)
+                .collect(toList());
+
+        return new OrderedGatewayFilter(
+                (exchange, chain) -> {
+                    final ServerHttpRequest request = exchange.getRequest();
+                    if (!hasBody(request.getHeaders())) {
+                        return chain.filter(exchange);
+                    }
+                    final long contentLength = request.getHeaders().getContentLength();
+                    if (contentLength > config.getMaxSizeInBytes()) {
+                        return reject(exchange, routeId, Rejection.SIZE, config);
+                    }
+                    final Optional<MediaType> contentType = getContentType(request.getHeaders());
+                    if (!contentTypes.isEmpty() &&
+                            contentType.map(t -> contentTypes.stream().noneMatch(a -> a.includes(t)))
+                                    .orElse(true)) {
+                        return reject(exchange, routeId, Rejection.CONTENT_TYPE, config);
+                    }
+                    final boolean validateJsonStart = config.isValidateJsonStart() &&
+                            contentType.map(this::isJson)
+                                    .orElse(false);
+
+                    return chain.filter(
+                                    exchange.mutate()
+                                            .request(
+                                                    new LimitedBodyRequest(request, config.getMaxSizeInBytes(), validateJsonStart)
+                                            )
+                                            .build()
+                            )
+                            .onErrorResume(RejectedBodyException.class, e -> {
+                                if (exchange.getResponse().isCommitted()) {
+                                    return Mono.error(e);
+                                }
+                                return reject(exchange, routeId, e.getRejection(), config);
+                            });
+                },
+                ORDER
+        );
+    }
+
+
+    /**
+     * Checks if the request with the given {@link HttpHeaders} includes a body.
+     *
+     * @param headers
+     *    {@link HttpHeaders} of the request
+     *
+     * @return {@code true} if it has a positive {@link HttpHeaders#CONTENT_LENGTH} or a chunked body,
+     *         {@code false} otherwise
+     */
+    private boolean hasBody(final HttpHeaders headers) {
+        return 0 < headers.getContentLength() ||
+                ofNullable(headers.getFirst(HttpHeaders.TRANSFER_ENCODING))
+                        .map(e -> e.toLowerCase().contains(CHUNKED_TRANSFER_ENCODING))
+                        .orElse(false);
+    }
+
+
+    private Optional<MediaType> getContentType(final HttpHeaders headers) {
+        try {
+            return ofNullable(headers.getContentType());
+        } catch (InvalidMediaTypeException e) {
+            return empty();
+        }
+    }
+
+
+    private boolean isJson(final MediaType contentType) {
+        return MediaType.APPLICATION_JSON.isCompatibleWith(contentType) ||
+                ofNullable(contentType.getSubtype())
+                        .map(s -> s.endsWith("+json"))
+                        .orElse(false);
+    }
+
+
+    /**
+     * Rejects the current request, without reading the rest of its body.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param routeId
+     *    Identifier of the route
+     * @param rejection
+     *    {@link Rejection} with the reason
+     * @param config
+     *    {@link Config} of the route
+     *
+     * @return {@link Mono} with the suitable Http response
+     */
+    private Mono<Void> reject(final ServerWebExchange exchange,
+                              final String routeId,
+                              final Rejection rejection,
+                              final Config config) {
+        meterRegistry.counter(
+                METRIC_REJECTED,
+                METRIC_TAG_REASON, rejection.getMetricTag(),
+                METRIC_TAG_ROUTE, routeId
+        ).increment();
+
+        final String errorMessage = format(rejection.getErrorMessage(),
+                config.getMaxSizeInBytes()
+        );
+        log.debug(
+                format("The request sent to: %s has been rejected. %s",
+                        routeId,
+                        errorMessage
+                )
+        );
+        // The rest of the body will not be read, so the connection cannot be reused
+        exchange.getResponse()
+                .getHeaders()
+                .set(HttpHeaders.CONNECTION, "close");
+
+        return ResponseUtil.writeErrorResponse(
+                exchange,
+                VALIDATION,
+                List.of(errorMessage),
+                rejection.getHttpStatus()
+        );
+    }
+
+
+    private String getRouteId(final Config config) {
+        return ofNullable(config.getRouteId())
+                .orElse(NO_ROUTE_ID);
+    }
+
+
+    /**
+     * Reasons to reject a request, with the related response.
+     */
+    @Getter
+    enum Rejection {
+        SIZE("size", PAYLOAD_TOO_LARGE, "The body of the request cannot be bigger than %d bytes"),
+        CONTENT_TYPE("contentType", UNSUPPORTED_MEDIA_TYPE, "The content type of the request is not supported"),
+        MALFORMED("malformed", BAD_REQUEST, "The body of the request is not a valid JSON");
+
+        private final String metricTag;
+        private final HttpStatus httpStatus;
+        private final String errorMessage;
+
+        Rejection(final String metricTag,
+                  final HttpStatus httpStatus,
+                  final String errorMessage) {
+            this.metricTag = metricTag;
+            this.httpStatus = httpStatus;
+            this.errorMessage = errorMessage;
+        }
+    }
+
+
+    /**
+     * Error emitted by the body of {@link LimitedBodyRequest} when it is not valid.
+     */
+    @Getter
+    static class RejectedBodyException extends DataBufferLimitException {
+
+        private final Rejection rejection;
+
+        RejectedBodyException(final Rejection rejection) {
+            super(rejection.name());
+            this.rejection = rejection;
+        }
+
+        // Expected error that could be used by many requests, so its stack trace is not required
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+
+    /**
+     * {@link ServerHttpRequest} whose body is checked while it is read.
+     */
+    static class LimitedBodyRequest extends ServerHttpRequestDecorator {
+
+        private final long maxSizeInBytes;
+
+        private final boolean validateJsonStart;
+
+
+        LimitedBodyRequest(final ServerHttpRequest request,
+                           final long maxSizeInBytes,
+                           final boolean validateJsonStart) {
+            super(request);
+            this.maxSizeInBytes = maxSizeInBytes;
+            this.validateJsonStart = validateJsonStart;
+        }
+
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.defer(() -> {
+                final long[] readBytes = { 0 };
+                final boolean[] jsonStartChecked = { !validateJsonStart };
+                return super.getBody()
+                        .handle((buffer, sink) -> {
+                            readBytes[0] += buffer.readableByteCount();
+                            Rejection rejection = readBytes[0] > maxSizeInBytes
+                                    ? Rejection.SIZE
+                                    : null;
+                            if (null == rejection && !jsonStartChecked[0]) {
+                                final Boolean validStart = isValidJsonStart(buffer);
+                                jsonStartChecked[0] = null != validStart;
+                                if (Boolean.FALSE.equals(validStart)) {
+                                    rejection = Rejection.MALFORMED;
+                                }
+                            }
+                            if (null != rejection) {
+                                DataBufferUtils.release(buffer);
+                                sink.error(new RejectedBodyException(rejection));
+                            }
+                            else {
+                                sink.next(buffer);
+                            }
+                        });
+            });
+        }
+
+
+        /**
+         * Checks if the first not blank character of the given {@link DataBuffer} can start a JSON object or array.
+         *
+         * @param buffer
+         *    {@link DataBuffer} to check, whose read position is not modified
+         *
+         * @return {@code null} if {@code buffer} contains only blank characters,
+         *         {@code true} if its first not blank character is a valid one,
+         *         {@code false} otherwise
+         */
+        static Boolean isValidJsonStart(final DataBuffer buffer) {
+            for (int i = buffer.readPosition(); i < buffer.writePosition(); i++) {
+                final byte b = buffer.getByte(i);
+                // Blank characters and UTF-8 byte order mark
+                if (' ' == b || '\t' == b || '\r' == b || '\n' == b ||
+                        (byte) 0xEF == b || (byte) 0xBB == b || (byte) 0xBF == b) {
+                    continue;
+                }
+                return '{' == b || '[' == b;
+            }
+            return null;
+        }
+
+    }
+
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private long maxSizeInBytes = 1024 * 1024;
+
+        // If it is empty, any content type is allowed. Newline delimited JSON is used to import pizzas
+        private List<String> contentTypes = List.of(
+                MediaType.APPLICATION_JSON_VALUE,
+                "application/*+json",
+                MediaType.APPLICATION_NDJSON_VALUE
+        );
+
+        private boolean validateJsonStart = true;
+
+    }
+
+}
@@ -0,0 +1,318 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.cache.StaleResponse;
+import com.gatewayserver.cache.StaleResponseStore;
+import com.gatewayserver.util.RequestUtil;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ *    Stores the last successful response of the {@link HttpMethod#GET} requests of a route, so it can be returned by
+ * the fallback of the circuit breaker when the downstream service is not available (stale-if-error). The fallback
+ * gets the stored response using the key saved in the {@link #STALE_RESPONSE_KEY_ATTR} attribute. The streams of
+ * server-sent events are never stored.
+ * <p>
+ *    Only the requests that include credentials ({@link HttpHeaders#AUTHORIZATION}) are taken into account, and by
+ * default their responses are stored per credentials, so the fallback only returns a response to the caller that
+ * presented exactly the same ones. {@code varyByPrincipal} should only be disabled if the responses of the route do
+ * not include principal's specific data. The responses marked as {@code private}, {@code no-store} or
+ * {@code no-cache} by their {@link HttpHeaders#CACHE_CONTROL} are never stored:
+ * <pre>
+ *    filters:
+ *      - name: StaleIfError
+ *        args:
+ *          maxStaleInSeconds: 300
+ *      - name: CircuitBreaker
+ *        args:
+ *          name: pizzaServiceCircuitBreaker
+ *          fallbackUri: forward:/failed/pizza-service/redirect
+ * </pre>
+ */
+@Component
+@Log4j2
+public class StaleIfErrorGatewayFilterFactory extends AbstractGatewayFilterFactory<StaleIfErrorGatewayFilterFactory.Config> {
+
+    public static final String STALE_RESPONSE_KEY_ATTR = StaleIfErrorGatewayFilterFactory.class.getName() + ".key";
+
+    private static final String NO_ROUTE_ID = "no route id";
+
+    private static final Set<String> NOT_STORABLE_CACHE_CONTROL_DIRECTIVES = Set.of(
+            "no-cache",
+            "no-store",
+            "private"
+    );
+
+    private static final List<String> HEADERS_TO_STORE = List.of(
+            HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED
+    );
+
+    private final StaleResponseStore store;
+
+
+    @Autowired
+    public StaleIfErrorGatewayFilterFactory(final StaleResponseStore store) {
+        super(Config.class);
+        this.store = store;
+    }
+
+
+    @Override
+    public GatewayFilter apply(final Config config) {
+        // Must wrap the response before NettyWriteResponseFilter writes it
+        return new OrderedGatewayFilter(
+                (exchange, chain) -> {
+                    if (HttpMethod.GET != exchange.getRequest().getMethod() ||
+                            RequestUtil.isEventStreamRequest(exchange.getRequest())) {
+                        return chain.filter(exchange);
+                    }
+                    final Optional<String> credentials = RequestUtil.getCredentialsDigest(exchange.getRequest());
+                    if (credentials.isEmpty()) {
+                        return chain.filter(exchange);
+                    }
+                    final String key = getKey(exchange, credentials.get(), config);
+                    exchange.getAttributes().put(STALE_RESPONSE_KEY_ATTR, key);
+                    return chain.filter(
+                            exchange.mutate()
+                                    .response(
+                                            getDecoratedResponseAndStoreBody(exchange, key, config)
+                                    )
+                                    .build()
+                    );
+                },
+                NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1
+        );
+    }
+
+
+    /**
+     * Decorates the outgoing {@link ServerHttpResponse} to store its body if it is a successful one.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param key
+     *    Identifier used to store the response
+     * @param config
+     *    {@link Config} of the route
+     *
+     * @return {@link ServerHttpResponse} with the decorated response
+     */
+    private ServerHttpResponse getDecoratedResponseAndStoreBody(final ServerWebExchange exchange,
+                                                                final String key,
+                                                                final Config config) {
+        return new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                if (!shouldStoreResponse(exchange, getStatusCode(), getHeaders())) {
+                    return super.writeWith(body);
+                }
+                final BodyCollector collector = new BodyCollector(config.getMaxBodySizeInBytes());
+                // Copied before writing the body, because the next filters could modify them (e.g. Compression)
+                final HttpHeaders headers = getHeadersToStore(getHeaders());
+                return super.writeWith(
+                        Flux.from(body)
+                                .doOnNext(collector::collect)
+                                .doOnComplete(() ->
+                                        storeResponse(
+                                                key,
+                                                getDelegate(),
+                                                headers,
+                                                collector,
+                                                config
+                                        )
+                                )
+                );
+            }
+        };
+    }
+
+
+    private void storeResponse(final String key,
+                               final ServerHttpResponse response,
+                               final HttpHeaders headers,
+                               final BodyCollector collector,
+                               final Config config) {
+        if (collector.isDiscarded()) {
+            log.debug(
+                    format("The response of: %s is too big to be stored",
+                            key
+                    )
+            );
+            return;
+        }
+        final boolean stored = store.put(
+                key,
+                new StaleResponse(
+                        ofNullable(response.getRawStatusCode())
+                                .orElse(HttpStatus.OK.value()),
+                        headers,
+                        collector.getContent(),
+                        System.nanoTime(),
+                        TimeUnit.SECONDS.toNanos(config.getMaxStaleInSeconds())
+                )
+        );
+        if (!stored) {
+            log.debug(
+                    format("The response of: %s is too big to be stored",
+                            key
+                    )
+            );
+        }
+    }
+
+
+    /**
+     *    Only the successful responses returned by the downstream service are stored, not the ones of the fallback
+     * nor the ones whose {@link HttpHeaders#CACHE_CONTROL} forbids it.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the response information
+     * @param httpStatus
+     *    {@link HttpStatus} of the response
+     * @param responseHeaders
+     *    {@link HttpHeaders} of the response
+     *
+     * @return {@code true} if the response must be stored, {@code false} otherwise
+     */
+    private boolean shouldStoreResponse(final ServerWebExchange exchange,
+                                        final HttpStatus httpStatus,
+                                        final HttpHeaders responseHeaders) {
+        return null == exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) &&
+                ofNullable(httpStatus)
+                        .map(HttpStatus::is2xxSuccessful)
+                        .orElse(false) &&
+                isStorable(responseHeaders.getCacheControl());
+    }
+
+
+    /**
+     * Checks if the given {@link HttpHeaders#CACHE_CONTROL} value allows to store the response.
+     *
+     * @param cacheControl
+     *    {@link HttpHeaders#CACHE_CONTROL} of the response
+     *
+     * @return {@code false} if it includes any of {@link #NOT_STORABLE_CACHE_CONTROL_DIRECTIVES}, {@code true} otherwise
+     */
+    static boolean isStorable(final String cacheControl) {
+        return ofNullable(cacheControl)
+                .map(cc ->
+                        Arrays.stream(cc.split(","))
+                                .map(directive -> directive.split("=", 2)[0].trim().toLowerCase(Locale.ROOT))
+                                .noneMatch(NOT_STORABLE_CACHE_CONTROL_DIRECTIVES::contains)
+                )
+                .orElse(true);
+    }
+
+
+    private static HttpHeaders getHeadersToStore(final HttpHeaders responseHeaders) {
+        final HttpHeaders headers = new HttpHeaders();
+        HEADERS_TO_STORE.forEach(h ->
+                ofNullable(responseHeaders.get(h))
+                        .ifPresent(values -> headers.put(h, List.copyOf(values)))
+        );
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+
+    private String getKey(final ServerWebExchange exchange,
+                          final String credentials,
+                          final Config config) {
+        final String key = ofNullable(config.getRouteId()).orElse(NO_ROUTE_ID)
+                + " " + exchange.getRequest().getURI().getRawPath()
+                + ofNullable(exchange.getRequest().getURI().getRawQuery())
+                      .map(q -> "?" + q)
+                      .orElse("");
+
+        return config.isVaryByPrincipal()
+                ? key + " " + credentials
+                : key;
+    }
+
+
+    /**
+     * Copies the content of the response, discarding it if it exceeds the given limit.
+     */
+    private static class BodyCollector {
+
+        private final int maxSizeInBytes;
+
+        private final ByteArrayOutputStream content;
+
+        @Getter
+        private boolean discarded;
+
+
+        BodyCollector(final int maxSizeInBytes) {
+            this.maxSizeInBytes = maxSizeInBytes;
+            this.content = new ByteArrayOutputStream();
+            this.discarded = false;
+        }
+
+
+        void collect(final DataBuffer dataBuffer) {
+            final int size = dataBuffer.readableByteCount();
+            if (discarded || content.size() + size > maxSizeInBytes) {
+                discarded = true;
+                content.reset();
+                return;
+            }
+            byte[] bytes = new byte[size];
+            dataBuffer.asByteBuffer().get(bytes);
+            content.writeBytes(bytes);
+        }
+
+
+        byte[] getContent() {
+            return content.toByteArray();
+        }
+
+    }
+
+
+    @Getter
+    @Setter
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        private long maxStaleInSeconds = 300;
+
+        private int maxBodySizeInBytes = 262144;
+
+        private boolean varyByPrincipal = true;
+
+    }
+
+}
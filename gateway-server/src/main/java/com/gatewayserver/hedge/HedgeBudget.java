@@ -0,0 +1,81 @@
+package com.gatewayserver.hedge;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *    Limits the extra load sent to the downstream services by the hedged requests. Every request that could be hedged
+ * deposits {@code percentage} / 100 tokens, and every hedged request withdraws one token, so in the long run at most
+ * {@code percentage}% of the requests will be hedged. The balance is limited to {@code maxTokens} to avoid a burst
+ * of hedged requests after a long calm period.
+ */
+public class HedgeBudget {
+
+    // Fixed point used to store fractions of tokens
+    private static final long TOKEN = 1_000;
+
+    private final long deposit;
+
+    private final long maxBalance;
+
+    private final AtomicLong balance;
+
+
+    /**
+     * Construct a {@link HedgeBudget}
+     *
+     * @param percentage
+     *    Maximum percentage of requests that can be hedged
+     * @param maxTokens
+     *    Maximum number of hedged requests that can be accumulated
+     *
+     * @throws IllegalArgumentException if {@code percentage} is not between 0 and 100 or {@code maxTokens} is not
+     *                                  greater than 0
+     */
+    public HedgeBudget(final double percentage,
+                       final int maxTokens) {
+        Assert.isTrue(0 <= percentage && 100 >= percentage, "percentage must be between 0 and 100");
+        Assert.isTrue(0 < maxTokens, "maxTokens must be greater than 0");
+        this.deposit = Math.round(percentage / 100 * TOKEN);
+        this.maxBalance = maxTokens * TOKEN;
+        this.balance = new AtomicLong(0);
+    }
+
+
+    /**
+     * Registers a new request that could be hedged.
+     */
+    public void deposit() {
+        balance.accumulateAndGet(
+                deposit,
+                (current, added) -> Math.min(maxBalance, current + added)
+        );
+    }
+
+
+    /**
+     * Tries to get the permission to send a hedged request.
+     *
+     * @return {@code true} if the hedged request can be sent, {@code false} otherwise
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+
+    /**
+     * Returns the number of hedged requests that can be sent now.
+     */
+    public double getBalance() {
+        return balance.get() / (double) TOKEN;
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.gatewayserver.hedge;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ *    Keeps the latest latencies in a circular buffer to calculate the configured percentile of them. The percentile
+ * is not calculated in every new sample but every {@code recalculationInterval} ones, to keep cheap the record of
+ * the latencies.
+ */
+public class LatencyPercentileTracker {
+
+    private final double percentile;
+
+    private final int minSamples;
+
+    private final int recalculationInterval;
+
+    private final AtomicLongArray samples;
+
+    private final AtomicLong numberOfSamples;
+
+    private volatile long percentileInNanoseconds;
+
+
+    /**
+     * Construct a {@link LatencyPercentileTracker}
+     *
+     * @param windowSize
+     *    Number of latest latencies used to calculate the percentile
+     * @param percentile
+     *    Percentile to calculate, between 0 and 100
+     * @param minSamples
+     *    Minimum number of latencies required to calculate the percentile
+     * @param recalculationInterval
+     *    Number of new latencies to wait before calculating the percentile again
+     *
+     * @throws IllegalArgumentException if any parameter is not valid
+     */
+    public LatencyPercentileTracker(final int windowSize,
+                                    final double percentile,
+                                    final int minSamples,
+                                    final int recalculationInterval) {
+        Assert.isTrue(0 < windowSize, "windowSize must be greater than 0");
+        Assert.isTrue(0 < percentile && 100 >= percentile, "percentile must be between 0 (excluded) and 100");
+        Assert.isTrue(0 < minSamples && windowSize >= minSamples, "minSamples must be between 1 and windowSize");
+        Assert.isTrue(0 < recalculationInterval, "recalculationInterval must be greater than 0");
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.recalculationInterval = recalculationInterval;
+        this.samples = new AtomicLongArray(windowSize);
+        this.numberOfSamples = new AtomicLong(0);
+        this.percentileInNanoseconds = -1;
+    }
+
+
+    /**
+     * Adds a new latency.
+     *
+     * @param latencyInNanoseconds
+     *    Latency to add
+     */
+    public void record(final long latencyInNanoseconds) {
+        final long sampleNumber = numberOfSamples.getAndIncrement();
+        samples.set(
+                (int) (sampleNumber % samples.length()),
+                latencyInNanoseconds
+        );
+        final long currentNumberOfSamples = sampleNumber + 1;
+        if (currentNumberOfSamples >= minSamples &&
+                (currentNumberOfSamples == minSamples || 0 == currentNumberOfSamples % recalculationInterval)) {
+            recalculate(currentNumberOfSamples);
+        }
+    }
+
+
+    /**
+     * Returns the last calculated percentile of the latencies.
+     *
+     * @return {@link OptionalLong} with the percentile in nanoseconds if there were enough latencies to calculate it,
+     *         {@link OptionalLong#empty()} otherwise
+     */
+    public OptionalLong getPercentileInNanoseconds() {
+        final long currentPercentile = percentileInNanoseconds;
+        return 0 > currentPercentile
+                ? OptionalLong.empty()
+                : OptionalLong.of(currentPercentile);
+    }
+
+
+    private void recalculate(final long currentNumberOfSamples) {
+        final int size = (int) Math.min(currentNumberOfSamples, samples.length());
+        final long[] sortedSamples = new long[size];
+        for (int i = 0; i < size; i++) {
+            sortedSamples[i] = samples.get(i);
+        }
+        Arrays.sort(sortedSamples);
+        final int index = Math.max(0, (int) Math.ceil(percentile / 100 * size) - 1);
+        percentileInNanoseconds = sortedSamples[index];
+    }
+
+}
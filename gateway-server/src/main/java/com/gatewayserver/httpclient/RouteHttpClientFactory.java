@@ -0,0 +1,99 @@
+package com.gatewayserver.httpclient;
+
+import io.netty.channel.ChannelOption;
+import lombok.Getter;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ *    Creates the {@link HttpClient} used to send the requests of a route with {@link RoutePoolSettings}. It is
+ * configured as the one shared by the gateway (SSL, proxy, timeouts, etc) but with its own {@link ConnectionProvider}
+ * and protocol.
+ */
+public class RouteHttpClientFactory extends HttpClientFactory {
+
+    private static final String POOL_NAME_PREFIX = "gateway-route-";
+
+    // Time given to the in-flight requests when the route is refreshed with new settings
+    private static final Duration DISPOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    // The pools of the instances that are not used anymore are closed
+    private static final Duration INACTIVE_POOLS_DISPOSE_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration POOL_INACTIVITY = Duration.ofMinutes(5);
+
+    private final String routeId;
+
+    private final RoutePoolSettings settings;
+
+    @Getter
+    private ConnectionProvider connectionProvider;
+
+
+    public RouteHttpClientFactory(final HttpClientProperties properties,
+                                  final ServerProperties serverProperties,
+                                  final HttpClientSslConfigurer sslConfigurer,
+                                  final List<HttpClientCustomizer> customizers,
+                                  final String routeId,
+                                  final RoutePoolSettings settings) {
+        super(properties, serverProperties, sslConfigurer, customizers);
+        this.routeId = routeId;
+        this.settings = settings;
+    }
+
+
+    /**
+     * Returns a new {@link HttpClient} with the {@link RoutePoolSettings} of the route.
+     *
+     * @return {@link HttpClient}
+     */
+    public HttpClient createHttpClient() {
+        final HttpClient httpClient = createInstance()
+                .protocol(settings.getProtocol());
+
+        return ofNullable(settings.getConnectTimeoutInMilliseconds())
+                .map(t -> httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, t))
+                .orElse(httpClient);
+    }
+
+
+    /**
+     *    Returns the name of the {@link ConnectionProvider} of the route, used as tag of the metrics published by
+     * Reactor Netty.
+     */
+    public String getPoolName() {
+        return POOL_NAME_PREFIX + routeId;
+    }
+
+
+    @Override
+    protected ConnectionProvider buildConnectionProvider(final HttpClientProperties properties) {
+        final ConnectionProvider.Builder builder = ConnectionProvider.builder(getPoolName())
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.getPendingAcquireTimeout())
+                .disposeTimeout(DISPOSE_TIMEOUT)
+                .disposeInactivePoolsInBackground(INACTIVE_POOLS_DISPOSE_INTERVAL, POOL_INACTIVITY)
+                .metrics(true);
+
+        ofNullable(settings.getMaxIdleTime())
+                .ifPresent(builder::maxIdleTime);
+        ofNullable(settings.getMaxLifeTime())
+                .ifPresent(builder::maxLifeTime);
+        ofNullable(settings.getEvictionInterval())
+                .ifPresent(builder::evictInBackground);
+
+        connectionProvider = builder.build();
+        return connectionProvider;
+    }
+
+}
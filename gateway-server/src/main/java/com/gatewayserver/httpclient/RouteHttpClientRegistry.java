@@ -0,0 +1,316 @@
+package com.gatewayserver.httpclient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.route.Route;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+
+/**
+ *    Keeps the {@link HttpClient} of every route with {@link RoutePoolSettings}, creating it the first time the route
+ * is used and replacing it when the route is refreshed with different settings.
+ * <p>
+ *    The time required to get a connection from the pool of a route (opening it if there is no idle one) is published
+ * in the metric {@code gateway.upstream.acquire.time}. The utilization of the pools is published by Reactor Netty,
+ * in the {@code reactor.netty.connection.provider.*} metrics tagged with the name of the pool of every route. The
+ * acquisition starts when the request is subscribed, at the time saved in {@link #ACQUIRE_START_TIME_CONTEXT_KEY}
+ * of its Reactor context.
+ */
+@Log4j2
+public class RouteHttpClientRegistry implements DisposableBean {
+
+    public static final String ACQUIRE_START_TIME_CONTEXT_KEY = RouteHttpClientRegistry.class.getName() + ".acquireStartTime";
+
+    private static final String METRIC_ACQUIRE_TIME = "gateway.upstream.acquire.time";
+    private static final String METRIC_TAG_ROUTE = "route";
+    private static final String METRIC_TAG_PROTOCOL = "protocol";
+
+    private final HttpClientProperties properties;
+
+    private final ServerProperties serverProperties;
+
+    private final HttpClientSslConfigurer sslConfigurer;
+
+    private final List<HttpClientCustomizer> customizers;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, RouteHttpClient> httpClients;
+
+
+    public RouteHttpClientRegistry(final HttpClientProperties properties,
+                                   final ServerProperties serverProperties,
+                                   final HttpClientSslConfigurer sslConfigurer,
+                                   final List<HttpClientCustomizer> customizers,
+                                   final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.serverProperties = serverProperties;
+        this.sslConfigurer = sslConfigurer;
+        this.customizers = customizers;
+        this.meterRegistry = meterRegistry;
+        this.httpClients = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Returns the {@link HttpClient} to send a new request of the given {@link Route}.
+     *
+     * @param route
+     *    {@link Route} of the request
+     *
+     * @return {@link Optional} with the {@link HttpClient} if the {@link Route} has {@link RoutePoolSettings},
+     *         {@link Optional#empty()} otherwise
+     */
+    public Optional<HttpClient> getHttpClient(final Route route) {
+        return ofNullable(
+                getRouteHttpClient(route).httpClient
+        );
+    }
+
+
+    /**
+     *    Opens the connections configured in {@link RoutePoolSettings#getWarmUpConnections()} with every given
+     * {@code baseUri}, sending requests to {@link RoutePoolSettings#getWarmUpPath()}. Only one connection is opened
+     * with every {@code baseUri} if the route uses HTTP/2, because its requests are multiplexed.
+     *
+     * @param route
+     *    {@link Route} whose connections will be opened
+     * @param baseUris
+     *    {@link List} of {@link URI}s of the downstream service instances
+     * @param timeout
+     *    Maximum time to wait for every warm-up request
+     *
+     * @return {@link Mono} with the number of warm-up requests that succeeded
+     */
+    public Mono<Long> warmUp(final Route route,
+                             final List<URI> baseUris,
+                             final Duration timeout) {
+        final RouteHttpClient routeHttpClient = getRouteHttpClient(route);
+        if (null == routeHttpClient.settings ||
+                0 >= routeHttpClient.settings.getWarmUpConnections()) {
+            return Mono.just(0L);
+        }
+        final RoutePoolSettings settings = routeHttpClient.settings;
+        return warmUp(
+                routeHttpClient.httpClient,
+                baseUris,
+                settings.isMultiplexed()
+                        ? 1
+                        : settings.getWarmUpConnections(),
+                settings.getWarmUpPath(),
+                timeout
+        );
+    }
+
+
+    /**
+     *    Opens {@code connectionsPerInstance} connections of the given {@link HttpClient} with every given
+     * {@code baseUri}, sending concurrent requests to {@code path}. The hosts of {@code baseUris} are resolved by the
+     * resolver of {@code httpClient}, so they are already cached when the first requests are received.
+     *
+     * @param httpClient
+     *    {@link HttpClient} whose connections will be opened
+     * @param baseUris
+     *    {@link List} of {@link URI}s of the downstream service instances
+     * @param connectionsPerInstance
+     *    Number of connections to open with every instance
+     * @param path
+     *    Path of the downstream service used to send the warm-up requests
+     * @param timeout
+     *    Maximum time to wait for every warm-up request
+     *
+     * @return {@link Mono} with the number of warm-up requests that succeeded
+     */
+    public Mono<Long> warmUp(final HttpClient httpClient,
+                             final List<URI> baseUris,
+                             final int connectionsPerInstance,
+                             final String path,
+                             final Duration timeout) {
+        return Flux.fromIterable(baseUris)
+                .flatMap(baseUri ->
+                        Flux.range(0, connectionsPerInstance)
+                                .flatMap(i ->
+                                        sendWarmUpRequest(
+                                                httpClient,
+                                                baseUri.resolve(path),
+                                                timeout
+                                        )
+                                )
+                )
+                .filter(Boolean::booleanValue)
+                .count();
+    }
+
+
+    /**
+     * Closes the connections of all the routes.
+     */
+    @Override
+    public void destroy() {
+        httpClients.values()
+                .forEach(RouteHttpClient::dispose);
+        httpClients.clear();
+    }
+
+
+    private RouteHttpClient getRouteHttpClient(final Route route) {
+        final RouteHttpClient current = httpClients.get(route.getId());
+        // The same instance of the route is used until the routes are refreshed
+        if (null != current && current.route == route) {
+            return current;
+        }
+        return httpClients.compute(
+                route.getId(),
+                (id, existing) -> {
+                    if (null != existing && existing.route == route) {
+                        return existing;
+                    }
+                    final RoutePoolSettings settings = RoutePoolSettings.of(route)
+                            .orElse(null);
+                    if (null != existing && Objects.equals(existing.settings, settings)) {
+                        return existing.withRoute(route);
+                    }
+                    ofNullable(existing)
+                            .ifPresent(RouteHttpClient::dispose);
+
+                    return null == settings
+                            ? new RouteHttpClient(route, null, null, null, null)
+                            : createRouteHttpClient(route, settings);
+                }
+        );
+    }
+
+
+    private RouteHttpClient createRouteHttpClient(final Route route,
+                                                  final RoutePoolSettings settings) {
+        log.info(
+                format("Creating the connection pool of the route: %s with the settings: %s",
+                        route.getId(),
+                        settings
+                )
+        );
+        final RouteHttpClientFactory factory = new RouteHttpClientFactory(
+                properties,
+                serverProperties,
+                sslConfigurer,
+                customizers,
+                route.getId(),
+                settings
+        );
+        final Timer acquireTimer = Timer.builder(METRIC_ACQUIRE_TIME)
+                .description("Time required to get a connection to send a request to the downstream service")
+                .tag(METRIC_TAG_ROUTE, route.getId())
+                .tag(METRIC_TAG_PROTOCOL, settings.getProtocol().name())
+                .register(meterRegistry);
+        // The warm-up requests do not include the start time, so they are not measured
+        final HttpClient httpClient = factory.createHttpClient()
+                .doOnRequest((request, connection) ->
+                        request.currentContextView()
+                                .<Long>getOrEmpty(ACQUIRE_START_TIME_CONTEXT_KEY)
+                                .ifPresent(startTimeInNanoseconds ->
+                                        acquireTimer.record(
+                                                System.nanoTime() - startTimeInNanoseconds,
+                                                TimeUnit.NANOSECONDS
+                                        )
+                                )
+                );
+
+        return new RouteHttpClient(
+                route,
+                settings,
+                httpClient,
+                factory.getConnectionProvider(),
+                acquireTimer
+        );
+    }
+
+
+    private Mono<Boolean> sendWarmUpRequest(final HttpClient httpClient,
+                                            final URI uri,
+                                            final Duration timeout) {
+        return httpClient.get()
+                .uri(uri)
+                .responseSingle((response, body) ->
+                        body.then(
+                                Mono.just(true)
+                        )
+                )
+                .timeout(timeout)
+                .onErrorResume(e -> {
+                    log.warn(
+                            format("The warm-up request sent to: %s failed. %s",
+                                    uri,
+                                    e.getMessage()
+                            )
+                    );
+                    return Mono.just(false);
+                });
+    }
+
+
+    /**
+     * {@link HttpClient} of a route and the information required to manage it.
+     */
+    private class RouteHttpClient {
+
+        private final Route route;
+
+        private final RoutePoolSettings settings;
+
+        private final HttpClient httpClient;
+
+        private final ConnectionProvider connectionProvider;
+
+        private final Timer acquireTimer;
+
+
+        RouteHttpClient(final Route route,
+                        final RoutePoolSettings settings,
+                        final HttpClient httpClient,
+                        final ConnectionProvider connectionProvider,
+                        final Timer acquireTimer) {
+            this.route = route;
+            this.settings = settings;
+            this.httpClient = httpClient;
+            this.connectionProvider = connectionProvider;
+            this.acquireTimer = acquireTimer;
+        }
+
+
+        RouteHttpClient withRoute(final Route newRoute) {
+            return new RouteHttpClient(newRoute, settings, httpClient, connectionProvider, acquireTimer);
+        }
+
+
+        void dispose() {
+            ofNullable(connectionProvider)
+                    .ifPresent(cp ->
+                            cp.disposeLater()
+                                    .subscribe()
+                    );
+            ofNullable(acquireTimer)
+                    .ifPresent(meterRegistry::remove);
+        }
+
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.gatewayserver.httpclient;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.cloud.gateway.route.Route;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.ofNullable;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+
+/**
+ *    Settings of the connections opened by the gateway to the downstream service of a route, configured in its
+ * metadata. The routes without them use the {@link reactor.netty.http.client.HttpClient} shared by the gateway.
+ * <p>
+ * Configuration example in a route:
+ * <pre>
+ *    metadata:
+ *      protocol: h2c
+ *      connection-pool:
+ *        max-connections: 50
+ *        pending-acquire-max-count: 200
+ *        pending-acquire-timeout: 2000
+ *        max-idle-time: 30000
+ *        max-life-time: 300000
+ *        eviction-interval: 10000
+ *        warm-up-connections: 4
+ *        warm-up-path: /actuator/health
+ * </pre>
+ * <p>
+ * All the times are in milliseconds.
+ * <p>
+ *    The {@code h2c} protocol sends HTTP/2 cleartext with prior knowledge, so it can only be used with downstream
+ * services that accept it (e.g. the ones with {@code server.http2.enabled}). The services of this project do not
+ * enable it by default, so their routes use HTTP/1.1 unless their configuration is changed.
+ */
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode
+@Getter
+@ToString
+public class RoutePoolSettings {
+
+    public static final String PROTOCOL_METADATA = "protocol";
+    public static final String CONNECTION_POOL_METADATA = "connection-pool";
+
+    public static final String H2C_PROTOCOL = "h2c";
+
+    public static final int DEFAULT_MAX_CONNECTIONS = ConnectionProvider.DEFAULT_POOL_MAX_CONNECTIONS;
+    public static final long DEFAULT_PENDING_ACQUIRE_TIMEOUT = ConnectionProvider.DEFAULT_POOL_ACQUIRE_TIMEOUT;
+    // In ConnectionProvider, -2 means twice maxConnections and -1 no limit
+    public static final int DEFAULT_PENDING_ACQUIRE_MAX_COUNT = -2;
+    public static final String DEFAULT_WARM_UP_PATH = "/actuator/health";
+
+    private final HttpProtocol protocol;
+
+    private final int maxConnections;
+
+    // -2 means twice maxConnections, as ConnectionProvider does by default, and -1 no limit
+    private final int pendingAcquireMaxCount;
+
+    private final Duration pendingAcquireTimeout;
+
+    private final Duration maxIdleTime;
+
+    private final Duration maxLifeTime;
+
+    private final Duration evictionInterval;
+
+    private final int warmUpConnections;
+
+    private final String warmUpPath;
+
+    // Configured by Spring Cloud Gateway, applied as in the HttpClient shared by the gateway
+    private final Integer connectTimeoutInMilliseconds;
+
+
+    /**
+     * Returns the {@link RoutePoolSettings} included in the metadata of the given {@link Route}.
+     *
+     * @param route
+     *    {@link Route} to check
+     *
+     * @return {@link Optional} with the {@link RoutePoolSettings} if the {@link Route} has a protocol or a connection
+     *         pool in its metadata, {@link Optional#empty()} otherwise
+     *
+     * @throws IllegalArgumentException if the metadata contains a not valid value
+     */
+    public static Optional<RoutePoolSettings> of(final Route route) {
+        final Map<String, Object> metadata = ofNullable(route)
+                .map(Route::getMetadata)
+                .orElseGet(Map::of);
+
+        final Object protocol = metadata.get(PROTOCOL_METADATA);
+        final Object connectionPool = metadata.get(CONNECTION_POOL_METADATA);
+        if (null == protocol && null == connectionPool) {
+            return empty();
+        }
+        if (null != connectionPool && !(connectionPool instanceof Map)) {
+            throw new IllegalArgumentException(
+                    "The metadata: " + CONNECTION_POOL_METADATA + " of the route: " + route.getId() + " must contain a map"
+            );
+        }
+        final Map<?, ?> pool = ofNullable((Map<?, ?>) connectionPool)
+                .orElseGet(Map::of);
+
+        return Optional.of(
+                RoutePoolSettings.builder()
+                        .protocol(getProtocol(protocol))
+                        .maxConnections(getInteger(pool.get("max-connections"), DEFAULT_MAX_CONNECTIONS))
+                        .pendingAcquireMaxCount(getInteger(pool.get("pending-acquire-max-count"), DEFAULT_PENDING_ACQUIRE_MAX_COUNT))
+                        .pendingAcquireTimeout(getDuration(pool.get("pending-acquire-timeout"), DEFAULT_PENDING_ACQUIRE_TIMEOUT))
+                        .maxIdleTime(getDuration(pool.get("max-idle-time"), null))
+                        .maxLifeTime(getDuration(pool.get("max-life-time"), null))
+                        .evictionInterval(getDuration(pool.get("eviction-interval"), null))
+                        .warmUpConnections(getInteger(pool.get("warm-up-connections"), 0))
+                        .warmUpPath(
+                                ofNullable(pool.get("warm-up-path"))
+                                        .map(Object::toString)
+                                        .orElse(DEFAULT_WARM_UP_PATH)
+                        )
+                        .connectTimeoutInMilliseconds(
+                                ofNullable(metadata.get(CONNECT_TIMEOUT_ATTR))
+                                        .map(t -> getInteger(t, 0))
+                                        .orElse(null)
+                        )
+                        .build()
+        );
+    }
+
+
+    /**
+     * Checks if the connections are multiplexed, so only one of them is required to send concurrent requests.
+     *
+     * @return {@code true} if HTTP/2 cleartext is used, {@code false} otherwise
+     */
+    public boolean isMultiplexed() {
+        return HttpProtocol.H2C == protocol;
+    }
+
+
+    private static HttpProtocol getProtocol(final Object protocol) {
+        if (null == protocol) {
+            return HttpProtocol.HTTP11;
+        }
+        return H2C_PROTOCOL.equalsIgnoreCase(protocol.toString().trim())
+                ? HttpProtocol.H2C
+                : HttpProtocol.HTTP11;
+    }
+
+
+    private static int getInteger(final Object value,
+                                  final int defaultValue) {
+        return null == value
+                ? defaultValue
+                : value instanceof Number
+                        ? ((Number) value).intValue()
+                        : Integer.parseInt(value.toString().trim());
+    }
+
+
+    private static Duration getDuration(final Object valueInMilliseconds,
+                                        final Long defaultValueInMilliseconds) {
+        if (null == valueInMilliseconds) {
+            return ofNullable(defaultValueInMilliseconds)
+                    .map(Duration::ofMillis)
+                    .orElse(null);
+        }
+        return Duration.ofMillis(
+                valueInMilliseconds instanceof Number
+                        ? ((Number) valueInMilliseconds).longValue()
+                        : Long.parseLong(valueInMilliseconds.toString().trim())
+        );
+    }
+
+}
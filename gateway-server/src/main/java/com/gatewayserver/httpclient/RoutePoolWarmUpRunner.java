@@ -0,0 +1,296 @@
+package com.gatewayserver.httpclient;
+
+import com.gatewayserver.configuration.httpclient.RouteHttpClientConfiguration;
+import com.gatewayserver.configuration.warmup.WarmUpConfiguration;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+/**
+ *    Warms up the gateway once it has started, so the first requests received after a deployment do not pay the cost
+ * of resolving the routes and the instances of their downstream services, nor of opening the connections with them:
+ * <p>
+ *   - Resolves the routes and, for the load balanced ones, the instances of their downstream services.
+ * <p>
+ *   - Opens the connections configured in {@link RoutePoolSettings#getWarmUpConnections()} with every instance, or
+ *     {@link WarmUpConfiguration#getConnectionsPerInstance()} if the route uses the {@link HttpClient} shared by the
+ *     gateway. The hosts of the instances are resolved at the same time.
+ * <p>
+ *   - Sends the configured synthetic requests to the gateway itself, to load and optimize the code of its filters.
+ * <p>
+ *    Spring Boot reports the gateway ready to receive requests after running the {@link ApplicationRunner}s, so the
+ * warm-up blocks until it finishes or {@link WarmUpConfiguration#getTimeoutInMilliseconds()} passes. In the meantime,
+ * the health of the gateway is {@link org.springframework.boot.actuate.health.Status#OUT_OF_SERVICE}.
+ */
+@Component
+@Log4j2
+public class RoutePoolWarmUpRunner implements ApplicationRunner {
+
+    private static final String LOAD_BALANCER_SCHEME = "lb";
+    private static final List<String> HTTP_SCHEMES = List.of("http", "https");
+
+    private static final String LOCAL_SERVER_PORT = "local.server.port";
+
+    private final RouteLocator routeLocator;
+
+    private final RouteHttpClientRegistry routeHttpClientRegistry;
+
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+
+    private final RouteHttpClientConfiguration routeHttpClientConfiguration;
+
+    private final WarmUpConfiguration warmUpConfiguration;
+
+    private final ObjectProvider<HttpClient> sharedHttpClient;
+
+    private final Environment environment;
+
+    private volatile boolean finished;
+
+    private volatile long successfulRequests;
+
+    private volatile long durationInMilliseconds;
+
+
+    @Autowired
+    public RoutePoolWarmUpRunner(@Lazy final RouteLocator routeLocator,
+                                 @Lazy final RouteHttpClientRegistry routeHttpClientRegistry,
+                                 @Lazy final LoadBalancerClientFactory loadBalancerClientFactory,
+                                 @Lazy final RouteHttpClientConfiguration routeHttpClientConfiguration,
+                                 @Lazy final WarmUpConfiguration warmUpConfiguration,
+                                 final ObjectProvider<HttpClient> sharedHttpClient,
+                                 final Environment environment) {
+        this.routeLocator = routeLocator;
+        this.routeHttpClientRegistry = routeHttpClientRegistry;
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.routeHttpClientConfiguration = routeHttpClientConfiguration;
+        this.warmUpConfiguration = warmUpConfiguration;
+        this.sharedHttpClient = sharedHttpClient;
+        this.environment = environment;
+        this.finished = false;
+    }
+
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!warmUpConfiguration.isEnabled()) {
+            finished = true;
+            return;
+        }
+        final long startTimeInNanoseconds = System.nanoTime();
+        try {
+            successfulRequests = warmUpConnections()
+                    .flatMap(connections ->
+                            sendSyntheticRequests()
+                                    .map(requests -> connections + requests)
+                    )
+                    .timeout(
+                            Duration.ofMillis(warmUpConfiguration.getTimeoutInMilliseconds())
+                    )
+                    .onErrorResume(e -> {
+                        log.error("There was an error warming up the gateway, it will be reported as ready anyway", e);
+                        return Mono.just(0L);
+                    })
+                    .blockOptional()
+                    .orElse(0L);
+        } finally {
+            durationInMilliseconds = (System.nanoTime() - startTimeInNanoseconds) / 1_000_000;
+            finished = true;
+        }
+        log.info(
+                format("Warm-up of the gateway finished in: %d ms with: %d successful requests",
+                        durationInMilliseconds,
+                        successfulRequests
+                )
+        );
+    }
+
+
+    /**
+     * Checks if the warm-up has finished, successfully or not.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+
+    /**
+     * Returns the number of warm-up requests that succeeded, including the synthetic ones.
+     */
+    public long getSuccessfulRequests() {
+        return successfulRequests;
+    }
+
+
+    /**
+     * Returns the time required by the warm-up, once it has finished.
+     */
+    public long getDurationInMilliseconds() {
+        return durationInMilliseconds;
+    }
+
+
+    /**
+     * Opens the connections with the instances of the downstream services of all the routes.
+     *
+     * @return {@link Mono} with the number of warm-up requests that succeeded
+     */
+    private Mono<Long> warmUpConnections() {
+        final Duration timeout = Duration.ofMillis(
+                routeHttpClientConfiguration.getWarmUpTimeoutInMilliseconds()
+        );
+        return routeLocator.getRoutes()
+                .flatMap(route ->
+                        getBaseUris(route)
+                                // Routes without HTTP instances, like the forward or websocket ones
+                                .filter(baseUris -> !baseUris.isEmpty())
+                                .flatMap(baseUris ->
+                                        warmUpConnections(route, baseUris, timeout)
+                                )
+                                .doOnNext(numberOfConnections ->
+                                        log.info(
+                                                format("Warm-up of the connections of the route: %s finished with: %d successful requests",
+                                                        route.getId(),
+                                                        numberOfConnections
+                                                )
+                                        )
+                                )
+                                .onErrorResume(e -> {
+                                    log.error(
+                                            format("There was an error warming up the connections of the route: %s",
+                                                    route.getId()
+                                            ),
+                                            e
+                                    );
+                                    return Mono.empty();
+                                })
+                )
+                .reduce(0L, Long::sum);
+    }
+
+
+    private Mono<Long> warmUpConnections(final Route route,
+                                         final List<URI> baseUris,
+                                         final Duration timeout) {
+        final Optional<RoutePoolSettings> settings = RoutePoolSettings.of(route);
+        if (settings.isPresent()) {
+            return routeHttpClientRegistry.warmUp(route, baseUris, timeout);
+        }
+        final HttpClient httpClient = sharedHttpClient.getIfAvailable();
+        if (null == httpClient || 0 >= warmUpConfiguration.getConnectionsPerInstance()) {
+            return Mono.just(0L);
+        }
+        return routeHttpClientRegistry.warmUp(
+                httpClient,
+                baseUris,
+                warmUpConfiguration.getConnectionsPerInstance(),
+                warmUpConfiguration.getPath(),
+                timeout
+        );
+    }
+
+
+    /**
+     *    Sends {@link WarmUpConfiguration#getSyntheticRequestPaths()} to the gateway itself, sequentially, as many
+     * times as {@link WarmUpConfiguration#getSyntheticRequestIterations()}. Only {@code GET} requests are sent, so
+     * they have no side effects in the downstream services.
+     *
+     * @return {@link Mono} with the number of synthetic requests that received a response
+     */
+    private Mono<Long> sendSyntheticRequests() {
+        final List<String> paths = warmUpConfiguration.getSyntheticRequestPaths();
+        final Integer port = environment.getProperty(LOCAL_SERVER_PORT, Integer.class);
+        if (null == paths || paths.isEmpty() || null == port) {
+            return Mono.just(0L);
+        }
+        final Duration timeout = Duration.ofMillis(
+                routeHttpClientConfiguration.getWarmUpTimeoutInMilliseconds()
+        );
+        final HttpClient httpClient = HttpClient.create()
+                .baseUrl("http://localhost:" + port);
+
+        return Flux.range(0, warmUpConfiguration.getSyntheticRequestIterations())
+                .concatMap(i ->
+                        Flux.fromIterable(paths)
+                                .concatMap(path ->
+                                        httpClient.get()
+                                                .uri(path.trim())
+                                                .responseSingle((response, body) ->
+                                                        body.then(
+                                                                Mono.just(true)
+                                                        )
+                                                )
+                                                .timeout(timeout)
+                                                .onErrorResume(e -> {
+                                                    log.warn(
+                                                            format("The synthetic warm-up request: %s failed. %s",
+                                                                    path,
+                                                                    e.getMessage()
+                                                            )
+                                                    );
+                                                    return Mono.just(false);
+                                                })
+                                )
+                )
+                .filter(Boolean::booleanValue)
+                .count();
+    }
+
+
+    /**
+     * Returns the {@link URI}s of the instances of the downstream service of the given {@link Route}.
+     *
+     * @param route
+     *    {@link Route} to check
+     *
+     * @return {@link Mono} with the {@link URI}s of the load balancer instances if it is a load balanced {@link Route},
+     *         its {@link URI} if it is an HTTP one, an empty {@link List} otherwise
+     */
+    private Mono<List<URI>> getBaseUris(final Route route) {
+        final URI routeUri = route.getUri();
+        if (!LOAD_BALANCER_SCHEME.equalsIgnoreCase(routeUri.getScheme())) {
+            return Mono.just(
+                    HTTP_SCHEMES.contains(routeUri.getScheme().toLowerCase())
+                            ? List.of(routeUri)
+                            : List.of()
+            );
+        }
+        final ServiceInstanceListSupplier supplier = loadBalancerClientFactory.getLazyProvider(
+                        routeUri.getHost(),
+                        ServiceInstanceListSupplier.class
+                )
+                .getIfAvailable();
+        if (null == supplier) {
+            return Mono.just(List.of());
+        }
+        return supplier.get()
+                .next()
+                .map(instances ->
+                        instances.stream()
+                                .map(ServiceInstance::getUri)
+                                .collect(toList())
+                );
+    }
+
+}
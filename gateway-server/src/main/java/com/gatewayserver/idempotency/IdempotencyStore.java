@@ -0,0 +1,307 @@
+package com.gatewayserver.idempotency;
+
+import lombok.Getter;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Optional.empty;
+
+/**
+ *    In memory store of the requests with an idempotency key. Every key is in one of these states:
+ * <p>
+ *   - In progress: the first request with the key is being managed, the others wait for its response.
+ * <p>
+ *   - Completed: the response of the first request is stored, and returned to the next ones until it expires.
+ * <p>
+ *    Every key keeps the hash of the request that reserved it, so the next requests with the same key but a different
+ * content are rejected instead of getting a response that does not belong to them.
+ * <p>
+ *    The completed responses are bounded both by their number and their total size, removing the oldest ones when any
+ * limit is exceeded. Besides, every time a key is reserved or completed, the expired responses are removed from the
+ * oldest one until finding one that has not expired. The keys in progress are never removed, their number is limited
+ * by the concurrent requests.
+ */
+public class IdempotencyStore {
+
+    private final int maxEntries;
+
+    private final long maxSizeInBytes;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    private int inProgress;
+
+    private long sizeInBytes;
+
+    private long replays;
+
+
+    /**
+     * Construct a {@link IdempotencyStore}
+     *
+     * @param maxEntries
+     *    Maximum number of stored responses
+     * @param maxSizeInBytes
+     *    Maximum total size of the stored responses
+     *
+     * @throws IllegalArgumentException if {@code maxEntries} or {@code maxSizeInBytes} are not greater than 0
+     */
+    public IdempotencyStore(final int maxEntries,
+                            final long maxSizeInBytes) {
+        Assert.isTrue(0 < maxEntries, "maxEntries must be greater than 0");
+        Assert.isTrue(0 < maxSizeInBytes, "maxSizeInBytes must be greater than 0");
+        this.maxEntries = maxEntries;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.entries = new LinkedHashMap<>();
+        this.sizeInBytes = 0;
+    }
+
+
+    /**
+     * Reserves the given {@code key} if it is not in progress nor completed.
+     *
+     * @param key
+     *    Idempotency key of the request
+     * @param requestHash
+     *    Hash of the content of the request
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return {@link Reservation} with the state of {@code key}
+     */
+    public synchronized Reservation reserve(final String key,
+                                            final String requestHash,
+                                            final long nowInNanoseconds) {
+        removeExpired(nowInNanoseconds);
+        final Entry entry = entries.get(key);
+        if (null != entry &&
+                (null == entry.response || !entry.response.isExpired(nowInNanoseconds)) &&
+                !Objects.equals(entry.requestHash, requestHash)) {
+            return Reservation.mismatch();
+        }
+        if (null != entry) {
+            if (null == entry.response) {
+                return Reservation.inProgress(
+                        entry.sink.asMono()
+                );
+            }
+            if (!entry.response.isExpired(nowInNanoseconds)) {
+                replays++;
+                return Reservation.completed(entry.response);
+            }
+            remove(key, entry);
+        }
+        entries.put(key, new Entry(requestHash));
+        inProgress++;
+        return Reservation.acquired();
+    }
+
+
+    /**
+     *    Stores the response of the request that reserved {@code key}, sending it to the requests waiting for it. If it
+     * is bigger than the allowed size, the key is released instead.
+     *
+     * @param key
+     *    Idempotency key of the request
+     * @param response
+     *    {@link IdempotentResponse} to store
+     *
+     * @return {@code true} if {@code response} was stored, {@code false} otherwise
+     */
+    public boolean complete(final String key,
+                            final IdempotentResponse response) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (null == entry || null != entry.response) {
+                return false;
+            }
+            inProgress--;
+            removeExpired(response.getStoredAtInNanoseconds());
+            if (response.getSizeInBytes() > maxSizeInBytes) {
+                entries.remove(key);
+            }
+            else {
+                // Moved to the end, so the completed responses are ordered by their storage time
+                entries.remove(key);
+                entry.response = response;
+                entries.put(key, entry);
+                sizeInBytes += response.getSizeInBytes();
+                evictOldest();
+            }
+        }
+        // Outside the lock, because the waiting requests continue in this thread
+        entry.sink.tryEmitValue(
+                Optional.of(response)
+        );
+        return null != entry.response;
+    }
+
+
+    /**
+     *    Releases the given {@code key} when its request failed, so the next one with the same key is sent to the
+     * downstream service. The requests waiting for it are notified with an empty response.
+     *
+     * @param key
+     *    Idempotency key of the request
+     */
+    public void release(final String key) {
+        final Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (null == entry || null != entry.response) {
+                return;
+            }
+            entries.remove(key);
+            inProgress--;
+        }
+        entry.sink.tryEmitValue(empty());
+    }
+
+
+    /**
+     * Returns the number of keys, completed or in progress.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * Returns the total size of the stored responses.
+     */
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+
+    /**
+     * Returns how many times a stored response has been returned.
+     */
+    public synchronized long getReplays() {
+        return replays;
+    }
+
+
+    private void evictOldest() {
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        int completedEntries = entries.size() - inProgress;
+        while ((completedEntries > maxEntries || sizeInBytes > maxSizeInBytes) && iterator.hasNext()) {
+            final Entry eldest = iterator.next().getValue();
+            if (null == eldest.response) {
+                continue;
+            }
+            iterator.remove();
+            sizeInBytes -= eldest.response.getSizeInBytes();
+            completedEntries--;
+        }
+    }
+
+
+    /**
+     *    Removes the expired responses stored before the first one that has not expired. The entries are ordered by
+     * their storage time, so usually all the expired ones are removed, but a response with a longer time to live stops
+     * the search until it expires.
+     */
+    private void removeExpired(final long nowInNanoseconds) {
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry eldest = iterator.next();
+            if (null == eldest.response) {
+                continue;
+            }
+            if (!eldest.response.isExpired(nowInNanoseconds)) {
+                return;
+            }
+            iterator.remove();
+            sizeInBytes -= eldest.response.getSizeInBytes();
+        }
+    }
+
+
+    private void remove(final String key,
+                        final Entry entry) {
+        entries.remove(key);
+        if (null != entry.response) {
+            sizeInBytes -= entry.response.getSizeInBytes();
+        }
+    }
+
+
+    /**
+     * State of a key, with the response once it has been completed.
+     */
+    private static class Entry {
+
+        private final Sinks.One<Optional<IdempotentResponse>> sink = Sinks.one();
+
+        private final String requestHash;
+
+        private IdempotentResponse response;
+
+
+        Entry(final String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+    }
+
+
+    /**
+     * Result of {@link IdempotencyStore#reserve(String, String, long)}.
+     */
+    @Getter
+    public static class Reservation {
+
+        private final boolean acquired;
+
+        // The key was reserved by a request with a different content
+        private final boolean mismatch;
+
+        // Only if the key was completed
+        private final IdempotentResponse response;
+
+        // Only if the key is in progress, empty when the request in progress fails
+        private final Mono<Optional<IdempotentResponse>> pendingResponse;
+
+
+        private Reservation(final boolean acquired,
+                            final boolean mismatch,
+                            final IdempotentResponse response,
+                            final Mono<Optional<IdempotentResponse>> pendingResponse) {
+            this.acquired = acquired;
+            this.mismatch = mismatch;
+            this.response = response;
+            this.pendingResponse = pendingResponse;
+        }
+
+
+        static Reservation acquired() {
+            return new Reservation(true, false, null, null);
+        }
+
+
+        static Reservation completed(final IdempotentResponse response) {
+            return new Reservation(false, false, response, null);
+        }
+
+
+        static Reservation inProgress(final Mono<Optional<IdempotentResponse>> pendingResponse) {
+            return new Reservation(false, false, null, pendingResponse);
+        }
+
+
+        static Reservation mismatch() {
+            return new Reservation(false, true, null, null);
+        }
+
+    }
+
+}
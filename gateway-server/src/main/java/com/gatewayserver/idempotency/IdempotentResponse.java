@@ -0,0 +1,46 @@
+package com.gatewayserver.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+
+/**
+ *    Response returned by a downstream service to a request with an idempotency key, stored to be returned to the
+ * retries of that request instead of sending them again.
+ */
+@AllArgsConstructor
+@Getter
+public class IdempotentResponse {
+
+    private final int httpStatus;
+
+    private final HttpHeaders headers;
+
+    private final byte[] body;
+
+    private final long storedAtInNanoseconds;
+
+    private final long ttlInNanoseconds;
+
+
+    /**
+     * Checks if the response is too old to be returned.
+     *
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return {@code true} if the response should not be returned, {@code false} otherwise
+     */
+    public boolean isExpired(final long nowInNanoseconds) {
+        return nowInNanoseconds - storedAtInNanoseconds > ttlInNanoseconds;
+    }
+
+
+    /**
+     * Returns the approximate memory size of the response, used to limit the memory of {@link IdempotencyStore}.
+     */
+    public long getSizeInBytes() {
+        return body.length;
+    }
+
+}
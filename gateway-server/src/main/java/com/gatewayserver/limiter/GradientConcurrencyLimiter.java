@@ -0,0 +1,195 @@
+package com.gatewayserver.limiter;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *    Adaptive concurrency limiter based on the gradient between the long-term and the short-term observed latencies
+ * (similar to TCP Vegas). While the latency of the downstream service stays close to its "no load" value, the limit
+ * grows; when requests start to queue in the downstream service, the latency grows and the limit is reduced.
+ * <p>
+ * On every completed request:
+ * <pre>
+ *    gradient = max(0.5, min(1.0, tolerance * longRtt / shortRtt))
+ *    newLimit = limit * gradient + sqrt(limit)
+ *    limit = (1 - smoothing) * limit + smoothing * newLimit
+ * </pre>
+ * If the request was dropped (error or timeout), the limit is multiplicatively reduced using {@code backoffRatio}.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double MAX_GRADIENT = 1.0;
+    private static final double LONG_RTT_DRIFT_RATIO = 2.0;
+    private static final double LONG_RTT_DRIFT_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final int longWindow;
+
+    private final AtomicInteger inFlight;
+    private final AtomicLong rejected;
+
+    private volatile double estimatedLimit;
+    private double longRttInNanoseconds;
+
+
+    /**
+     * Construct a {@link GradientConcurrencyLimiter}
+     *
+     * @param initialLimit
+     *    Concurrency limit used until enough samples have been received
+     * @param minLimit
+     *    Lower bound of the concurrency limit
+     * @param maxLimit
+     *    Upper bound of the concurrency limit
+     * @param smoothing
+     *    Value in (0, 1] used to smooth the changes of the limit
+     * @param rttTolerance
+     *    Value >= 1 with the allowed ratio of latency increment before reducing the limit
+     * @param backoffRatio
+     *    Value in (0, 1) used to reduce the limit when a request is dropped
+     * @param longWindow
+     *    Number of samples used to calculate the long-term latency
+     *
+     * @throws IllegalArgumentException if any of the given parameters is out of its valid range
+     */
+    public GradientConcurrencyLimiter(final int initialLimit,
+                                      final int minLimit,
+                                      final int maxLimit,
+                                      final double smoothing,
+                                      final double rttTolerance,
+                                      final double backoffRatio,
+                                      final int longWindow) {
+        Assert.isTrue(0 < minLimit, "minLimit should be a positive value");
+        Assert.isTrue(minLimit <= maxLimit, "maxLimit should be greater than or equal to minLimit");
+        Assert.isTrue(minLimit <= initialLimit && initialLimit <= maxLimit, "initialLimit should be between minLimit and maxLimit");
+        Assert.isTrue(0 < smoothing && smoothing <= 1, "smoothing should be between 0 (excluded) and 1");
+        Assert.isTrue(1 <= rttTolerance, "rttTolerance should be greater than or equal to 1");
+        Assert.isTrue(0 < backoffRatio && backoffRatio < 1, "backoffRatio should be between 0 and 1 (both excluded)");
+        Assert.isTrue(0 < longWindow, "longWindow should be a positive value");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.longWindow = longWindow;
+        this.inFlight = new AtomicInteger(0);
+        this.rejected = new AtomicLong(0);
+        this.estimatedLimit = initialLimit;
+        this.longRttInNanoseconds = 0;
+    }
+
+
+    /**
+     * Tries to reserve a slot to send a new request to the downstream service.
+     *
+     * @return {@code true} if the request can be sent, {@code false} if it must be rejected
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+
+    /**
+     * Releases a slot previously reserved with {@link GradientConcurrencyLimiter#tryAcquire()}, updating the limit.
+     *
+     * @param rttInNanoseconds
+     *    Time required by the downstream service to manage the request
+     * @param didDrop
+     *    {@code true} if the request failed or timed out, {@code false} otherwise
+     */
+    public void release(final long rttInNanoseconds,
+                        final boolean didDrop) {
+        final int currentInFlight = inFlight.getAndDecrement();
+        onSample(
+                rttInNanoseconds,
+                currentInFlight,
+                didDrop
+        );
+    }
+
+
+    /**
+     * Releases a slot previously reserved with {@link GradientConcurrencyLimiter#tryAcquire()} without updating the limit.
+     */
+    public void releaseIgnoringSample() {
+        inFlight.decrementAndGet();
+    }
+
+
+    public int getLimit() {
+        return (int) estimatedLimit;
+    }
+
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+
+    private synchronized void onSample(final long rttInNanoseconds,
+                                       final int currentInFlight,
+                                       final boolean didDrop) {
+        final double currentLimit = estimatedLimit;
+        if (didDrop) {
+            estimatedLimit = clamp(currentLimit * backoffRatio);
+            return;
+        }
+        if (0 >= rttInNanoseconds) {
+            return;
+        }
+        final double shortRtt = rttInNanoseconds;
+        longRttInNanoseconds = 0 == longRttInNanoseconds
+                ? shortRtt
+                : longRttInNanoseconds + (shortRtt - longRttInNanoseconds) / longWindow;
+
+        // If the long-term latency is much higher than the current one, quickly get closer to the new "no load" value
+        if (longRttInNanoseconds / shortRtt > LONG_RTT_DRIFT_RATIO) {
+            longRttInNanoseconds *= LONG_RTT_DRIFT_DECAY;
+        }
+        // Avoid increasing the limit when the downstream service is not being fully used
+        if (currentInFlight < currentLimit / 2) {
+            return;
+        }
+        final double gradient = Math.max(
+                MIN_GRADIENT,
+                Math.min(
+                        MAX_GRADIENT,
+                        rttTolerance * longRttInNanoseconds / shortRtt
+                )
+        );
+        final double newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+        estimatedLimit = clamp(
+                currentLimit * (1 - smoothing) + newLimit * smoothing
+        );
+    }
+
+
+    private double clamp(final double limit) {
+        return Math.max(
+                minLimit,
+                Math.min(maxLimit, limit)
+        );
+    }
+
+}
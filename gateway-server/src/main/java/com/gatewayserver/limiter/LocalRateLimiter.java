@@ -0,0 +1,193 @@
+package com.gatewayserver.limiter;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Mono;
+
+import javax.validation.constraints.Min;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ *    {@link RateLimiter} that stores its token buckets in the memory of the gateway, so it does not require an
+ * external storage like Redis. Every gateway instance applies the configured limits on its own.
+ * <p>
+ * Used with the {@code RequestRateLimiter} filter of the routes, by default the policy of the route is applied
+ * to every key, but it can be overwritten for specific users whose access token has been verified (see
+ * {@link PrincipalKeyResolver} and {@link com.gatewayserver.filter.PrincipalWebFilter}):
+ * <pre>
+ *    filters:
+ *      - name: RequestRateLimiter
+ *        args:
+ *          rate-limiter: "#{@localRateLimiter}"
+ *          local-rate-limiter.replenishRate: 10
+ *          local-rate-limiter.burstCapacity: 20
+ *          local-rate-limiter.principals.admin.replenishRate: 50
+ *          local-rate-limiter.principals.admin.burstCapacity: 100
+ * </pre>
+ */
+public class LocalRateLimiter extends AbstractRateLimiter<LocalRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+
+    private static final String KEY_SEPARATOR = "::";
+
+    private final StripedTokenBucketStore store;
+
+    private final Config defaultConfig;
+
+
+    /**
+     * Construct a {@link LocalRateLimiter}
+     *
+     * @param configurationService
+     *    {@link ConfigurationService} used to bind the configuration of every route
+     * @param numberOfStripes
+     *    Number of stripes used to store the token buckets
+     * @param idleTimeInSeconds
+     *    Time a token bucket should be full and unused to be evicted
+     */
+    public LocalRateLimiter(final ConfigurationService configurationService,
+                            final int numberOfStripes,
+                            final long idleTimeInSeconds) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.store = new StripedTokenBucketStore(
+                numberOfStripes,
+                TimeUnit.SECONDS.toNanos(idleTimeInSeconds),
+                System.nanoTime()
+        );
+        this.defaultConfig = new Config();
+    }
+
+
+    @Override
+    public Mono<Response> isAllowed(final String routeId,
+                                    final String id) {
+        final Config routeConfig = getConfig().getOrDefault(routeId, defaultConfig);
+        final Policy policy = routeConfig.getPolicy(id);
+        final long nowInNanoseconds = System.nanoTime();
+
+        // The policy could have been changed by a refresh of the routes
+        final TokenBucket bucket = store.getOrCreate(
+                routeId + KEY_SEPARATOR + id,
+                b -> b.hasLimits(policy.getReplenishRate(), policy.getBurstCapacity()),
+                () -> new TokenBucket(
+                        policy.getReplenishRate(),
+                        policy.getBurstCapacity(),
+                        nowInNanoseconds
+                ),
+                nowInNanoseconds
+        );
+        final long remainingTokens = bucket.tryConsume(
+                routeConfig.getRequestedTokens(),
+                nowInNanoseconds
+        );
+        final boolean allowed = 0 <= remainingTokens;
+        final Map<String, String> headers = getHeaders(
+                routeConfig,
+                policy,
+                Math.max(0, remainingTokens)
+        );
+        if (!allowed) {
+            final long waitInNanoseconds = bucket.getWaitInNanoseconds(
+                    routeConfig.getRequestedTokens(),
+                    nowInNanoseconds
+            );
+            headers.put(
+                    HttpHeaders.RETRY_AFTER,
+                    String.valueOf(
+                            Math.max(1, (long) Math.ceil(waitInNanoseconds / (double) TimeUnit.SECONDS.toNanos(1)))
+                    )
+            );
+        }
+        return Mono.just(
+                new Response(
+                        allowed,
+                        headers
+                )
+        );
+    }
+
+
+    /**
+     * Returns the number of token buckets currently stored in memory.
+     */
+    public int getNumberOfBuckets() {
+        return store.size();
+    }
+
+
+    private Map<String, String> getHeaders(final Config config,
+                                           final Policy policy,
+                                           final long remainingTokens) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(remainingTokens));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(policy.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(policy.getBurstCapacity()));
+        headers.put(REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+        return headers;
+    }
+
+
+    /**
+     * Limits applied to a key.
+     */
+    @Getter
+    @Setter
+    public static class Policy {
+
+        @Min(1)
+        private int replenishRate = 10;
+
+        @Min(1)
+        private int burstCapacity = 20;
+
+    }
+
+
+    /**
+     * Configuration of the rate limiter for a route.
+     */
+    @Getter
+    @Setter
+    public static class Config extends Policy {
+
+        @Min(1)
+        private int requestedTokens = 1;
+
+        private Map<String, Policy> principals = new HashMap<>();
+
+
+        /**
+         *    Returns the {@link Policy} to apply to the given {@code id}. Only the authenticated principals can have a
+         * specific policy, searched without the prefix added by {@link PrincipalKeyResolver}, that is,
+         * {@code principal:admin} will use the one configured for {@code admin}.
+         *
+         * @param id
+         *    Key resolved for the current request
+         *
+         * @return specific {@link Policy} of {@code id} if it exists, the one of the route otherwise
+         */
+        public Policy getPolicy(final String id) {
+            return ofNullable(id)
+                    .filter(i -> i.startsWith(PrincipalKeyResolver.PRINCIPAL_PREFIX))
+                    .map(i -> i.substring(PrincipalKeyResolver.PRINCIPAL_PREFIX.length()))
+                    .map(principals::get)
+                    .orElse(this);
+        }
+
+    }
+
+}
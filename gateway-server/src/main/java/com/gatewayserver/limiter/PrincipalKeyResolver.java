@@ -0,0 +1,62 @@
+package com.gatewayserver.limiter;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ *    {@link KeyResolver} that identifies the principal that sent the request, using only the identities the gateway
+ * can trust:
+ * <p>
+ *   1. Authenticated principal of the {@link ServerWebExchange}: {@code principal:} + its name. It is set by
+ *      {@link com.gatewayserver.filter.PrincipalWebFilter} once the access token of the request has been verified.
+ * <p>
+ *   2. Otherwise: {@code ip:} + the remote address of the request.
+ * <p>
+ *    The credentials included in the {@link org.springframework.http.HttpHeaders#AUTHORIZATION} are never used
+ * directly: without verifying them, any caller could send the clientId of another one, or a new token in every
+ * request to get a new key.
+ */
+public class PrincipalKeyResolver implements KeyResolver {
+
+    public static final String TYPE_SEPARATOR = ":";
+    public static final String PRINCIPAL_PREFIX = "principal" + TYPE_SEPARATOR;
+    public static final String IP_PREFIX = "ip" + TYPE_SEPARATOR;
+
+    private static final String UNKNOWN_ADDRESS = "unknown";
+
+
+    @Override
+    public Mono<String> resolve(final ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .filter(name -> !name.isBlank())
+                .map(name -> PRINCIPAL_PREFIX + name)
+                .switchIfEmpty(
+                        Mono.fromSupplier(() ->
+                                resolveRemoteAddressKey(exchange)
+                        )
+                );
+    }
+
+
+    /**
+     * Returns the identifier of the remote address that sent the request included in the given {@link ServerWebExchange}.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     *
+     * @return {@link String} with the identifier of the remote address
+     */
+    public String resolveRemoteAddressKey(final ServerWebExchange exchange) {
+        return IP_PREFIX + ofNullable(exchange.getRequest().getRemoteAddress())
+                .map(InetSocketAddress::getHostString)
+                .orElse(UNKNOWN_ADDRESS);
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.gatewayserver.limiter;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ *    Stores {@link TokenBucket}s split in several independent stripes, using the hash of their keys to choose the
+ * stripe. There is no background thread: the buckets that have been idle for more than {@code idleTimeInNanoseconds}
+ * are evicted by the caller that first accesses a stripe once its sweep interval has expired, so only that stripe is
+ * traversed and the rest of them are not affected.
+ */
+public class StripedTokenBucketStore {
+
+    private final ConcurrentHashMap<String, TokenBucket>[] stripes;
+    private final AtomicLongArray nextSweepInNanoseconds;
+    private final long idleTimeInNanoseconds;
+    private final int mask;
+
+
+    /**
+     * Construct a {@link StripedTokenBucketStore}
+     *
+     * @param numberOfStripes
+     *    Number of stripes, it will be rounded up to the next power of 2
+     * @param idleTimeInNanoseconds
+     *    Time a {@link TokenBucket} should be full and unused to be evicted
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @throws IllegalArgumentException if {@code numberOfStripes} or {@code idleTimeInNanoseconds} are not positive values
+     */
+    @SuppressWarnings("unchecked")
+    public StripedTokenBucketStore(final int numberOfStripes,
+                                   final long idleTimeInNanoseconds,
+                                   final long nowInNanoseconds) {
+        Assert.isTrue(0 < numberOfStripes, "numberOfStripes should be a positive value");
+        Assert.isTrue(0 < idleTimeInNanoseconds, "idleTimeInNanoseconds should be a positive value");
+        int size = 1;
+        while (size < numberOfStripes) {
+            size <<= 1;
+        }
+        this.stripes = new ConcurrentHashMap[size];
+        this.nextSweepInNanoseconds = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ConcurrentHashMap<>();
+            this.nextSweepInNanoseconds.set(i, nowInNanoseconds + idleTimeInNanoseconds);
+        }
+        this.idleTimeInNanoseconds = idleTimeInNanoseconds;
+        this.mask = size - 1;
+    }
+
+
+    /**
+     * Returns the {@link TokenBucket} related with the given {@code key}, creating a new one if it does not exist.
+     *
+     * @param key
+     *    Identifier of the {@link TokenBucket}
+     * @param bucketSupplier
+     *    {@link Supplier} used to create the {@link TokenBucket} if it does not exist
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return {@link TokenBucket}
+     */
+    public TokenBucket getOrCreate(final String key,
+                                   final Supplier<TokenBucket> bucketSupplier,
+                                   final long nowInNanoseconds) {
+        return getOrCreate(
+                key,
+                b -> true,
+                bucketSupplier,
+                nowInNanoseconds
+        );
+    }
+
+
+    /**
+     *    Returns the {@link TokenBucket} related with the given {@code key}, creating a new one if it does not exist or
+     * the current one does not verify {@code isValid} (e.g. its limits were changed).
+     *
+     * @param key
+     *    Identifier of the {@link TokenBucket}
+     * @param isValid
+     *    {@link Predicate} to check if the existing {@link TokenBucket} can be used
+     * @param bucketSupplier
+     *    {@link Supplier} used to create the {@link TokenBucket} if it does not exist or is not valid
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return {@link TokenBucket}
+     */
+    public TokenBucket getOrCreate(final String key,
+                                   final Predicate<TokenBucket> isValid,
+                                   final Supplier<TokenBucket> bucketSupplier,
+                                   final long nowInNanoseconds) {
+        final int stripeIndex = stripeIndex(key);
+        final ConcurrentHashMap<String, TokenBucket> stripe = stripes[stripeIndex];
+        evictIdleBucketsIfRequired(
+                stripeIndex,
+                nowInNanoseconds
+        );
+        TokenBucket bucket = stripe.get(key);
+        if (null == bucket || !isValid.test(bucket)) {
+            bucket = stripe.compute(
+                    key,
+                    (k, existing) ->
+                            null != existing && isValid.test(existing)
+                                    ? existing
+                                    : bucketSupplier.get()
+            );
+        }
+        return bucket;
+    }
+
+
+    /**
+     * Returns the number of {@link TokenBucket}s currently stored.
+     */
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+
+    private void evictIdleBucketsIfRequired(final int stripeIndex,
+                                            final long nowInNanoseconds) {
+        final long nextSweep = nextSweepInNanoseconds.get(stripeIndex);
+        if (nowInNanoseconds - nextSweep < 0) {
+            return;
+        }
+        // Only one caller will sweep the stripe, the rest of them continue without waiting
+        if (nextSweepInNanoseconds.compareAndSet(stripeIndex, nextSweep, nowInNanoseconds + idleTimeInNanoseconds)) {
+            stripes[stripeIndex].values()
+                    .removeIf(b -> b.isIdle(idleTimeInNanoseconds, nowInNanoseconds));
+        }
+    }
+
+
+    private int stripeIndex(final String key) {
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+}
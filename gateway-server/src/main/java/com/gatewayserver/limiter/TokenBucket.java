@@ -0,0 +1,147 @@
+package com.gatewayserver.limiter;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *    Lock-free token bucket with time-based refill. Instead of storing the number of available tokens and the time
+ * of the last refill, the bucket only stores the instant in which it will be full again, so every acquisition is
+ * a single compare-and-set operation without allocating new objects:
+ * <pre>
+ *    availableTokens(now) = burstCapacity - max(0, fullAt - now) / nanosecondsPerToken
+ * </pre>
+ */
+public class TokenBucket {
+
+    private static final long SECOND_IN_NANOSECONDS = 1_000_000_000L;
+
+    private final int replenishRate;
+    private final int burstCapacity;
+
+    private final long nanosecondsPerToken;
+    private final long burstCapacityInNanoseconds;
+
+    private final AtomicLong fullAtInNanoseconds;
+
+
+    /**
+     * Construct a full {@link TokenBucket}
+     *
+     * @param replenishRate
+     *    Number of tokens added to the bucket every second
+     * @param burstCapacity
+     *    Maximum number of tokens the bucket can store
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @throws IllegalArgumentException if {@code replenishRate} or {@code burstCapacity} are not positive values
+     */
+    public TokenBucket(final int replenishRate,
+                       final int burstCapacity,
+                       final long nowInNanoseconds) {
+        Assert.isTrue(0 < replenishRate, "replenishRate should be a positive value");
+        Assert.isTrue(0 < burstCapacity, "burstCapacity should be a positive value");
+        this.replenishRate = replenishRate;
+        this.burstCapacity = burstCapacity;
+        this.nanosecondsPerToken = SECOND_IN_NANOSECONDS / replenishRate;
+        this.burstCapacityInNanoseconds = nanosecondsPerToken * burstCapacity;
+        this.fullAtInNanoseconds = new AtomicLong(nowInNanoseconds);
+    }
+
+
+    /**
+     * Tries to take the given number of tokens from the bucket.
+     *
+     * @param requestedTokens
+     *    Number of tokens to take
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return if the tokens were taken: the number of remaining tokens after taking them,
+     *         otherwise: a negative value
+     */
+    public long tryConsume(final int requestedTokens,
+                           final long nowInNanoseconds) {
+        final long requestedInNanoseconds = nanosecondsPerToken * requestedTokens;
+        while (true) {
+            final long currentFullAt = fullAtInNanoseconds.get();
+            final long newFullAt = Math.max(currentFullAt, nowInNanoseconds) + requestedInNanoseconds;
+            final long usedInNanoseconds = newFullAt - nowInNanoseconds;
+            if (usedInNanoseconds > burstCapacityInNanoseconds) {
+                return -1;
+            }
+            if (fullAtInNanoseconds.compareAndSet(currentFullAt, newFullAt)) {
+                return (burstCapacityInNanoseconds - usedInNanoseconds) / nanosecondsPerToken;
+            }
+        }
+    }
+
+
+    /**
+     * Returns the number of tokens currently available in the bucket.
+     *
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return number of available tokens
+     */
+    public long getAvailableTokens(final long nowInNanoseconds) {
+        final long usedInNanoseconds = Math.max(0, fullAtInNanoseconds.get() - nowInNanoseconds);
+        return (burstCapacityInNanoseconds - usedInNanoseconds) / nanosecondsPerToken;
+    }
+
+
+    /**
+     * Returns the number of nanoseconds until the given number of tokens will be available.
+     *
+     * @param requestedTokens
+     *    Number of tokens to take
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return {@code 0} if the tokens are already available, positive number of nanoseconds otherwise
+     */
+    public long getWaitInNanoseconds(final int requestedTokens,
+                                     final long nowInNanoseconds) {
+        final long usedInNanoseconds = Math.max(0, fullAtInNanoseconds.get() - nowInNanoseconds);
+        return Math.max(
+                0,
+                usedInNanoseconds + nanosecondsPerToken * requestedTokens - burstCapacityInNanoseconds
+        );
+    }
+
+
+    /**
+     * Checks if the bucket was created with the given limits.
+     *
+     * @param replenishRate
+     *    Number of tokens added to the bucket every second
+     * @param burstCapacity
+     *    Maximum number of tokens the bucket can store
+     *
+     * @return {@code true} if both limits are the ones of the bucket, {@code false} otherwise
+     */
+    public boolean hasLimits(final int replenishRate,
+                             final int burstCapacity) {
+        return this.replenishRate == replenishRate &&
+                this.burstCapacity == burstCapacity;
+    }
+
+
+    /**
+     * Checks if the bucket has been full, without being used, for at least the given time.
+     *
+     * @param idleTimeInNanoseconds
+     *    Minimum time in nanoseconds the bucket should be full to be considered idle
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return {@code true} if the bucket is idle, {@code false} otherwise
+     */
+    public boolean isIdle(final long idleTimeInNanoseconds,
+                          final long nowInNanoseconds) {
+        return nowInNanoseconds - fullAtInNanoseconds.get() >= idleTimeInNanoseconds;
+    }
+
+}
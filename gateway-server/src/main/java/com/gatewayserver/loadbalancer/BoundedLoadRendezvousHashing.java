@@ -0,0 +1,141 @@
+package com.gatewayserver.loadbalancer;
+
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ *    Chooses the instance of a key using rendezvous (highest random weight) hashing: every instance gets a score
+ * calculated from the key and its own hash, and the one with the highest score is chosen. So the same key always goes
+ * to the same instance, and when an instance is added or removed only its keys move to other ones.
+ * <p>
+ *    To avoid that a hot key overloads its instance, the load is bounded: an instance is skipped when its requests
+ * in flight reach {@code loadFactor} times the average load, choosing the next one by score instead.
+ */
+public class BoundedLoadRendezvousHashing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final double loadFactor;
+
+    private final AtomicLong spillovers;
+
+
+    /**
+     * Construct a {@link BoundedLoadRendezvousHashing}
+     *
+     * @param loadFactor
+     *    Maximum load of an instance relative to the average one
+     *
+     * @throws IllegalArgumentException if {@code loadFactor} is not greater than 1
+     */
+    public BoundedLoadRendezvousHashing(final double loadFactor) {
+        Assert.isTrue(1 < loadFactor, "loadFactor must be greater than 1");
+        this.loadFactor = loadFactor;
+        this.spillovers = new AtomicLong(0);
+    }
+
+
+    /**
+     * Returns the instance with the highest score for the given key, whose load has not reached the bound.
+     *
+     * @param keyHash
+     *    Hash of the key, calculated with {@link BoundedLoadRendezvousHashing#hash(String)}
+     * @param instances
+     *    Available instances
+     * @param instanceHash
+     *    {@link ToLongFunction} that returns a stable hash of every instance
+     * @param inFlight
+     *    {@link ToIntFunction} that returns the current load of every instance
+     *
+     * @return chosen instance
+     *
+     * @throws IllegalArgumentException if {@code instances} is empty
+     */
+    public <T> T choose(final long keyHash,
+                        final List<T> instances,
+                        final ToLongFunction<T> instanceHash,
+                        final ToIntFunction<T> inFlight) {
+        Assert.notEmpty(instances, "instances must be not empty");
+        final int size = instances.size();
+        if (1 == size) {
+            return instances.get(0);
+        }
+        final long[] scores = new long[size];
+        final int[] loads = new int[size];
+        long totalLoad = 0;
+        for (int i = 0; i < size; i++) {
+            final T instance = instances.get(i);
+            scores[i] = mix(keyHash ^ mix(instanceHash.applyAsLong(instance)));
+            loads[i] = inFlight.applyAsInt(instance);
+            totalLoad += loads[i];
+        }
+        // Including the new request, so an idle service always accepts it in the first instance
+        final long maxLoad = (long) Math.ceil(loadFactor * (totalLoad + 1) / size);
+
+        int best = -1;
+        for (int attempt = 0; attempt < size; attempt++) {
+            int current = -1;
+            for (int i = 0; i < size; i++) {
+                if (Long.MIN_VALUE != scores[i] &&
+                        (-1 == current || Long.compareUnsigned(scores[i], scores[current]) > 0)) {
+                    current = i;
+                }
+            }
+            if (-1 == best) {
+                best = current;
+            }
+            if (loads[current] < maxLoad) {
+                if (current != best) {
+                    spillovers.incrementAndGet();
+                }
+                return instances.get(current);
+            }
+            // Already checked
+            scores[current] = Long.MIN_VALUE;
+        }
+        return instances.get(best);
+    }
+
+
+    /**
+     * Returns the number of keys sent to another instance than the preferred one, because it was overloaded.
+     */
+    public long getSpillovers() {
+        return spillovers.get();
+    }
+
+
+    /**
+     * Returns a 64 bits hash of the given {@link String}, using FNV-1a.
+     *
+     * @param value
+     *    {@link String} to hash
+     *
+     * @return hash of {@code value}
+     */
+    public static long hash(final String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+
+    /**
+     * Final step of SplitMix64, that spreads the bits of {@code value} so similar values get very different scores.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+}
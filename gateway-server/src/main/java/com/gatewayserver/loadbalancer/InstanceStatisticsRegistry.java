@@ -0,0 +1,104 @@
+package com.gatewayserver.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ *    Stores the {@link PeakEwmaStatistics} of every service instance the gateway sends requests to, grouped by
+ * service identifier.
+ */
+public class InstanceStatisticsRegistry {
+
+    private static final String KEY_SEPARATOR = ":";
+
+    private final long decayTimeInNanoseconds;
+
+    private final Map<String, Map<String, PeakEwmaStatistics>> statistics;
+
+
+    /**
+     * Construct a {@link InstanceStatisticsRegistry}
+     *
+     * @param decayTimeInNanoseconds
+     *    Time window used to decay the average latency of every instance
+     *
+     * @throws IllegalArgumentException if {@code decayTimeInNanoseconds} is not greater than 0
+     */
+    public InstanceStatisticsRegistry(final long decayTimeInNanoseconds) {
+        Assert.isTrue(0 < decayTimeInNanoseconds, "decayTimeInNanoseconds must be greater than 0");
+        this.decayTimeInNanoseconds = decayTimeInNanoseconds;
+        this.statistics = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Returns the {@link PeakEwmaStatistics} of the given {@link ServiceInstance}, creating them if they do not exist.
+     *
+     * @param instance
+     *    {@link ServiceInstance} to get its statistics
+     *
+     * @return {@link PeakEwmaStatistics}
+     */
+    public PeakEwmaStatistics getStatistics(final ServiceInstance instance) {
+        return statistics.computeIfAbsent(
+                        instance.getServiceId(),
+                        id -> new ConcurrentHashMap<>()
+                )
+                .computeIfAbsent(
+                        getKey(instance),
+                        key -> new PeakEwmaStatistics(
+                                decayTimeInNanoseconds,
+                                System.nanoTime()
+                        )
+                );
+    }
+
+
+    /**
+     *    Removes the statistics of the instances of {@code serviceId} not included in {@code instances}, that is, the
+     * ones that are not registered anymore.
+     *
+     * @param serviceId
+     *    Identifier of the service
+     * @param instances
+     *    Current {@link ServiceInstance}s of the service
+     */
+    public void retain(final String serviceId,
+                       final Collection<ServiceInstance> instances) {
+        final Map<String, PeakEwmaStatistics> serviceStatistics = statistics.get(serviceId);
+        if (null == serviceStatistics ||
+                serviceStatistics.size() <= instances.size()) {
+            return;
+        }
+        final Set<String> currentKeys = instances.stream()
+                .map(this::getKey)
+                .collect(toSet());
+
+        serviceStatistics.keySet()
+                .retainAll(currentKeys);
+    }
+
+
+    /**
+     * Returns the number of instances with statistics.
+     */
+    public int size() {
+        return statistics.values()
+                .stream()
+                .mapToInt(Map::size)
+                .sum();
+    }
+
+
+    private String getKey(final ServiceInstance instance) {
+        return instance.getHost() + KEY_SEPARATOR + instance.getPort();
+    }
+
+}
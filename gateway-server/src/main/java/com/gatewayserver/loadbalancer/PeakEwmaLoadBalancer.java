@@ -0,0 +1,207 @@
+package com.gatewayserver.loadbalancer;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.lang.String.format;
+import static java.util.Optional.empty;
+
+/**
+ *    {@link ReactorServiceInstanceLoadBalancer} that takes into account the latency of every instance. It uses the
+ * power of two choices: picks two random instances and chooses the one with the lowest cost, calculated using the
+ * {@link PeakEwmaStatistics} of each one.
+ * <p>
+ *    Comparing only two random instances, instead of looking for the best one, avoids that all the gateway
+ * requests go to the same instance while its statistics are updated.
+ * <p>
+ *    The requests with the header {@link PeakEwmaLoadBalancer#HASH_KEY_HEADER} (added by the route filter
+ * {@link com.gatewayserver.filter.factory.ConsistentHashGatewayFilterFactory}) are sent instead to the instance
+ * chosen by {@link BoundedLoadRendezvousHashing}, so the requests of the same principal go to the same instance while
+ * it is not overloaded.
+ */
+@Log4j2
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    // Internal header with the hash of the key used to choose the instance, never sent to the downstream services
+    public static final String HASH_KEY_HEADER = "X-Gateway-Hash-Key";
+
+    private final String serviceId;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final InstanceStatisticsRegistry statisticsRegistry;
+
+    private final BoundedLoadRendezvousHashing rendezvousHashing;
+
+
+    /**
+     * Construct a {@link PeakEwmaLoadBalancer}
+     *
+     * @param serviceInstanceListSupplierProvider
+     *    Provider of the {@link ServiceInstanceListSupplier} used to get the available instances
+     * @param serviceId
+     *    Identifier of the service to balance
+     * @param statisticsRegistry
+     *    {@link InstanceStatisticsRegistry} with the latency statistics of the instances
+     * @param rendezvousHashing
+     *    {@link BoundedLoadRendezvousHashing} used with the requests that include {@link PeakEwmaLoadBalancer#HASH_KEY_HEADER}
+     */
+    public PeakEwmaLoadBalancer(final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                final String serviceId,
+                                final InstanceStatisticsRegistry statisticsRegistry,
+                                final BoundedLoadRendezvousHashing rendezvousHashing) {
+        this.serviceId = serviceId;
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.statisticsRegistry = statisticsRegistry;
+        this.rendezvousHashing = rendezvousHashing;
+    }
+
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(final Request request) {
+        final ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable(
+                NoopServiceInstanceListSupplier::new
+        );
+        return supplier.get(request)
+                .next()
+                .map(instances ->
+                        getInstanceResponse(
+                                supplier,
+                                instances,
+                                getHashKey(request)
+                        )
+                );
+    }
+
+
+    /**
+     * Chooses one of the given {@link ServiceInstance}s using the power of two choices.
+     *
+     * @param instances
+     *    Available {@link ServiceInstance}s
+     * @param random
+     *    {@link Random} used to pick the instances to compare
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return selected {@link ServiceInstance}
+     */
+    ServiceInstance choose(final List<ServiceInstance> instances,
+                           final Random random,
+                           final long nowInNanoseconds) {
+        statisticsRegistry.retain(
+                instances.get(0).getServiceId(),
+                instances
+        );
+        if (1 == instances.size()) {
+            return instances.get(0);
+        }
+        final int firstIndex = random.nextInt(instances.size());
+        int secondIndex = random.nextInt(instances.size() - 1);
+        if (secondIndex >= firstIndex) {
+            secondIndex++;
+        }
+        final ServiceInstance first = instances.get(firstIndex);
+        final ServiceInstance second = instances.get(secondIndex);
+
+        return statisticsRegistry.getStatistics(first).getCost(nowInNanoseconds) <=
+               statisticsRegistry.getStatistics(second).getCost(nowInNanoseconds)
+                ? first
+                : second;
+    }
+
+
+    /**
+     * Chooses the {@link ServiceInstance} related with the given key, using {@link BoundedLoadRendezvousHashing}.
+     *
+     * @param instances
+     *    Available {@link ServiceInstance}s
+     * @param keyHash
+     *    Hash of the key of the request
+     *
+     * @return selected {@link ServiceInstance}
+     */
+    ServiceInstance choose(final List<ServiceInstance> instances,
+                           final long keyHash) {
+        statisticsRegistry.retain(
+                instances.get(0).getServiceId(),
+                instances
+        );
+        return rendezvousHashing.choose(
+                keyHash,
+                instances,
+                i -> BoundedLoadRendezvousHashing.hash(i.getHost() + ":" + i.getPort()),
+                i -> statisticsRegistry.getStatistics(i).getInFlight()
+        );
+    }
+
+
+    /**
+     * Returns the hash included by {@link com.gatewayserver.filter.factory.ConsistentHashGatewayFilterFactory}.
+     *
+     * @param request
+     *    {@link Request} with the information of the current one
+     *
+     * @return {@link Optional} with the hash if the request contains a valid {@link PeakEwmaLoadBalancer#HASH_KEY_HEADER},
+     *         {@link Optional#empty()} otherwise
+     */
+    private Optional<Long> getHashKey(final Request request) {
+        if (null == rendezvousHashing ||
+                !(request.getContext() instanceof RequestDataContext)) {
+            return empty();
+        }
+        return Optional.ofNullable(((RequestDataContext) request.getContext()).getClientRequest())
+                .map(r -> r.getHeaders().getFirst(HASH_KEY_HEADER))
+                .flatMap(h -> {
+                    try {
+                        return Optional.of(Long.parseUnsignedLong(h, 16));
+                    } catch (NumberFormatException e) {
+                        return empty();
+                    }
+                });
+    }
+
+
+    private Response<ServiceInstance> getInstanceResponse(final ServiceInstanceListSupplier supplier,
+                                                          final List<ServiceInstance> instances,
+                                                          final Optional<Long> hashKey) {
+        if (instances.isEmpty()) {
+            log.warn(
+                    format("No servers available for service: %s",
+                            serviceId
+                    )
+            );
+            return new EmptyResponse();
+        }
+        final ServiceInstance instance = hashKey
+                .map(k -> choose(instances, k))
+                .orElseGet(() ->
+                        choose(
+                                instances,
+                                ThreadLocalRandom.current(),
+                                System.nanoTime()
+                        )
+                );
+        if (supplier instanceof SelectedInstanceCallback) {
+            ((SelectedInstanceCallback) supplier).selectedServiceInstance(instance);
+        }
+        return new DefaultResponse(instance);
+    }
+
+}
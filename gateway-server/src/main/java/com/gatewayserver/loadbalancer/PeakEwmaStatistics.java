@@ -0,0 +1,138 @@
+package com.gatewayserver.loadbalancer;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *    Latency statistics of a service instance, used to estimate the cost of sending a new request to it. The latency
+ * is tracked using a peak exponentially weighted moving average (peak-EWMA):
+ * <p>
+ *   1. When a response is slower than the current average, the average is moved directly to the new latency, so a
+ *      degraded instance is penalized at once.
+ * <p>
+ *   2. Otherwise, the average decays towards the new latency depending on the time elapsed since the previous one.
+ * <p>
+ *    Besides, the average decays towards 0 while there are no new samples, that way an instance that has been slow
+ *  in the past will receive new requests after a while, checking if it has recovered.
+ */
+public class PeakEwmaStatistics {
+
+    /**
+     * Cost used when there is no latency information about the instance but it is already managing requests.
+     */
+    public static final double UNMEASURED_PENALTY = Long.MAX_VALUE >> 16;
+
+    private final double decayTimeInNanoseconds;
+
+    private final AtomicInteger inFlight;
+
+    private double latencyInNanoseconds;
+
+    private long lastUpdateInNanoseconds;
+
+
+    /**
+     * Construct a {@link PeakEwmaStatistics}
+     *
+     * @param decayTimeInNanoseconds
+     *    Time window used to decay the average latency. The bigger it is, the slower old samples are forgotten
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @throws IllegalArgumentException if {@code decayTimeInNanoseconds} is not greater than 0
+     */
+    public PeakEwmaStatistics(final long decayTimeInNanoseconds,
+                              final long nowInNanoseconds) {
+        Assert.isTrue(0 < decayTimeInNanoseconds, "decayTimeInNanoseconds must be greater than 0");
+        this.decayTimeInNanoseconds = decayTimeInNanoseconds;
+        this.inFlight = new AtomicInteger(0);
+        this.latencyInNanoseconds = 0;
+        this.lastUpdateInNanoseconds = nowInNanoseconds;
+    }
+
+
+    /**
+     * Registers a new request sent to the instance.
+     */
+    public void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+
+    /**
+     * Registers a finished request whose latency should not be taken into account, like the cancelled ones.
+     */
+    public void onDiscard() {
+        inFlight.decrementAndGet();
+    }
+
+
+    /**
+     * Registers a finished request, updating the average latency of the instance.
+     *
+     * @param latencyInNanoseconds
+     *    Time required to manage the request
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     */
+    public synchronized void onComplete(final long latencyInNanoseconds,
+                                        final long nowInNanoseconds) {
+        inFlight.decrementAndGet();
+        final double sample = Math.max(0, latencyInNanoseconds);
+        if (sample > this.latencyInNanoseconds) {
+            this.latencyInNanoseconds = sample;
+        } else {
+            final double weight = getDecayWeight(nowInNanoseconds);
+            this.latencyInNanoseconds = this.latencyInNanoseconds * weight + sample * (1 - weight);
+        }
+        this.lastUpdateInNanoseconds = nowInNanoseconds;
+    }
+
+
+    /**
+     *    Returns the estimated cost of sending a new request to the instance: its decayed average latency multiplied
+     * by the number of requests it is managing plus the new one.
+     *
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return cost of the instance, the lower the better
+     */
+    public synchronized double getCost(final long nowInNanoseconds) {
+        final int currentInFlight = Math.max(0, inFlight.get());
+        final double latency = getLatencyInNanoseconds(nowInNanoseconds);
+        if (0 == latency && 0 < currentInFlight) {
+            return UNMEASURED_PENALTY + currentInFlight;
+        }
+        return latency * (currentInFlight + 1);
+    }
+
+
+    /**
+     * Returns the average latency of the instance, decayed until the given time.
+     *
+     * @param nowInNanoseconds
+     *    Current time in nanoseconds
+     *
+     * @return average latency in nanoseconds
+     */
+    public synchronized double getLatencyInNanoseconds(final long nowInNanoseconds) {
+        return latencyInNanoseconds * getDecayWeight(nowInNanoseconds);
+    }
+
+
+    /**
+     * Returns the number of requests the instance is currently managing.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+
+    private double getDecayWeight(final long nowInNanoseconds) {
+        final long elapsedTime = Math.max(0, nowInNanoseconds - lastUpdateInNanoseconds);
+        return Math.exp(-elapsedTime / decayTimeInNanoseconds);
+    }
+
+}
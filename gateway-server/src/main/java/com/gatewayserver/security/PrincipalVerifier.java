@@ -0,0 +1,197 @@
+package com.gatewayserver.security;
+
+import com.spring5microservices.common.dto.UsernameAuthoritiesDto;
+import com.spring5microservices.common.util.HttpUtil;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.Assert;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+
+/**
+ *    Verifies the access tokens sent to the gateway with the same web service of the security server used by the
+ * microservices, returning the username they belong to.
+ * <p>
+ *    The results, including the not valid tokens, are kept in memory for {@code ttlInNanoseconds}, bounded by
+ * {@code maxEntries}, so the security server is invoked once per token and period instead of once per request. The
+ * concurrent requests with the same token share the same invocation. If the security server is not available, the
+ * result is not kept, so the token is verified again in the next request.
+ */
+@Log4j2
+public class PrincipalVerifier {
+
+    private final WebClient webClient;
+
+    private final String authenticationInformationUri;
+
+    private final String authorizationHeader;
+
+    private final Duration timeout;
+
+    private final int maxEntries;
+
+    private final long ttlInNanoseconds;
+
+    // Ordered by verification time, so the expired ones are always at the beginning
+    private final LinkedHashMap<String, VerifiedToken> verifiedTokens;
+
+
+    /**
+     * Construct a {@link PrincipalVerifier}
+     *
+     * @param webClient
+     *    {@link WebClient} used to invoke the security server
+     * @param authenticationInformationUri
+     *    Web service of the security server that returns the information of an access token
+     * @param clientId
+     *    Identifier of the client used to invoke {@code authenticationInformationUri}
+     * @param clientPassword
+     *    Password of the client used to invoke {@code authenticationInformationUri}
+     * @param timeout
+     *    Maximum time to wait for the security server
+     * @param maxEntries
+     *    Maximum number of verified tokens kept in memory
+     * @param ttlInNanoseconds
+     *    Time the result of a verification is kept in memory
+     *
+     * @throws IllegalArgumentException if {@code maxEntries} or {@code ttlInNanoseconds} are not greater than 0
+     */
+    public PrincipalVerifier(final WebClient webClient,
+                             final String authenticationInformationUri,
+                             final String clientId,
+                             final String clientPassword,
+                             final Duration timeout,
+                             final int maxEntries,
+                             final long ttlInNanoseconds) {
+        Assert.isTrue(0 < maxEntries, "maxEntries must be greater than 0");
+        Assert.isTrue(0 < ttlInNanoseconds, "ttlInNanoseconds must be greater than 0");
+        this.webClient = webClient;
+        this.authenticationInformationUri = authenticationInformationUri;
+        this.authorizationHeader = HttpUtil.encodeBasicAuthentication(
+                clientId,
+                clientPassword
+        );
+        this.timeout = timeout;
+        this.maxEntries = maxEntries;
+        this.ttlInNanoseconds = ttlInNanoseconds;
+        this.verifiedTokens = new LinkedHashMap<>();
+    }
+
+
+    /**
+     * Returns the username the given access token belongs to.
+     *
+     * @param tokenDigest
+     *    Digest of {@code token}, used to keep the result without storing the token
+     * @param token
+     *    Access token to verify, without the authentication scheme
+     * @param nowInNanoseconds
+     *    Current time
+     *
+     * @return {@link Mono} with the username if {@code token} is valid, {@link Optional#empty()} otherwise
+     */
+    public Mono<Optional<String>> verify(final String tokenDigest,
+                                         final String token,
+                                         final long nowInNanoseconds) {
+        final VerifiedToken verifiedToken;
+        synchronized (verifiedTokens) {
+            removeExpired(nowInNanoseconds);
+            VerifiedToken existing = verifiedTokens.get(tokenDigest);
+            if (null != existing) {
+                return existing.getUsername();
+            }
+            verifiedToken = new VerifiedToken(nowInNanoseconds + ttlInNanoseconds);
+            verifiedToken.setUsername(
+                    invokeSecurityServer(tokenDigest, token, verifiedToken)
+            );
+            verifiedTokens.put(tokenDigest, verifiedToken);
+
+            Iterator<VerifiedToken> iterator = verifiedTokens.values().iterator();
+            while (verifiedTokens.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return verifiedToken.getUsername();
+    }
+
+
+    /**
+     * Returns the number of verified tokens kept in memory.
+     */
+    public int size() {
+        synchronized (verifiedTokens) {
+            return verifiedTokens.size();
+        }
+    }
+
+
+    private Mono<Optional<String>> invokeSecurityServer(final String tokenDigest,
+                                                       final String token,
+                                                       final VerifiedToken verifiedToken) {
+        return webClient.post()
+                .uri(authenticationInformationUri)
+                .header(HttpHeaders.AUTHORIZATION, authorizationHeader)
+                .bodyValue(token)
+                .retrieve()
+                .bodyToMono(UsernameAuthoritiesDto.class)
+                .map(dto -> ofNullable(dto.getUsername()))
+                .timeout(timeout)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    // The security server rejected the token, otherwise it is verified again in the next request
+                    if (!(e instanceof WebClientResponseException) ||
+                            500 <= ((WebClientResponseException) e).getRawStatusCode()) {
+                        log.warn(
+                                format("The access token could not be verified, so the request will be limited by its address. %s",
+                                        e.getMessage()
+                                )
+                        );
+                        synchronized (verifiedTokens) {
+                            verifiedTokens.remove(tokenDigest, verifiedToken);
+                        }
+                    }
+                    return Mono.just(Optional.empty());
+                })
+                .cache();
+    }
+
+
+    private void removeExpired(final long nowInNanoseconds) {
+        Iterator<VerifiedToken> iterator = verifiedTokens.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getExpiresAtInNanoseconds() - nowInNanoseconds > 0) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+
+    @Getter
+    @Setter
+    private static class VerifiedToken {
+
+        private final long expiresAtInNanoseconds;
+
+        private Mono<Optional<String>> username;
+
+
+        VerifiedToken(final long expiresAtInNanoseconds) {
+            this.expiresAtInNanoseconds = expiresAtInNanoseconds;
+        }
+
+    }
+
+}
@@ -0,0 +1,244 @@
+package com.gatewayserver.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gatewayserver.configuration.composition.CompositionConfiguration;
+import com.gatewayserver.dto.OrderWithIngredientSummaryDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+
+/**
+ *    Composes the information of an order using several requests to order-service, sent concurrently. Every request
+ * has its own timeout, so partial results are returned when some of them fail.
+ */
+@Log4j2
+@Service
+public class OrderCompositionService {
+
+    private static final String ORDER_LEG = "order";
+    private static final String INGREDIENT_SUMMARY_LEG = "ingredientSummary";
+
+    private static final String ORDER_WITH_ORDER_LINES_PATH = "/order/{orderId}/withOrderlines";
+    private static final String INGREDIENT_SUMMARY_PATH = "/order/{orderId}/ingredient/summary";
+
+    private final CompositionConfiguration compositionConfiguration;
+
+    private final WebClient compositionWebClient;
+
+
+    @Autowired
+    public OrderCompositionService(@Lazy final CompositionConfiguration compositionConfiguration,
+                                   @Lazy final WebClient compositionWebClient) {
+        this.compositionConfiguration = compositionConfiguration;
+        this.compositionWebClient = compositionWebClient;
+    }
+
+
+    /**
+     * Returns the order with the given {@code orderId}, including its lines and the summary of its ingredients.
+     *
+     * @param orderId
+     *    Identifier of the order to search
+     * @param authorization
+     *    Value of the {@link HttpHeaders#AUTHORIZATION} header sent to order-service
+     *
+     * @return {@link Mono} with the {@link ResponseEntity} to return:
+     * <p>
+     *   1. {@link HttpStatus#OK} if any part was obtained, with the errors of the other ones.
+     * <p>
+     *   2. The status returned by order-service if the order was not obtained because of a client error (not found,
+     *      unauthorized, etc).
+     * <p>
+     *   3. The status related with the error of the order request if no part was obtained.
+     */
+    public Mono<ResponseEntity<OrderWithIngredientSummaryDto>> getOrderWithIngredientSummary(final Integer orderId,
+                                                                                             final String authorization) {
+        final Mono<LegResult> orderLeg = invokeLeg(
+                ORDER_LEG,
+                ORDER_WITH_ORDER_LINES_PATH,
+                orderId,
+                authorization,
+                compositionConfiguration.getOrderTimeoutInMilliseconds()
+        );
+        final Mono<LegResult> ingredientSummaryLeg = invokeLeg(
+                INGREDIENT_SUMMARY_LEG,
+                INGREDIENT_SUMMARY_PATH,
+                orderId,
+                authorization,
+                compositionConfiguration.getIngredientSummaryTimeoutInMilliseconds()
+        );
+        return Mono.zip(orderLeg, ingredientSummaryLeg)
+                .map(legs ->
+                        buildResponse(
+                                legs.getT1(),
+                                legs.getT2()
+                        )
+                );
+    }
+
+
+    /**
+     * Invokes one of the requests required to compose the response, never returning an error.
+     *
+     * @param name
+     *    Name of the part of the response obtained by the request
+     * @param path
+     *    Path of order-service to invoke
+     * @param orderId
+     *    Identifier of the order to search
+     * @param authorization
+     *    Value of the {@link HttpHeaders#AUTHORIZATION} header to send
+     * @param timeoutInMilliseconds
+     *    Maximum time to wait for the response
+     *
+     * @return {@link Mono} with the {@link LegResult}
+     */
+    private Mono<LegResult> invokeLeg(final String name,
+                                      final String path,
+                                      final Integer orderId,
+                                      final String authorization,
+                                      final long timeoutInMilliseconds) {
+        return compositionWebClient.get()
+                .uri(compositionConfiguration.getOrderServiceUri() + path, orderId)
+                .headers(h ->
+                        ofNullable(authorization)
+                                .ifPresent(a -> h.set(HttpHeaders.AUTHORIZATION, a))
+                )
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.bodyToMono(JsonNode.class)
+                                .map(LegResult::success);
+                    }
+                    return response.releaseBody()
+                            .thenReturn(
+                                    LegResult.failure(
+                                            response.rawStatusCode(),
+                                            format("%s returned the HTTP status: %d",
+                                                    name,
+                                                    response.rawStatusCode()
+                                            )
+                                    )
+                            );
+                })
+                .timeout(Duration.ofMillis(timeoutInMilliseconds))
+                .onErrorResume(TimeoutException.class, e ->
+                        Mono.just(
+                                LegResult.failure(
+                                        GATEWAY_TIMEOUT.value(),
+                                        format("%s was not received in %d milliseconds",
+                                                name,
+                                                timeoutInMilliseconds
+                                        )
+                                )
+                        )
+                )
+                .onErrorResume(e -> {
+                    log.error(
+                            format("There was an error getting the %s of the order: %d",
+                                    name,
+                                    orderId
+                            ),
+                            e
+                    );
+                    return Mono.just(
+                            LegResult.failure(
+                                    SERVICE_UNAVAILABLE.value(),
+                                    format("%s is not available",
+                                            name
+                                    )
+                            )
+                    );
+                })
+                .defaultIfEmpty(
+                        LegResult.failure(
+                                SERVICE_UNAVAILABLE.value(),
+                                format("%s was empty",
+                                        name
+                                )
+                        )
+                );
+    }
+
+
+    private ResponseEntity<OrderWithIngredientSummaryDto> buildResponse(final LegResult orderLeg,
+                                                                        final LegResult ingredientSummaryLeg) {
+        final List<String> errors = new ArrayList<>();
+        ofNullable(orderLeg.getError()).ifPresent(errors::add);
+        ofNullable(ingredientSummaryLeg.getError()).ifPresent(errors::add);
+
+        final OrderWithIngredientSummaryDto composition = OrderWithIngredientSummaryDto.builder()
+                .order(orderLeg.getBody())
+                .ingredientSummary(ingredientSummaryLeg.getBody())
+                .errors(errors)
+                .build();
+
+        final int httpStatus;
+        if (orderLeg.isSuccessful()) {
+            httpStatus = OK.value();
+        }
+        // The order does not exist or the user cannot see it, so the summary should not be returned
+        else if (HttpStatus.Series.CLIENT_ERROR == HttpStatus.Series.resolve(orderLeg.getHttpStatus())) {
+            httpStatus = orderLeg.getHttpStatus();
+            composition.setIngredientSummary(null);
+        }
+        else {
+            httpStatus = ingredientSummaryLeg.isSuccessful()
+                    ? OK.value()
+                    : orderLeg.getHttpStatus();
+        }
+        return ResponseEntity.status(httpStatus)
+                .body(composition);
+    }
+
+
+    /**
+     * Result of one of the requests required to compose the response.
+     */
+    @AllArgsConstructor
+    @Getter
+    private static class LegResult {
+
+        private final int httpStatus;
+
+        private final JsonNode body;
+
+        private final String error;
+
+
+        static LegResult success(final JsonNode body) {
+            return new LegResult(OK.value(), body, null);
+        }
+
+
+        static LegResult failure(final int httpStatus,
+                                 final String error) {
+            return new LegResult(httpStatus, null, error);
+        }
+
+
+        boolean isSuccessful() {
+            return null == error;
+        }
+
+    }
+
+}
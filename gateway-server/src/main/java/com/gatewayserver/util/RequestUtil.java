@@ -0,0 +1,85 @@
+package com.gatewayserver.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+
+import static java.util.Optional.ofNullable;
+
+@UtilityClass
+public class RequestUtil {
+
+    /**
+     *    Checks if the given {@link ServerHttpRequest} asks for a stream of server-sent events, whose response never
+     * ends, so it must be sent to the client without buffering it.
+     *
+     * @param request
+     *    {@link ServerHttpRequest} to check
+     *
+     * @return {@code true} if its {@link HttpHeaders#ACCEPT} includes {@link MediaType#TEXT_EVENT_STREAM},
+     *         {@code false} otherwise
+     */
+    public static boolean isEventStreamRequest(final ServerHttpRequest request) {
+        try {
+            return ofNullable(request)
+                    .map(r -> r.getHeaders().getAccept())
+                    .map(a -> a.stream().anyMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype))
+                    .orElse(false);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+
+
+    /**
+     *    Returns a SHA-256 digest of the {@link HttpHeaders#AUTHORIZATION} of the given {@link ServerHttpRequest}. The
+     * gateway does not verify the credentials, but the digest can be used to scope stored data to the requests that
+     * present exactly the same ones, without keeping them in memory.
+     *
+     * @param request
+     *    {@link ServerHttpRequest} to check
+     *
+     * @return {@link Optional} with the Base64 digest of the credentials,
+     *         {@link Optional#empty()} if the request does not include them
+     */
+    public static Optional<String> getCredentialsDigest(final ServerHttpRequest request) {
+        return ofNullable(request)
+                .map(r -> r.getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .map(String::trim)
+                .filter(a -> !a.isEmpty())
+                .map(a -> sha256(a.getBytes(StandardCharsets.UTF_8)));
+    }
+
+
+    /**
+     * Returns the URL safe Base64 representation of the SHA-256 digest of the given {@code content}.
+     *
+     * @param content
+     *    Bytes to digest
+     *
+     * @return {@link String} with the digest
+     */
+    public static String sha256(final byte[] content) {
+        try {
+            return Base64.getUrlEncoder()
+                    .withoutPadding()
+                    .encodeToString(
+                            MessageDigest.getInstance("SHA-256")
+                                    .digest(content)
+                    );
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform must support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.gatewayserver.util;
+
+import com.spring5microservices.common.dto.ErrorResponseDto;
+import com.spring5microservices.common.enums.RestApiErrorCode;
+import com.spring5microservices.common.util.JsonUtil;
+import lombok.experimental.UtilityClass;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@UtilityClass
+public class ResponseUtil {
+
+    /**
+     * Writes in the response of the given {@link ServerWebExchange} an error, using the provided parameters.
+     *
+     * @param exchange
+     *    {@link ServerWebExchange} with the request information
+     * @param errorCode
+     *    {@link RestApiErrorCode} included in the response
+     * @param errorMessages
+     *    {@link List} of error messages to include
+     * @param httpStatus
+     *    Http code used in the response
+     *
+     * @return {@link Mono} with the suitable Http response
+     */
+    public static Mono<Void> writeErrorResponse(final ServerWebExchange exchange,
+                                                final RestApiErrorCode errorCode,
+                                                final List<String> errorMessages,
+                                                final HttpStatus httpStatus) {
+        exchange.getResponse()
+                .setRawStatusCode(httpStatus.value());
+        exchange.getResponse()
+                .getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        ErrorResponseDto error = new ErrorResponseDto(errorCode, errorMessages);
+        byte[] responseMessageBytes = JsonUtil
+                .toJson(error)
+                .orElse("")
+                .getBytes(StandardCharsets.UTF_8);
+
+        DataBuffer bufferResponseMessage = exchange.getResponse()
+                .bufferFactory()
+                .wrap(responseMessageBytes);
+
+        return exchange.getResponse()
+                .writeWith(
+                        Mono.just(bufferResponseMessage)
+                );
+    }
+
+}
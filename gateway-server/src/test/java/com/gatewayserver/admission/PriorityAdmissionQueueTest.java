@@ -0,0 +1,229 @@
+package com.gatewayserver.admission;
+
+import com.gatewayserver.admission.PriorityAdmissionQueue.Outcome;
+import com.gatewayserver.admission.PriorityAdmissionQueue.Waiter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PriorityAdmissionQueueTest {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+
+    static Stream<Arguments> constructorFailedTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            maxConcurrency,   maxQueueSize
+                Arguments.of( 0,                1 ),
+                Arguments.of( 1,                -1 )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("constructorFailedTestCases")
+    @DisplayName("constructor: failed test cases")
+    public void constructor_failedTestCases(int maxConcurrency,
+                                            int maxQueueSize) {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new PriorityAdmissionQueue(maxConcurrency, maxQueueSize)
+        );
+    }
+
+
+    @Test
+    @DisplayName("submit: when the concurrency limit has not been reached then the request is admitted")
+    public void submit_whenConcurrencyLimitHasNotBeenReached_thenRequestIsAdmitted() {
+        PriorityAdmissionQueue queue = new PriorityAdmissionQueue(2, 1);
+        RecordingWaiter first = new RecordingWaiter(RequestPriority.LOW, NO_DEADLINE);
+        RecordingWaiter second = new RecordingWaiter(RequestPriority.LOW, NO_DEADLINE);
+
+        assertFalse(queue.submit(first.waiter));
+        assertFalse(queue.submit(second.waiter));
+
+        assertEquals(Outcome.ADMITTED, first.outcome);
+        assertEquals(Outcome.ADMITTED, second.outcome);
+        assertEquals(2, queue.getInFlight());
+    }
+
+
+    @Test
+    @DisplayName("release: the waiting requests are admitted by priority and arrival order")
+    public void release_waitingRequestsAreAdmittedByPriorityAndArrivalOrder() {
+        PriorityAdmissionQueue queue = new PriorityAdmissionQueue(1, 10);
+        List<RequestPriority> admittedPriorities = new ArrayList<>();
+        RecordingWaiter running = new RecordingWaiter(RequestPriority.NORMAL, NO_DEADLINE);
+        queue.submit(running.waiter);
+
+        List<Waiter> waiters = new ArrayList<>();
+        for (RequestPriority priority : List.of(RequestPriority.LOW, RequestPriority.HIGH, RequestPriority.NORMAL,
+                RequestPriority.CRITICAL, RequestPriority.HIGH)) {
+            Waiter waiter = new Waiter(
+                    priority,
+                    NO_DEADLINE,
+                    outcome -> admittedPriorities.add(priority)
+            );
+            waiters.add(waiter);
+            assertTrue(queue.submit(waiter));
+        }
+        assertEquals(2, queue.getQueueSize(RequestPriority.HIGH));
+
+        queue.release(running.waiter, 0);
+        for (int i = 0; i < waiters.size(); i++) {
+            // Only the admitted one releases its permission
+            waiters.forEach(w -> queue.release(w, 0));
+        }
+        assertEquals(
+                List.of(RequestPriority.CRITICAL, RequestPriority.HIGH, RequestPriority.HIGH, RequestPriority.NORMAL, RequestPriority.LOW),
+                admittedPriorities
+        );
+        assertEquals(0, queue.getInFlight());
+    }
+
+
+    @Test
+    @DisplayName("release: invoking it several times with the same request has no effect")
+    public void release_whenInvokedSeveralTimes_thenHasNoEffect() {
+        PriorityAdmissionQueue queue = new PriorityAdmissionQueue(2, 1);
+        RecordingWaiter first = new RecordingWaiter(RequestPriority.LOW, NO_DEADLINE);
+        RecordingWaiter second = new RecordingWaiter(RequestPriority.LOW, NO_DEADLINE);
+        queue.submit(first.waiter);
+        queue.submit(second.waiter);
+
+        queue.release(first.waiter, 0);
+        queue.release(first.waiter, 0);
+
+        assertEquals(1, queue.getInFlight());
+    }
+
+
+    @Test
+    @DisplayName("release: when the deadline of a waiting request has been reached then it is expired")
+    public void release_whenDeadlineOfWaitingRequestHasBeenReached_thenItIsExpired() {
+        PriorityAdmissionQueue queue = new PriorityAdmissionQueue(1, 2);
+        RecordingWaiter running = new RecordingWaiter(RequestPriority.NORMAL, NO_DEADLINE);
+        RecordingWaiter expired = new RecordingWaiter(RequestPriority.HIGH, 100);
+        RecordingWaiter admitted = new RecordingWaiter(RequestPriority.LOW, 500);
+        queue.submit(running.waiter);
+        queue.submit(expired.waiter);
+        queue.submit(admitted.waiter);
+
+        queue.release(running.waiter, 200);
+
+        assertEquals(Outcome.EXPIRED, expired.outcome);
+        assertEquals(Outcome.ADMITTED, admitted.outcome);
+        assertEquals(1, queue.getInFlight());
+    }
+
+
+    @Test
+    @DisplayName("submit: when the queue is full then the lowest priority request is rejected")
+    public void submit_whenQueueIsFull_thenLowestPriorityRequestIsRejected() {
+        PriorityAdmissionQueue queue = new PriorityAdmissionQueue(1, 2);
+        RecordingWaiter running = new RecordingWaiter(RequestPriority.NORMAL, NO_DEADLINE);
+        RecordingWaiter normal = new RecordingWaiter(RequestPriority.NORMAL, NO_DEADLINE);
+        RecordingWaiter low = new RecordingWaiter(RequestPriority.LOW, NO_DEADLINE);
+        RecordingWaiter high = new RecordingWaiter(RequestPriority.HIGH, NO_DEADLINE);
+        RecordingWaiter anotherLow = new RecordingWaiter(RequestPriority.LOW, NO_DEADLINE);
+        queue.submit(running.waiter);
+        queue.submit(normal.waiter);
+        queue.submit(low.waiter);
+
+        // Evicts the queued low priority request
+        assertTrue(queue.submit(high.waiter));
+        assertEquals(Outcome.REJECTED, low.outcome);
+
+        // There is no lower priority request to evict
+        assertFalse(queue.submit(anotherLow.waiter));
+        assertEquals(Outcome.REJECTED, anotherLow.outcome);
+
+        assertNull(normal.outcome);
+        assertNull(high.outcome);
+        assertEquals(0, queue.getQueueSize(RequestPriority.LOW));
+    }
+
+
+    @Test
+    @DisplayName("submit: when there is no queue and the concurrency limit has been reached then the request is rejected")
+    public void submit_whenThereIsNoQueueAndConcurrencyLimitHasBeenReached_thenRequestIsRejected() {
+        PriorityAdmissionQueue queue = new PriorityAdmissionQueue(1, 0);
+        RecordingWaiter running = new RecordingWaiter(RequestPriority.LOW, NO_DEADLINE);
+        RecordingWaiter critical = new RecordingWaiter(RequestPriority.CRITICAL, NO_DEADLINE);
+        queue.submit(running.waiter);
+
+        assertFalse(queue.submit(critical.waiter));
+        assertEquals(Outcome.REJECTED, critical.outcome);
+    }
+
+
+    @Test
+    @DisplayName("expire: only the waiting requests are expired")
+    public void expire_onlyWaitingRequestsAreExpired() {
+        PriorityAdmissionQueue queue = new PriorityAdmissionQueue(1, 1);
+        RecordingWaiter running = new RecordingWaiter(RequestPriority.NORMAL, NO_DEADLINE);
+        RecordingWaiter waiting = new RecordingWaiter(RequestPriority.NORMAL, NO_DEADLINE);
+        queue.submit(running.waiter);
+        queue.submit(waiting.waiter);
+
+        assertFalse(queue.expire(running.waiter));
+        assertTrue(queue.expire(waiting.waiter));
+        assertFalse(queue.expire(waiting.waiter));
+
+        assertEquals(Outcome.ADMITTED, running.outcome);
+        assertEquals(Outcome.EXPIRED, waiting.outcome);
+        assertEquals(0, queue.getQueueSize(RequestPriority.NORMAL));
+    }
+
+
+    @Test
+    @DisplayName("cancel: waiting requests are removed and admitted ones release their permission")
+    public void cancel_waitingRequestsAreRemovedAndAdmittedOnesReleaseTheirPermission() {
+        PriorityAdmissionQueue queue = new PriorityAdmissionQueue(1, 2);
+        RecordingWaiter running = new RecordingWaiter(RequestPriority.NORMAL, NO_DEADLINE);
+        RecordingWaiter cancelled = new RecordingWaiter(RequestPriority.HIGH, NO_DEADLINE);
+        RecordingWaiter next = new RecordingWaiter(RequestPriority.LOW, NO_DEADLINE);
+        queue.submit(running.waiter);
+        queue.submit(cancelled.waiter);
+        queue.submit(next.waiter);
+
+        queue.cancel(cancelled.waiter, 0);
+        assertNull(cancelled.outcome);
+
+        queue.cancel(running.waiter, 0);
+        assertEquals(Outcome.ADMITTED, next.outcome);
+        assertEquals(1, queue.getInFlight());
+    }
+
+
+    private static class RecordingWaiter {
+
+        private final Waiter waiter;
+
+        private Outcome outcome;
+
+
+        RecordingWaiter(final RequestPriority priority,
+                        final long deadlineInNanoseconds) {
+            this.waiter = new Waiter(
+                    priority,
+                    deadlineInNanoseconds,
+                    o -> this.outcome = o
+            );
+        }
+
+    }
+
+}
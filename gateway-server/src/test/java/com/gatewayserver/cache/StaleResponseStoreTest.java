@@ -0,0 +1,96 @@
+package com.gatewayserver.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StaleResponseStoreTest {
+
+    private static final long SECOND_IN_NANOSECONDS = 1_000_000_000L;
+
+
+    @Test
+    @DisplayName("constructor: when not valid parameters are given then an exception is thrown")
+    public void constructor_whenNotValidParametersAreGiven_thenIllegalArgumentExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new StaleResponseStore(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StaleResponseStore(1, 0));
+    }
+
+
+    @Test
+    @DisplayName("get: when the response exists and it is not expired then it is returned")
+    public void get_whenResponseExistsAndIsNotExpired_thenItIsReturned() {
+        StaleResponseStore store = new StaleResponseStore(10, 100);
+        StaleResponse response = buildResponse(new byte[] { 1, 2, 3 }, 0, 10 * SECOND_IN_NANOSECONDS);
+
+        assertTrue(store.put("key", response));
+
+        Optional<StaleResponse> result = store.get("key", 5 * SECOND_IN_NANOSECONDS);
+        assertTrue(result.isPresent());
+        assertArrayEquals(response.getBody(), result.get().getBody());
+        assertEquals(5, result.get().getAgeInSeconds(5 * SECOND_IN_NANOSECONDS));
+        assertEquals(1, store.getHits());
+    }
+
+
+    @Test
+    @DisplayName("get: when the response is expired then it is removed")
+    public void get_whenResponseIsExpired_thenItIsRemoved() {
+        StaleResponseStore store = new StaleResponseStore(10, 100);
+        store.put("key", buildResponse(new byte[] { 1, 2, 3 }, 0, SECOND_IN_NANOSECONDS));
+
+        assertFalse(store.get("key", 2 * SECOND_IN_NANOSECONDS).isPresent());
+        assertFalse(store.get("notFound", 0).isPresent());
+        assertEquals(0, store.size());
+        assertEquals(0, store.getSizeInBytes());
+        assertEquals(2, store.getMisses());
+    }
+
+
+    @Test
+    @DisplayName("put: when the limits are exceeded then the least recently used responses are removed")
+    public void put_whenLimitsAreExceeded_thenLeastRecentlyUsedResponsesAreRemoved() {
+        StaleResponseStore store = new StaleResponseStore(2, 10);
+        store.put("key1", buildResponse(new byte[4], 0, SECOND_IN_NANOSECONDS));
+        store.put("key2", buildResponse(new byte[4], 0, SECOND_IN_NANOSECONDS));
+
+        // Uses key1, so key2 is the least recently used one
+        store.get("key1", 0);
+        store.put("key3", buildResponse(new byte[4], 0, SECOND_IN_NANOSECONDS));
+
+        assertEquals(2, store.size());
+        assertEquals(8, store.getSizeInBytes());
+        assertTrue(store.get("key1", 0).isPresent());
+        assertFalse(store.get("key2", 0).isPresent());
+
+        // Bigger than the total allowed size
+        assertFalse(store.put("key4", buildResponse(new byte[11], 0, SECOND_IN_NANOSECONDS)));
+
+        // Exceeds the allowed size, so key1 and key3 are removed
+        assertTrue(store.put("key5", buildResponse(new byte[10], 0, SECOND_IN_NANOSECONDS)));
+        assertEquals(1, store.size());
+        assertEquals(10, store.getSizeInBytes());
+    }
+
+
+    private StaleResponse buildResponse(final byte[] body,
+                                        final long storedAtInNanoseconds,
+                                        final long maxStaleInNanoseconds) {
+        return new StaleResponse(
+                200,
+                new HttpHeaders(),
+                body,
+                storedAtInNanoseconds,
+                maxStaleInNanoseconds
+        );
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.gatewayserver.compression;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ContentEncodingTest {
+
+    static Stream<Arguments> isAcceptedByTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            acceptEncodingHeaders,                   expectedResult
+                Arguments.of( null,                                    false ),
+                Arguments.of( List.of(),                               false ),
+                Arguments.of( List.of("identity"),                     false ),
+                Arguments.of( List.of("br, deflate"),                  false ),
+                Arguments.of( List.of("gzip;q=0"),                     false ),
+                Arguments.of( List.of("*;q=0.5, gzip;q=0"),            false ),
+                Arguments.of( List.of("gzip;q=wrong"),                 false ),
+                Arguments.of( List.of("GZIP"),                         true ),
+                Arguments.of( List.of("deflate, gzip;q=0.8"),          true ),
+                Arguments.of( List.of("br", " gzip ; q=1.0"),          true ),
+                Arguments.of( List.of("*"),                            true )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("isAcceptedByTestCases")
+    @DisplayName("isAcceptedBy: test cases")
+    public void isAcceptedBy_testCases(List<String> acceptEncodingHeaders,
+                                       boolean expectedResult) {
+        assertEquals(expectedResult, ContentEncoding.GZIP.isAcceptedBy(acceptEncodingHeaders));
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.gatewayserver.compression;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GzipCompressorTest {
+
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+
+    @Test
+    @DisplayName("compress: when several chunks are compressed then the result can be read as gzip")
+    public void compress_whenSeveralChunksAreCompressed_thenResultCanBeReadAsGzip() throws IOException {
+        String body = "{\"name\":\"Carbonara\",\"cost\":7.50},".repeat(500);
+        GzipCompressor compressor = new GzipCompressor(6, 512);
+
+        byte[] result = compress(compressor, body, 3);
+
+        assertEquals(body, decompress(result));
+        assertEquals(body.length(), compressor.getBytesRead());
+        assertEquals(result.length, compressor.getBytesWritten());
+        assertTrue(result.length < body.length());
+    }
+
+
+    @Test
+    @DisplayName("reset: when the compressor is reset then it can compress a new body")
+    public void reset_whenCompressorIsReset_thenItCanCompressNewBody() throws IOException {
+        GzipCompressor compressor = new GzipCompressor(1, 64);
+
+        compress(compressor, "first body", 1);
+        compressor.reset();
+        byte[] result = compress(compressor, "second body", 2);
+
+        assertEquals("second body", decompress(result));
+        assertEquals("second body".length(), compressor.getBytesRead());
+    }
+
+
+    @Test
+    @DisplayName("GzipCompressorPool: when a compressor is released then it is reused until the pool is full")
+    public void gzipCompressorPool_whenCompressorIsReleased_thenItIsReusedUntilPoolIsFull() {
+        assertThrows(IllegalArgumentException.class, () -> new GzipCompressorPool(0, 64, 1));
+        GzipCompressorPool pool = new GzipCompressorPool(6, 64, 1);
+
+        GzipCompressor first = pool.borrow();
+        GzipCompressor second = pool.borrow();
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(2, pool.getCreated());
+        assertEquals(1, pool.getIdle());
+        assertSame(first, pool.borrow());
+        assertNotSame(second, pool.borrow());
+        assertEquals(3, pool.getCreated());
+    }
+
+
+    private byte[] compress(final GzipCompressor compressor,
+                            final String body,
+                            final int numberOfChunks) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        int chunkSize = (bytes.length + numberOfChunks - 1) / numberOfChunks;
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        for (int start = 0; start < bytes.length; start += chunkSize) {
+            DataBuffer chunk = bufferFactory.allocateBuffer(chunkSize)
+                    .write(bytes, start, Math.min(chunkSize, bytes.length - start));
+            result.writeBytes(toBytes(compressor.compress(chunk, bufferFactory)));
+        }
+        result.writeBytes(toBytes(compressor.finish(bufferFactory)));
+        return result.toByteArray();
+    }
+
+
+    private static byte[] toBytes(final DataBuffer dataBuffer) {
+        byte[] bytes = new byte[dataBuffer.readableByteCount()];
+        dataBuffer.read(bytes);
+        return bytes;
+    }
+
+
+    private static String decompress(final byte[] content) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.gatewayserver.filter;
+
+import com.gatewayserver.limiter.LocalRateLimiter;
+import com.gatewayserver.limiter.PrincipalKeyResolver;
+import com.gatewayserver.security.PrincipalVerifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class PrincipalWebFilterTest {
+
+    private static final String ROUTE_ID = "pizza-service";
+
+    private AtomicInteger securityServerRequests;
+
+    private AtomicReference<HttpStatus> securityServerStatus;
+
+    private AtomicReference<String> resolvedKey;
+
+    private AtomicReference<RateLimiter.Response> rateLimiterResponse;
+
+    private PrincipalWebFilter filter;
+
+    private LocalRateLimiter rateLimiter;
+
+
+    @BeforeEach
+    public void init() {
+        securityServerRequests = new AtomicInteger(0);
+        securityServerStatus = new AtomicReference<>(HttpStatus.OK);
+        resolvedKey = new AtomicReference<>();
+        rateLimiterResponse = new AtomicReference<>();
+
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    securityServerRequests.incrementAndGet();
+                    return Mono.just(
+                            ClientResponse.create(securityServerStatus.get())
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body("{\"username\":\"admin\",\"authorities\":[\"ADMIN\"]}")
+                                    .build()
+                    );
+                })
+                .build();
+        filter = new PrincipalWebFilter(
+                new PrincipalVerifier(
+                        webClient,
+                        "http://security-jwt-service/security/jwt/authinfo",
+                        "Spring5Microservices",
+                        "secret",
+                        Duration.ofSeconds(1),
+                        10,
+                        TimeUnit.SECONDS.toNanos(60)
+                )
+        );
+
+        LocalRateLimiter.Policy adminPolicy = new LocalRateLimiter.Policy();
+        adminPolicy.setReplenishRate(50);
+        adminPolicy.setBurstCapacity(100);
+        LocalRateLimiter.Config config = new LocalRateLimiter.Config();
+        config.getPrincipals().put("admin", adminPolicy);
+        rateLimiter = new LocalRateLimiter(null, 4, 300);
+        rateLimiter.getConfig().put(ROUTE_ID, config);
+    }
+
+
+    @Test
+    @DisplayName("filter: when the access token is valid then the policy of its user is applied")
+    public void filter_whenAccessTokenIsValid_thenPolicyOfItsUserIsApplied() {
+        filter.filter(buildExchange("Bearer validToken"), rateLimiterChain()).block();
+
+        assertEquals("principal:admin", resolvedKey.get());
+        assertEquals("50", rateLimiterResponse.get().getHeaders().get(LocalRateLimiter.REPLENISH_RATE_HEADER));
+        assertEquals("100", rateLimiterResponse.get().getHeaders().get(LocalRateLimiter.BURST_CAPACITY_HEADER));
+    }
+
+
+    @Test
+    @DisplayName("filter: when the same access token is sent again then the security server is not invoked")
+    public void filter_whenSameAccessTokenIsSentAgain_thenSecurityServerIsNotInvoked() {
+        filter.filter(buildExchange("Bearer validToken"), rateLimiterChain()).block();
+        filter.filter(buildExchange("Bearer validToken"), rateLimiterChain()).block();
+
+        assertEquals(1, securityServerRequests.get());
+        assertEquals("principal:admin", resolvedKey.get());
+    }
+
+
+    @Test
+    @DisplayName("filter: when the access token is rejected then the policy of the route is applied to the address")
+    public void filter_whenAccessTokenIsRejected_thenPolicyOfTheRouteIsAppliedToTheAddress() {
+        securityServerStatus.set(HttpStatus.UNAUTHORIZED);
+
+        filter.filter(buildExchange("Bearer notValidToken"), rateLimiterChain()).block();
+        filter.filter(buildExchange("Bearer notValidToken"), rateLimiterChain()).block();
+
+        assertEquals("ip:10.0.0.1", resolvedKey.get());
+        assertEquals("10", rateLimiterResponse.get().getHeaders().get(LocalRateLimiter.REPLENISH_RATE_HEADER));
+        // The rejection is kept, so the security server is not invoked again
+        assertEquals(1, securityServerRequests.get());
+    }
+
+
+    @Test
+    @DisplayName("filter: when the security server is not available then the access token is verified again in the next request")
+    public void filter_whenSecurityServerIsNotAvailable_thenAccessTokenIsVerifiedAgainInTheNextRequest() {
+        securityServerStatus.set(HttpStatus.SERVICE_UNAVAILABLE);
+        filter.filter(buildExchange("Bearer validToken"), rateLimiterChain()).block();
+
+        assertEquals("ip:10.0.0.1", resolvedKey.get());
+
+        securityServerStatus.set(HttpStatus.OK);
+        filter.filter(buildExchange("Bearer validToken"), rateLimiterChain()).block();
+
+        assertEquals("principal:admin", resolvedKey.get());
+        assertEquals(2, securityServerRequests.get());
+    }
+
+
+    @Test
+    @DisplayName("filter: when the request has no access token then the security server is not invoked")
+    public void filter_whenRequestHasNoAccessToken_thenSecurityServerIsNotInvoked() {
+        filter.filter(buildExchange("Basic U3ByaW5nNU1pY3Jvc2VydmljZXM6c2VjcmV0"), rateLimiterChain()).block();
+
+        assertEquals("ip:10.0.0.1", resolvedKey.get());
+        assertEquals(0, securityServerRequests.get());
+    }
+
+
+    private static MockServerWebExchange buildExchange(final String authorization) {
+        return MockServerWebExchange.from(
+                MockServerHttpRequest.get("/pizza/1")
+                        .remoteAddress(new InetSocketAddress("10.0.0.1", 5000))
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+        );
+    }
+
+
+    /**
+     * Simulates the {@code RequestRateLimiter} filter of the route, with the default key resolver.
+     */
+    private WebFilterChain rateLimiterChain() {
+        PrincipalKeyResolver keyResolver = new PrincipalKeyResolver();
+        return exchange ->
+                keyResolver.resolve(exchange)
+                        .doOnNext(resolvedKey::set)
+                        .flatMap(key -> rateLimiter.isAllowed(ROUTE_ID, key))
+                        .doOnNext(rateLimiterResponse::set)
+                        .then();
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.gatewayserver.filter.factory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdaptiveConcurrencyLimitGatewayFilterFactoryTest {
+
+    private static final String ROUTE_ID = "pizza-service";
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AdaptiveConcurrencyLimitGatewayFilterFactory factory;
+
+
+    @BeforeEach
+    public void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new AdaptiveConcurrencyLimitGatewayFilterFactory(meterRegistry);
+    }
+
+
+    @Test
+    @DisplayName("apply: when the chain throws an exception then the reserved slot is released")
+    public void apply_whenChainThrowsAnException_thenReservedSlotIsReleased() {
+        MockServerWebExchange exchange = buildExchange();
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> factory.apply(buildConfig())
+                        .filter(exchange, e -> { throw new IllegalStateException("Not available"); })
+                        .block()
+        );
+
+        assertEquals(0, getInFlight());
+    }
+
+
+    @Test
+    @DisplayName("apply: when the filter is not subscribed then no slot is reserved")
+    public void apply_whenFilterIsNotSubscribed_thenNoSlotIsReserved() {
+        factory.apply(buildConfig())
+                .filter(buildExchange(), e -> Mono.empty());
+
+        assertEquals(0, getInFlight());
+    }
+
+
+    @Test
+    @DisplayName("apply: when the route is refreshed with the same settings then the same limiter is used")
+    public void apply_whenRouteIsRefreshedWithTheSameSettings_thenSameLimiterIsUsed() {
+        Disposable inFlightRequest = factory.apply(buildConfig())
+                .filter(buildExchange(), e -> Mono.never())
+                .subscribe();
+        try {
+            MockServerWebExchange refreshedRouteExchange = buildExchange();
+            factory.apply(buildConfig())
+                    .filter(refreshedRouteExchange, e -> Mono.empty())
+                    .block();
+
+            assertEquals(1, getInFlight());
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, refreshedRouteExchange.getResponse().getStatusCode());
+        } finally {
+            inFlightRequest.dispose();
+        }
+        assertEquals(0, getInFlight());
+    }
+
+
+    @Test
+    @DisplayName("apply: when the route is refreshed with a different limit then a new limiter is used")
+    public void apply_whenRouteIsRefreshedWithADifferentLimit_thenNewLimiterIsUsed() {
+        Disposable inFlightRequest = factory.apply(buildConfig())
+                .filter(buildExchange(), e -> Mono.never())
+                .subscribe();
+        try {
+            MockServerWebExchange refreshedRouteExchange = buildExchange();
+            factory.apply(buildConfig(ROUTE_ID, 2))
+                    .filter(refreshedRouteExchange, e -> Mono.empty())
+                    .block();
+
+            assertNull(refreshedRouteExchange.getResponse().getStatusCode());
+            assertEquals(2, getLimit(ROUTE_ID));
+            // The metrics of the previous limiter have been replaced
+            assertEquals(1, meterRegistry.find("gateway.concurrency.limit").tag("route", ROUTE_ID).gauges().size());
+            assertEquals(0, getInFlight());
+        } finally {
+            inFlightRequest.dispose();
+        }
+    }
+
+
+    @Test
+    @DisplayName("onApplicationEvent: when a route no longer uses the filter then its limiter and metrics are removed")
+    public void onApplicationEvent_whenRouteNoLongerUsesTheFilter_thenItsLimiterAndMetricsAreRemoved() {
+        String deletedRouteId = "order-service";
+        factory.apply(buildConfig());
+        factory.apply(buildConfig(deletedRouteId, 1));
+        factory.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+        assertEquals(1, getLimit(deletedRouteId));
+
+        // The routes are refreshed without the deleted one
+        factory.apply(buildConfig());
+        factory.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+        assertEquals(1, getLimit(ROUTE_ID));
+        assertNull(meterRegistry.find("gateway.concurrency.limit").tag("route", deletedRouteId).gauge());
+        assertNull(meterRegistry.find("gateway.concurrency.inflight").tag("route", deletedRouteId).gauge());
+        assertNull(meterRegistry.find("gateway.concurrency.rejected").tag("route", deletedRouteId).functionCounter());
+    }
+
+
+    @Test
+    @DisplayName("onApplicationEvent: when the refresh of the routes failed then no limiter is removed")
+    public void onApplicationEvent_whenRefreshOfTheRoutesFailed_thenNoLimiterIsRemoved() {
+        factory.apply(buildConfig());
+        factory.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+        factory.onApplicationEvent(new RefreshRoutesResultEvent(this, new IllegalStateException("Not available")));
+
+        assertEquals(1, getLimit(ROUTE_ID));
+    }
+
+
+    private double getInFlight() {
+        return meterRegistry.get("gateway.concurrency.inflight")
+                .tag("route", ROUTE_ID)
+                .gauge()
+                .value();
+    }
+
+
+    private double getLimit(final String routeId) {
+        return meterRegistry.get("gateway.concurrency.limit")
+                .tag("route", routeId)
+                .gauge()
+                .value();
+    }
+
+
+    private static AdaptiveConcurrencyLimitGatewayFilterFactory.Config buildConfig() {
+        return buildConfig(ROUTE_ID, 1);
+    }
+
+
+    private static AdaptiveConcurrencyLimitGatewayFilterFactory.Config buildConfig(final String routeId,
+                                                                                  final int limit) {
+        AdaptiveConcurrencyLimitGatewayFilterFactory.Config config = new AdaptiveConcurrencyLimitGatewayFilterFactory.Config();
+        config.setRouteId(routeId);
+        config.setInitialLimit(limit);
+        config.setMinLimit(limit);
+        config.setMaxLimit(limit);
+        return config;
+    }
+
+
+    private static MockServerWebExchange buildExchange() {
+        return MockServerWebExchange.from(
+                MockServerHttpRequest.get("/pizza/1")
+        );
+    }
+
+}
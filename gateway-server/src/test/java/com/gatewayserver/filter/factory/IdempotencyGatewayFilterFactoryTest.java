@@ -0,0 +1,123 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.gatewayserver.filter.factory.IdempotencyGatewayFilterFactory.IDEMPOTENCY_KEY_HEADER;
+import static com.gatewayserver.filter.factory.IdempotencyGatewayFilterFactory.IDEMPOTENT_REPLAYED_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class IdempotencyGatewayFilterFactoryTest {
+
+    private static final String CARBONARA = "{\"name\":\"Carbonara\"}";
+    private static final String MARGHERITA = "{\"name\":\"Margherita\"}";
+
+    private AtomicInteger sentRequests;
+
+    private GatewayFilter filter;
+
+
+    @BeforeEach
+    public void init() {
+        sentRequests = new AtomicInteger(0);
+        IdempotencyGatewayFilterFactory.Config config = new IdempotencyGatewayFilterFactory.Config();
+        config.setRouteId("pizza-service");
+        filter = new IdempotencyGatewayFilterFactory(
+                new IdempotencyStore(10, 1024),
+                new SimpleMeterRegistry()
+        ).apply(config);
+    }
+
+
+    @Test
+    @DisplayName("apply: when the same key and body are sent again then the stored response is returned")
+    public void apply_whenSameKeyAndBodyAreSentAgain_thenStoredResponseIsReturned() {
+        MockServerWebExchange first = buildExchange("key1", "Bearer token1", CARBONARA);
+        MockServerWebExchange retry = buildExchange("key1", "Bearer token1", CARBONARA);
+
+        filter.filter(first, createdChain()).block();
+        filter.filter(retry, createdChain()).block();
+
+        assertEquals(1, sentRequests.get());
+        assertEquals(HttpStatus.CREATED, first.getResponse().getStatusCode());
+        assertNull(first.getResponse().getHeaders().getFirst(IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals(HttpStatus.CREATED, retry.getResponse().getStatusCode());
+        assertEquals("true", retry.getResponse().getHeaders().getFirst(IDEMPOTENT_REPLAYED_HEADER));
+        assertEquals(CARBONARA, retry.getResponse().getBodyAsString().block());
+    }
+
+
+    @Test
+    @DisplayName("apply: when the same key is sent with a different body then an unprocessable entity error is returned")
+    public void apply_whenSameKeyIsSentWithDifferentBody_thenUnprocessableEntityIsReturned() {
+        MockServerWebExchange first = buildExchange("key1", "Bearer token1", CARBONARA);
+        MockServerWebExchange different = buildExchange("key1", "Bearer token1", MARGHERITA);
+
+        filter.filter(first, createdChain()).block();
+        filter.filter(different, createdChain()).block();
+
+        assertEquals(1, sentRequests.get());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, different.getResponse().getStatusCode());
+    }
+
+
+    @Test
+    @DisplayName("apply: when the same key is sent with different credentials then the request is sent again")
+    public void apply_whenSameKeyIsSentWithDifferentCredentials_thenRequestIsSentAgain() {
+        MockServerWebExchange first = buildExchange("key1", "Bearer token1", CARBONARA);
+        MockServerWebExchange otherCredentials = buildExchange("key1", "Bearer token2", CARBONARA);
+
+        filter.filter(first, createdChain()).block();
+        filter.filter(otherCredentials, createdChain()).block();
+
+        assertEquals(2, sentRequests.get());
+        assertNull(otherCredentials.getResponse().getHeaders().getFirst(IDEMPOTENT_REPLAYED_HEADER));
+    }
+
+
+    private static MockServerWebExchange buildExchange(final String idempotencyKey,
+                                                       final String authorization,
+                                                       final String body) {
+        return MockServerWebExchange.from(
+                MockServerHttpRequest.post("/pizza")
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .body(body)
+        );
+    }
+
+
+    /**
+     * Simulates a downstream service that returns the received body with {@link HttpStatus#CREATED}.
+     */
+    private GatewayFilterChain createdChain() {
+        return exchange ->
+                DataBufferUtils.join(exchange.getRequest().getBody())
+                        .flatMap(body -> {
+                            sentRequests.incrementAndGet();
+                            exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+                            byte[] content = body.toString(StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+                            return exchange.getResponse().writeWith(
+                                    Mono.just(
+                                            exchange.getResponse().bufferFactory().wrap(content)
+                                    )
+                            );
+                        });
+    }
+
+}
@@ -0,0 +1,243 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.filter.factory.RequestBodyLimitGatewayFilterFactory.LimitedBodyRequest;
+import com.gatewayserver.filter.factory.RequestBodyLimitGatewayFilterFactory.Rejection;
+import com.gatewayserver.filter.factory.RequestBodyLimitGatewayFilterFactory.RejectedBodyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestBodyLimitGatewayFilterFactoryTest {
+
+    private static final DefaultDataBufferFactory BUFFER_FACTORY = new DefaultDataBufferFactory();
+
+    private static final String CARBONARA = "{\"name\":\"Carbonara\"}";
+
+    private static final String ROUTE_ID = "pizza-service";
+
+    private AtomicInteger sentRequests;
+
+    private SimpleMeterRegistry meterRegistry;
+
+
+    @BeforeEach
+    public void init() {
+        sentRequests = new AtomicInteger(0);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+
+    static Stream<Arguments> isValidJsonStartTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            content,                  expectedResult
+                Arguments.of( "",                       null ),
+                Arguments.of( "  \r\n\t",               null ),
+                Arguments.of( "{\"name\":\"Carbonara\"}", true ),
+                Arguments.of( "\n  [1, 2]",             true ),
+                Arguments.of( "\uFEFF{}",               true ),
+                Arguments.of( "name=Carbonara",         false ),
+                Arguments.of( "  <xml/>",               false )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("isValidJsonStartTestCases")
+    @DisplayName("isValidJsonStart: test cases")
+    public void isValidJsonStart_testCases(String content,
+                                           Boolean expectedResult) {
+        DataBuffer buffer = toBuffer(content);
+
+        assertEquals(expectedResult, LimitedBodyRequest.isValidJsonStart(buffer));
+        assertEquals(0, buffer.readPosition());
+    }
+
+
+    static Stream<Arguments> getBodyTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            chunks,                          maxSizeInBytes,   validateJsonStart,   expectedRejection
+                Arguments.of( new String[] { "{\"a\":", "1}" },  10,               true,                null ),
+                Arguments.of( new String[] { "  ", "{}" },       10,               true,                null ),
+                Arguments.of( new String[] { "abc", "de" },      10,               false,               null ),
+                Arguments.of( new String[] { "{\"a\":", "12}" }, 6,                true,                Rejection.SIZE ),
+                Arguments.of( new String[] { "  ", "abc" },      10,               true,                Rejection.MALFORMED )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("getBodyTestCases")
+    @DisplayName("getBody: test cases")
+    public void getBody_testCases(String[] chunks,
+                                  long maxSizeInBytes,
+                                  boolean validateJsonStart,
+                                  Rejection expectedRejection) {
+        MockServerHttpRequest request = MockServerHttpRequest.post("/pizza")
+                .body(
+                        Flux.fromStream(
+                                Arrays.stream(chunks)
+                                        .map(RequestBodyLimitGatewayFilterFactoryTest::toBuffer)
+                        )
+                );
+        LimitedBodyRequest limitedRequest = new LimitedBodyRequest(request, maxSizeInBytes, validateJsonStart);
+
+        if (null == expectedRejection) {
+            assertEquals(chunks.length, limitedRequest.getBody().collectList().block().size());
+        }
+        else {
+            RejectedBodyException exception = assertThrows(
+                    RejectedBodyException.class,
+                    () -> limitedRequest.getBody().collectList().block()
+            );
+            assertEquals(expectedRejection, exception.getRejection());
+        }
+    }
+
+
+    @Test
+    @DisplayName("apply: when the content length is bigger than the limit then a payload too large error is returned without reading the body")
+    public void apply_whenContentLengthIsBiggerThanTheLimit_thenPayloadTooLargeIsReturnedWithoutReadingTheBody() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/pizza")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .contentLength(CARBONARA.length())
+                        .body(CARBONARA)
+        );
+
+        buildFilter(10).filter(exchange, sentChain()).block();
+
+        assertEquals(0, sentRequests.get());
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exchange.getResponse().getStatusCode());
+        assertEquals("close", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONNECTION));
+        assertEquals(1, getRejectedRequests(Rejection.SIZE));
+    }
+
+
+    @Test
+    @DisplayName("apply: when the content type is not allowed then an unsupported media type error is returned")
+    public void apply_whenContentTypeIsNotAllowed_thenUnsupportedMediaTypeIsReturned() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/pizza")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .contentLength(CARBONARA.length())
+                        .body(CARBONARA)
+        );
+
+        buildFilter(1024).filter(exchange, sentChain()).block();
+
+        assertEquals(0, sentRequests.get());
+        assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, exchange.getResponse().getStatusCode());
+        assertEquals(1, getRejectedRequests(Rejection.CONTENT_TYPE));
+    }
+
+
+    @Test
+    @DisplayName("apply: when newline delimited JSON is sent with the default configuration then it is sent to the service")
+    public void apply_whenNewlineDelimitedJsonIsSentWithDefaultConfiguration_thenItIsSentToTheService() {
+        String pizzas = CARBONARA + "\n" + CARBONARA + "\n";
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/pizza/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .contentLength(pizzas.length())
+                        .body(pizzas)
+        );
+
+        buildFilter(1024).filter(exchange, sentChain()).block();
+
+        assertEquals(1, sentRequests.get());
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+    }
+
+
+    static Stream<Arguments> applyWhenBodyIsRejectedDownstreamTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            body,               maxSizeInBytes,   expectedStatus,                 expectedRejection
+                Arguments.of( CARBONARA,          10,               HttpStatus.PAYLOAD_TOO_LARGE,   Rejection.SIZE ),
+                Arguments.of( "name=Carbonara",   1024,             HttpStatus.BAD_REQUEST,         Rejection.MALFORMED )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("applyWhenBodyIsRejectedDownstreamTestCases")
+    @DisplayName("apply: when the chunked body is rejected while it is sent then the suitable error is returned")
+    public void apply_whenChunkedBodyIsRejectedWhileItIsSent_thenSuitableErrorIsReturned(String body,
+                                                                                        long maxSizeInBytes,
+                                                                                        HttpStatus expectedStatus,
+                                                                                        Rejection expectedRejection) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.post("/pizza")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                        .body(body)
+        );
+
+        buildFilter(maxSizeInBytes).filter(exchange, sentChain()).block();
+
+        assertEquals(0, sentRequests.get());
+        assertEquals(expectedStatus, exchange.getResponse().getStatusCode());
+        assertEquals(1, getRejectedRequests(expectedRejection));
+    }
+
+
+    private GatewayFilter buildFilter(final long maxSizeInBytes) {
+        RequestBodyLimitGatewayFilterFactory.Config config = new RequestBodyLimitGatewayFilterFactory.Config();
+        config.setRouteId(ROUTE_ID);
+        config.setMaxSizeInBytes(maxSizeInBytes);
+        return new RequestBodyLimitGatewayFilterFactory(meterRegistry)
+                .apply(config);
+    }
+
+
+    private double getRejectedRequests(final Rejection rejection) {
+        return meterRegistry.counter(
+                "gateway.request.rejected",
+                "reason", rejection.getMetricTag(),
+                "route", ROUTE_ID
+        ).count();
+    }
+
+
+    /**
+     * Simulates a downstream service that reads the whole body before returning {@link HttpStatus#OK}.
+     */
+    private GatewayFilterChain sentChain() {
+        return exchange ->
+                DataBufferUtils.join(exchange.getRequest().getBody())
+                        .doOnNext(body -> {
+                            DataBufferUtils.release(body);
+                            sentRequests.incrementAndGet();
+                            exchange.getResponse().setStatusCode(HttpStatus.OK);
+                        })
+                        .then();
+    }
+
+
+    private static DataBuffer toBuffer(final String content) {
+        return BUFFER_FACTORY.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
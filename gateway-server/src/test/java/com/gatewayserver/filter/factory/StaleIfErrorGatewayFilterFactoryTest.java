@@ -0,0 +1,125 @@
+package com.gatewayserver.filter.factory;
+
+import com.gatewayserver.cache.StaleResponseStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StaleIfErrorGatewayFilterFactoryTest {
+
+    private static final DefaultDataBufferFactory BUFFER_FACTORY = new DefaultDataBufferFactory();
+
+
+    static Stream<Arguments> isStorableTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            cacheControl,                    expectedResult
+                Arguments.of( null,                            true ),
+                Arguments.of( "max-age=60",                    true ),
+                Arguments.of( "public, max-age=60",            true ),
+                Arguments.of( "private",                       false ),
+                Arguments.of( "max-age=60, No-Store",          false ),
+                Arguments.of( "no-cache=\"Set-Cookie\"",       false )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("isStorableTestCases")
+    @DisplayName("isStorable: test cases")
+    public void isStorable_testCases(String cacheControl,
+                                     boolean expectedResult) {
+        assertEquals(expectedResult, StaleIfErrorGatewayFilterFactory.isStorable(cacheControl));
+    }
+
+
+    @Test
+    @DisplayName("apply: when the request has no credentials then its response is neither stored nor served")
+    public void apply_whenRequestHasNoCredentials_thenResponseIsNotStored() {
+        StaleResponseStore store = new StaleResponseStore(10, 1024);
+        GatewayFilter filter = new StaleIfErrorGatewayFilterFactory(store).apply(new StaleIfErrorGatewayFilterFactory.Config());
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/pizza/1")
+        );
+
+        filter.filter(exchange, okChain(null)).block();
+
+        assertNull(exchange.getAttribute(StaleIfErrorGatewayFilterFactory.STALE_RESPONSE_KEY_ATTR));
+        assertEquals(0, store.size());
+    }
+
+
+    @Test
+    @DisplayName("apply: when the response is private then it is not stored")
+    public void apply_whenResponseIsPrivate_thenItIsNotStored() {
+        StaleResponseStore store = new StaleResponseStore(10, 1024);
+        GatewayFilter filter = new StaleIfErrorGatewayFilterFactory(store).apply(new StaleIfErrorGatewayFilterFactory.Config());
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/pizza/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token1")
+        );
+
+        filter.filter(exchange, okChain("private, max-age=60")).block();
+
+        assertEquals(0, store.size());
+    }
+
+
+    @Test
+    @DisplayName("apply: when the requests have different credentials then their responses are stored separately")
+    public void apply_whenRequestsHaveDifferentCredentials_thenResponsesAreStoredSeparately() {
+        StaleResponseStore store = new StaleResponseStore(10, 1024);
+        GatewayFilter filter = new StaleIfErrorGatewayFilterFactory(store).apply(new StaleIfErrorGatewayFilterFactory.Config());
+        MockServerWebExchange exchange1 = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/pizza/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token1")
+        );
+        MockServerWebExchange exchange2 = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/pizza/1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer token2")
+        );
+
+        filter.filter(exchange1, okChain(null)).block();
+        filter.filter(exchange2, okChain(null)).block();
+
+        String key1 = exchange1.getAttribute(StaleIfErrorGatewayFilterFactory.STALE_RESPONSE_KEY_ATTR);
+        String key2 = exchange2.getAttribute(StaleIfErrorGatewayFilterFactory.STALE_RESPONSE_KEY_ATTR);
+        assertNotEquals(key1, key2);
+        assertEquals(2, store.size());
+        assertTrue(store.get(key1, System.nanoTime()).isPresent());
+        assertTrue(store.get(key2, System.nanoTime()).isPresent());
+    }
+
+
+    private static GatewayFilterChain okChain(final String cacheControl) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            if (null != cacheControl) {
+                exchange.getResponse().getHeaders().setCacheControl(cacheControl);
+            }
+            return exchange.getResponse().writeWith(
+                    Mono.just(
+                            BUFFER_FACTORY.wrap("{\"id\":1}".getBytes(StandardCharsets.UTF_8))
+                    )
+            );
+        };
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.gatewayserver.hedge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HedgeBudgetTest {
+
+    static Stream<Arguments> constructorFailedTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            percentage,   maxTokens
+                Arguments.of( -1,           1 ),
+                Arguments.of( 101,          1 ),
+                Arguments.of( 5,            0 )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("constructorFailedTestCases")
+    @DisplayName("constructor: failed test cases")
+    public void constructor_failedTestCases(double percentage,
+                                            int maxTokens) {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new HedgeBudget(percentage, maxTokens)
+        );
+    }
+
+
+    @Test
+    @DisplayName("tryWithdraw: when there are not enough deposits then it is not allowed")
+    public void tryWithdraw_whenThereAreNotEnoughDeposits_thenItIsNotAllowed() {
+        HedgeBudget budget = new HedgeBudget(5, 10);
+
+        for (int i = 0; i < 19; i++) {
+            budget.deposit();
+        }
+        assertFalse(budget.tryWithdraw());
+
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+
+    @Test
+    @DisplayName("deposit: the balance is never greater than the maximum tokens")
+    public void deposit_balanceIsNeverGreaterThanMaxTokens() {
+        HedgeBudget budget = new HedgeBudget(50, 2);
+
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertEquals(2, budget.getBalance());
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+}
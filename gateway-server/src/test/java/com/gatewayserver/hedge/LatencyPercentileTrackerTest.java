@@ -0,0 +1,80 @@
+package com.gatewayserver.hedge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LatencyPercentileTrackerTest {
+
+    static Stream<Arguments> constructorFailedTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            windowSize,   percentile,   minSamples,   recalculationInterval
+                Arguments.of( 0,            95,           1,            1 ),
+                Arguments.of( 10,           0,            1,            1 ),
+                Arguments.of( 10,           101,          1,            1 ),
+                Arguments.of( 10,           95,           11,           1 ),
+                Arguments.of( 10,           95,           1,            0 )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("constructorFailedTestCases")
+    @DisplayName("constructor: failed test cases")
+    public void constructor_failedTestCases(int windowSize,
+                                            double percentile,
+                                            int minSamples,
+                                            int recalculationInterval) {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new LatencyPercentileTracker(windowSize, percentile, minSamples, recalculationInterval)
+        );
+    }
+
+
+    @Test
+    @DisplayName("getPercentileInNanoseconds: when there are not enough samples then empty is returned")
+    public void getPercentileInNanoseconds_whenThereAreNotEnoughSamples_thenEmptyIsReturned() {
+        LatencyPercentileTracker tracker = new LatencyPercentileTracker(100, 90, 10, 10);
+        for (int i = 1; i < 10; i++) {
+            tracker.record(i);
+        }
+        assertFalse(tracker.getPercentileInNanoseconds().isPresent());
+    }
+
+
+    @Test
+    @DisplayName("getPercentileInNanoseconds: when there are enough samples then the percentile is returned")
+    public void getPercentileInNanoseconds_whenThereAreEnoughSamples_thenPercentileIsReturned() {
+        LatencyPercentileTracker tracker = new LatencyPercentileTracker(100, 90, 10, 10);
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(i);
+        }
+        assertEquals(90, tracker.getPercentileInNanoseconds().getAsLong());
+    }
+
+
+    @Test
+    @DisplayName("getPercentileInNanoseconds: only the latest samples are used")
+    public void getPercentileInNanoseconds_onlyLatestSamplesAreUsed() {
+        LatencyPercentileTracker tracker = new LatencyPercentileTracker(10, 50, 10, 10);
+        for (int i = 1; i <= 10; i++) {
+            tracker.record(1000);
+        }
+        assertEquals(1000, tracker.getPercentileInNanoseconds().getAsLong());
+
+        for (int i = 1; i <= 10; i++) {
+            tracker.record(i);
+        }
+        assertEquals(5, tracker.getPercentileInNanoseconds().getAsLong());
+    }
+
+}
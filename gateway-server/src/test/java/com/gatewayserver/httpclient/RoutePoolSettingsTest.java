@@ -0,0 +1,121 @@
+package com.gatewayserver.httpclient;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.cloud.gateway.route.Route;
+import reactor.netty.http.HttpProtocol;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RoutePoolSettingsTest {
+
+    static Stream<Arguments> ofFailedTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            metadata
+                Arguments.of( Map.of("connection-pool", "50") ),
+                Arguments.of( Map.of("connection-pool", Map.of("max-connections", "many")) ),
+                Arguments.of( Map.of("connection-pool", Map.of("max-idle-time", "1s")) )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("ofFailedTestCases")
+    @DisplayName("of: failed test cases")
+    public void of_failedTestCases(Map<String, Object> metadata) {
+        Route route = buildRoute(metadata);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> RoutePoolSettings.of(route)
+        );
+    }
+
+
+    @Test
+    @DisplayName("of: when the route has no protocol nor connection pool then empty is returned")
+    public void of_whenRouteHasNoProtocolNorConnectionPool_thenEmptyIsReturned() {
+        Route route = buildRoute(Map.of("response-timeout", 200));
+
+        assertFalse(RoutePoolSettings.of(route).isPresent());
+    }
+
+
+    @Test
+    @DisplayName("of: when the route has only the protocol then default pool settings are returned")
+    public void of_whenRouteHasOnlyProtocol_thenDefaultPoolSettingsAreReturned() {
+        Route route = buildRoute(Map.of("protocol", "H2C"));
+
+        Optional<RoutePoolSettings> result = RoutePoolSettings.of(route);
+
+        assertTrue(result.isPresent());
+        assertEquals(HttpProtocol.H2C, result.get().getProtocol());
+        assertTrue(result.get().isMultiplexed());
+        assertEquals(RoutePoolSettings.DEFAULT_MAX_CONNECTIONS, result.get().getMaxConnections());
+        assertEquals(RoutePoolSettings.DEFAULT_PENDING_ACQUIRE_MAX_COUNT, result.get().getPendingAcquireMaxCount());
+        assertEquals(Duration.ofMillis(RoutePoolSettings.DEFAULT_PENDING_ACQUIRE_TIMEOUT), result.get().getPendingAcquireTimeout());
+        assertNull(result.get().getMaxIdleTime());
+        assertEquals(0, result.get().getWarmUpConnections());
+        assertEquals(RoutePoolSettings.DEFAULT_WARM_UP_PATH, result.get().getWarmUpPath());
+        assertNull(result.get().getConnectTimeoutInMilliseconds());
+    }
+
+
+    @Test
+    @DisplayName("of: when the route has a connection pool then its settings are returned")
+    public void of_whenRouteHasConnectionPool_thenItsSettingsAreReturned() {
+        Route route = buildRoute(
+                Map.of(
+                        "connect-timeout", "500",
+                        "connection-pool", Map.of(
+                                "max-connections", "50",
+                                "pending-acquire-max-count", 100,
+                                "pending-acquire-timeout", "2000",
+                                "max-idle-time", 30000,
+                                "max-life-time", "300000",
+                                "eviction-interval", "10000",
+                                "warm-up-connections", "4",
+                                "warm-up-path", "/health"
+                        )
+                )
+        );
+
+        Optional<RoutePoolSettings> result = RoutePoolSettings.of(route);
+
+        assertTrue(result.isPresent());
+        assertEquals(HttpProtocol.HTTP11, result.get().getProtocol());
+        assertFalse(result.get().isMultiplexed());
+        assertEquals(50, result.get().getMaxConnections());
+        assertEquals(100, result.get().getPendingAcquireMaxCount());
+        assertEquals(Duration.ofSeconds(2), result.get().getPendingAcquireTimeout());
+        assertEquals(Duration.ofSeconds(30), result.get().getMaxIdleTime());
+        assertEquals(Duration.ofMinutes(5), result.get().getMaxLifeTime());
+        assertEquals(Duration.ofSeconds(10), result.get().getEvictionInterval());
+        assertEquals(4, result.get().getWarmUpConnections());
+        assertEquals("/health", result.get().getWarmUpPath());
+        assertEquals(500, result.get().getConnectTimeoutInMilliseconds());
+    }
+
+
+    private static Route buildRoute(final Map<String, Object> metadata) {
+        return Route.async()
+                .id("test")
+                .uri("http://localhost:8080")
+                .predicate(exchange -> true)
+                .metadata(metadata)
+                .build();
+    }
+
+}
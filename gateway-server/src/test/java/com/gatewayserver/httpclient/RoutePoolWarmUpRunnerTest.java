@@ -0,0 +1,211 @@
+package com.gatewayserver.httpclient;
+
+import com.gatewayserver.configuration.httpclient.RouteHttpClientConfiguration;
+import com.gatewayserver.configuration.warmup.WarmUpConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.mock.env.MockEnvironment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RoutePoolWarmUpRunnerTest {
+
+    private static final URI PIZZA_SERVICE_INSTANCE_URI = URI.create("http://10.0.0.1:8081");
+
+    private RouteLocator mockRouteLocator;
+
+    private RouteHttpClientRegistry mockRouteHttpClientRegistry;
+
+    private WarmUpConfiguration mockWarmUpConfiguration;
+
+    private HttpClient sharedHttpClient;
+
+    private RoutePoolWarmUpRunner runner;
+
+    private HealthIndicator healthIndicator;
+
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        mockRouteLocator = mock(RouteLocator.class);
+        mockRouteHttpClientRegistry = mock(RouteHttpClientRegistry.class);
+        mockWarmUpConfiguration = mock(WarmUpConfiguration.class);
+        sharedHttpClient = HttpClient.create();
+
+        when(mockWarmUpConfiguration.isEnabled()).thenReturn(true);
+        when(mockWarmUpConfiguration.getTimeoutInMilliseconds()).thenReturn(5000L);
+        when(mockWarmUpConfiguration.getConnectionsPerInstance()).thenReturn(2);
+        when(mockWarmUpConfiguration.getPath()).thenReturn("/actuator/health");
+        when(mockWarmUpConfiguration.getSyntheticRequestPaths()).thenReturn(List.of());
+
+        RouteHttpClientConfiguration mockRouteHttpClientConfiguration = mock(RouteHttpClientConfiguration.class);
+        when(mockRouteHttpClientConfiguration.getWarmUpTimeoutInMilliseconds()).thenReturn(1000L);
+
+        ServiceInstanceListSupplier mockSupplier = mock(ServiceInstanceListSupplier.class);
+        when(mockSupplier.get()).thenReturn(
+                Flux.just(
+                        List.of(
+                                new DefaultServiceInstance("pizza-service-1", "pizza-service", "10.0.0.1", 8081, false)
+                        )
+                )
+        );
+        ObjectProvider<ServiceInstanceListSupplier> mockSupplierProvider = mock(ObjectProvider.class);
+        when(mockSupplierProvider.getIfAvailable()).thenReturn(mockSupplier);
+        LoadBalancerClientFactory mockLoadBalancerClientFactory = mock(LoadBalancerClientFactory.class);
+        when(mockLoadBalancerClientFactory.getLazyProvider("pizza-service", ServiceInstanceListSupplier.class))
+                .thenReturn(mockSupplierProvider);
+
+        ObjectProvider<HttpClient> mockSharedHttpClientProvider = mock(ObjectProvider.class);
+        when(mockSharedHttpClientProvider.getIfAvailable()).thenReturn(sharedHttpClient);
+
+        runner = new RoutePoolWarmUpRunner(
+                mockRouteLocator,
+                mockRouteHttpClientRegistry,
+                mockLoadBalancerClientFactory,
+                mockRouteHttpClientConfiguration,
+                mockWarmUpConfiguration,
+                mockSharedHttpClientProvider,
+                // Without local.server.port, so no synthetic request is sent
+                new MockEnvironment()
+        );
+        healthIndicator = new WarmUpConfiguration().warmUpHealthIndicator(runner);
+    }
+
+
+    @Test
+    @DisplayName("warmUpHealthIndicator: when the warm-up has not finished then out of service is reported")
+    public void warmUpHealthIndicator_whenWarmUpHasNotFinished_thenOutOfServiceIsReported() throws InterruptedException {
+        Sinks.One<Long> connections = Sinks.one();
+        when(mockRouteLocator.getRoutes()).thenReturn(Flux.just(buildRoute("pizza-service", "lb://pizza-service")));
+        when(mockRouteHttpClientRegistry.warmUp(any(HttpClient.class), anyList(), anyInt(), anyString(), any(Duration.class)))
+                .thenReturn(connections.asMono());
+
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+
+        Thread warmUpThread = new Thread(() -> runner.run(null));
+        warmUpThread.start();
+        // The runner is waiting for the connections
+        verify(mockRouteHttpClientRegistry, timeout(5000))
+                .warmUp(any(HttpClient.class), anyList(), anyInt(), anyString(), any(Duration.class));
+
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+        assertFalse(runner.isFinished());
+
+        connections.tryEmitValue(2L);
+        warmUpThread.join(5000);
+
+        assertTrue(runner.isFinished());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        assertEquals(2L, healthIndicator.health().getDetails().get("successfulRequests"));
+    }
+
+
+    @Test
+    @DisplayName("run: when the warm-up exceeds its timeout then it is finished anyway")
+    public void run_whenWarmUpExceedsItsTimeout_thenItIsFinishedAnyway() {
+        when(mockWarmUpConfiguration.getTimeoutInMilliseconds()).thenReturn(50L);
+        when(mockRouteLocator.getRoutes()).thenReturn(Flux.just(buildRoute("pizza-service", "lb://pizza-service")));
+        when(mockRouteHttpClientRegistry.warmUp(any(HttpClient.class), anyList(), anyInt(), anyString(), any(Duration.class)))
+                .thenReturn(Mono.never());
+
+        runner.run(null);
+
+        assertTrue(runner.isFinished());
+        assertEquals(0, runner.getSuccessfulRequests());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+
+
+    @Test
+    @DisplayName("run: when the routes cannot be obtained then it is finished anyway")
+    public void run_whenRoutesCannotBeObtained_thenItIsFinishedAnyway() {
+        when(mockRouteLocator.getRoutes()).thenReturn(Flux.error(new IllegalStateException("Not valid routes")));
+
+        runner.run(null);
+
+        assertTrue(runner.isFinished());
+        assertEquals(0, runner.getSuccessfulRequests());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+    }
+
+
+    @Test
+    @DisplayName("run: when the warm-up is disabled then it is finished without opening connections")
+    public void run_whenWarmUpIsDisabled_thenItIsFinishedWithoutOpeningConnections() {
+        when(mockWarmUpConfiguration.isEnabled()).thenReturn(false);
+
+        runner.run(null);
+
+        assertTrue(runner.isFinished());
+        verify(mockRouteLocator, times(0)).getRoutes();
+    }
+
+
+    @Test
+    @DisplayName("run: when there are not load balanced nor HTTP routes then they are skipped")
+    public void run_whenThereAreNotLoadBalancedNorHttpRoutes_thenTheyAreSkipped() {
+        URI httpRouteUri = URI.create("http://localhost:8082");
+        when(mockRouteLocator.getRoutes()).thenReturn(
+                Flux.just(
+                        buildRoute("pizza-service", "lb://pizza-service"),
+                        buildRoute("order-service", httpRouteUri.toString()),
+                        buildRoute("fallback", "forward:/fallback"),
+                        buildRoute("events", "ws://localhost:8083")
+                )
+        );
+        when(mockRouteHttpClientRegistry.warmUp(any(HttpClient.class), anyList(), anyInt(), anyString(), any(Duration.class)))
+                .thenReturn(Mono.just(2L));
+
+        runner.run(null);
+
+        assertTrue(runner.isFinished());
+        assertEquals(4, runner.getSuccessfulRequests());
+        verify(mockRouteHttpClientRegistry, times(1))
+                .warmUp(eq(sharedHttpClient), eq(List.of(PIZZA_SERVICE_INSTANCE_URI)), eq(2), eq("/actuator/health"), any(Duration.class));
+        verify(mockRouteHttpClientRegistry, times(1))
+                .warmUp(eq(sharedHttpClient), eq(List.of(httpRouteUri)), eq(2), eq("/actuator/health"), any(Duration.class));
+        verify(mockRouteHttpClientRegistry, times(2))
+                .warmUp(any(HttpClient.class), anyList(), anyInt(), anyString(), any(Duration.class));
+    }
+
+
+    private static Route buildRoute(final String id,
+                                    final String uri) {
+        return Route.async()
+                .id(id)
+                .uri(uri)
+                .predicate(exchange -> true)
+                .build();
+    }
+
+}
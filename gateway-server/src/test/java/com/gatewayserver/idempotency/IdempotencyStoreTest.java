@@ -0,0 +1,220 @@
+package com.gatewayserver.idempotency;
+
+import com.gatewayserver.idempotency.IdempotencyStore.Reservation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdempotencyStoreTest {
+
+    private static final long SECOND_IN_NANOSECONDS = 1_000_000_000L;
+
+    private static final String REQUEST_HASH = "requestHash";
+
+
+    @Test
+    @DisplayName("constructor: when not valid parameters are given then an exception is thrown")
+    public void constructor_whenNotValidParametersAreGiven_thenIllegalArgumentExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyStore(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyStore(1, 0));
+    }
+
+
+    @Test
+    @DisplayName("reserve: when the key is new then it is acquired")
+    public void reserve_whenKeyIsNew_thenItIsAcquired() {
+        IdempotencyStore store = new IdempotencyStore(10, 100);
+
+        Reservation result = store.reserve("key", REQUEST_HASH, 0);
+
+        assertTrue(result.isAcquired());
+        assertNull(result.getResponse());
+        assertNull(result.getPendingResponse());
+        assertEquals(1, store.size());
+    }
+
+
+    @Test
+    @DisplayName("reserve: when the key is in progress then its pending response is returned")
+    public void reserve_whenKeyIsInProgress_thenPendingResponseIsReturned() {
+        IdempotencyStore store = new IdempotencyStore(10, 100);
+        IdempotentResponse response = buildResponse(new byte[] { 1, 2, 3 }, 0, 10 * SECOND_IN_NANOSECONDS);
+        store.reserve("key", REQUEST_HASH, 0);
+
+        Reservation result = store.reserve("key", REQUEST_HASH, 0);
+
+        assertFalse(result.isAcquired());
+        assertNotNull(result.getPendingResponse());
+        assertTrue(store.complete("key", response));
+
+        Optional<IdempotentResponse> pendingResponse = result.getPendingResponse().block();
+        assertNotNull(pendingResponse);
+        assertTrue(pendingResponse.isPresent());
+        assertArrayEquals(response.getBody(), pendingResponse.get().getBody());
+    }
+
+
+    @Test
+    @DisplayName("reserve: when the key is completed then its response is returned until it expires")
+    public void reserve_whenKeyIsCompleted_thenItsResponseIsReturnedUntilItExpires() {
+        IdempotencyStore store = new IdempotencyStore(10, 100);
+        IdempotentResponse response = buildResponse(new byte[] { 1, 2, 3 }, 0, SECOND_IN_NANOSECONDS);
+        store.reserve("key", REQUEST_HASH, 0);
+        store.complete("key", response);
+
+        Reservation result = store.reserve("key", REQUEST_HASH, SECOND_IN_NANOSECONDS / 2);
+
+        assertFalse(result.isAcquired());
+        assertArrayEquals(response.getBody(), result.getResponse().getBody());
+        assertEquals(1, store.getReplays());
+        assertEquals(3, store.getSizeInBytes());
+
+        // Expired, so the key is reserved again
+        assertTrue(store.reserve("key", REQUEST_HASH, 2 * SECOND_IN_NANOSECONDS).isAcquired());
+        assertEquals(0, store.getSizeInBytes());
+    }
+
+
+    @Test
+    @DisplayName("reserve: when the key was reserved with a different request hash then a mismatch is returned")
+    public void reserve_whenKeyWasReservedWithDifferentRequestHash_thenMismatchIsReturned() {
+        IdempotencyStore store = new IdempotencyStore(10, 100);
+        store.reserve("key", REQUEST_HASH, 0);
+
+        Reservation inProgress = store.reserve("key", "otherHash", 0);
+        assertTrue(inProgress.isMismatch());
+        assertFalse(inProgress.isAcquired());
+        assertNull(inProgress.getPendingResponse());
+
+        store.complete("key", buildResponse(new byte[] { 1 }, 0, SECOND_IN_NANOSECONDS));
+
+        Reservation completed = store.reserve("key", "otherHash", SECOND_IN_NANOSECONDS / 2);
+        assertTrue(completed.isMismatch());
+        assertNull(completed.getResponse());
+        assertEquals(0, store.getReplays());
+
+        // Expired, so the key can be reserved by a different request
+        assertTrue(store.reserve("key", "otherHash", 2 * SECOND_IN_NANOSECONDS).isAcquired());
+    }
+
+
+    @Test
+    @DisplayName("release: when the key is in progress then it is removed and the waiting requests are notified")
+    public void release_whenKeyIsInProgress_thenItIsRemovedAndWaitingRequestsAreNotified() {
+        IdempotencyStore store = new IdempotencyStore(10, 100);
+        store.reserve("key", REQUEST_HASH, 0);
+        Reservation waiting = store.reserve("key", REQUEST_HASH, 0);
+
+        store.release("key");
+
+        Optional<IdempotentResponse> pendingResponse = waiting.getPendingResponse().block();
+        assertNotNull(pendingResponse);
+        assertFalse(pendingResponse.isPresent());
+        assertEquals(0, store.size());
+        assertTrue(store.reserve("key", REQUEST_HASH, 0).isAcquired());
+    }
+
+
+    @Test
+    @DisplayName("release: when the key is completed then nothing is done")
+    public void release_whenKeyIsCompleted_thenNothingIsDone() {
+        IdempotencyStore store = new IdempotencyStore(10, 100);
+        store.reserve("key", REQUEST_HASH, 0);
+        store.complete("key", buildResponse(new byte[] { 1 }, 0, SECOND_IN_NANOSECONDS));
+
+        store.release("key");
+
+        assertEquals(1, store.size());
+        assertNotNull(store.reserve("key", REQUEST_HASH, 0).getResponse());
+    }
+
+
+    @Test
+    @DisplayName("complete: when the limits are exceeded then the oldest completed responses are removed")
+    public void complete_whenLimitsAreExceeded_thenOldestCompletedResponsesAreRemoved() {
+        IdempotencyStore store = new IdempotencyStore(2, 10);
+        store.reserve("inProgress", REQUEST_HASH, 0);
+        for (String key : new String[] { "key1", "key2", "key3" }) {
+            store.reserve(key, REQUEST_HASH, 0);
+            assertTrue(store.complete(key, buildResponse(new byte[4], 0, SECOND_IN_NANOSECONDS)));
+        }
+
+        // The key in progress is never removed
+        assertEquals(3, store.size());
+        assertEquals(8, store.getSizeInBytes());
+        assertTrue(store.reserve("key1", REQUEST_HASH, 0).isAcquired());
+        assertNotNull(store.reserve("key3", REQUEST_HASH, 0).getResponse());
+        assertNotNull(store.reserve("inProgress", REQUEST_HASH, 0).getPendingResponse());
+
+        // Bigger than the total allowed size, so it is not stored
+        assertFalse(store.complete("key1", buildResponse(new byte[11], 0, SECOND_IN_NANOSECONDS)));
+        assertTrue(store.reserve("key1", REQUEST_HASH, 0).isAcquired());
+
+        // Not in progress
+        assertFalse(store.complete("notFound", buildResponse(new byte[1], 0, SECOND_IN_NANOSECONDS)));
+    }
+
+
+    @Test
+    @DisplayName("reserve: when the oldest completed responses have expired then they are removed")
+    public void reserve_whenOldestCompletedResponsesHaveExpired_thenTheyAreRemoved() {
+        IdempotencyStore store = new IdempotencyStore(10, 100);
+        store.reserve("inProgress", REQUEST_HASH, 0);
+        for (String key : new String[] { "key1", "key2" }) {
+            store.reserve(key, REQUEST_HASH, 0);
+            store.complete(key, buildResponse(new byte[4], 0, SECOND_IN_NANOSECONDS));
+        }
+        store.reserve("key3", REQUEST_HASH, SECOND_IN_NANOSECONDS);
+        store.complete("key3", buildResponse(new byte[2], SECOND_IN_NANOSECONDS, SECOND_IN_NANOSECONDS));
+
+        assertEquals(4, store.size());
+        assertEquals(10, store.getSizeInBytes());
+
+        // key1 and key2 have expired, but not key3
+        store.reserve("key4", REQUEST_HASH, 3 * SECOND_IN_NANOSECONDS / 2 + 1);
+
+        assertEquals(3, store.size());
+        assertEquals(2, store.getSizeInBytes());
+        assertNotNull(store.reserve("inProgress", REQUEST_HASH, 0).getPendingResponse());
+        assertNotNull(store.reserve("key3", REQUEST_HASH, 3 * SECOND_IN_NANOSECONDS / 2 + 1).getResponse());
+    }
+
+
+    @Test
+    @DisplayName("complete: when the oldest completed responses have expired then they are removed")
+    public void complete_whenOldestCompletedResponsesHaveExpired_thenTheyAreRemoved() {
+        IdempotencyStore store = new IdempotencyStore(10, 100);
+        store.reserve("key1", REQUEST_HASH, 0);
+        store.complete("key1", buildResponse(new byte[4], 0, SECOND_IN_NANOSECONDS));
+        store.reserve("key2", REQUEST_HASH, 0);
+
+        assertTrue(store.complete("key2", buildResponse(new byte[2], 2 * SECOND_IN_NANOSECONDS, SECOND_IN_NANOSECONDS)));
+
+        assertEquals(1, store.size());
+        assertEquals(2, store.getSizeInBytes());
+    }
+
+
+    private static IdempotentResponse buildResponse(final byte[] body,
+                                                    final long storedAtInNanoseconds,
+                                                    final long ttlInNanoseconds) {
+        return new IdempotentResponse(
+                201,
+                new HttpHeaders(),
+                body,
+                storedAtInNanoseconds,
+                ttlInNanoseconds
+        );
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.gatewayserver.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GradientConcurrencyLimiterTest {
+
+    private static final long MILLISECOND_IN_NANOSECONDS = 1_000_000L;
+
+
+    static Stream<Arguments> constructorFailedTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            initialLimit,   minLimit,   maxLimit,   smoothing,   rttTolerance,   backoffRatio,   longWindow
+                Arguments.of( 10,             0,          20,         0.2,         1.5,            0.9,            100 ),
+                Arguments.of( 10,             30,         20,         0.2,         1.5,            0.9,            100 ),
+                Arguments.of( 25,             1,          20,         0.2,         1.5,            0.9,            100 ),
+                Arguments.of( 10,             1,          20,         0,           1.5,            0.9,            100 ),
+                Arguments.of( 10,             1,          20,         0.2,         0.5,            0.9,            100 ),
+                Arguments.of( 10,             1,          20,         0.2,         1.5,            1,              100 ),
+                Arguments.of( 10,             1,          20,         0.2,         1.5,            0.9,            0 )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("constructorFailedTestCases")
+    @DisplayName("constructor: failed test cases")
+    public void constructor_failedTestCases(int initialLimit,
+                                            int minLimit,
+                                            int maxLimit,
+                                            double smoothing,
+                                            double rttTolerance,
+                                            double backoffRatio,
+                                            int longWindow) {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new GradientConcurrencyLimiter(initialLimit, minLimit, maxLimit, smoothing, rttTolerance, backoffRatio, longWindow)
+        );
+    }
+
+
+    @Test
+    @DisplayName("tryAcquire: when the limit is reached then new requests are rejected")
+    public void tryAcquire_whenLimitIsReached_thenNewRequestsAreRejected() {
+        GradientConcurrencyLimiter limiter = buildLimiter(2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+
+        limiter.releaseIgnoringSample();
+
+        assertTrue(limiter.tryAcquire());
+    }
+
+
+    @Test
+    @DisplayName("release: when the requests are dropped then the limit is reduced")
+    public void release_whenRequestsAreDropped_thenLimitIsReduced() {
+        GradientConcurrencyLimiter limiter = buildLimiter(20);
+
+        IntStream.range(0, 5).forEach(i -> {
+            limiter.tryAcquire();
+            limiter.release(MILLISECOND_IN_NANOSECONDS, true);
+        });
+        assertTrue(20 > limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+
+    @Test
+    @DisplayName("release: when the latency is stable and the limit is used then the limit grows")
+    public void release_whenLatencyIsStableAndLimitIsUsed_thenLimitGrows() {
+        GradientConcurrencyLimiter limiter = buildLimiter(10);
+
+        for (int i = 0; i < 50; i++) {
+            saturateAndRelease(limiter, 10 * MILLISECOND_IN_NANOSECONDS);
+        }
+        assertTrue(10 < limiter.getLimit());
+    }
+
+
+    @Test
+    @DisplayName("release: when the latency grows then the limit is reduced")
+    public void release_whenLatencyGrows_thenLimitIsReduced() {
+        GradientConcurrencyLimiter limiter = buildLimiter(50);
+
+        for (int i = 0; i < 20; i++) {
+            saturateAndRelease(limiter, 10 * MILLISECOND_IN_NANOSECONDS);
+        }
+        int limitWithLowLatency = limiter.getLimit();
+        saturateAndRelease(limiter, 100 * MILLISECOND_IN_NANOSECONDS);
+
+        assertTrue(limitWithLowLatency > limiter.getLimit());
+    }
+
+
+    private GradientConcurrencyLimiter buildLimiter(final int initialLimit) {
+        return new GradientConcurrencyLimiter(initialLimit, 1, 100, 0.2, 1.5, 0.9, 100);
+    }
+
+
+    private void saturateAndRelease(final GradientConcurrencyLimiter limiter,
+                                    final long rttInNanoseconds) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttInNanoseconds, false);
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.gatewayserver.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StripedTokenBucketStoreTest {
+
+    private static final long SECOND_IN_NANOSECONDS = 1_000_000_000L;
+
+
+    @Test
+    @DisplayName("constructor: when not valid parameters are given then an exception is thrown")
+    public void constructor_whenNotValidParametersAreGiven_thenIllegalArgumentExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedTokenBucketStore(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedTokenBucketStore(1, 0, 0));
+    }
+
+
+    @Test
+    @DisplayName("getOrCreate: when the key exists then the same bucket is returned")
+    public void getOrCreate_whenKeyExists_thenSameBucketIsReturned() {
+        StripedTokenBucketStore store = new StripedTokenBucketStore(4, SECOND_IN_NANOSECONDS, 0);
+
+        TokenBucket bucket1 = store.getOrCreate("key1", () -> new TokenBucket(1, 1, 0), 0);
+        TokenBucket bucket2 = store.getOrCreate("key2", () -> new TokenBucket(1, 1, 0), 0);
+
+        assertSame(bucket1, store.getOrCreate("key1", () -> new TokenBucket(1, 1, 0), 0));
+        assertNotSame(bucket1, bucket2);
+        assertEquals(2, store.size());
+    }
+
+
+    @Test
+    @DisplayName("getOrCreate: when the buckets are idle then they are evicted")
+    public void getOrCreate_whenBucketsAreIdle_thenTheyAreEvicted() {
+        StripedTokenBucketStore store = new StripedTokenBucketStore(1, SECOND_IN_NANOSECONDS, 0);
+
+        TokenBucket idleBucket = store.getOrCreate("idle", () -> new TokenBucket(1, 1, 0), 0);
+        TokenBucket usedBucket = store.getOrCreate("used", () -> new TokenBucket(1, 1, 0), 0);
+        usedBucket.tryConsume(1, 2 * SECOND_IN_NANOSECONDS);
+
+        store.getOrCreate("used", () -> new TokenBucket(1, 1, 0), 2 * SECOND_IN_NANOSECONDS);
+
+        assertEquals(1, store.size());
+        assertNotSame(idleBucket, store.getOrCreate("idle", () -> new TokenBucket(1, 1, 0), 2 * SECOND_IN_NANOSECONDS));
+    }
+
+
+    @Test
+    @DisplayName("getOrCreate: when the existing bucket is not valid then it is replaced")
+    public void getOrCreate_whenExistingBucketIsNotValid_thenItIsReplaced() {
+        StripedTokenBucketStore store = new StripedTokenBucketStore(4, SECOND_IN_NANOSECONDS, 0);
+
+        TokenBucket oldBucket = store.getOrCreate("key", b -> b.hasLimits(1, 1), () -> new TokenBucket(1, 1, 0), 0);
+        TokenBucket newBucket = store.getOrCreate("key", b -> b.hasLimits(2, 4), () -> new TokenBucket(2, 4, 0), 0);
+
+        assertNotSame(oldBucket, newBucket);
+        assertTrue(newBucket.hasLimits(2, 4));
+        assertSame(newBucket, store.getOrCreate("key", b -> b.hasLimits(2, 4), () -> new TokenBucket(2, 4, 0), 0));
+        assertEquals(1, store.size());
+    }
+
+}
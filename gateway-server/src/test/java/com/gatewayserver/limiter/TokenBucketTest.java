@@ -0,0 +1,82 @@
+package com.gatewayserver.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    private static final long SECOND_IN_NANOSECONDS = 1_000_000_000L;
+
+
+    static Stream<Arguments> constructorFailedTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            replenishRate,   burstCapacity
+                Arguments.of( 0,               1 ),
+                Arguments.of( 1,               0 ),
+                Arguments.of( -1,              -1 )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("constructorFailedTestCases")
+    @DisplayName("constructor: failed test cases")
+    public void constructor_failedTestCases(int replenishRate,
+                                            int burstCapacity) {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new TokenBucket(replenishRate, burstCapacity, 0)
+        );
+    }
+
+
+    @Test
+    @DisplayName("tryConsume: when the burst capacity is used then new requests are rejected")
+    public void tryConsume_whenBurstCapacityIsUsed_thenNewRequestsAreRejected() {
+        TokenBucket bucket = new TokenBucket(1, 3, 0);
+
+        assertEquals(2, bucket.tryConsume(1, 0));
+        assertEquals(0, bucket.tryConsume(2, 0));
+        assertTrue(0 > bucket.tryConsume(1, 0));
+        assertEquals(0, bucket.getAvailableTokens(0));
+    }
+
+
+    @Test
+    @DisplayName("tryConsume: when time passes then the bucket is refilled")
+    public void tryConsume_whenTimePasses_thenBucketIsRefilled() {
+        TokenBucket bucket = new TokenBucket(2, 4, 0);
+
+        assertEquals(0, bucket.tryConsume(4, 0));
+        assertTrue(0 > bucket.tryConsume(1, 0));
+        assertEquals(SECOND_IN_NANOSECONDS / 2, bucket.getWaitInNanoseconds(1, 0));
+
+        assertEquals(2, bucket.getAvailableTokens(SECOND_IN_NANOSECONDS));
+        assertEquals(1, bucket.tryConsume(1, SECOND_IN_NANOSECONDS));
+
+        // Never more than the burst capacity
+        assertEquals(4, bucket.getAvailableTokens(100 * SECOND_IN_NANOSECONDS));
+    }
+
+
+    @Test
+    @DisplayName("isIdle: test cases")
+    public void isIdle_testCases() {
+        TokenBucket bucket = new TokenBucket(1, 2, 0);
+        bucket.tryConsume(2, 0);
+
+        assertFalse(bucket.isIdle(SECOND_IN_NANOSECONDS, SECOND_IN_NANOSECONDS));
+        assertTrue(bucket.isIdle(SECOND_IN_NANOSECONDS, 3 * SECOND_IN_NANOSECONDS));
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.gatewayserver.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedLoadRendezvousHashingTest {
+
+    private static final ToIntFunction<String> NO_LOAD = i -> 0;
+
+
+    static Stream<Arguments> constructorFailedTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            loadFactor
+                Arguments.of( 0 ),
+                Arguments.of( 1 ),
+                Arguments.of( -1.5 )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("constructorFailedTestCases")
+    @DisplayName("constructor: failed test cases")
+    public void constructor_failedTestCases(double loadFactor) {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new BoundedLoadRendezvousHashing(loadFactor)
+        );
+    }
+
+
+    @Test
+    @DisplayName("choose: when there are no instances then an exception is thrown")
+    public void choose_whenThereAreNoInstances_thenExceptionIsThrown() {
+        BoundedLoadRendezvousHashing hashing = new BoundedLoadRendezvousHashing(1.25);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> hashing.choose(1L, List.<String>of(), BoundedLoadRendezvousHashing::hash, NO_LOAD)
+        );
+    }
+
+
+    @Test
+    @DisplayName("choose: when the instances are not loaded then every key always goes to the same instance")
+    public void choose_whenInstancesAreNotLoaded_thenEveryKeyAlwaysGoesToSameInstance() {
+        BoundedLoadRendezvousHashing hashing = new BoundedLoadRendezvousHashing(1.25);
+        List<String> instances = buildInstances(5);
+
+        for (int key = 0; key < 100; key++) {
+            long keyHash = BoundedLoadRendezvousHashing.hash("user" + key);
+            String instance = hashing.choose(keyHash, instances, BoundedLoadRendezvousHashing::hash, NO_LOAD);
+            // The order of the instances does not matter
+            assertEquals(instance, hashing.choose(keyHash, reverse(instances), BoundedLoadRendezvousHashing::hash, NO_LOAD));
+        }
+        assertEquals(0, hashing.getSpillovers());
+    }
+
+
+    @Test
+    @DisplayName("choose: when an instance is removed then only its keys change of instance")
+    public void choose_whenInstanceIsRemoved_thenOnlyItsKeysChangeOfInstance() {
+        BoundedLoadRendezvousHashing hashing = new BoundedLoadRendezvousHashing(1.25);
+        List<String> instances = buildInstances(5);
+        List<String> remainingInstances = instances.subList(0, 4);
+
+        Map<String, Integer> keysPerInstance = new HashMap<>();
+        for (int key = 0; key < 1000; key++) {
+            long keyHash = BoundedLoadRendezvousHashing.hash("user" + key);
+            String before = hashing.choose(keyHash, instances, BoundedLoadRendezvousHashing::hash, NO_LOAD);
+            String after = hashing.choose(keyHash, remainingInstances, BoundedLoadRendezvousHashing::hash, NO_LOAD);
+            if (!before.equals(instances.get(4))) {
+                assertEquals(before, after);
+            }
+            keysPerInstance.merge(before, 1, Integer::sum);
+        }
+        // The keys are spread among all the instances
+        assertEquals(5, keysPerInstance.size());
+        keysPerInstance.values()
+                .forEach(numberOfKeys -> assertTrue(100 < numberOfKeys));
+    }
+
+
+    @Test
+    @DisplayName("choose: when the instance of the key is overloaded then the next one is returned")
+    public void choose_whenInstanceOfKeyIsOverloaded_thenNextOneIsReturned() {
+        BoundedLoadRendezvousHashing hashing = new BoundedLoadRendezvousHashing(1.25);
+        List<String> instances = buildInstances(3);
+        long keyHash = BoundedLoadRendezvousHashing.hash("hot-user");
+        String preferredInstance = hashing.choose(keyHash, instances, BoundedLoadRendezvousHashing::hash, NO_LOAD);
+
+        // Average load with the new request: (4 + 1) / 3, so the maximum one is 3
+        Map<String, Integer> loads = Map.of(preferredInstance, 4);
+        String chosenInstance = hashing.choose(
+                keyHash,
+                instances,
+                BoundedLoadRendezvousHashing::hash,
+                i -> loads.getOrDefault(i, 0)
+        );
+        assertNotEquals(preferredInstance, chosenInstance);
+        assertEquals(1, hashing.getSpillovers());
+    }
+
+
+    @Test
+    @DisplayName("choose: simulation with a hot key keeps the load of every instance bounded")
+    public void choose_simulationWithHotKey_keepsLoadOfEveryInstanceBounded() {
+        BoundedLoadRendezvousHashing hashing = new BoundedLoadRendezvousHashing(1.25);
+        List<String> instances = buildInstances(4);
+        Map<String, Integer> loads = new HashMap<>();
+        long hotKeyHash = BoundedLoadRendezvousHashing.hash("hot-user");
+
+        // Requests that are never finished, half of them with the same key
+        for (int request = 0; request < 400; request++) {
+            long keyHash = 0 == request % 2
+                    ? hotKeyHash
+                    : BoundedLoadRendezvousHashing.hash("user" + request);
+            String instance = hashing.choose(
+                    keyHash,
+                    instances,
+                    BoundedLoadRendezvousHashing::hash,
+                    i -> loads.getOrDefault(i, 0)
+            );
+            loads.merge(instance, 1, Integer::sum);
+        }
+        loads.values()
+                .forEach(load -> assertTrue(125 >= load));
+        assertTrue(0 < hashing.getSpillovers());
+    }
+
+
+    @Test
+    @DisplayName("hash: the same value always returns the same hash")
+    public void hash_sameValueAlwaysReturnsSameHash() {
+        assertEquals(BoundedLoadRendezvousHashing.hash("client:Spring5Microservices"), BoundedLoadRendezvousHashing.hash("client:Spring5Microservices"));
+        assertNotEquals(BoundedLoadRendezvousHashing.hash("client:Spring5Microservices"), BoundedLoadRendezvousHashing.hash("client:Spring5Microservice"));
+        assertEquals(0xcbf29ce484222325L, BoundedLoadRendezvousHashing.hash(""));
+    }
+
+
+    private List<String> buildInstances(final int numberOfInstances) {
+        return IntStream.range(0, numberOfInstances)
+                .mapToObj(i -> "host" + i + ":8080")
+                .collect(toList());
+    }
+
+
+    private List<String> reverse(final List<String> instances) {
+        return IntStream.range(0, instances.size())
+                .mapToObj(i -> instances.get(instances.size() - 1 - i))
+                .collect(toList());
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.gatewayserver.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class PeakEwmaLoadBalancerTest {
+
+    private static final String SERVICE_ID = "pizza-service";
+
+    private static final long MILLISECOND_IN_NANOSECONDS = 1_000_000L;
+    private static final long SECOND_IN_NANOSECONDS = 1_000 * MILLISECOND_IN_NANOSECONDS;
+
+
+    @Test
+    @DisplayName("choose: when there is only one instance then it is returned")
+    public void choose_whenThereIsOnlyOneInstance_thenItIsReturned() {
+        PeakEwmaLoadBalancer loadBalancer = buildLoadBalancer(new InstanceStatisticsRegistry(SECOND_IN_NANOSECONDS));
+        List<ServiceInstance> instances = buildInstances(1);
+
+        assertEquals(instances.get(0), loadBalancer.choose(instances, new Random(1), 0));
+    }
+
+
+    @Test
+    @DisplayName("choose: when an instance is slower then the other one is returned")
+    public void choose_whenInstanceIsSlower_thenOtherOneIsReturned() {
+        InstanceStatisticsRegistry registry = new InstanceStatisticsRegistry(SECOND_IN_NANOSECONDS);
+        PeakEwmaLoadBalancer loadBalancer = buildLoadBalancer(registry);
+        List<ServiceInstance> instances = buildInstances(2);
+
+        PeakEwmaStatistics slowInstance = registry.getStatistics(instances.get(0));
+        slowInstance.onStart();
+        slowInstance.onComplete(100 * MILLISECOND_IN_NANOSECONDS, 0);
+
+        PeakEwmaStatistics fastInstance = registry.getStatistics(instances.get(1));
+        fastInstance.onStart();
+        fastInstance.onComplete(10 * MILLISECOND_IN_NANOSECONDS, 0);
+
+        Random random = new Random(1);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(instances.get(1), loadBalancer.choose(instances, random, 0));
+        }
+    }
+
+
+    @Test
+    @DisplayName("choose: when an instance is not registered anymore then its statistics are removed")
+    public void choose_whenInstanceIsNotRegisteredAnymore_thenItsStatisticsAreRemoved() {
+        InstanceStatisticsRegistry registry = new InstanceStatisticsRegistry(SECOND_IN_NANOSECONDS);
+        PeakEwmaLoadBalancer loadBalancer = buildLoadBalancer(registry);
+        List<ServiceInstance> instances = buildInstances(3);
+        instances.forEach(registry::getStatistics);
+
+        assertNotEquals(instances.get(2), loadBalancer.choose(instances.subList(0, 2), new Random(1), 0));
+        assertEquals(2, registry.size());
+    }
+
+
+    @Test
+    @DisplayName("choose: when a key hash is given then the same instance is returned while it is not overloaded")
+    public void choose_whenKeyHashIsGiven_thenSameInstanceIsReturnedWhileItIsNotOverloaded() {
+        InstanceStatisticsRegistry registry = new InstanceStatisticsRegistry(SECOND_IN_NANOSECONDS);
+        PeakEwmaLoadBalancer loadBalancer = buildLoadBalancer(registry);
+        List<ServiceInstance> instances = buildInstances(3);
+        long keyHash = BoundedLoadRendezvousHashing.hash("client:Spring5Microservices");
+
+        ServiceInstance chosenInstance = loadBalancer.choose(instances, keyHash);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(chosenInstance, loadBalancer.choose(instances, keyHash));
+        }
+
+        PeakEwmaStatistics chosenStatistics = registry.getStatistics(chosenInstance);
+        for (int i = 0; i < 3; i++) {
+            chosenStatistics.onStart();
+        }
+        assertNotEquals(chosenInstance, loadBalancer.choose(instances, keyHash));
+    }
+
+
+    /**
+     *    Simulates the traffic sent to 5 instances of a service, one of them degraded (10 times slower than the
+     * others), comparing the latency percentiles of a round robin strategy with the {@link PeakEwmaLoadBalancer}.
+     * It uses a virtual clock, so the result does not depend on the machine running the test.
+     */
+    @Test
+    @DisplayName("choose: simulation with one degraded instance reduces the tail latency")
+    public void choose_simulationWithOneDegradedInstance_reducesTailLatency() {
+        List<ServiceInstance> instances = buildInstances(5);
+        ServiceInstance degradedInstance = instances.get(0);
+
+        AtomicInteger roundRobinPosition = new AtomicInteger(0);
+        List<Long> roundRobinLatencies = simulate(
+                instances,
+                degradedInstance,
+                new InstanceStatisticsRegistry(SECOND_IN_NANOSECONDS),
+                now -> instances.get(roundRobinPosition.getAndIncrement() % instances.size())
+        );
+
+        InstanceStatisticsRegistry registry = new InstanceStatisticsRegistry(SECOND_IN_NANOSECONDS);
+        PeakEwmaLoadBalancer loadBalancer = buildLoadBalancer(registry);
+        Random random = new Random(7);
+        List<Long> peakEwmaLatencies = simulate(
+                instances,
+                degradedInstance,
+                registry,
+                now -> loadBalancer.choose(instances, random, now)
+        );
+
+        long roundRobinP99 = percentile(roundRobinLatencies, 0.99);
+        long peakEwmaP99 = percentile(peakEwmaLatencies, 0.99);
+        long roundRobinP90 = percentile(roundRobinLatencies, 0.90);
+        long peakEwmaP90 = percentile(peakEwmaLatencies, 0.90);
+
+        assertTrue(roundRobinP90 > 2 * peakEwmaP90);
+        assertTrue(roundRobinP99 > 2 * peakEwmaP99);
+    }
+
+
+    /**
+     *    Sends one request every millisecond during 20 seconds, the healthy instances answer in 5-15 milliseconds
+     * and the degraded one in 100-200 milliseconds.
+     *
+     * @return latency of every request in nanoseconds
+     */
+    private List<Long> simulate(final List<ServiceInstance> instances,
+                                final ServiceInstance degradedInstance,
+                                final InstanceStatisticsRegistry registry,
+                                final Function<Long, ServiceInstance> chooser) {
+        final Random latencyRandom = new Random(42);
+        final PriorityQueue<SimulatedResponse> pendingResponses = new PriorityQueue<>();
+        final List<Long> latencies = new ArrayList<>();
+
+        for (long now = 0; now < 20 * SECOND_IN_NANOSECONDS; now += MILLISECOND_IN_NANOSECONDS) {
+            while (!pendingResponses.isEmpty() && pendingResponses.peek().finishTime <= now) {
+                SimulatedResponse response = pendingResponses.poll();
+                response.statistics.onComplete(response.latency, response.finishTime);
+            }
+            ServiceInstance instance = chooser.apply(now);
+            long latency = degradedInstance.equals(instance)
+                    ? (100 + latencyRandom.nextInt(100)) * MILLISECOND_IN_NANOSECONDS
+                    : (5 + latencyRandom.nextInt(10)) * MILLISECOND_IN_NANOSECONDS;
+
+            PeakEwmaStatistics statistics = registry.getStatistics(instance);
+            statistics.onStart();
+            pendingResponses.add(new SimulatedResponse(statistics, latency, now + latency));
+            latencies.add(latency);
+        }
+        return latencies;
+    }
+
+
+    private long percentile(final List<Long> latencies,
+                            final double percentile) {
+        List<Long> sortedLatencies = new ArrayList<>(latencies);
+        Collections.sort(sortedLatencies);
+        return sortedLatencies.get((int) (percentile * (sortedLatencies.size() - 1)));
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private PeakEwmaLoadBalancer buildLoadBalancer(final InstanceStatisticsRegistry registry) {
+        return new PeakEwmaLoadBalancer(
+                mock(ObjectProvider.class),
+                SERVICE_ID,
+                registry,
+                new BoundedLoadRendezvousHashing(1.25)
+        );
+    }
+
+
+    private List<ServiceInstance> buildInstances(final int numberOfInstances) {
+        return IntStream.range(0, numberOfInstances)
+                .mapToObj(i -> (ServiceInstance) new DefaultServiceInstance(
+                        SERVICE_ID + i,
+                        SERVICE_ID,
+                        "host" + i,
+                        8080,
+                        false
+                ))
+                .collect(toList());
+    }
+
+
+    private static class SimulatedResponse implements Comparable<SimulatedResponse> {
+
+        private final PeakEwmaStatistics statistics;
+        private final long latency;
+        private final long finishTime;
+
+        SimulatedResponse(final PeakEwmaStatistics statistics,
+                          final long latency,
+                          final long finishTime) {
+            this.statistics = statistics;
+            this.latency = latency;
+            this.finishTime = finishTime;
+        }
+
+        @Override
+        public int compareTo(final SimulatedResponse other) {
+            return Long.compare(finishTime, other.finishTime);
+        }
+
+    }
+
+}
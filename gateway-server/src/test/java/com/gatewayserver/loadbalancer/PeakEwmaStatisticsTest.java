@@ -0,0 +1,86 @@
+package com.gatewayserver.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PeakEwmaStatisticsTest {
+
+    private static final long MILLISECOND_IN_NANOSECONDS = 1_000_000L;
+    private static final long SECOND_IN_NANOSECONDS = 1_000 * MILLISECOND_IN_NANOSECONDS;
+
+
+    @Test
+    @DisplayName("constructor: when not valid parameters are given then an exception is thrown")
+    public void constructor_whenNotValidParametersAreGiven_thenIllegalArgumentExceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new PeakEwmaStatistics(0, 0));
+    }
+
+
+    @Test
+    @DisplayName("getCost: when there are no samples then the cost depends on the requests in flight")
+    public void getCost_whenThereAreNoSamples_thenCostDependsOnInFlight() {
+        PeakEwmaStatistics statistics = new PeakEwmaStatistics(SECOND_IN_NANOSECONDS, 0);
+
+        assertEquals(0, statistics.getCost(0));
+
+        statistics.onStart();
+        assertTrue(PeakEwmaStatistics.UNMEASURED_PENALTY <= statistics.getCost(0));
+
+        statistics.onDiscard();
+        assertEquals(0, statistics.getInFlight());
+        assertEquals(0, statistics.getCost(0));
+    }
+
+
+    @Test
+    @DisplayName("onComplete: when a slower sample is received then it is applied at once")
+    public void onComplete_whenSlowerSampleIsReceived_thenItIsAppliedAtOnce() {
+        PeakEwmaStatistics statistics = new PeakEwmaStatistics(SECOND_IN_NANOSECONDS, 0);
+
+        statistics.onStart();
+        statistics.onComplete(10 * MILLISECOND_IN_NANOSECONDS, 0);
+        assertEquals(10 * MILLISECOND_IN_NANOSECONDS, statistics.getLatencyInNanoseconds(0));
+
+        statistics.onStart();
+        statistics.onComplete(100 * MILLISECOND_IN_NANOSECONDS, 0);
+        assertEquals(100 * MILLISECOND_IN_NANOSECONDS, statistics.getLatencyInNanoseconds(0));
+
+        // The new request is taken into account
+        statistics.onStart();
+        assertEquals(200 * MILLISECOND_IN_NANOSECONDS, statistics.getCost(0));
+    }
+
+
+    @Test
+    @DisplayName("onComplete: when a faster sample is received then the average decays towards it")
+    public void onComplete_whenFasterSampleIsReceived_thenAverageDecaysTowardsIt() {
+        PeakEwmaStatistics statistics = new PeakEwmaStatistics(SECOND_IN_NANOSECONDS, 0);
+
+        statistics.onStart();
+        statistics.onComplete(100 * MILLISECOND_IN_NANOSECONDS, 0);
+
+        statistics.onStart();
+        statistics.onComplete(10 * MILLISECOND_IN_NANOSECONDS, SECOND_IN_NANOSECONDS);
+
+        double latency = statistics.getLatencyInNanoseconds(SECOND_IN_NANOSECONDS);
+        assertTrue(10 * MILLISECOND_IN_NANOSECONDS < latency);
+        assertTrue(100 * MILLISECOND_IN_NANOSECONDS > latency);
+    }
+
+
+    @Test
+    @DisplayName("getLatencyInNanoseconds: when there are no new samples then the average decays towards 0")
+    public void getLatencyInNanoseconds_whenThereAreNoNewSamples_thenAverageDecaysTowardsZero() {
+        PeakEwmaStatistics statistics = new PeakEwmaStatistics(SECOND_IN_NANOSECONDS, 0);
+
+        statistics.onStart();
+        statistics.onComplete(100 * MILLISECOND_IN_NANOSECONDS, 0);
+
+        assertTrue(MILLISECOND_IN_NANOSECONDS > statistics.getLatencyInNanoseconds(10 * SECOND_IN_NANOSECONDS));
+    }
+
+}
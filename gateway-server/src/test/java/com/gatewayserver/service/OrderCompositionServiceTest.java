@@ -0,0 +1,193 @@
+package com.gatewayserver.service;
+
+import com.gatewayserver.configuration.composition.CompositionConfiguration;
+import com.gatewayserver.dto.OrderWithIngredientSummaryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OrderCompositionServiceTest {
+
+    private static final String AUTHORIZATION = "Bearer accessToken";
+
+    private static final String ORDER_BODY = "{\"id\":1,\"code\":\"Order 1\"}";
+    private static final String INGREDIENT_SUMMARY_BODY = "[{\"name\":\"Cheese\",\"amount\":2}]";
+
+    private AtomicReference<Mono<ClientResponse>> orderLeg;
+
+    private AtomicReference<Mono<ClientResponse>> ingredientSummaryLeg;
+
+    private AtomicReference<String> sentAuthorization;
+
+    private OrderCompositionService service;
+
+
+    @BeforeEach
+    public void init() {
+        orderLeg = new AtomicReference<>(jsonResponse(ORDER_BODY));
+        ingredientSummaryLeg = new AtomicReference<>(jsonResponse(INGREDIENT_SUMMARY_BODY));
+        sentAuthorization = new AtomicReference<>();
+
+        CompositionConfiguration configuration = mock(CompositionConfiguration.class);
+        when(configuration.getOrderServiceUri()).thenReturn("http://order-service");
+        when(configuration.getOrderTimeoutInMilliseconds()).thenReturn(200L);
+        when(configuration.getIngredientSummaryTimeoutInMilliseconds()).thenReturn(100L);
+
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    sentAuthorization.set(request.headers().getFirst(HttpHeaders.AUTHORIZATION));
+                    return request.url().getPath().endsWith("/ingredient/summary")
+                            ? ingredientSummaryLeg.get()
+                            : orderLeg.get();
+                })
+                .build();
+        service = new OrderCompositionService(configuration, webClient);
+    }
+
+
+    static Stream<Arguments> getOrderWithIngredientSummary_whenBothLegsFailTestCases() {
+        Mono<ClientResponse> internalError = errorResponse(HttpStatus.INTERNAL_SERVER_ERROR);
+        Mono<ClientResponse> notAvailable = errorResponse(HttpStatus.SERVICE_UNAVAILABLE);
+        Mono<ClientResponse> connectionError = Mono.error(new ConnectException("Connection refused"));
+        Mono<ClientResponse> timeout = Mono.never();
+        return Stream.of(
+                //@formatter:off
+                //            orderLeg,          ingredientSummaryLeg,   expectedResult
+                Arguments.of( internalError,     notAvailable,           HttpStatus.INTERNAL_SERVER_ERROR ),
+                Arguments.of( timeout,           internalError,          HttpStatus.GATEWAY_TIMEOUT ),
+                Arguments.of( connectionError,   timeout,                HttpStatus.SERVICE_UNAVAILABLE )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("getOrderWithIngredientSummary_whenBothLegsFailTestCases")
+    @DisplayName("getOrderWithIngredientSummary: when both legs fail then the status related with the order leg is returned")
+    public void getOrderWithIngredientSummary_whenBothLegsFail_thenStatusRelatedWithTheOrderLegIsReturned(Mono<ClientResponse> orderLegResponse,
+                                                                                                         Mono<ClientResponse> ingredientSummaryLegResponse,
+                                                                                                         HttpStatus expectedResult) {
+        orderLeg.set(orderLegResponse);
+        ingredientSummaryLeg.set(ingredientSummaryLegResponse);
+
+        ResponseEntity<OrderWithIngredientSummaryDto> response = getOrderWithIngredientSummary();
+
+        assertEquals(expectedResult, response.getStatusCode());
+        assertNull(response.getBody().getOrder());
+        assertNull(response.getBody().getIngredientSummary());
+        assertEquals(2, response.getBody().getErrors().size());
+    }
+
+
+    @Test
+    @DisplayName("getOrderWithIngredientSummary: when both legs succeed then the whole composition is returned")
+    public void getOrderWithIngredientSummary_whenBothLegsSucceed_thenWholeCompositionIsReturned() {
+        ResponseEntity<OrderWithIngredientSummaryDto> response = getOrderWithIngredientSummary();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getOrder().get("id").asInt());
+        assertEquals("Cheese", response.getBody().getIngredientSummary().get(0).get("name").asText());
+        assertTrue(response.getBody().getErrors().isEmpty());
+        assertEquals(AUTHORIZATION, sentAuthorization.get());
+    }
+
+
+    @Test
+    @DisplayName("getOrderWithIngredientSummary: when the ingredient summary leg times out then the partial result is returned")
+    public void getOrderWithIngredientSummary_whenIngredientSummaryLegTimesOut_thenPartialResultIsReturned() {
+        ingredientSummaryLeg.set(Mono.never());
+
+        ResponseEntity<OrderWithIngredientSummaryDto> response = getOrderWithIngredientSummary();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getOrder().get("id").asInt());
+        assertNull(response.getBody().getIngredientSummary());
+        assertEquals(List.of("ingredientSummary was not received in 100 milliseconds"), response.getBody().getErrors());
+    }
+
+
+    @Test
+    @DisplayName("getOrderWithIngredientSummary: when the order leg times out then the partial result is returned")
+    public void getOrderWithIngredientSummary_whenOrderLegTimesOut_thenPartialResultIsReturned() {
+        orderLeg.set(Mono.never());
+
+        ResponseEntity<OrderWithIngredientSummaryDto> response = getOrderWithIngredientSummary();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody().getOrder());
+        assertNotNull(response.getBody().getIngredientSummary());
+        assertEquals(List.of("order was not received in 200 milliseconds"), response.getBody().getErrors());
+    }
+
+
+    static Stream<Arguments> getOrderWithIngredientSummary_whenOrderLegReturnsClientErrorTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            orderLegStatus
+                Arguments.of( HttpStatus.UNAUTHORIZED ),
+                Arguments.of( HttpStatus.FORBIDDEN ),
+                Arguments.of( HttpStatus.NOT_FOUND )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("getOrderWithIngredientSummary_whenOrderLegReturnsClientErrorTestCases")
+    @DisplayName("getOrderWithIngredientSummary: when the order leg returns a client error then its status is returned without the ingredient summary")
+    public void getOrderWithIngredientSummary_whenOrderLegReturnsClientError_thenItsStatusIsReturnedWithoutTheIngredientSummary(HttpStatus orderLegStatus) {
+        orderLeg.set(errorResponse(orderLegStatus));
+
+        ResponseEntity<OrderWithIngredientSummaryDto> response = getOrderWithIngredientSummary();
+
+        assertEquals(orderLegStatus, response.getStatusCode());
+        assertNull(response.getBody().getOrder());
+        // The order cannot be seen, so neither its ingredients
+        assertNull(response.getBody().getIngredientSummary());
+        assertEquals(List.of("order returned the HTTP status: " + orderLegStatus.value()), response.getBody().getErrors());
+    }
+
+
+    private ResponseEntity<OrderWithIngredientSummaryDto> getOrderWithIngredientSummary() {
+        return service.getOrderWithIngredientSummary(1, AUTHORIZATION)
+                .block(Duration.ofSeconds(5));
+    }
+
+
+    private static Mono<ClientResponse> jsonResponse(final String body) {
+        return Mono.just(
+                ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build()
+        );
+    }
+
+
+    private static Mono<ClientResponse> errorResponse(final HttpStatus httpStatus) {
+        return Mono.just(
+                ClientResponse.create(httpStatus)
+                        .build()
+        );
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.order.configuration.event;
+
+import com.order.event.OrderEventBus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Configuration of the stream of order changes sent to the clients as server-sent events.
+ */
+@Configuration
+@Getter
+public class OrderEventConfiguration {
+
+    @Value("${orderEvents.subscriberBufferSize:256}")
+    private int subscriberBufferSize;
+
+    @Value("${orderEvents.maxSubscribers:1000}")
+    private int maxSubscribers;
+
+    @Value("${orderEvents.timeoutInMilliseconds:1800000}")
+    private long timeoutInMilliseconds;
+
+    @Value("${orderEvents.heartbeatInMilliseconds:15000}")
+    private long heartbeatInMilliseconds;
+
+    @Value("${orderEvents.senderThreads:4}")
+    private int senderThreads;
+
+
+    // Not registered as beans, otherwise they would replace the task executor configured by Spring Boot
+    @Getter(AccessLevel.NONE)
+    private ExecutorService sendExecutor;
+
+    @Getter(AccessLevel.NONE)
+    private ScheduledExecutorService heartbeatScheduler;
+
+
+    /**
+     *    {@link OrderEventBus} that sends the changes of the orders to the subscribers, using {@code senderThreads}
+     * threads, and a heartbeat every {@code heartbeatInMilliseconds}.
+     *
+     * @return {@link OrderEventBus}
+     */
+    @Bean
+    public OrderEventBus orderEventBus(final MeterRegistry meterRegistry) {
+        sendExecutor = Executors.newFixedThreadPool(
+                senderThreads,
+                buildThreadFactory("order-events-")
+        );
+        OrderEventBus orderEventBus = new OrderEventBus(
+                subscriberBufferSize,
+                maxSubscribers,
+                timeoutInMilliseconds,
+                sendExecutor
+        );
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(
+                buildThreadFactory("order-events-heartbeat-")
+        );
+        heartbeatScheduler.scheduleWithFixedDelay(
+                orderEventBus::sendHeartbeat,
+                heartbeatInMilliseconds,
+                heartbeatInMilliseconds,
+                TimeUnit.MILLISECONDS
+        );
+        Gauge.builder("order.events.subscribers", orderEventBus, OrderEventBus::getSubscribers)
+                .description("Number of clients connected to the stream of order changes")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.events.evicted", orderEventBus, OrderEventBus::getEvictedSubscribers)
+                .description("Number of clients disconnected because they did not read the order changes fast enough")
+                .register(meterRegistry);
+        return orderEventBus;
+    }
+
+
+    @PreDestroy
+    public void shutdown() {
+        ofNullable(heartbeatScheduler)
+                .ifPresent(ExecutorService::shutdownNow);
+        ofNullable(sendExecutor)
+                .ifPresent(ExecutorService::shutdownNow);
+    }
+
+
+    private static CustomizableThreadFactory buildThreadFactory(final String threadNamePrefix) {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+}
@@ -10,6 +10,7 @@ public final class RestRoutes {
     public static final class ORDER {
         public static final String ROOT = RestRoutes.ROOT;
         public static final String WITH_ORDERLINES = "/withOrderlines";
+        public static final String EVENTS = "/events";
     }
 
     public static final class INGREDIENT {
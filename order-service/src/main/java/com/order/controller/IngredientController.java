@@ -7,12 +7,12 @@ import com.order.dto.OrderDto;
 import com.order.model.Order;
 import com.order.service.IngredientService;
 import com.spring5microservices.common.dto.ErrorResponseDto;
+import com.spring5microservices.common.log.AccessLogger;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
@@ -27,23 +27,25 @@ import org.springframework.web.bind.annotation.RestController;
 import javax.validation.constraints.Positive;
 import java.util.Set;
 
-import static java.lang.String.format;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
-@Log4j2
 @RestController
 @RequestMapping(RestRoutes.ORDER.ROOT + "/{orderId}")
 @Validated
 public class IngredientController {
 
+    private final AccessLogger accessLogger;
+
     private final IngredientService service;
 
 
     @Autowired
-    public IngredientController(@Lazy final IngredientService service) {
+    public IngredientController(@Lazy final IngredientService service,
+                                @Lazy final AccessLogger accessLogger) {
         this.service = service;
+        this.accessLogger = accessLogger;
     }
 
 
@@ -104,9 +106,9 @@ public class IngredientController {
     @Transactional(readOnly = true)
     @RoleAdminOrUser
     public ResponseEntity<Set<IngredientAmountDto>> getSummaryByOrderId(@PathVariable @Positive final Integer orderId) {
-        log.info(
-                format("Getting ingredient's summary of the order with identifier: %d",
-                        orderId)
+        accessLogger.logSampled(
+                "Getting ingredient's summary of the order with identifier: {}",
+                orderId
         );
         return service.getSummaryByOrderId(orderId)
                 .map(p ->
@@ -5,15 +5,17 @@ import com.order.annotation.RoleAdminOrUser;
 import com.order.configuration.rest.RestRoutes;
 import com.order.dto.OrderDto;
 import com.order.dto.OrderLineDto;
+import com.order.event.OrderEventBus;
+import com.order.event.OrderEventType;
 import com.order.model.Order;
 import com.order.service.OrderService;
 import com.spring5microservices.common.dto.ErrorResponseDto;
+import com.spring5microservices.common.log.AccessLogger;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
@@ -26,33 +28,43 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 
-import static java.lang.String.format;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
 /**
  * Rest services to work with {@link Order}
  */
-@Log4j2
 @RestController
 @RequestMapping(RestRoutes.ORDER.ROOT)
 @Validated
 public class OrderController {
 
+    private final AccessLogger accessLogger;
+
     private final OrderService service;
 
+    private final OrderEventBus orderEventBus;
+
 
     @Autowired
-    public OrderController(@Lazy final OrderService service) {
+    public OrderController(@Lazy final OrderService service,
+                           @Lazy final OrderEventBus orderEventBus,
+                           @Lazy final AccessLogger accessLogger) {
         this.service = service;
+        this.orderEventBus = orderEventBus;
+        this.accessLogger = accessLogger;
     }
 
 
@@ -113,9 +125,10 @@ public class OrderController {
     @Transactional(rollbackFor = Exception.class)
     @RoleAdmin
     public ResponseEntity<OrderDto> create(@RequestBody @Valid final OrderDto orderDto) {
-        log.info(
-                format("Creating the order: %s",
-                        orderDto)
+        accessLogger.logWithDetail(
+                "Creating the order with code: {}",
+                orderDto.getCode(),
+                orderDto
         );
         return service.save(orderDto)
                    .map(p ->
@@ -187,9 +200,9 @@ public class OrderController {
     @Transactional(readOnly = true)
     @RoleAdminOrUser
     public ResponseEntity<OrderDto> findByIdWithOrderLines(@PathVariable @Positive final Integer id) {
-        log.info(
-                format("Searching order with identifier: %d",
-                        id)
+        accessLogger.logSampled(
+                "Searching order with identifier: {}",
+                id
         );
         return service.findByIdWithOrderLines(id)
                    .map(p ->
@@ -204,6 +217,68 @@ public class OrderController {
     }
 
 
+    /**
+     *    Stream of server-sent events with the changes of the {@link OrderDto}s made from now on, so the clients do not
+     * need to poll {@link OrderController#findByIdWithOrderLines(Integer)}. Every event is named as its
+     * {@link OrderEventType} and contains the {@link OrderDto} and its {@link OrderLineDto} information.
+     *
+     * @param orderId
+     *    {@link Order#getId()} whose changes will be sent. If it is not given, the changes of all orders will be sent
+     *
+     * @return if there are not too many subscribers: {@link HttpStatus#OK} and {@link SseEmitter} used to send the events
+     *         if there are too many subscribers: {@link HttpStatus#SERVICE_UNAVAILABLE}
+     */
+    @Operation(
+            summary = "Stream of order changes",
+            description = "Stream of server-sent events with the created and updated orders (only allowed to user with role admin/user)"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Stream of events named CREATED or UPDATED, with the related order",
+                            content = @Content(
+                                    mediaType = TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = OrderDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "There was a problem in the given request, the given parameters have not passed the required validations",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "The user has not authorization to execute this request or provided authorization has expired",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "There are too many clients connected to the stream"
+                    )
+            }
+    )
+    @GetMapping(value = RestRoutes.ORDER.EVENTS, produces = TEXT_EVENT_STREAM_VALUE)
+    @RoleAdminOrUser
+    public ResponseEntity<SseEmitter> streamEvents(@RequestParam(required = false) @Positive final Integer orderId) {
+        accessLogger.logSampled(
+                "Subscribing to the events of the order with identifier: {}",
+                orderId
+        );
+        return orderEventBus.subscribe(orderId)
+                   .map(ResponseEntity::ok)
+                   .orElseGet(() ->
+                           new ResponseEntity<>(SERVICE_UNAVAILABLE)
+                   );
+    }
+
+
     /**
      * Used to update an existing {@link OrderDto}
      *
@@ -261,9 +336,10 @@ public class OrderController {
     @Transactional(rollbackFor = Exception.class)
     @RoleAdmin
     public ResponseEntity<OrderDto> update(@RequestBody @Valid final OrderDto orderDto) {
-        log.info(
-                format("Updating the order: %s",
-                        orderDto)
+        accessLogger.logWithDetail(
+                "Updating the order with identifier: {}",
+                orderDto.getId(),
+                orderDto
         );
         return service.save(orderDto)
                    .map(p ->
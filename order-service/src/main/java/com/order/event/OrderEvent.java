@@ -0,0 +1,24 @@
+package com.order.event;
+
+import com.order.dto.OrderDto;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ *    Change of an {@link com.order.model.Order}, published by {@link com.order.service.OrderService} and sent to the
+ * subscribers of {@link OrderEventBus} once the transaction that made it has been committed.
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+@ToString
+public class OrderEvent {
+
+    private final OrderEventType type;
+
+    // Persisted information, including its order lines
+    private final OrderDto order;
+
+}
@@ -0,0 +1,273 @@
+package com.order.event;
+
+import com.order.event.OrderEventSubscriber.OrderEventMessage;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static java.util.Optional.empty;
+
+/**
+ *    Sends to the connected clients, as server-sent events, the {@link OrderEvent}s published by
+ * {@link com.order.service.OrderService} once their transaction has been committed, so they do not have to poll the
+ * orders to know their changes.
+ * <p>
+ *    The thread that commits the transaction only adds the event to the bounded buffer of every subscriber, and the
+ * given {@link Executor} sends them. A subscriber whose buffer is full, because it does not read the events as fast
+ * as they are published, is disconnected instead of delaying the others or storing an unlimited number of events.
+ * The client can connect again and get the current state of its orders using the Rest services.
+ */
+@Log4j2
+public class OrderEventBus {
+
+    private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private final int subscriberBufferSize;
+
+    private final int maxSubscribers;
+
+    private final long timeoutInMilliseconds;
+
+    private final Executor sendExecutor;
+
+    private final Set<OrderEventSubscriber> subscribers;
+
+    private final AtomicLong lastEventId;
+
+    private final AtomicLong evictedSubscribers;
+
+
+    /**
+     * Construct a {@link OrderEventBus}
+     *
+     * @param subscriberBufferSize
+     *    Maximum number of events pending to send to a subscriber
+     * @param maxSubscribers
+     *    Maximum number of connected subscribers
+     * @param timeoutInMilliseconds
+     *    Time after which the connection of a subscriber is closed, 0 means no timeout
+     * @param sendExecutor
+     *    {@link Executor} used to send the events
+     *
+     * @throws IllegalArgumentException if {@code subscriberBufferSize} or {@code maxSubscribers} are not positive values,
+     *                                  {@code timeoutInMilliseconds} is negative or {@code sendExecutor} is {@code null}
+     */
+    public OrderEventBus(final int subscriberBufferSize,
+                         final int maxSubscribers,
+                         final long timeoutInMilliseconds,
+                         final Executor sendExecutor) {
+        Assert.isTrue(0 < subscriberBufferSize, "subscriberBufferSize must be a positive value");
+        Assert.isTrue(0 < maxSubscribers, "maxSubscribers must be a positive value");
+        Assert.isTrue(0 <= timeoutInMilliseconds, "timeoutInMilliseconds must be a positive value or 0");
+        Assert.notNull(sendExecutor, "sendExecutor must be not null");
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutInMilliseconds = timeoutInMilliseconds;
+        this.sendExecutor = sendExecutor;
+        this.subscribers = ConcurrentHashMap.newKeySet();
+        this.lastEventId = new AtomicLong(0);
+        this.evictedSubscribers = new AtomicLong(0);
+    }
+
+
+    /**
+     * Adds a new subscriber that will receive the {@link OrderEvent}s published from now on.
+     *
+     * @param orderId
+     *    Identifier of the {@link com.order.model.Order} whose events will be received, {@code null} to receive all
+     *
+     * @return {@link Optional} with the {@link SseEmitter} used to send the events,
+     *         {@link Optional#empty()} if the maximum number of subscribers has been reached
+     */
+    public Optional<SseEmitter> subscribe(final Integer orderId) {
+        return subscribe(
+                new SseEmitter(timeoutInMilliseconds),
+                orderId
+        );
+    }
+
+
+    /**
+     * Adds a subscriber that will receive the {@link OrderEvent}s through the given {@link SseEmitter}.
+     *
+     * @param emitter
+     *    {@link SseEmitter} used to send the events
+     * @param orderId
+     *    Identifier of the {@link com.order.model.Order} whose events will be received, {@code null} to receive all
+     *
+     * @return {@link Optional} with {@code emitter}, {@link Optional#empty()} if the maximum number of subscribers
+     *         has been reached
+     */
+    Optional<SseEmitter> subscribe(final SseEmitter emitter,
+                                   final Integer orderId) {
+        // The limit could be exceeded by concurrent subscriptions, but only by a few of them
+        if (subscribers.size() >= maxSubscribers) {
+            return empty();
+        }
+        final OrderEventSubscriber subscriber = new OrderEventSubscriber(
+                emitter,
+                orderId,
+                subscriberBufferSize
+        );
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+        subscribers.add(subscriber);
+        return Optional.of(emitter);
+    }
+
+
+    /**
+     * Sends the given {@link OrderEvent} to the interested subscribers, once its transaction has been committed.
+     *
+     * @param event
+     *    {@link OrderEvent} to send
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(final OrderEvent event) {
+        if (null == event ||
+                null == event.getOrder() ||
+                subscribers.isEmpty()) {
+            return;
+        }
+        final OrderEventMessage message = new OrderEventMessage(
+                lastEventId.incrementAndGet(),
+                event
+        );
+        for (OrderEventSubscriber subscriber : subscribers) {
+            if (!subscriber.isInterestedIn(event)) {
+                continue;
+            }
+            if (subscriber.getPendingEvents().offer(message)) {
+                scheduleSending(subscriber);
+            }
+            else {
+                evict(subscriber);
+            }
+        }
+    }
+
+
+    /**
+     *    Sends a comment to every subscriber without pending events, so the intermediate proxies do not close the idle
+     * connections and the ones closed by the clients are detected.
+     */
+    public void sendHeartbeat() {
+        for (OrderEventSubscriber subscriber : subscribers) {
+            subscriber.getHeartbeatPending().set(true);
+            scheduleSending(subscriber);
+        }
+    }
+
+
+    /**
+     * Returns the number of connected subscribers.
+     */
+    public int getSubscribers() {
+        return subscribers.size();
+    }
+
+
+    /**
+     * Returns the number of subscribers disconnected because they did not read the events fast enough.
+     */
+    public long getEvictedSubscribers() {
+        return evictedSubscribers.get();
+    }
+
+
+    private void scheduleSending(final OrderEventSubscriber subscriber) {
+        if (!subscriber.getSending().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> send(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.getSending().set(false);
+            evict(subscriber);
+        }
+    }
+
+
+    /**
+     * Sends the pending events of the given subscriber, until there are no more.
+     *
+     * @param subscriber
+     *    {@link OrderEventSubscriber} to manage
+     */
+    private void send(final OrderEventSubscriber subscriber) {
+        while (true) {
+            final OrderEventMessage message = subscriber.getPendingEvents().poll();
+            final boolean heartbeat = null == message &&
+                    subscriber.getHeartbeatPending().getAndSet(false);
+            if (null == message && !heartbeat) {
+                subscriber.getSending().set(false);
+                // Events added after checking the buffer but before releasing it
+                if (subscriber.getPendingEvents().isEmpty() ||
+                        !subscriber.getSending().compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (subscriber.isClosed()) {
+                subscriber.getSending().set(false);
+                return;
+            }
+            try {
+                subscriber.getEmitter().send(
+                        heartbeat
+                                ? SseEmitter.event()
+                                        .comment(HEARTBEAT_COMMENT)
+                                : SseEmitter.event()
+                                        .id(String.valueOf(message.getId()))
+                                        .name(message.getEvent().getType().name())
+                                        .data(message.getEvent().getOrder(), MediaType.APPLICATION_JSON)
+                );
+            } catch (IOException | IllegalStateException e) {
+                // The client has closed the connection
+                log.debug("The order events could not be sent to a subscriber", e);
+                unsubscribe(subscriber);
+                subscriber.getSending().set(false);
+                return;
+            }
+        }
+    }
+
+
+    private void evict(final OrderEventSubscriber subscriber) {
+        if (!subscriber.close()) {
+            return;
+        }
+        subscribers.remove(subscriber);
+        evictedSubscribers.incrementAndGet();
+        log.warn(
+                format("A subscriber of the order events has been disconnected because it had %d pending events",
+                        subscriberBufferSize
+                )
+        );
+        // The emitter could be blocked sending an event, so it is not completed by the thread that publishes them
+        try {
+            sendExecutor.execute(() -> subscriber.getEmitter().complete());
+        } catch (RejectedExecutionException e) {
+            log.debug("The connection of an evicted subscriber will be closed by its timeout", e);
+        }
+    }
+
+
+    private void unsubscribe(final OrderEventSubscriber subscriber) {
+        subscriber.close();
+        subscribers.remove(subscriber);
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.order.event;
+
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection of a client to {@link OrderEventBus}, with the events pending to send to it.
+ */
+@Getter
+class OrderEventSubscriber {
+
+    private final SseEmitter emitter;
+
+    // If it is null, the events of all the orders are sent
+    private final Integer orderId;
+
+    private final ArrayBlockingQueue<OrderEventMessage> pendingEvents;
+
+    // Only one thread sends the events of a subscriber, so they are received in order
+    private final AtomicBoolean sending;
+
+    private final AtomicBoolean heartbeatPending;
+
+    private final AtomicBoolean closed;
+
+
+    OrderEventSubscriber(final SseEmitter emitter,
+                         final Integer orderId,
+                         final int bufferSize) {
+        this.emitter = emitter;
+        this.orderId = orderId;
+        this.pendingEvents = new ArrayBlockingQueue<>(bufferSize);
+        this.sending = new AtomicBoolean(false);
+        this.heartbeatPending = new AtomicBoolean(false);
+        this.closed = new AtomicBoolean(false);
+    }
+
+
+    /**
+     * Checks if the given {@link OrderEvent} must be sent to this subscriber.
+     *
+     * @param event
+     *    {@link OrderEvent} to check
+     *
+     * @return {@code true} if the subscriber receives all the orders or the one of {@code event}, {@code false} otherwise
+     */
+    boolean isInterestedIn(final OrderEvent event) {
+        return null == orderId ||
+                orderId.equals(event.getOrder().getId());
+    }
+
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+
+    /**
+     * Marks the subscriber as closed, discarding its pending events.
+     *
+     * @return {@code true} if it was not closed before, {@code false} otherwise
+     */
+    boolean close() {
+        if (!closed.compareAndSet(false, true)) {
+            return false;
+        }
+        pendingEvents.clear();
+        return true;
+    }
+
+
+    /**
+     * {@link OrderEvent} pending to send, with the identifier of the server-sent event.
+     */
+    @Getter
+    static class OrderEventMessage {
+
+        private final long id;
+
+        private final OrderEvent event;
+
+        OrderEventMessage(final long id,
+                          final OrderEvent event) {
+            this.id = id;
+            this.event = event;
+        }
+
+    }
+
+}
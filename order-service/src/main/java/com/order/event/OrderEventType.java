@@ -0,0 +1,9 @@
+package com.order.event;
+
+/**
+ * Types of changes of an {@link com.order.model.Order} notified to the subscribers of {@link OrderEventBus}.
+ */
+public enum OrderEventType {
+    CREATED,
+    UPDATED
+}
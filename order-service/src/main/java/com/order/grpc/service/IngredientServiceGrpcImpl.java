@@ -4,8 +4,8 @@ import com.spring5microservices.grpc.IngredientResponse;
 import com.spring5microservices.grpc.IngredientServiceGrpc;
 import com.spring5microservices.grpc.PizzaRequest;
 import com.order.grpc.client.GrpcClient;
+import com.spring5microservices.common.log.AccessLogger;
 import com.spring5microservices.common.util.CollectionUtil;
-import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -13,26 +13,28 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
 
-import static java.lang.String.format;
 import static java.util.Optional.ofNullable;
 
-@Log4j2
 @Service
 public class IngredientServiceGrpcImpl {
 
+    private final AccessLogger accessLogger;
+
     private final GrpcClient grpcClient;
 
 
     @Autowired
-    public IngredientServiceGrpcImpl(@Lazy final GrpcClient grpcClient) {
+    public IngredientServiceGrpcImpl(@Lazy final GrpcClient grpcClient,
+                                     @Lazy final AccessLogger accessLogger) {
         this.grpcClient = grpcClient;
+        this.accessLogger = accessLogger;
     }
 
 
     public List<IngredientResponse> findByPizzaId(Short pizzaId) {
-        log.info(
-                format("Sending a request to get the ingredients contained in the pizza's identifier: %s",
-                        pizzaId)
+        accessLogger.logSampled(
+                "Sending a request to get the ingredients contained in the pizza's identifier: {}",
+                pizzaId
         );
         return ofNullable(pizzaId)
                 .map(id ->
@@ -3,10 +3,13 @@ package com.order.service;
 import com.order.dao.OrderDao;
 import com.order.dto.OrderDto;
 import com.order.dto.OrderLineDto;
+import com.order.event.OrderEvent;
+import com.order.event.OrderEventType;
 import com.order.model.Order;
 import com.order.util.converter.OrderConverter;
 import org.jooq.exception.DataAccessException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
@@ -25,14 +28,18 @@ public class OrderService {
 
     private final OrderLineService orderLineService;
 
+    private final ApplicationEventPublisher eventPublisher;
+
 
     @Autowired
     public OrderService(@Lazy final OrderDao dao,
                         @Lazy final OrderConverter converter,
-                        @Lazy final OrderLineService orderLineService) {
+                        @Lazy final OrderLineService orderLineService,
+                        @Lazy final ApplicationEventPublisher eventPublisher) {
         this.dao = dao;
         this.converter = converter;
         this.orderLineService = orderLineService;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -76,7 +83,8 @@ public class OrderService {
 
 
     /**
-     * Persist the information included in the given {@link OrderDto}
+     *    Persist the information included in the given {@link OrderDto}, publishing an {@link OrderEvent} that will be
+     * sent to the subscribers of {@link com.order.event.OrderEventBus} once the current transaction has been committed.
      *
      * @param orderDto
      *    {@link OrderDto} to save
@@ -87,13 +95,21 @@ public class OrderService {
         return ofNullable(orderDto)
                 .flatMap(converter::fromDtoToOptionalModel)
                 .flatMap(order -> {
+                    final OrderEventType eventType = null == order.getId()
+                            ? OrderEventType.CREATED
+                            : OrderEventType.UPDATED;
                     dao.save(order);
                     List<OrderLineDto> orderLineDtos = orderLineService.saveAll(
                             orderDto.getOrderLines(),
                             order.getId()
                     );
                     Optional<OrderDto> orderDtoPersisted = converter.fromModelToOptionalDto(order);
-                    orderDtoPersisted.ifPresent(dto -> dto.setOrderLines(orderLineDtos));
+                    orderDtoPersisted.ifPresent(dto -> {
+                        dto.setOrderLines(orderLineDtos);
+                        eventPublisher.publishEvent(
+                                new OrderEvent(eventType, dto)
+                        );
+                    });
                     return orderDtoPersisted;
                 });
     }
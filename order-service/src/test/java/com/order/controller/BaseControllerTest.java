@@ -7,6 +7,7 @@ import com.order.configuration.security.SecurityManager;
 import com.order.grpc.client.GrpcClientRunner;
 import com.spring5microservices.common.dto.ErrorResponseDto;
 import com.spring5microservices.common.exception.JsonException;
+import com.spring5microservices.common.log.AccessLogger;
 import com.spring5microservices.common.util.JsonUtil;
 import lombok.SneakyThrows;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -35,6 +36,10 @@ public abstract class BaseControllerTest {
     @MockBean
     private GrpcClientRunner mockGrpcClientRunner;
 
+    // Used by the controllers, but its configuration is not loaded by @WebMvcTest
+    @MockBean
+    private AccessLogger mockAccessLogger;
+
 
     /**
      * Transform the given JSON-formatted into an instance of a given {@link Class}.
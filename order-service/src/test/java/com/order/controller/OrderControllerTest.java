@@ -6,6 +6,7 @@ import com.order.configuration.security.WebSecurityConfiguration;
 import com.order.dto.OrderDto;
 import com.order.dto.OrderLineDto;
 import com.order.dto.PizzaDto;
+import com.order.event.OrderEventBus;
 import com.order.service.OrderService;
 import com.spring5microservices.common.dto.ErrorResponseDto;
 import lombok.SneakyThrows;
@@ -22,6 +23,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Date;
 import java.util.List;
@@ -43,7 +45,9 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -56,6 +60,9 @@ public class OrderControllerTest extends BaseControllerTest {
     @MockBean
     private OrderService mockOrderService;
 
+    @MockBean
+    private OrderEventBus mockOrderEventBus;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -254,6 +261,70 @@ public class OrderControllerTest extends BaseControllerTest {
     }
 
 
+    @Test
+    @SneakyThrows
+    @DisplayName("streamEvents: when no logged user is given then unauthorized Http code is returned")
+    public void streamEvents_whenNoLoggedUserIsGiven_thenUnauthorizedHttpCodeIsReturned() {
+        mockMvc.perform(
+                get(RestRoutes.ORDER.ROOT + RestRoutes.ORDER.EVENTS)
+                        .accept(TEXT_EVENT_STREAM)
+                )
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(mockOrderEventBus);
+    }
+
+
+    @Test
+    @SneakyThrows
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    @DisplayName("streamEvents: when given orderId does not verify the validations then bad request Http code is returned")
+    public void streamEvents_whenGivenOrderIdDoesNotVerifyValidations_thenBadRequestHttpCodeIsReturned() {
+        mockMvc.perform(
+                get(RestRoutes.ORDER.ROOT + RestRoutes.ORDER.EVENTS)
+                        .param("orderId", "0")
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(mockOrderEventBus);
+    }
+
+
+    @Test
+    @SneakyThrows
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    @DisplayName("streamEvents: when there are too many subscribers then service unavailable Http code is returned")
+    public void streamEvents_whenThereAreTooManySubscribers_thenServiceUnavailableHttpCodeIsReturned() {
+        when(mockOrderEventBus.subscribe(1)).thenReturn(empty());
+
+        mockMvc.perform(
+                get(RestRoutes.ORDER.ROOT + RestRoutes.ORDER.EVENTS)
+                        .param("orderId", "1")
+                )
+                .andExpect(status().isServiceUnavailable());
+
+        verify(mockOrderEventBus, times(1)).subscribe(1);
+    }
+
+
+    @Test
+    @SneakyThrows
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    @DisplayName("streamEvents: when the subscription is added then the stream of events is started")
+    public void streamEvents_whenSubscriptionIsAdded_thenStreamOfEventsIsStarted() {
+        when(mockOrderEventBus.subscribe(null)).thenReturn(of(new SseEmitter()));
+
+        mockMvc.perform(
+                get(RestRoutes.ORDER.ROOT + RestRoutes.ORDER.EVENTS)
+                        .accept(TEXT_EVENT_STREAM)
+                )
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(mockOrderEventBus, times(1)).subscribe(null);
+    }
+
+
     @Test
     @SneakyThrows
     @DisplayName("update: when no logged user is given then unauthorized Http code is returned")
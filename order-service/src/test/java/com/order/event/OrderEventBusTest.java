@@ -0,0 +1,222 @@
+package com.order.event;
+
+import com.order.dto.OrderDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.order.TestDataFactory.buildOrderDto;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderEventBusTest {
+
+    // Sends the events in the thread that publishes them
+    private static final Executor SAME_THREAD_EXECUTOR = Runnable::run;
+
+
+    static Stream<Arguments> constructorFailedTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            subscriberBufferSize,   maxSubscribers,   timeoutInMilliseconds,   sendExecutor
+                Arguments.of( 0,                      1,                0,                       SAME_THREAD_EXECUTOR ),
+                Arguments.of( 1,                      0,                0,                       SAME_THREAD_EXECUTOR ),
+                Arguments.of( 1,                      1,                -1,                      SAME_THREAD_EXECUTOR ),
+                Arguments.of( 1,                      1,                0,                       null )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("constructorFailedTestCases")
+    @DisplayName("constructor: failed test cases")
+    public void constructor_failedTestCases(int subscriberBufferSize,
+                                            int maxSubscribers,
+                                            long timeoutInMilliseconds,
+                                            Executor sendExecutor) {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new OrderEventBus(subscriberBufferSize, maxSubscribers, timeoutInMilliseconds, sendExecutor)
+        );
+    }
+
+
+    @Test
+    @DisplayName("subscribe: when the maximum number of subscribers has been reached then empty is returned")
+    public void subscribe_whenMaximumNumberOfSubscribersHasBeenReached_thenEmptyIsReturned() {
+        OrderEventBus bus = new OrderEventBus(10, 2, 0, SAME_THREAD_EXECUTOR);
+
+        assertTrue(bus.subscribe(null).isPresent());
+        assertTrue(bus.subscribe(1).isPresent());
+        assertFalse(bus.subscribe(null).isPresent());
+        assertEquals(2, bus.getSubscribers());
+    }
+
+
+    @Test
+    @DisplayName("publish: the events are sent only to the interested subscribers")
+    public void publish_eventsAreSentOnlyToInterestedSubscribers() {
+        OrderEventBus bus = new OrderEventBus(10, 10, 0, SAME_THREAD_EXECUTOR);
+        RecordingSseEmitter allOrders = new RecordingSseEmitter();
+        RecordingSseEmitter order1 = new RecordingSseEmitter();
+        RecordingSseEmitter order2 = new RecordingSseEmitter();
+        bus.subscribe(allOrders, null);
+        bus.subscribe(order1, 1);
+        bus.subscribe(order2, 2);
+
+        bus.publish(buildEvent(OrderEventType.CREATED, 1));
+        bus.publish(buildEvent(OrderEventType.UPDATED, 1));
+        bus.publish(buildEvent(OrderEventType.CREATED, 3));
+
+        assertEquals(3, allOrders.getSentEvents().size());
+        assertEquals(2, order1.getSentEvents().size());
+        assertEquals(0, order2.getSentEvents().size());
+        assertTrue(order1.getSentEvents().get(1).contains("event:UPDATED"));
+    }
+
+
+    @Test
+    @DisplayName("publish: when a subscriber has closed the connection then it is removed")
+    public void publish_whenSubscriberHasClosedConnection_thenItIsRemoved() {
+        OrderEventBus bus = new OrderEventBus(10, 10, 0, SAME_THREAD_EXECUTOR);
+        RecordingSseEmitter closedEmitter = new RecordingSseEmitter();
+        closedEmitter.closed = true;
+        bus.subscribe(closedEmitter, null);
+
+        bus.publish(buildEvent(OrderEventType.CREATED, 1));
+
+        assertEquals(0, bus.getSubscribers());
+        assertEquals(0, bus.getEvictedSubscribers());
+    }
+
+
+    @Test
+    @DisplayName("publish: when a subscriber does not read the events fast enough then it is evicted without delaying the others")
+    public void publish_whenSubscriberDoesNotReadEventsFastEnough_thenItIsEvictedWithoutDelayingOthers() throws InterruptedException {
+        ExecutorService sendExecutor = Executors.newFixedThreadPool(2);
+        try {
+            OrderEventBus bus = new OrderEventBus(3, 10, 0, sendExecutor);
+            CountDownLatch slowConsumerLatch = new CountDownLatch(1);
+            RecordingSseEmitter slowEmitter = new RecordingSseEmitter(slowConsumerLatch);
+            RecordingSseEmitter fastEmitter = new RecordingSseEmitter();
+            bus.subscribe(slowEmitter, null);
+            bus.subscribe(fastEmitter, null);
+
+            for (int i = 1; i <= 10; i++) {
+                bus.publish(buildEvent(OrderEventType.CREATED, i));
+                // So the fast subscriber never has more than 3 pending events
+                fastEmitter.waitForEvents(i);
+            }
+            assertEquals(1, bus.getSubscribers());
+            assertEquals(1, bus.getEvictedSubscribers());
+            assertEquals(10, fastEmitter.getSentEvents().size());
+
+            slowConsumerLatch.countDown();
+            assertTrue(slowEmitter.waitForCompletion());
+            // The one that was being sent when it was evicted
+            assertEquals(1, slowEmitter.getSentEvents().size());
+        } finally {
+            sendExecutor.shutdownNow();
+        }
+    }
+
+
+    @Test
+    @DisplayName("sendHeartbeat: a comment is sent to every subscriber")
+    public void sendHeartbeat_commentIsSentToEverySubscriber() {
+        OrderEventBus bus = new OrderEventBus(10, 10, 0, SAME_THREAD_EXECUTOR);
+        RecordingSseEmitter emitter = new RecordingSseEmitter();
+        bus.subscribe(emitter, 1);
+
+        bus.sendHeartbeat();
+
+        assertEquals(List.of(":heartbeat\n\n"), emitter.getSentEvents());
+    }
+
+
+    private static OrderEvent buildEvent(final OrderEventType type,
+                                         final Integer orderId) {
+        OrderDto order = buildOrderDto(orderId, "Order" + orderId, new Date(), List.of());
+        return new OrderEvent(type, order);
+    }
+
+
+    /**
+     * {@link SseEmitter} that stores the sent events instead of writing them in a response.
+     */
+    private static class RecordingSseEmitter extends SseEmitter {
+
+        private final List<String> sentEvents = new ArrayList<>();
+        private final CountDownLatch sendLatch;
+        private final CountDownLatch completionLatch = new CountDownLatch(1);
+        private volatile boolean closed = false;
+
+        RecordingSseEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingSseEmitter(final CountDownLatch sendLatch) {
+            this.sendLatch = sendLatch;
+        }
+
+        @Override
+        public void send(final SseEventBuilder builder) throws IOException {
+            if (closed) {
+                throw new IOException("Connection closed");
+            }
+            StringBuilder event = new StringBuilder();
+            builder.build()
+                    .forEach(d -> event.append(d.getData()));
+            synchronized (sentEvents) {
+                sentEvents.add(event.toString());
+                sentEvents.notifyAll();
+            }
+            try {
+                sendLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completionLatch.countDown();
+        }
+
+        List<String> getSentEvents() {
+            synchronized (sentEvents) {
+                return new ArrayList<>(sentEvents);
+            }
+        }
+
+        void waitForEvents(final int numberOfEvents) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            synchronized (sentEvents) {
+                while (sentEvents.size() < numberOfEvents && System.currentTimeMillis() < deadline) {
+                    sentEvents.wait(100);
+                }
+            }
+        }
+
+        boolean waitForCompletion() throws InterruptedException {
+            return completionLatch.await(5, TimeUnit.SECONDS);
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.order.grpc.service;
 
 import com.order.grpc.client.GrpcClient;
+import com.spring5microservices.common.log.AccessLogger;
 import com.spring5microservices.grpc.IngredientResponse;
 import com.spring5microservices.grpc.IngredientServiceGrpc;
 import com.spring5microservices.grpc.PizzaRequest;
@@ -31,12 +32,15 @@ public class IngredientServiceGrpcImplTest {
     @Mock
     private IngredientServiceGrpc.IngredientServiceBlockingStub mockIngredientServiceGrpc;
 
+    @Mock
+    private AccessLogger mockAccessLogger;
+
     private IngredientServiceGrpcImpl service;
 
 
     @BeforeEach
     public void init() {
-        service = new IngredientServiceGrpcImpl(mockGrpcClient);
+        service = new IngredientServiceGrpcImpl(mockGrpcClient, mockAccessLogger);
         when(mockGrpcClient.getIngredientServiceGrpc()).thenReturn(mockIngredientServiceGrpc);
     }
 
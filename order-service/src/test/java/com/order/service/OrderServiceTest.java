@@ -3,6 +3,8 @@ package com.order.service;
 import com.order.dao.OrderDao;
 import com.order.dto.OrderDto;
 import com.order.dto.OrderLineDto;
+import com.order.event.OrderEvent;
+import com.order.event.OrderEventType;
 import com.order.model.Order;
 import com.order.util.converter.OrderConverter;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +14,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.sql.Timestamp;
@@ -29,6 +32,7 @@ import static java.util.Optional.of;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -43,12 +47,15 @@ public class OrderServiceTest {
     @Mock
     private OrderLineService mockOrderLineService;
 
+    @Mock
+    private ApplicationEventPublisher mockEventPublisher;
+
     private OrderService service;
 
 
     @BeforeEach
     public void init() {
-        service = new OrderService(mockOrderDao, mockOrderConverter, mockOrderLineService);
+        service = new OrderService(mockOrderDao, mockOrderConverter, mockOrderLineService, mockEventPublisher);
     }
 
 
@@ -144,6 +151,12 @@ public class OrderServiceTest {
             verify(mockOrderLineService, times(1)).saveAll(orderDto.getOrderLines(),
                     converterToModelResult.get().getId());
         }
+        if (expectedResult.isPresent()) {
+            verify(mockEventPublisher, times(1)).publishEvent(new OrderEvent(OrderEventType.CREATED, expectedResult.get()));
+        }
+        else {
+            verifyNoInteractions(mockEventPublisher);
+        }
     }
 
 }
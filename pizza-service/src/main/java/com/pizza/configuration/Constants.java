@@ -8,6 +8,14 @@ public class Constants {
     // Global cache configuration
     public static final String CACHE_INSTANCE_NAME = "PizzaServiceCacheInstance";
 
+    // Regions of the Hibernate second level cache
+    public static final class CACHE_REGION {
+        public static final String PIZZA = "pizza";
+        public static final String INGREDIENT = "ingredient";
+        public static final String PIZZA_INGREDIENTS = "pizza.ingredients";
+        public static final String QUERIES = "pizza.queries";
+    }
+
     // Database schema on which the entities have been included
     public static final String DATABASE_SCHEMA = "eat";
 
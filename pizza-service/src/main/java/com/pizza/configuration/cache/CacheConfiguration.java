@@ -9,14 +9,28 @@ import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.spring.cache.HazelcastCacheManager;
 import com.pizza.configuration.Constants;
+import com.pizza.configuration.cache.hibernate.HazelcastRegionFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.Getter;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
 import static com.pizza.configuration.Constants.CACHE_INSTANCE_NAME;
 
 @Configuration
@@ -34,21 +48,128 @@ public class CacheConfiguration {
     @Getter
     private String userBlacklistCacheName;
 
+    // Keeps a copy of the blacklisted usernames in every instance, to check the not included ones without remote calls
+    @Value("${cache.userBlacklist.localCopy.enabled:true}")
+    @Getter
+    private boolean userBlacklistLocalCopyEnabled;
+
+    // Reloads the local copy to recover the lost events, its fast path is not used if it is older than twice this value
+    @Value("${cache.userBlacklist.localCopy.resyncSeconds:60}")
+    @Getter
+    private int userBlacklistLocalCopyResyncSeconds;
+
+    @Value("${cache.secondLevel.enabled:true}")
+    private boolean secondLevelCacheEnabled;
+
+    // Required by the hit ratio metrics, but it adds some overhead to every session
+    @Value("${cache.secondLevel.statistics.enabled:false}")
+    private boolean secondLevelCacheStatisticsEnabled;
+
+    @Value("${cache.secondLevel.pizza.entryCapacity:1000}")
+    private int pizzaRegionEntryCapacity;
+
+    @Value("${cache.secondLevel.pizza.expireInSeconds:3600}")
+    private int pizzaRegionExpireInSeconds;
+
+    @Value("${cache.secondLevel.ingredient.entryCapacity:10000}")
+    private int ingredientRegionEntryCapacity;
+
+    @Value("${cache.secondLevel.ingredient.expireInSeconds:3600}")
+    private int ingredientRegionExpireInSeconds;
+
+    @Value("${cache.secondLevel.pizzaIngredients.entryCapacity:1000}")
+    private int pizzaIngredientsRegionEntryCapacity;
+
+    @Value("${cache.secondLevel.pizzaIngredients.expireInSeconds:3600}")
+    private int pizzaIngredientsRegionExpireInSeconds;
+
+    // The results of the queries are cached in memory of every instance
+    @Value("${cache.secondLevel.queries.entryCapacity:1000}")
+    private int queriesRegionEntryCapacity;
+
+    @Value("${cache.secondLevel.queries.expireInSeconds:300}")
+    private int queriesRegionExpireInSeconds;
+
 
     /**
-     * Centralized cache configuration to manage the information we want to cache
+     *    Hazelcast member shared by the caches and the other features that need to communicate with the rest of
+     * instances of this service.
      *
-     * @return {@link CacheManager}
+     * @return {@link HazelcastInstance}
      */
-    @Bean
-    public CacheManager cacheManager() {
+    @Bean(destroyMethod = "")
+    public HazelcastInstance hazelcastInstance() {
         HazelcastInstance existingInstance = Hazelcast.getHazelcastInstanceByName(CACHE_INSTANCE_NAME);
-        HazelcastInstance hazelcastInstance = null != existingInstance
+        return null != existingInstance
                 ? existingInstance
                 : Hazelcast.newHazelcastInstance(hazelCastConfig());
+    }
+
+    /**
+     * Centralized cache configuration to manage the information we want to cache
+     *
+     * @return {@link CacheManager}
+     */
+    @Bean
+    public CacheManager cacheManager(final HazelcastInstance hazelcastInstance) {
         return new HazelcastCacheManager(hazelcastInstance);
     }
 
+    /**
+     *    Stores the Hibernate second level cache of the entities, their collections and the cacheable queries in the
+     * {@link HazelcastInstance}, enabling the statistics used to know the hit ratio of every region if they are
+     * configured.
+     *
+     * @return {@link HibernatePropertiesCustomizer}
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheHibernatePropertiesCustomizer(final HazelcastInstance hazelcastInstance) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, secondLevelCacheEnabled);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, secondLevelCacheEnabled);
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, secondLevelCacheEnabled && secondLevelCacheStatisticsEnabled);
+            if (secondLevelCacheEnabled) {
+                hibernateProperties.put(
+                        AvailableSettings.CACHE_REGION_FACTORY,
+                        new HazelcastRegionFactory(
+                                hazelcastInstance,
+                                queriesRegionEntryCapacity,
+                                queriesRegionExpireInSeconds * 1000L
+                        )
+                );
+            }
+        };
+    }
+
+    /**
+     *    Publishes the hit ratio of every region of the Hibernate second level cache, as a value between 0 and 1, in
+     * the metrics {@code hibernate.second.level.cache.hit.ratio} and {@code hibernate.query.cache.hit.ratio}. They are
+     * only published if the statistics are enabled.
+     *
+     * @return {@link MeterBinder}
+     */
+    @Bean
+    public MeterBinder secondLevelCacheHitRatioMetrics(final ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return meterRegistry -> {
+            if (!secondLevelCacheEnabled || !secondLevelCacheStatisticsEnabled) {
+                return;
+            }
+            List.of(Constants.CACHE_REGION.PIZZA, Constants.CACHE_REGION.INGREDIENT, Constants.CACHE_REGION.PIZZA_INGREDIENTS)
+                    .forEach(region ->
+                            Gauge.builder("hibernate.second.level.cache.hit.ratio", entityManagerFactory,
+                                            getHitRatio(statistics -> statistics.getDomainDataRegionStatistics(region)))
+                                    .description("Ratio of the requests to the region of the second level cache found in it")
+                                    .tag("region", region)
+                                    .register(meterRegistry)
+                    );
+            Gauge.builder("hibernate.query.cache.hit.ratio", entityManagerFactory,
+                            getHitRatio(statistics -> statistics.getQueryRegionStatistics(Constants.CACHE_REGION.QUERIES)))
+                    .description("Ratio of the executions of the cacheable queries whose results were found in the cache")
+                    .tag("region", Constants.CACHE_REGION.QUERIES)
+                    .register(meterRegistry);
+        };
+    }
+
     /**
      * Include all configuration options and different caches used in the application
      *
@@ -67,8 +188,49 @@ public class CacheConfiguration {
                                                 .setEvictionPolicy(EvictionPolicy.LRU)
                                 )
                                 .setTimeToLiveSeconds(userBlacklistCacheExpireInSeconds)
-                );
+                )
+                .addMapConfig(secondLevelCacheRegionConfig(Constants.CACHE_REGION.PIZZA, pizzaRegionEntryCapacity, pizzaRegionExpireInSeconds))
+                .addMapConfig(secondLevelCacheRegionConfig(Constants.CACHE_REGION.INGREDIENT, ingredientRegionEntryCapacity, ingredientRegionExpireInSeconds))
+                .addMapConfig(secondLevelCacheRegionConfig(Constants.CACHE_REGION.PIZZA_INGREDIENTS, pizzaIngredientsRegionEntryCapacity, pizzaIngredientsRegionExpireInSeconds));
         return config;
     }
 
+    private static MapConfig secondLevelCacheRegionConfig(final String region,
+                                                          final int entryCapacity,
+                                                          final int expireInSeconds) {
+        return new MapConfig()
+                .setName(region)
+                .setEvictionConfig(
+                        new EvictionConfig()
+                                .setSize(entryCapacity)
+                                .setMaxSizePolicy(MaxSizePolicy.PER_NODE)
+                                .setEvictionPolicy(EvictionPolicy.LRU)
+                )
+                .setTimeToLiveSeconds(expireInSeconds);
+    }
+
+    private static ToDoubleFunction<ObjectProvider<EntityManagerFactory>> getHitRatio(final Function<Statistics, CacheRegionStatistics> regionStatistics) {
+        return entityManagerFactory -> {
+            EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+            CacheRegionStatistics statistics;
+            try {
+                statistics = null == factory
+                        ? null
+                        : regionStatistics.apply(
+                                factory.unwrap(SessionFactory.class).getStatistics()
+                          );
+            } catch (IllegalArgumentException e) {
+                // The region does not exist because the second level cache is disabled
+                statistics = null;
+            }
+            if (null == statistics) {
+                return 0;
+            }
+            long requests = statistics.getHitCount() + statistics.getMissCount();
+            return 0 == requests
+                    ? 0
+                    : (double) statistics.getHitCount() / requests;
+        };
+    }
+
 }
@@ -0,0 +1,131 @@
+package com.pizza.configuration.cache.hibernate;
+
+import com.hazelcast.core.HazelcastInstance;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.CacheException;
+import org.hibernate.cache.cfg.spi.DomainDataCachingConfig;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static java.util.function.Function.identity;
+
+/**
+ *    Hibernate second level cache whose entity, collection and timestamps regions are stored in the
+ * {@link com.hazelcast.map.IMap}s of the given {@link HazelcastInstance}, with the same name as the region, so they are
+ * shared by all the instances of the cluster. The life cycle of the {@link HazelcastInstance} is not managed by this
+ * factory, it is shared with the rest of caches of the application.
+ * <p>
+ *    The results of the queries are stored in memory of every instance (see {@link LocalStorageAccess}), and the
+ * timestamps region is used to know if they are still valid, so its map must not be configured with expiration nor
+ * eviction.
+ * <p>
+ *    Only {@link AccessType#READ_ONLY} and {@link AccessType#NONSTRICT_READ_WRITE} are allowed: the soft locks of
+ * {@link AccessType#READ_WRITE} are managed with a lock of every JVM, but the entries are shared by the whole cluster,
+ * so concurrent updates in different instances could store again stale data.
+ */
+public class HazelcastRegionFactory extends RegionFactoryTemplate {
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final int queryResultsMaxEntries;
+
+    private final long queryResultsTimeToLiveInMilliseconds;
+
+
+    public HazelcastRegionFactory(final HazelcastInstance hazelcastInstance,
+                                  final int queryResultsMaxEntries,
+                                  final long queryResultsTimeToLiveInMilliseconds) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.queryResultsMaxEntries = queryResultsMaxEntries;
+        this.queryResultsTimeToLiveInMilliseconds = queryResultsTimeToLiveInMilliseconds;
+    }
+
+
+    @Override
+    protected void prepareForUse(final SessionFactoryOptions settings,
+                                 final Map configValues) {}
+
+
+    @Override
+    protected void releaseFromUse() {}
+
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.NONSTRICT_READ_WRITE;
+    }
+
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(final DomainDataRegionConfig regionConfig,
+                                                                    final DomainDataRegionBuildingContext buildingContext) {
+        verifyAccessTypes(regionConfig);
+        return createStorageAccess(
+                regionConfig.getRegionName()
+        );
+    }
+
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(final String regionName,
+                                                                  final SessionFactoryImplementor sessionFactory) {
+        return new LocalStorageAccess(
+                queryResultsMaxEntries,
+                queryResultsTimeToLiveInMilliseconds
+        );
+    }
+
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(final String regionName,
+                                                                final SessionFactoryImplementor sessionFactory) {
+        return createStorageAccess(regionName);
+    }
+
+
+    private static void verifyAccessTypes(final DomainDataRegionConfig regionConfig) {
+        Stream.of(
+                        getAccessTypes(regionConfig.getEntityCaching()),
+                        getAccessTypes(regionConfig.getNaturalIdCaching()),
+                        getAccessTypes(regionConfig.getCollectionCaching())
+                )
+                .flatMap(identity())
+                .filter(accessType -> AccessType.READ_ONLY != accessType && AccessType.NONSTRICT_READ_WRITE != accessType)
+                .findFirst()
+                .ifPresent(accessType -> {
+                    throw new CacheException(
+                            format("The access type: %s of the region: %s is not supported, use %s instead",
+                                    accessType,
+                                    regionConfig.getRegionName(),
+                                    AccessType.NONSTRICT_READ_WRITE
+                            )
+                    );
+                });
+    }
+
+
+    private static Stream<AccessType> getAccessTypes(final List<? extends DomainDataCachingConfig> cachingConfigs) {
+        return cachingConfigs.stream()
+                .map(DomainDataCachingConfig::getAccessType);
+    }
+
+
+    private HazelcastStorageAccess createStorageAccess(final String regionName) {
+        return new HazelcastStorageAccess(
+                hazelcastInstance.getMap(
+                        qualify(regionName)
+                )
+        );
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.pizza.configuration.cache.hibernate;
+
+import com.hazelcast.map.IMap;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ *    Stores the content of a region of the Hibernate second level cache in a Hazelcast {@link IMap}, so it is shared
+ * by all the instances of the cluster and evicted using the configuration of the map with the same name.
+ */
+public class HazelcastStorageAccess implements DomainDataStorageAccess {
+
+    private final IMap<Object, Object> map;
+
+
+    public HazelcastStorageAccess(final IMap<Object, Object> map) {
+        this.map = map;
+    }
+
+
+    @Override
+    public Object getFromCache(final Object key,
+                               final SharedSessionContractImplementor session) {
+        return map.get(key);
+    }
+
+
+    @Override
+    public void putIntoCache(final Object key,
+                             final Object value,
+                             final SharedSessionContractImplementor session) {
+        map.set(key, value);
+    }
+
+
+    @Override
+    public void removeFromCache(final Object key,
+                                final SharedSessionContractImplementor session) {
+        map.delete(key);
+    }
+
+
+    @Override
+    public void clearCache(final SharedSessionContractImplementor session) {
+        map.clear();
+    }
+
+
+    @Override
+    public boolean contains(final Object key) {
+        return map.containsKey(key);
+    }
+
+
+    @Override
+    public void evictData() {
+        map.clear();
+    }
+
+
+    @Override
+    public void evictData(final Object key) {
+        map.delete(key);
+    }
+
+
+    /**
+     * The {@link IMap} is not destroyed, because its content is shared with the other instances of the cluster.
+     */
+    @Override
+    public void release() {}
+
+}
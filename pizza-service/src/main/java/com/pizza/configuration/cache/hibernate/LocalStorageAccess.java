@@ -0,0 +1,125 @@
+package com.pizza.configuration.cache.hibernate;
+
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *    Stores the content of a region of the Hibernate second level cache in memory of the current instance, removing
+ * the least recently used entries when {@code maxEntries} is exceeded and the ones stored more than
+ * {@code timeToLiveInMilliseconds} ago.
+ * <p>
+ *    Used for the results of the queries, because their keys contain the types of the parameters, which cannot be
+ * serialized to be shared with the other instances. Their validity is checked with the timestamps region, that is
+ * shared, so the results cached by every instance are invalidated by the changes made in any of them.
+ */
+public class LocalStorageAccess implements StorageAccess {
+
+    private final int maxEntries;
+
+    private final long timeToLiveInMilliseconds;
+
+    private final Map<Object, Entry> entries;
+
+
+    public LocalStorageAccess(final int maxEntries,
+                              final long timeToLiveInMilliseconds) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveInMilliseconds = timeToLiveInMilliseconds;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Entry> eldest) {
+                return size() > LocalStorageAccess.this.maxEntries;
+            }
+        };
+    }
+
+
+    @Override
+    public synchronized Object getFromCache(final Object key,
+                                            final SharedSessionContractImplementor session) {
+        Entry entry = entries.get(key);
+        if (null == entry) {
+            return null;
+        }
+        if (entry.expirationTime < System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+
+    @Override
+    public synchronized void putIntoCache(final Object key,
+                                          final Object value,
+                                          final SharedSessionContractImplementor session) {
+        entries.put(
+                key,
+                new Entry(
+                        value,
+                        System.currentTimeMillis() + timeToLiveInMilliseconds
+                )
+        );
+    }
+
+
+    @Override
+    public synchronized void removeFromCache(final Object key,
+                                             final SharedSessionContractImplementor session) {
+        entries.remove(key);
+    }
+
+
+    @Override
+    public synchronized void clearCache(final SharedSessionContractImplementor session) {
+        entries.clear();
+    }
+
+
+    @Override
+    public synchronized boolean contains(final Object key) {
+        return null != getFromCache(key, null);
+    }
+
+
+    @Override
+    public synchronized void evictData() {
+        entries.clear();
+    }
+
+
+    @Override
+    public synchronized void evictData(final Object key) {
+        entries.remove(key);
+    }
+
+
+    @Override
+    public synchronized void release() {
+        entries.clear();
+    }
+
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+
+    private static final class Entry {
+
+        private final Object value;
+
+        private final long expirationTime;
+
+        private Entry(final Object value,
+                      final long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.pizza.configuration.catalogue;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the in-memory snapshot of the pizzas used to serve the reads without querying the database.
+ */
+@Configuration
+@Getter
+public class CatalogueConfiguration {
+
+    @Value("${catalogue.enabled:true}")
+    private boolean enabled;
+
+    // Hazelcast topic used to notify the other instances that the pizzas have changed
+    @Value("${catalogue.topicName:pizzaCatalogue}")
+    private String topicName;
+
+}
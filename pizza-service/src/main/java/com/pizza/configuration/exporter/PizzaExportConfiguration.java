@@ -0,0 +1,18 @@
+package com.pizza.configuration.exporter;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the streaming export of pizzas.
+ */
+@Configuration
+@Getter
+public class PizzaExportConfiguration {
+
+    // Number of pizzas got from the database in every query, each one in its own transaction
+    @Value("${pizza.export.chunkSize:100}")
+    private int chunkSize;
+
+}
@@ -0,0 +1,18 @@
+package com.pizza.configuration.importer;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the bulk import of pizzas.
+ */
+@Configuration
+@Getter
+public class PizzaImportConfiguration {
+
+    // Number of pizzas saved in every transaction, and maximum number of them kept in memory while they are imported
+    @Value("${pizza.import.batchSize:100}")
+    private int batchSize;
+
+}
@@ -2,12 +2,65 @@ package com.pizza.configuration.persistence;
 
 import com.pizza.configuration.Constants;
 import com.pizza.repository.base.ExtendedQueryDslJpaRepositoryImpl;
+import lombok.Getter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Custom {@link Configuration} class to add specific configuration options related with the persistence.
  */
 @Configuration
 @EnableJpaRepositories(basePackages = Constants.PATH.REPOSITORY, repositoryBaseClass = ExtendedQueryDslJpaRepositoryImpl.class)
-public class PersistenceConfiguration { }
+@Getter
+public class PersistenceConfiguration {
+
+    // By default, as many as connections in the pool, because more threads would only wait for one of them
+    @Value("${persistence.scheduler.threads:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int schedulerThreads;
+
+    @Value("${persistence.scheduler.queueSize:10000}")
+    private int schedulerQueueSize;
+
+    @Value("${persistence.jdbc.batchSize:50}")
+    private int jdbcBatchSize;
+
+
+    /**
+     *    {@link Scheduler} used to run the blocking database queries out of the event loop threads, which must only
+     * manage the non-blocking operations of the received requests.
+     *
+     * @return {@link Scheduler}
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler persistenceScheduler() {
+        return Schedulers.newBoundedElastic(
+                schedulerThreads,
+                schedulerQueueSize,
+                "persistence"
+        );
+    }
+
+
+
+    /**
+     *    Groups the inserts, updates and deletes of the same table, including the rows of the collections like
+     * {@code pizza_ingredient}, in JDBC batches of up to {@code persistence.jdbc.batchSize} statements.
+     *
+     * @return {@link HibernatePropertiesCustomizer}
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_BATCH_SIZE, jdbcBatchSize);
+            hibernateProperties.put(AvailableSettings.ORDER_INSERTS, true);
+            hibernateProperties.put(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
+
+}
@@ -10,6 +10,11 @@ public final class RestRoutes {
     public static final class PIZZA {
         public static final String ROOT = RestRoutes.ROOT;
         public static final String PAGE_WITH_INGREDIENTS = "/pageWithIngredients";
+        public static final String KEYSET_PAGE_WITH_INGREDIENTS = "/keysetPageWithIngredients";
+        public static final String BY_INGREDIENTS = "/byIngredients";
+        public static final String MORE_EXPENSIVE_BY_INGREDIENT = "/moreExpensiveByIngredient";
+        public static final String IMPORT = "/import";
+        public static final String EXPORT = "/export";
     }
 
     public static final class USER {
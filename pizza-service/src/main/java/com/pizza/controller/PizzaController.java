@@ -2,26 +2,34 @@ package com.pizza.controller;
 
 import com.pizza.annotation.RoleAdmin;
 import com.pizza.annotation.RoleAdminOrUser;
+import com.pizza.configuration.exporter.PizzaExportConfiguration;
 import com.pizza.configuration.rest.RestRoutes;
+import com.pizza.dto.IngredientPizzaSummaryDto;
+import com.pizza.dto.KeysetPageDto;
 import com.pizza.dto.PizzaDto;
+import com.pizza.dto.PizzaImportResultDto;
 import com.pizza.model.Ingredient;
 import com.pizza.model.Pizza;
-import com.pizza.service.PizzaService;
+import com.pizza.service.ReactivePizzaService;
+import com.pizza.service.catalogue.PizzaCatalogueService;
+import com.pizza.service.importer.PizzaImportService;
+import com.pizza.util.KeysetPosition;
 import com.pizza.util.converter.PizzaConverter;
 import com.spring5microservices.common.dto.ErrorResponseDto;
+import com.spring5microservices.common.log.AccessLogger;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -31,40 +39,61 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
-import static java.lang.String.format;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 /**
  * Rest services to work with {@link Pizza}
  */
-@Log4j2
 @RestController
 @RequestMapping(RestRoutes.PIZZA.ROOT)
 @Validated
 @Tag(name = "PizzaController", description = "Endpoints to manage operations related with pizzas")
 public class PizzaController {
 
-    private final PizzaService service;
+    private final AccessLogger accessLogger;
+
+    private final ReactivePizzaService service;
+
+    private final PizzaCatalogueService catalogueService;
+
+    private final PizzaImportService importService;
+
+    private final PizzaExportConfiguration exportConfiguration;
 
     private final PizzaConverter converter;
 
 
     @Autowired
-    public PizzaController(@Lazy final PizzaService service,
-                           @Lazy final PizzaConverter converter) {
+    public PizzaController(@Lazy final ReactivePizzaService service,
+                           @Lazy final PizzaCatalogueService catalogueService,
+                           @Lazy final PizzaImportService importService,
+                           @Lazy final PizzaExportConfiguration exportConfiguration,
+                           @Lazy final PizzaConverter converter,
+                           @Lazy final AccessLogger accessLogger) {
         this.service = service;
+        this.catalogueService = catalogueService;
+        this.importService = importService;
+        this.exportConfiguration = exportConfiguration;
         this.converter = converter;
+        this.accessLogger = accessLogger;
     }
 
 
@@ -122,33 +151,95 @@ public class PizzaController {
             }
     )
     @PostMapping
-    @Transactional(rollbackFor = Exception.class)
     @RoleAdmin
     public Mono<ResponseEntity<PizzaDto>> create(@RequestBody @Valid final PizzaDto pizzaDto) {
-        log.info(
-                format("Creating the pizza: %s",
-                        pizzaDto)
+        accessLogger.logWithDetail(
+                "Creating the pizza with name: {}",
+                pizzaDto.getName(),
+                pizzaDto
         );
-        return Mono.just(
-                service.save(
-                            converter.fromDtoToModel(pizzaDto)
-                        )
-                        .map(converter::fromModelToDto)
-                        .map(p ->
-                                new ResponseEntity<>(
-                                        p,
-                                        CREATED
-                                )
-                        )
-                        .orElseGet(() ->
-                                new ResponseEntity<>(UNPROCESSABLE_ENTITY)
+        return service.save(
+                        converter.fromDtoToModel(pizzaDto)
+                )
+                .map(converter::fromModelToDto)
+                .map(p ->
+                        new ResponseEntity<>(
+                                p,
+                                CREATED
                         )
-        );
+                )
+                .defaultIfEmpty(
+                        new ResponseEntity<>(UNPROCESSABLE_ENTITY)
+                );
     }
 
 
     /**
-     * Returns the {@link Pizza} which name matches with the given one.
+     *    Used to create or update the given {@link PizzaDto}s, received as a JSON array or as newline delimited JSON.
+     * Every one is validated and saved while the rest are still being received, in transactions of
+     * {@code pizza.import.batchSize} pizzas, so the memory used does not depend on the number of them.
+     *
+     * @param pizzaDtos
+     *    {@link Flux} of {@link PizzaDto} to import
+     *
+     * @return {@link HttpStatus#OK} and the {@link PizzaImportResultDto} of every {@link PizzaDto}, as newline
+     *         delimited JSON in the same order
+     */
+    @Operation(
+            summary = "Import pizzas",
+            description = "Create or update the given pizzas, returning the result of every one (only allowed to user with role admin)"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "The result of the import of every given pizza",
+                            content = @Content(
+                                    mediaType = APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = PizzaImportResultDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "There was a problem in the given request, the body could not be read",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "The user has not authorization to execute this request or provided authorization has expired",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "There was an internal problem in the server",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    )
+            }
+    )
+    @PostMapping(
+            value = RestRoutes.PIZZA.IMPORT,
+            consumes = { APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE },
+            produces = APPLICATION_NDJSON_VALUE
+    )
+    @RoleAdmin
+    public Flux<PizzaImportResultDto> importPizzas(@RequestBody final Flux<PizzaDto> pizzaDtos) {
+        accessLogger.log("Importing pizzas");
+        return importService.importPizzas(pizzaDtos);
+    }
+
+
+    /**
+     *    Returns the {@link Pizza} which name matches with the given one, using the in-memory catalogue if it has been
+     * built.
      *
      * @param name
      *    Name to search in the current {@link Pizza#getName()}s
@@ -201,26 +292,32 @@ public class PizzaController {
             }
     )
     @GetMapping("/{name}")
-    @Transactional(readOnly = true)
     @RoleAdminOrUser
     public Mono<ResponseEntity<PizzaDto>> findByName(@PathVariable @Size(min=1, max=64) final String name) {
-        log.info(
-                format("Searching the pizza with name: %s",
-                        name)
+        accessLogger.logSampled(
+                "Searching the pizza with name: {}",
+                name
         );
-        return Mono.just(
-                service.findByName(name)
-                        .map(converter::fromModelToDto)
-                        .map(p ->
-                                new ResponseEntity<>(
-                                        p,
-                                        OK
-                                )
+        final Mono<PizzaDto> pizza = catalogueService.getSnapshot()
+                .map(catalogue ->
+                        Mono.justOrEmpty(
+                                catalogue.findByName(name)
+                        )
                 )
                 .orElseGet(() ->
-                        new ResponseEntity<>(NOT_FOUND)
+                        service.findByName(name)
+                                .map(converter::fromModelToDto)
+                );
+        return pizza
+                .map(p ->
+                        new ResponseEntity<>(
+                                p,
+                                OK
+                        )
                 )
-        );
+                .defaultIfEmpty(
+                        new ResponseEntity<>(NOT_FOUND)
+                );
     }
 
 
@@ -275,25 +372,313 @@ public class PizzaController {
             }
     )
     @GetMapping(RestRoutes.PIZZA.PAGE_WITH_INGREDIENTS)
-    @Transactional(readOnly = true)
     @RoleAdminOrUser
     public Mono<Page<PizzaDto>> findPageWithIngredients(@RequestParam(value = "page") @PositiveOrZero final int page,
                                                         @RequestParam(value = "size") @Positive final int size) {
-        log.info(
-                format("Returning the page of pizzas related with page: %d and size: %d",
-                        page, size)
+        accessLogger.logSampled(
+                "Returning the page of pizzas related with page: {} and size: {}",
+                page,
+                size
         );
-        return Mono.just(
-                service.findPageWithIngredients(
+        return service.findPageWithIngredients(
                         page,
                         size,
                         null
                 )
-                .map(converter::fromModelToDto)
+                .map(p ->
+                        p.map(converter::fromModelToDto)
+                );
+    }
+
+
+    /**
+     *    Returns the page of {@link Pizza}s with their {@link Ingredient}s after the one identified by {@code token},
+     * seeking on the sorting property instead of skipping the previous {@link Pizza}s.
+     *
+     * @param size
+     *    Number of elements in every page
+     * @param token
+     *    Continuation token returned with the previous page, {@code null} to get the first one
+     * @param sort
+     *    Property used to sort the {@link Pizza}s in the first page, the next ones use the sorting of {@code token}
+     * @param direction
+     *    {@link Sort.Direction} of the sorting in the first page
+     * @param includeTotal
+     *    If the number of existing {@link Pizza}s must be returned
+     *
+     * @return {@link KeysetPageDto} of {@link PizzaDto}
+     */
+    @Operation(
+            summary = "Get list of pizzas with their ingredients using a continuation token",
+            description = "Get list of pizzas with their ingredients using a continuation token (only allowed to user with role admin/user)"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "The list of existing pizzas, with the token to get the next ones",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = KeysetPageDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "There was a problem in the given request, the given parameters have not passed the required validations",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "The user has not authorization to execute this request or provided authorization has expired",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "There was an internal problem in the server",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping(RestRoutes.PIZZA.KEYSET_PAGE_WITH_INGREDIENTS)
+    @RoleAdminOrUser
+    public Mono<KeysetPageDto<PizzaDto>> findKeysetPageWithIngredients(@RequestParam(value = "size") @Positive @Max(1000) final int size,
+                                                                       @RequestParam(value = "token", required = false) final String token,
+                                                                       @RequestParam(value = "sort", defaultValue = KeysetPosition.ID_PROPERTY) final String sort,
+                                                                       @RequestParam(value = "direction", defaultValue = "DESC") final Sort.Direction direction,
+                                                                       @RequestParam(value = "includeTotal", defaultValue = "false") final boolean includeTotal) {
+        accessLogger.logSampled(
+                "Returning the page of pizzas related with token: {} and size: {}",
+                token,
+                size
+        );
+        final KeysetPosition position;
+        try {
+            position = null == token
+                    ? KeysetPosition.first(sort, direction)
+                    : KeysetPosition.decode(token);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(
+                    new ServerWebInputException(e.getMessage())
+            );
+        }
+        final Mono<Optional<Long>> totalElements = includeTotal
+                ? service.count().map(Optional::of)
+                : Mono.just(Optional.empty());
+
+        return service.findKeysetPageWithIngredients(
+                        position,
+                        size
+                )
+                .zipWith(totalElements)
+                .map(pageAndTotal -> {
+                    final Slice<Pizza> page = pageAndTotal.getT1();
+                    return new KeysetPageDto<>(
+                            converter.fromModelsToDtos(page.getContent()),
+                            page.hasNext()
+                                    ? position.after(page.getContent().get(page.getNumberOfElements() - 1)).encode()
+                                    : null,
+                            pageAndTotal.getT2()
+                                    .orElse(null)
+                    );
+                });
+    }
+
+
+    /**
+     * Returns the {@link Pizza}s whose {@link Ingredient}s verify all the given filters.
+     *
+     * @param allOf
+     *    Names of the {@link Ingredient}s that every returned {@link Pizza} must contain
+     * @param anyOf
+     *    Names of the {@link Ingredient}s of which every returned {@link Pizza} must contain at least one
+     * @param noneOf
+     *    Names of the {@link Ingredient}s that the returned {@link Pizza}s must not contain
+     *
+     * @return {@link List} of {@link PizzaDto} sorted by identifier
+     */
+    @Operation(
+            summary = "Get list of pizzas that contain all/any/none of the given ingredients",
+            description = "Get list of pizzas that contain all/any/none of the given ingredients (only allowed to user with role admin/user)"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "The list of pizzas that verify the given filters",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(type = "List", implementation = PizzaDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "There was a problem in the given request, the given parameters have not passed the required validations",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "The user has not authorization to execute this request or provided authorization has expired",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "There was an internal problem in the server",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping(RestRoutes.PIZZA.BY_INGREDIENTS)
+    @RoleAdminOrUser
+    public Mono<List<PizzaDto>> findByIngredients(@RequestParam(value = "allOf", required = false) @Size(max = 64) final Set<String> allOf,
+                                                  @RequestParam(value = "anyOf", required = false) @Size(max = 64) final Set<String> anyOf,
+                                                  @RequestParam(value = "noneOf", required = false) @Size(max = 64) final Set<String> noneOf) {
+        accessLogger.logSampled(
+                "Searching the pizzas with all of the ingredients: {}, any of: {} and none of: {}",
+                allOf,
+                anyOf,
+                noneOf
+        );
+        return catalogueService.findByIngredients(
+                allOf,
+                anyOf,
+                noneOf
+        );
+    }
+
+
+    /**
+     * Returns every one of the given {@link Ingredient#getName()} with its more expensive {@link Pizza}.
+     *
+     * @param ingredients
+     *    Names of the {@link Ingredient}s to search
+     *
+     * @return {@link List} of {@link IngredientPizzaSummaryDto}, without the {@link Ingredient}s not included in
+     *         any {@link Pizza}
+     */
+    @Operation(
+            summary = "Get the more expensive pizza of every given ingredient",
+            description = "Get the more expensive pizza of every given ingredient (only allowed to user with role admin/user)"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Every ingredient included in any pizza with its more expensive one",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(type = "List", implementation = IngredientPizzaSummaryDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "There was a problem in the given request, the given parameters have not passed the required validations",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "The user has not authorization to execute this request or provided authorization has expired",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "There was an internal problem in the server",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping(RestRoutes.PIZZA.MORE_EXPENSIVE_BY_INGREDIENT)
+    @RoleAdminOrUser
+    public Mono<List<IngredientPizzaSummaryDto>> getIngredientWithItsMoreExpensivePizza(@RequestParam(value = "ingredients") @Size(min = 1, max = 64) final Set<String> ingredients) {
+        accessLogger.logSampled(
+                "Searching the more expensive pizza of the ingredients: {}",
+                ingredients
+        );
+        return catalogueService.getIngredientWithItsMoreExpensivePizza(
+                ingredients
         );
     }
 
 
+    /**
+     *    Returns all the existing {@link Pizza}s with their {@link Ingredient}s sorted by identifier, as newline delimited
+     * JSON. They are read from the database while they are sent, without counting them nor keeping all of them in
+     * memory, so it is the way to get the whole catalogue instead of requesting every page of it.
+     *
+     * @return {@link HttpStatus#OK} and the {@link PizzaDto}s
+     */
+    @Operation(
+            summary = "Export all pizzas",
+            description = "Stream all the pizzas with their ingredients as newline delimited JSON (only allowed to user with roles admin or user)"
+    )
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "All the existing pizzas, one per line",
+                            content = @Content(
+                                    mediaType = APPLICATION_NDJSON_VALUE,
+                                    schema = @Schema(implementation = PizzaDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "401",
+                            description = "The user has not authorization to execute this request or provided authorization has expired",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "There was an internal problem in the server",
+                            content = @Content(
+                                    mediaType = APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = ErrorResponseDto.class)
+                            )
+                    )
+            }
+    )
+    @GetMapping(
+            value = RestRoutes.PIZZA.EXPORT,
+            produces = APPLICATION_NDJSON_VALUE
+    )
+    @RoleAdminOrUser
+    public Flux<PizzaDto> exportAllWithIngredients() {
+        accessLogger.logSampled("Exporting all the pizzas with their ingredients");
+        return service.streamAllWithIngredients(
+                        exportConfiguration.getChunkSize()
+                )
+                .map(converter::fromModelToDto);
+    }
+
+
     /**
      * Used to update an existing {@link PizzaDto}
      *
@@ -348,28 +733,26 @@ public class PizzaController {
             }
     )
     @PutMapping
-    @Transactional(rollbackFor = Exception.class)
     @RoleAdmin
     public Mono<ResponseEntity<PizzaDto>> update(@RequestBody @Valid final PizzaDto pizzaDto) {
-        log.info(
-                format("Updating the pizza: %s",
-                        pizzaDto)
+        accessLogger.logWithDetail(
+                "Updating the pizza with identifier: {}",
+                pizzaDto.getId(),
+                pizzaDto
         );
-        return Mono.just(
-                service.save(
-                            converter.fromDtoToModel(pizzaDto)
-                        )
-                        .map(converter::fromModelToDto)
-                        .map(p ->
-                                new ResponseEntity<>(
-                                        p,
-                                        OK
-                                )
-                        )
-                        .orElseGet(() ->
-                                new ResponseEntity<>(NOT_FOUND)
+        return service.save(
+                        converter.fromDtoToModel(pizzaDto)
+                )
+                .map(converter::fromModelToDto)
+                .map(p ->
+                        new ResponseEntity<>(
+                                p,
+                                OK
                         )
-        );
+                )
+                .defaultIfEmpty(
+                        new ResponseEntity<>(NOT_FOUND)
+                );
     }
 
 }
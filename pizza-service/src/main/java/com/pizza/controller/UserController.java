@@ -4,13 +4,13 @@ import com.pizza.annotation.RoleAdmin;
 import com.pizza.configuration.rest.RestRoutes;
 import com.pizza.service.cache.UserBlacklistCacheService;
 import com.spring5microservices.common.dto.ErrorResponseDto;
+import com.spring5microservices.common.log.AccessLogger;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
@@ -25,7 +25,6 @@ import reactor.core.publisher.Mono;
 
 import javax.validation.constraints.Size;
 
-import static java.lang.String.format;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
@@ -35,19 +34,22 @@ import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
 /**
  * Rest services to work with users
  */
-@Log4j2
 @RestController
 @RequestMapping(RestRoutes.USER.ROOT)
 @Validated
 @Tag(name = "UserController", description = "Endpoints to manage operations related blacklist of users")
 public class UserController {
 
+    private final AccessLogger accessLogger;
+
     private final UserBlacklistCacheService userBlackListCacheService;
 
 
     @Autowired
-    public UserController(@Lazy final UserBlacklistCacheService userBlackListCacheService) {
+    public UserController(@Lazy final UserBlacklistCacheService userBlackListCacheService,
+                          @Lazy final AccessLogger accessLogger) {
         this.userBlackListCacheService = userBlackListCacheService;
+        this.accessLogger = accessLogger;
     }
 
 
@@ -107,9 +109,9 @@ public class UserController {
     @PostMapping(RestRoutes.USER.BLACKLIST + "/{username}")
     @RoleAdmin
     public Mono<ResponseEntity<String>> addToBlacklist(@PathVariable @Size(min = 1) final String username) {
-        log.info(
-                format("Adding to the blacklist the username: %s",
-                        username)
+        accessLogger.log(
+                "Adding to the blacklist the username: {}",
+                username
         );
         return userBlackListCacheService.put(username)
                 ? Mono.just(
@@ -178,9 +180,9 @@ public class UserController {
     @DeleteMapping(RestRoutes.USER.BLACKLIST + "/{username}")
     @RoleAdmin
     public Mono<ResponseEntity<String>> removeFromBlacklist(@PathVariable @Size(min = 1) final String username) {
-        log.info(
-                format("Removing from the blacklist the username: %s",
-                        username)
+        accessLogger.log(
+                "Removing from the blacklist the username: {}",
+                username
         );
         return userBlackListCacheService.remove(username)
                 ? Mono.just(
@@ -0,0 +1,27 @@
+package com.pizza.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+
+@AllArgsConstructor
+@Data
+@NoArgsConstructor
+@Schema(description = "Page of elements with the token to get the next one")
+public class KeysetPageDto<T> {
+
+    @Schema(description = "Elements of the page", requiredMode = RequiredMode.REQUIRED)
+    private List<T> content;
+
+    @Schema(description = "Token to get the next page, null if this is the last one")
+    private String nextToken;
+
+    @Schema(description = "Number of existing elements, only if it was requested")
+    private Long totalElements;
+
+}
@@ -0,0 +1,43 @@
+package com.pizza.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+
+@AllArgsConstructor
+@Data
+@NoArgsConstructor
+@Schema(description = "Result of the import of one pizza")
+public class PizzaImportResultDto {
+
+    @Schema(description = "Position of the pizza in the imported ones, starting by 0", requiredMode = RequiredMode.REQUIRED)
+    private long index;
+
+    @Schema(description = "Name of the pizza")
+    private String name;
+
+    @Schema(description = "Result of the import", requiredMode = RequiredMode.REQUIRED)
+    private Status status;
+
+    @Schema(description = "Internal unique identifier of the saved pizza")
+    private Integer id;
+
+    @Schema(description = "Reasons why the pizza was not saved")
+    private List<String> errors;
+
+
+    public enum Status {
+        // The pizza was created or updated
+        SAVED,
+        // The pizza did not pass the validations, so it was not sent to the database
+        INVALID,
+        // There was an error saving the pizza
+        FAILED
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.pizza.event;
+
+import com.pizza.model.Pizza;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ *    Creation or update of a {@link Pizza}, published by {@link com.pizza.service.PizzaService} and received by the
+ * listeners once the transaction that made it has been committed.
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+@ToString
+public class PizzaSavedEvent {
+
+    // Persisted information, including its ingredients
+    private final Pizza pizza;
+
+}
@@ -0,0 +1,41 @@
+package com.pizza.grpc.converter;
+
+import com.pizza.dto.PizzaDto;
+import com.spring5microservices.common.converter.BaseFromModelToDtoConverter;
+import com.spring5microservices.grpc.IngredientResponse;
+import com.spring5microservices.grpc.PizzaResponse;
+import org.mapstruct.Mapper;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Utility class to convert from {@link PizzaDto} to {@link PizzaResponse}.
+ */
+@Mapper
+public interface PizzaGrpcConverter extends BaseFromModelToDtoConverter<PizzaDto, PizzaResponse> {
+
+    @Override
+    default PizzaResponse fromModelToDto(final PizzaDto model) {
+        return ofNullable(model)
+                .map(m -> {
+                    PizzaResponse.Builder builder = PizzaResponse.newBuilder()
+                            .setId(m.getId())
+                            .setName(m.getName())
+                            .setCost(m.getCost());
+                    ofNullable(m.getIngredients())
+                            .ifPresent(ingredients ->
+                                    ingredients.forEach(i ->
+                                            builder.addIngredients(
+                                                    IngredientResponse.newBuilder()
+                                                            .setId(i.getId())
+                                                            .setName(i.getName())
+                                                            .build()
+                                            )
+                                    )
+                            );
+                    return builder.build();
+                })
+                .orElse(null);
+    }
+
+}
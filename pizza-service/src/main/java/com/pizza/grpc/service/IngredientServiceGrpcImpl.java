@@ -2,44 +2,59 @@ package com.pizza.grpc.service;
 
 import com.spring5microservices.grpc.IngredientResponse;
 import com.spring5microservices.grpc.IngredientServiceGrpc;
+import com.spring5microservices.grpc.IngredientsFilterRequest;
 import com.spring5microservices.grpc.PizzaRequest;
+import com.spring5microservices.grpc.PizzaResponse;
 import com.pizza.grpc.converter.IngredientGrpcConverter;
+import com.pizza.grpc.converter.PizzaGrpcConverter;
 import com.pizza.service.IngredientService;
+import com.pizza.service.catalogue.PizzaCatalogueService;
+import com.spring5microservices.common.log.AccessLogger;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
-import lombok.extern.log4j.Log4j2;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import static com.spring5microservices.common.util.ObjectUtil.getOrElse;
-import static java.lang.String.format;
 import static java.util.Optional.ofNullable;
 
-@Log4j2
 @Service
 public class IngredientServiceGrpcImpl extends IngredientServiceGrpc.IngredientServiceImplBase {
 
+    private final AccessLogger accessLogger;
+
     private final IngredientService ingredientService;
 
     private final IngredientGrpcConverter ingredientGrpcConverter;
 
+    private final PizzaCatalogueService pizzaCatalogueService;
+
+    private final PizzaGrpcConverter pizzaGrpcConverter;
+
 
     public IngredientServiceGrpcImpl(@Lazy final IngredientService ingredientService,
-                                     @Lazy final IngredientGrpcConverter ingredientGrpcConverter) {
+                                     @Lazy final IngredientGrpcConverter ingredientGrpcConverter,
+                                     @Lazy final PizzaCatalogueService pizzaCatalogueService,
+                                     @Lazy final PizzaGrpcConverter pizzaGrpcConverter,
+                                     @Lazy final AccessLogger accessLogger) {
         this.ingredientService = ingredientService;
         this.ingredientGrpcConverter = ingredientGrpcConverter;
+        this.pizzaCatalogueService = pizzaCatalogueService;
+        this.pizzaGrpcConverter = pizzaGrpcConverter;
+        this.accessLogger = accessLogger;
     }
 
 
     @Override
     public void getIngredients(final PizzaRequest pizzaRequest,
                                final StreamObserver<IngredientResponse> responseObserver) {
-        log.info(
-                format("Getting ingredients contained in the pizza's identifier: %s",
-                        getOrElse(
-                                pizzaRequest,
-                                PizzaRequest::getId,
-                                "null"
-                        )
+        accessLogger.logSampled(
+                "Getting ingredients contained in the pizza's identifier: {}",
+                getOrElse(
+                        pizzaRequest,
+                        PizzaRequest::getId,
+                        "null"
                 )
         );
         ofNullable(pizzaRequest)
@@ -53,4 +68,51 @@ public class IngredientServiceGrpcImpl extends IngredientServiceGrpc.IngredientS
         responseObserver.onCompleted();
     }
 
+
+    @Override
+    public void getPizzasByIngredients(final IngredientsFilterRequest ingredientsFilterRequest,
+                                       final StreamObserver<PizzaResponse> responseObserver) {
+        accessLogger.logSampled(
+                "Getting pizzas with all of the ingredients: {}, any of: {} and none of: {}",
+                getOrElse(
+                        ingredientsFilterRequest,
+                        IngredientsFilterRequest::getAllOfList,
+                        "null"
+                ),
+                getOrElse(
+                        ingredientsFilterRequest,
+                        IngredientsFilterRequest::getAnyOfList,
+                        "null"
+                ),
+                getOrElse(
+                        ingredientsFilterRequest,
+                        IngredientsFilterRequest::getNoneOfList,
+                        "null"
+                )
+        );
+        ofNullable(ingredientsFilterRequest)
+                .flatMap(request ->
+                        pizzaCatalogueService.findByIngredients(
+                                        request.getAllOfList(),
+                                        request.getAnyOfList(),
+                                        request.getNoneOfList()
+                                )
+                                // So the client receives an INTERNAL status with the reason, instead of an UNKNOWN one
+                                .onErrorMap(
+                                        e -> !(e instanceof StatusRuntimeException),
+                                        e -> Status.INTERNAL
+                                                .withDescription("The pizzas could not be found: " + e.getMessage())
+                                                .withCause(e)
+                                                .asRuntimeException()
+                                )
+                                .blockOptional()
+                )
+                .ifPresent(pizzas ->
+                        pizzas.stream()
+                                .map(pizzaGrpcConverter::fromModelToDto)
+                                .forEach(responseObserver::onNext)
+                );
+        responseObserver.onCompleted();
+    }
+
 }
@@ -7,7 +7,10 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EntityResult;
@@ -29,6 +32,8 @@ import java.util.Set;
 @Data
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = Constants.CACHE_REGION.PIZZA)
 @Table(name = "pizza", schema = Constants.DATABASE_SCHEMA)
 @SqlResultSetMapping(
    name = Constants.SQL_RESULT_MAPPING.PIZZA_INGREDIENTS,
@@ -53,7 +58,9 @@ public class Pizza {
     @Positive
     private Double cost;
 
+    // Only the identifiers of the ingredients are cached, their information is stored in their own region
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = Constants.CACHE_REGION.PIZZA_INGREDIENTS)
     @JoinTable(schema = Constants.DATABASE_SCHEMA,
                name = "pizza_ingredient",
                inverseJoinColumns = { @JoinColumn(name = "ingredient_id") })
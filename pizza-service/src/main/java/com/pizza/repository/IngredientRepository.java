@@ -1,5 +1,6 @@
 package com.pizza.repository;
 
+import com.pizza.configuration.Constants;
 import com.pizza.dto.IngredientPizzaSummaryDto;
 import com.pizza.model.Ingredient;
 import com.pizza.model.Pizza;
@@ -14,21 +15,36 @@ import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.StringPath;
 import com.querydsl.sql.RelationalPathBase;
 import com.querydsl.sql.SQLExpressions;
+import org.hibernate.Session;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 
+import static java.util.stream.Collectors.toCollection;
 import static java.util.stream.Collectors.toList;
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
 
 @Repository
 public interface IngredientRepository extends ExtendedQueryDslJpaRepository<Ingredient, Integer>, QuerydslPredicateExecutor<Ingredient> {
 
+    String INSERT_IF_NAME_DOES_NOT_EXIST = "insert into " + Constants.DATABASE_SCHEMA + ".ingredient (name) "
+                                         + "values (?) "
+                                         + "on conflict (name) do nothing";
+
     /**
      * Return the {@link Ingredient}s contained in the {@link Pizza}'s identifier {@code pizzaId}
      *
@@ -38,6 +54,11 @@ public interface IngredientRepository extends ExtendedQueryDslJpaRepository<Ingr
      * @return {@link Set} of {@link Ingredient}
      */
     @Query(value = "SELECT DISTINCT i FROM Pizza p JOIN p.ingredients i WHERE p.id = :pizzaId")
+    // Only the identifiers of the ingredients are cached, invalidated by any change in the tables of the query
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Constants.CACHE_REGION.QUERIES)
+    })
     Set<Ingredient> findByPizzaId(@Nullable @Param("pizzaId") Integer pizzaId);
 
 
@@ -62,6 +83,10 @@ public interface IngredientRepository extends ExtendedQueryDslJpaRepository<Ingr
      *     where rnk = 1
      * </pre>
      *
+     * @apiNote The {@link com.pizza.service.catalogue.PizzaCatalogue} keeps this information precalculated, so
+     *          {@link com.pizza.service.catalogue.PizzaCatalogue#getIngredientWithItsMoreExpensivePizza(Collection)}
+     *          is a better alternative that does not query the database.
+     *
      * @return {@link List} of {@link IngredientPizzaSummaryDto}
      */
     default List<IngredientPizzaSummaryDto> getIngredientWithItsMoreExpensivePizza(final Collection<String> ingredientNames) {
@@ -130,5 +155,53 @@ public interface IngredientRepository extends ExtendedQueryDslJpaRepository<Ingr
                 .collect(toList());
     }
 
-}
 
+
+    /**
+     * Return the {@link Ingredient}s which {@link Ingredient#getName()} is one of the given ones.
+     *
+     * @param names
+     *    {@link Collection} of {@link Ingredient#getName()} to search
+     *
+     * @return {@link List} of {@link Ingredient}
+     */
+    List<Ingredient> findByNameIn(Collection<String> names);
+
+
+    /**
+     *    Inserts the given {@link Ingredient}s whose {@link Ingredient#getName()} does not exist yet, sending all of them
+     * in a single JDBC batch of {@code insert ... on conflict (name) do nothing}, so the existing ones are not modified
+     * and the identifiers of the new ones are assigned by the database, without a sequence call per ingredient.
+     * <p>
+     *    Only new rows are inserted, so no entry of the second level cache becomes stale.
+     *
+     * @param ingredients
+     *    {@link Collection} of {@link Ingredient} to persist, identified by {@link Ingredient#getName()}
+     *
+     * @return {@link List} with the persisted {@link Ingredient}s, including their {@link Ingredient#getId()}
+     */
+    @Transactional
+    default List<Ingredient> upsertAll(final Collection<Ingredient> ingredients) {
+        // Sorted to lock the index entries always in the same order and avoid deadlocks between concurrent batches
+        Set<String> names = ingredients.stream()
+                .filter(Objects::nonNull)
+                .map(Ingredient::getName)
+                .filter(Objects::nonNull)
+                .collect(toCollection(TreeSet::new));
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        getEntityManager().unwrap(Session.class)
+                .doWork(connection -> {
+                    try (PreparedStatement insert = connection.prepareStatement(INSERT_IF_NAME_DOES_NOT_EXIST)) {
+                        for (String name : names) {
+                            insert.setString(1, name);
+                            insert.addBatch();
+                        }
+                        insert.executeBatch();
+                    }
+                });
+        return findByNameIn(names);
+    }
+
+}
@@ -4,11 +4,21 @@ import com.pizza.configuration.Constants;
 import com.pizza.enums.PizzaEnum;
 import com.pizza.model.Ingredient;
 import com.pizza.model.Pizza;
+import com.pizza.model.QIngredient;
 import com.pizza.model.QPizza;
-import com.pizza.repository.base.ExtendedJpaRepository;
+import com.pizza.repository.base.ExtendedQueryDslJpaRepository;
+import com.pizza.util.KeysetPosition;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
@@ -21,10 +31,12 @@ import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -33,10 +45,19 @@ import java.util.stream.Collectors;
 import static java.util.Optional.ofNullable;
 
 @Repository
-public interface PizzaRepository extends ExtendedJpaRepository<Pizza, Integer>, QuerydslPredicateExecutor<Pizza> {
+public interface PizzaRepository extends ExtendedQueryDslJpaRepository<Pizza, Integer>, QuerydslPredicateExecutor<Pizza> {
 
     Logger log = Logger.getLogger(PizzaRepository.class.getName());
 
+    /**
+     * Gets all the {@link Pizza}s with their {@link Ingredient}s.
+     *
+     * @return {@link List} of {@link Pizza}
+     */
+    @Query("SELECT DISTINCT p FROM Pizza p LEFT JOIN FETCH p.ingredients")
+    List<Pizza> findAllWithIngredients();
+
+
     /**
      *    Gets paged all the {@link Pizza}s with their {@link Ingredient}s using the given {@link Pageable}
      * to configure the required one.
@@ -114,6 +135,185 @@ public interface PizzaRepository extends ExtendedJpaRepository<Pizza, Integer>,
     }
 
 
+    /**
+     *    Gets the {@link Pizza}s (including their {@link Ingredient}s) after the given {@link KeysetPosition}, seeking
+     * on its property and {@link Pizza#getId()} instead of skipping the previous rows, so the cost of every page does
+     * not depend on its depth. The {@link Ingredient}s are fetched in a second query, only for the returned
+     * {@link Pizza}s, and no count query is executed.
+     *
+     * @param position
+     *    {@link KeysetPosition} with the sorting and the last returned {@link Pizza}
+     * @param size
+     *    Maximum number of {@link Pizza}s to return
+     *
+     * @return {@link Slice} of {@link Pizza}
+     */
+    default Slice<Pizza> findKeysetPageWithIngredients(final KeysetPosition position,
+                                                       final int size) {
+        QPizza pizza = QPizza.pizza;
+        boolean isAscending = position.getDirection().isAscending();
+
+        // One more to know if there are more pizzas after this page
+        List<Pizza> pizzas = new ArrayList<>(
+                selectFrom(pizza)
+                        .where(getKeysetPredicate(position))
+                        .orderBy(getKeysetOrder(position.getProperty(), isAscending))
+                        .limit(size + 1)
+                        .fetch()
+        );
+        boolean hasNext = pizzas.size() > size;
+        if (hasNext) {
+            pizzas.remove(size);
+        }
+        if (!pizzas.isEmpty()) {
+            // The fetched ingredients are included in the pizzas of the current persistence context
+            selectFrom(pizza)
+                    .distinct()
+                    .leftJoin(pizza.ingredients).fetchJoin()
+                    .where(
+                            pizza.id.in(
+                                    pizzas.stream()
+                                            .map(Pizza::getId)
+                                            .collect(Collectors.toList())
+                            )
+                    )
+                    .fetch();
+        }
+        return new SliceImpl<>(
+                pizzas,
+                PageRequest.of(0, size),
+                hasNext
+        );
+    }
+
+
+    private BooleanExpression getKeysetPredicate(final KeysetPosition position) {
+        if (position.isFirst()) {
+            return null;
+        }
+        QPizza pizza = QPizza.pizza;
+        boolean isAscending = position.getDirection().isAscending();
+        BooleanExpression afterId = isAscending
+                ? pizza.id.gt(position.getLastId())
+                : pizza.id.lt(position.getLastId());
+
+        switch (position.getProperty()) {
+            case KeysetPosition.NAME_PROPERTY:
+                PizzaEnum lastName = PizzaEnum.getFromDatabaseValue(position.getLastValue())
+                        .orElseThrow(() ->
+                                new IllegalArgumentException("The pizza name: " + position.getLastValue() + " does not exist")
+                        );
+                return (isAscending ? pizza.name.gt(lastName) : pizza.name.lt(lastName))
+                        .or(pizza.name.eq(lastName).and(afterId));
+
+            case KeysetPosition.COST_PROPERTY:
+                Double lastCost = Double.valueOf(position.getLastValue());
+                return (isAscending ? pizza.cost.gt(lastCost) : pizza.cost.lt(lastCost))
+                        .or(pizza.cost.eq(lastCost).and(afterId));
+
+            default:
+                return afterId;
+        }
+    }
+
+
+    private OrderSpecifier<?>[] getKeysetOrder(final String property,
+                                               final boolean isAscending) {
+        QPizza pizza = QPizza.pizza;
+        OrderSpecifier<Integer> idOrder = isAscending ? pizza.id.asc() : pizza.id.desc();
+        switch (property) {
+            case KeysetPosition.NAME_PROPERTY:
+                return new OrderSpecifier<?>[] { isAscending ? pizza.name.asc() : pizza.name.desc(), idOrder };
+
+            case KeysetPosition.COST_PROPERTY:
+                return new OrderSpecifier<?>[] { isAscending ? pizza.cost.asc() : pizza.cost.desc(), idOrder };
+
+            default:
+                return new OrderSpecifier<?>[] { idOrder };
+        }
+    }
+
+
+    /**
+     *    Gets the {@link Pizza}s (including their {@link Ingredient}s) whose {@link Ingredient}s verify all the given
+     * filters. Used when the {@link com.pizza.service.catalogue.PizzaCatalogue} is not available.
+     *
+     * @param allOf
+     *    Names of the {@link Ingredient}s that every returned {@link Pizza} must contain
+     * @param anyOf
+     *    Names of the {@link Ingredient}s of which every returned {@link Pizza} must contain at least one
+     * @param noneOf
+     *    Names of the {@link Ingredient}s that the returned {@link Pizza}s must not contain
+     *
+     * @return {@link List} of {@link Pizza} sorted by identifier, all the existing ones if no filter is given
+     */
+    default List<Pizza> findWithIngredientsByIngredients(@Nullable final Collection<String> allOf,
+                                                         @Nullable final Collection<String> anyOf,
+                                                         @Nullable final Collection<String> noneOf) {
+        QPizza pizza = QPizza.pizza;
+        BooleanBuilder predicate = new BooleanBuilder();
+
+        Set<String> allOfNames = getNotNullNames(allOf);
+        if (!allOfNames.isEmpty()) {
+            predicate.and(
+                    pizza.id.in(
+                            getPizzaIdsWithIngredients(allOfNames, true)
+                    )
+            );
+        }
+        Set<String> anyOfNames = getNotNullNames(anyOf);
+        if (!anyOfNames.isEmpty()) {
+            predicate.and(
+                    pizza.id.in(
+                            getPizzaIdsWithIngredients(anyOfNames, false)
+                    )
+            );
+        }
+        Set<String> noneOfNames = getNotNullNames(noneOf);
+        if (!noneOfNames.isEmpty()) {
+            predicate.and(
+                    pizza.id.notIn(
+                            getPizzaIdsWithIngredients(noneOfNames, false)
+                    )
+            );
+        }
+        return selectFrom(pizza)
+                .distinct()
+                .leftJoin(pizza.ingredients).fetchJoin()
+                .where(predicate)
+                .orderBy(pizza.id.asc())
+                .fetch();
+    }
+
+
+    private static JPQLQuery<Integer> getPizzaIdsWithIngredients(final Set<String> ingredientNames,
+                                                                 final boolean withAllOfThem) {
+        // Different alias than the main query, so the subquery is not correlated with it
+        QPizza pizzaWithIngredient = new QPizza("pizzaWithIngredient");
+        QIngredient ingredient = QIngredient.ingredient;
+        JPQLQuery<Integer> pizzaIds = JPAExpressions.select(pizzaWithIngredient.id)
+                .from(pizzaWithIngredient)
+                .join(pizzaWithIngredient.ingredients, ingredient)
+                .where(ingredient.name.in(ingredientNames));
+
+        return withAllOfThem
+                ? pizzaIds.groupBy(pizzaWithIngredient.id)
+                          .having(ingredient.name.countDistinct().eq((long) ingredientNames.size()))
+                : pizzaIds;
+    }
+
+
+    private static Set<String> getNotNullNames(final Collection<String> names) {
+        return ofNullable(names)
+                .map(n ->
+                        n.stream()
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet())
+                )
+                .orElseGet(Set::of);
+    }
+
+
     /**
      * Gets the {@link Pizza} (including its {@link Ingredient}s) which name matches with the given one.
      *
@@ -1,5 +1,6 @@
 package com.pizza.service;
 
+import com.pizza.dto.IngredientPizzaSummaryDto;
 import com.pizza.model.Ingredient;
 import com.pizza.model.Pizza;
 import com.pizza.repository.IngredientRepository;
@@ -42,6 +43,22 @@ public class IngredientService {
     }
 
 
+    /**
+     * Return every one of the given {@link Ingredient#getName()} with its more expensive {@link Pizza}.
+     *
+     * @param ingredientNames
+     *    {@link Collection} of {@link Ingredient#getName()} to search
+     *
+     * @return {@link List} of {@link IngredientPizzaSummaryDto}
+     */
+    public List<IngredientPizzaSummaryDto> getIngredientWithItsMoreExpensivePizza(final Collection<String> ingredientNames) {
+        return ofNullable(ingredientNames)
+                .filter(names -> !names.isEmpty())
+                .map(repository::getIngredientWithItsMoreExpensivePizza)
+                .orElseGet(ArrayList::new);
+    }
+
+
     /**
      * Persist the information included in the given {@code ingredients}
      *
@@ -56,4 +73,21 @@ public class IngredientService {
                 .orElseGet(ArrayList::new);
     }
 
+
+
+    /**
+     *    Persist the given {@code ingredients} whose {@link Ingredient#getName()} does not exist yet, reusing the existing
+     * ones otherwise.
+     *
+     * @param ingredients
+     *    {@link Collection} of {@link Ingredient} to save
+     *
+     * @return persisted {@link Ingredient}s
+     */
+    public List<Ingredient> upsertAll(final Collection<Ingredient> ingredients) {
+        return ofNullable(ingredients)
+                .map(repository::upsertAll)
+                .orElseGet(ArrayList::new);
+    }
+
 }
@@ -1,18 +1,26 @@
 package com.pizza.service;
 
 import com.pizza.enums.PizzaEnum;
+import com.pizza.event.PizzaSavedEvent;
 import com.pizza.model.Ingredient;
 import com.pizza.model.Pizza;
 import com.pizza.repository.PizzaRepository;
+import com.pizza.util.KeysetPosition;
 import com.pizza.util.PageUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 import static java.util.Optional.ofNullable;
@@ -24,12 +32,16 @@ public class PizzaService {
 
     private final IngredientService ingredientService;
 
+    private final ApplicationEventPublisher eventPublisher;
+
 
     @Autowired
     public PizzaService(@Lazy final PizzaRepository repository,
-                        @Lazy final IngredientService ingredientService) {
+                        @Lazy final IngredientService ingredientService,
+                        @Lazy final ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
         this.ingredientService = ingredientService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -78,7 +90,78 @@ public class PizzaService {
 
 
     /**
-     * Persist the information included in the given {@link Pizza}
+     *    Returns the {@link Pizza}s with their {@link Ingredient}s after the given {@link KeysetPosition}, without
+     * counting all the existing ones.
+     *
+     * @param position
+     *    {@link KeysetPosition} with the sorting and the last returned {@link Pizza}
+     * @param size
+     *    Number of elements in every page
+     *
+     * @return {@link Slice} of {@link Pizza}
+     */
+    public Slice<Pizza> findKeysetPageWithIngredients(final KeysetPosition position,
+                                                      final int size) {
+        return ofNullable(position)
+                .map(p ->
+                        repository.findKeysetPageWithIngredients(
+                                p,
+                                size
+                        )
+                )
+                .orElseGet(() ->
+                        new SliceImpl<>(new ArrayList<>())
+                );
+    }
+
+
+    /**
+     * Returns all the existing {@link Pizza}s with their {@link Ingredient}s.
+     *
+     * @return {@link List} of {@link Pizza}
+     */
+    public List<Pizza> findAllWithIngredients() {
+        return repository.findAllWithIngredients();
+    }
+
+
+    /**
+     * Returns the {@link Pizza}s with their {@link Ingredient}s whose {@link Ingredient}s verify all the given filters.
+     *
+     * @param allOf
+     *    Names of the {@link Ingredient}s that every returned {@link Pizza} must contain
+     * @param anyOf
+     *    Names of the {@link Ingredient}s of which every returned {@link Pizza} must contain at least one
+     * @param noneOf
+     *    Names of the {@link Ingredient}s that the returned {@link Pizza}s must not contain
+     *
+     * @return {@link List} of {@link Pizza} sorted by identifier
+     */
+    public List<Pizza> findWithIngredientsByIngredients(final Collection<String> allOf,
+                                                        final Collection<String> anyOf,
+                                                        final Collection<String> noneOf) {
+        return repository.findWithIngredientsByIngredients(
+                allOf,
+                anyOf,
+                noneOf
+        );
+    }
+
+
+    /**
+     * Returns the number of existing {@link Pizza}s.
+     *
+     * @return number of {@link Pizza}s
+     */
+    public long count() {
+        return repository.count();
+    }
+
+
+    /**
+     *    Persist the information included in the given {@link Pizza}, publishing a {@link PizzaSavedEvent} that will be
+     * received by the listeners once the current transaction has been committed. Its {@link Ingredient}s are replaced
+     * by the persisted ones with the same name.
      *
      * @param pizza
      *    {@link Pizza} to save
@@ -88,8 +171,20 @@ public class PizzaService {
     public Optional<Pizza> save(final Pizza pizza) {
         return ofNullable(pizza)
                 .map(p -> {
-                    ingredientService.saveAll(p.getIngredients());
+                    ofNullable(p.getIngredients())
+                            .map(ingredientService::upsertAll)
+                            .ifPresent(ingredients ->
+                                    p.setIngredients(
+                                            new HashSet<>(ingredients)
+                                    )
+                            );
                     return repository.save(p);
+                })
+                .map(p -> {
+                    eventPublisher.publishEvent(
+                            new PizzaSavedEvent(p)
+                    );
+                    return p;
                 });
     }
 
@@ -0,0 +1,192 @@
+package com.pizza.service;
+
+import com.pizza.model.Ingredient;
+import com.pizza.model.Pizza;
+import com.pizza.util.KeysetPosition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ *    Non-blocking version of {@link PizzaService}: every operation is executed when the returned {@link Mono} is
+ * subscribed, inside its own transaction and in the {@code persistenceScheduler}, so the event loop threads are never
+ * blocked by the database queries.
+ */
+@Service
+public class ReactivePizzaService {
+
+    private final PizzaService service;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Scheduler persistenceScheduler;
+
+
+    @Autowired
+    public ReactivePizzaService(@Lazy final PizzaService service,
+                                final PlatformTransactionManager transactionManager,
+                                @Qualifier("persistenceScheduler") final Scheduler persistenceScheduler) {
+        this.service = service;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+
+    /**
+     * Returns the {@link Pizza} which name matches with the given one.
+     *
+     * @param name
+     *    Name to search in the current {@link Pizza#getName()}s
+     *
+     * @return {@link Mono} with the {@link Pizza} if it was found, empty {@link Mono} otherwise
+     */
+    public Mono<Pizza> findByName(final String name) {
+        return executeInTransaction(
+                readOnlyTransactionTemplate,
+                () -> service.findByName(name)
+        );
+    }
+
+
+    /**
+     * Returns the required page information about {@link Pizza}s with their {@link Ingredient}s
+     *
+     * @param page
+     *    Number of page to get
+     * @param size
+     *    Number of elements in every page
+     * @param sort
+     *    {@link Sort} with how we want to sort the returned results
+     *
+     * @return {@link Mono} with the {@link Page} of {@link Pizza}
+     */
+    public Mono<Page<Pizza>> findPageWithIngredients(final int page,
+                                                     final int size,
+                                                     final Sort sort) {
+        return executeInTransaction(
+                readOnlyTransactionTemplate,
+                () -> Optional.of(
+                        service.findPageWithIngredients(page, size, sort)
+                )
+        );
+    }
+
+
+    /**
+     * Returns the {@link Pizza}s with their {@link Ingredient}s after the given {@link KeysetPosition}.
+     *
+     * @param position
+     *    {@link KeysetPosition} with the sorting and the last returned {@link Pizza}
+     * @param size
+     *    Number of elements in every page
+     *
+     * @return {@link Mono} with the {@link Slice} of {@link Pizza}
+     */
+    public Mono<Slice<Pizza>> findKeysetPageWithIngredients(final KeysetPosition position,
+                                                            final int size) {
+        return executeInTransaction(
+                readOnlyTransactionTemplate,
+                () -> Optional.of(
+                        service.findKeysetPageWithIngredients(position, size)
+                )
+        );
+    }
+
+
+    /**
+     *    Returns all the existing {@link Pizza}s with their {@link Ingredient}s sorted by {@link Pizza#getId()}, read
+     * from the database in chunks of {@code chunkSize} only when they are requested, so a slow subscriber slows down
+     * the reading instead of filling the memory.
+     * <p>
+     *    Every chunk is a keyset page (see {@link #findKeysetPageWithIngredients(KeysetPosition, int)}) read in its own
+     * short transaction, so no database connection nor thread of the {@code persistenceScheduler} is kept while the
+     * client downloads the previous ones. That is why the {@link Pizza}s are not read from a single snapshot: the ones
+     * saved during the export are included if their identifiers are greater than the last returned one.
+     *
+     * @param chunkSize
+     *    Number of {@link Pizza}s got from the database in every query
+     *
+     * @return {@link Flux} of {@link Pizza}
+     */
+    public Flux<Pizza> streamAllWithIngredients(final int chunkSize) {
+        final KeysetPosition first = KeysetPosition.first(KeysetPosition.ID_PROPERTY, Sort.Direction.ASC);
+        return findKeysetPageWithIngredients(first, chunkSize)
+                .expand(chunk ->
+                        chunk.hasNext() && chunk.hasContent()
+                                ? findKeysetPageWithIngredients(
+                                        first.after(getLast(chunk.getContent())),
+                                        chunkSize
+                                  )
+                                : Mono.empty()
+                )
+                // Only one chunk is requested in advance
+                .concatMapIterable(Slice::getContent, 1);
+    }
+
+
+    /**
+     * Returns the number of existing {@link Pizza}s.
+     *
+     * @return {@link Mono} with the number of {@link Pizza}s
+     */
+    public Mono<Long> count() {
+        return executeInTransaction(
+                readOnlyTransactionTemplate,
+                () -> Optional.of(
+                        service.count()
+                )
+        );
+    }
+
+
+    /**
+     * Persist the information included in the given {@link Pizza}
+     *
+     * @param pizza
+     *    {@link Pizza} to save
+     *
+     * @return {@link Mono} with the {@link Pizza} with its "final information" after this action, empty {@link Mono}
+     *         if {@code pizza} is {@code null}
+     */
+    public Mono<Pizza> save(final Pizza pizza) {
+        return executeInTransaction(
+                transactionTemplate,
+                () -> service.save(pizza)
+        );
+    }
+
+
+    private static Pizza getLast(final List<Pizza> pizzas) {
+        return pizzas.get(pizzas.size() - 1);
+    }
+
+
+    private <T> Mono<T> executeInTransaction(final TransactionTemplate template,
+                                             final Supplier<Optional<T>> operation) {
+        return Mono.fromCallable(() ->
+                        template.execute(status ->
+                                operation.get()
+                                        .orElse(null)
+                        )
+                )
+                .subscribeOn(persistenceScheduler);
+    }
+
+}
@@ -17,17 +17,22 @@ public class UserBlacklistCacheService {
 
     private final CacheService cacheService;
 
+    private final UserBlacklistLocalCopy localCopy;
+
 
     @Autowired
     public UserBlacklistCacheService(@Lazy final CacheConfiguration cacheConfiguration,
-                                     @Lazy final CacheService cacheService) {
+                                     @Lazy final CacheService cacheService,
+                                     @Lazy final UserBlacklistLocalCopy localCopy) {
         this.cacheConfiguration = cacheConfiguration;
         this.cacheService = cacheService;
+        this.localCopy = localCopy;
     }
 
 
     /**
-     * Check if exists the given {@code username} inside the related cache.
+     *    Check if exists the given {@code username} inside the related cache. The {@code username}s not included in its
+     * {@link UserBlacklistLocalCopy} are discarded without querying the cache.
      *
      * @param username
      *    {@code username} to search
@@ -36,6 +41,9 @@ public class UserBlacklistCacheService {
      */
     public boolean contains(final String username) {
         return ofNullable(username)
+                .filter(id ->
+                        !localCopy.isSynchronized() || localCopy.mightContain(id)
+                )
                 .map(id ->
                         cacheService.contains(
                                 cacheConfiguration.getUserBlacklistCacheName(),
@@ -55,11 +63,15 @@ public class UserBlacklistCacheService {
      * @return {@code true} if the data was stored, {@code false} otherwise
      */
     public boolean put(final String username) {
-        return cacheService.put(
+        boolean isStored = cacheService.put(
                 cacheConfiguration.getUserBlacklistCacheName(),
                 username,
                 DEFAULT_BOOLEAN_VALUE
         );
+        if (isStored) {
+            localCopy.add(username);
+        }
+        return isStored;
     }
 
 
@@ -72,6 +84,7 @@ public class UserBlacklistCacheService {
      * @return {@code true} if the data was removed, {@code false} otherwise
      */
     public boolean remove(final String username) {
+        localCopy.remove(username);
         return cacheService.remove(
                 cacheConfiguration.getUserBlacklistCacheName(),
                 username
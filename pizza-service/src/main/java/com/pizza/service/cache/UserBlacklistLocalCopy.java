@@ -0,0 +1,277 @@
+package com.pizza.service.cache;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapEvent;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryMergedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapEvictedListener;
+import com.pizza.configuration.cache.CacheConfiguration;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ *    Copy in memory of the usernames included in the Hazelcast map of the user blacklist, kept up to date by an entry
+ * listener of that map, so the usernames that are not blacklisted, almost all of them, can be discarded without a
+ * remote call to the cluster.
+ * <p>
+ *    The changes made in other instances are received asynchronously, so this copy could temporarily not include a
+ * recently blacklisted username, or include a recently removed one. That is why it only must be used to discard the
+ * usernames not included in it, confirming the other ones in the Hazelcast map.
+ * <p>
+ *    The events are not delivered again if they are lost, for example during a network partition, so every
+ * {@code cache.userBlacklist.localCopy.resyncSeconds} the content of the map is loaded again. If the last successful
+ * load is older than twice that value, {@link UserBlacklistLocalCopy#isSynchronized()} returns {@code false}.
+ * <p>
+ *    Until it has been loaded, or if it is disabled, {@link UserBlacklistLocalCopy#isSynchronized()} returns
+ * {@code false} and it must not be used.
+ */
+@Log4j2
+@Service
+public class UserBlacklistLocalCopy {
+
+    private static final long NEVER_SYNCHRONIZED = -1;
+
+    private final CacheConfiguration cacheConfiguration;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    // Every username with the time in nanoseconds when it was included, used to know if it was included during a resync
+    private final ConcurrentMap<String, Long> usernames;
+
+    private volatile long lastSynchronizationTime;
+
+    private ScheduledExecutorService resyncScheduler;
+
+
+    @Autowired
+    public UserBlacklistLocalCopy(@Lazy final CacheConfiguration cacheConfiguration,
+                                  @Lazy final HazelcastInstance hazelcastInstance) {
+        this.cacheConfiguration = cacheConfiguration;
+        this.hazelcastInstance = hazelcastInstance;
+        this.usernames = new ConcurrentHashMap<>();
+        this.lastSynchronizationTime = NEVER_SYNCHRONIZED;
+    }
+
+
+    /**
+     *    Subscribes to the changes of the Hazelcast map of the user blacklist, loads its current content and schedules
+     * the next loads. The listener is added first, so no change made while the content is loaded is lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!cacheConfiguration.isUserBlacklistLocalCopyEnabled()) {
+            return;
+        }
+        try {
+            getBlacklist().addEntryListener(
+                    new BlacklistListener(),
+                    false
+            );
+        } catch (Exception e) {
+            log.error("The local copy of the user blacklist could not be loaded, the distributed one will be used", e);
+            return;
+        }
+        if (resync()) {
+            log.info("The local copy of the user blacklist has been loaded with: " + usernames.size() + " usernames");
+        }
+        int resyncSeconds = cacheConfiguration.getUserBlacklistLocalCopyResyncSeconds();
+        if (0 < resyncSeconds) {
+            resyncScheduler = Executors.newSingleThreadScheduledExecutor(
+                    buildThreadFactory()
+            );
+            resyncScheduler.scheduleWithFixedDelay(
+                    this::resync,
+                    resyncSeconds,
+                    resyncSeconds,
+                    TimeUnit.SECONDS
+            );
+        }
+    }
+
+
+    @PreDestroy
+    public void shutdown() {
+        ofNullable(resyncScheduler)
+                .ifPresent(ExecutorService::shutdownNow);
+    }
+
+
+    /**
+     *    Loads again the content of the Hazelcast map of the user blacklist, including the usernames whose events were
+     * lost and removing the ones no longer included in it. The usernames included while it is loaded are not removed.
+     *
+     * @return {@code true} if the content was loaded, {@code false} otherwise
+     */
+    boolean resync() {
+        try {
+            long startTime = System.nanoTime();
+            Set<String> currentUsernames = getBlacklist().keySet()
+                    .stream()
+                    .map(Object::toString)
+                    .collect(toSet());
+
+            currentUsernames.forEach(username ->
+                    usernames.putIfAbsent(username, startTime)
+            );
+            usernames.forEach((username, includedTime) -> {
+                if (includedTime < startTime && !currentUsernames.contains(username)) {
+                    usernames.remove(username, includedTime);
+                }
+            });
+            lastSynchronizationTime = startTime;
+            return true;
+        } catch (Exception e) {
+            log.error("The local copy of the user blacklist could not be loaded, the distributed one will be used", e);
+            return false;
+        }
+    }
+
+
+    /**
+     *    Returns if this copy is being updated with the changes of the Hazelcast map of the user blacklist, and its last
+     * load is recent enough.
+     *
+     * @return {@code true} if it can be used, {@code false} otherwise
+     */
+    public boolean isSynchronized() {
+        return isSynchronized(System.nanoTime());
+    }
+
+
+    boolean isSynchronized(final long now) {
+        long lastSynchronization = lastSynchronizationTime;
+        if (NEVER_SYNCHRONIZED == lastSynchronization) {
+            return false;
+        }
+        int resyncSeconds = cacheConfiguration.getUserBlacklistLocalCopyResyncSeconds();
+        return 0 >= resyncSeconds ||
+                now - lastSynchronization <= TimeUnit.SECONDS.toNanos(2L * resyncSeconds);
+    }
+
+
+    /**
+     * Check if the given {@code username} could be blacklisted.
+     *
+     * @param username
+     *    {@code username} to search
+     *
+     * @return {@code false} if the {@code username} is not blacklisted, {@code true} if it could be
+     */
+    public boolean mightContain(final String username) {
+        return null != username &&
+                !usernames.isEmpty() &&
+                usernames.containsKey(username);
+    }
+
+
+    /**
+     * Includes the given {@code username}, without waiting for the event of the Hazelcast map.
+     *
+     * @param username
+     *    {@code username} to include
+     */
+    public void add(final Object username) {
+        if (null != username) {
+            usernames.put(
+                    username.toString(),
+                    System.nanoTime()
+            );
+        }
+    }
+
+
+    /**
+     * Removes the given {@code username}, without waiting for the event of the Hazelcast map.
+     *
+     * @param username
+     *    {@code username} to remove
+     */
+    public void remove(final Object username) {
+        if (null != username) {
+            usernames.remove(
+                    username.toString()
+            );
+        }
+    }
+
+
+    private IMap<Object, Object> getBlacklist() {
+        return hazelcastInstance.getMap(
+                cacheConfiguration.getUserBlacklistCacheName()
+        );
+    }
+
+
+    private static CustomizableThreadFactory buildThreadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("user-blacklist-resync-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+
+    private class BlacklistListener implements EntryAddedListener<Object, Object>, EntryMergedListener<Object, Object>,
+            EntryRemovedListener<Object, Object>, EntryEvictedListener<Object, Object>, EntryExpiredListener<Object, Object>,
+            MapClearedListener, MapEvictedListener {
+
+        @Override
+        public void entryAdded(final EntryEvent<Object, Object> event) {
+            add(event.getKey());
+        }
+
+        // Sent when the entries of a split cluster are merged again after the network partition
+        @Override
+        public void entryMerged(final EntryEvent<Object, Object> event) {
+            add(event.getKey());
+        }
+
+        @Override
+        public void entryRemoved(final EntryEvent<Object, Object> event) {
+            remove(event.getKey());
+        }
+
+        @Override
+        public void entryEvicted(final EntryEvent<Object, Object> event) {
+            remove(event.getKey());
+        }
+
+        @Override
+        public void entryExpired(final EntryEvent<Object, Object> event) {
+            remove(event.getKey());
+        }
+
+        @Override
+        public void mapCleared(final MapEvent event) {
+            usernames.clear();
+        }
+
+        @Override
+        public void mapEvicted(final MapEvent event) {
+            usernames.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.pizza.service.catalogue;
+
+import com.pizza.dto.IngredientDto;
+import com.pizza.dto.PizzaDto;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ *    Immutable inverted index from the name of every {@link IngredientDto} to the identifiers of the {@link PizzaDto}s
+ * that contain it, stored as a {@link BitSet} in which the bit {@code n} is set if the {@link PizzaDto} with identifier
+ * {@code n} contains the ingredient. The identifiers of the pizzas are generated by a database sequence, so they are
+ * small and dense, and every bitmap only needs one bit per existing pizza.
+ * <p>
+ *    The filters are resolved with bitwise operations over the bitmaps of the given ingredients: {@code and} for the
+ * ones that must be included, {@code or} for the ones of which at least one must be included and {@code andNot} for
+ * the ones that must not be included.
+ * <p>
+ *    The most expensive {@link PizzaDto} of every ingredient is also calculated when the index is built, so it is got
+ * with a single lookup instead of sorting the pizzas of the ingredient.
+ */
+public class IngredientIndex {
+
+    private static final BitSet EMPTY = new BitSet(0);
+
+    // Identifiers of all the indexed pizzas
+    private final BitSet pizzaIds;
+
+    private final Map<String, BitSet> pizzaIdsByIngredient;
+
+    private final Map<String, PizzaDto> mostExpensivePizzaByIngredient;
+
+
+    private IngredientIndex(final Collection<PizzaDto> pizzas) {
+        BitSet allIds = new BitSet();
+        Map<String, BitSet> idsByIngredient = new HashMap<>();
+        Map<String, PizzaDto> mostExpensiveByIngredient = new HashMap<>();
+        pizzas.forEach(p -> {
+            allIds.set(p.getId());
+            ofNullable(p.getIngredients())
+                    .ifPresent(ingredients ->
+                            ingredients.stream()
+                                    .map(IngredientDto::getName)
+                                    .filter(Objects::nonNull)
+                                    .forEach(ingredient -> {
+                                        idsByIngredient.computeIfAbsent(ingredient, i -> new BitSet())
+                                                .set(p.getId());
+                                        if (null != p.getCost()) {
+                                            mostExpensiveByIngredient.merge(ingredient, p, IngredientIndex::mostExpensive);
+                                        }
+                                    })
+                    );
+        });
+        this.pizzaIds = allIds;
+        this.pizzaIdsByIngredient = Map.copyOf(idsByIngredient);
+        this.mostExpensivePizzaByIngredient = Map.copyOf(mostExpensiveByIngredient);
+    }
+
+
+    /**
+     * Creates a new {@link IngredientIndex} with the given {@link PizzaDto}s.
+     *
+     * @param pizzas
+     *    {@link PizzaDto}s to index, all of them with a non-negative identifier
+     *
+     * @return {@link IngredientIndex}
+     */
+    static IngredientIndex of(final Collection<PizzaDto> pizzas) {
+        return new IngredientIndex(pizzas);
+    }
+
+
+    /**
+     * Returns the identifiers of the {@link PizzaDto}s that verify all the given filters.
+     *
+     * @param allOf
+     *    Names of the ingredients that every returned {@link PizzaDto} must contain
+     * @param anyOf
+     *    Names of the ingredients of which every returned {@link PizzaDto} must contain at least one
+     * @param noneOf
+     *    Names of the ingredients that the returned {@link PizzaDto}s must not contain
+     *
+     * @return new {@link BitSet} with the identifiers of the {@link PizzaDto}s, that can be modified by the caller.
+     *         All the indexed ones if no filter is given
+     */
+    public BitSet find(final Collection<String> allOf,
+                       final Collection<String> anyOf,
+                       final Collection<String> noneOf) {
+        BitSet result = (BitSet) pizzaIds.clone();
+        if (null != allOf) {
+            for (String ingredient : allOf) {
+                result.and(getPizzaIds(ingredient));
+            }
+        }
+        if (null != anyOf && !anyOf.isEmpty()) {
+            BitSet anyOfIds = new BitSet();
+            for (String ingredient : anyOf) {
+                anyOfIds.or(getPizzaIds(ingredient));
+            }
+            result.and(anyOfIds);
+        }
+        if (null != noneOf) {
+            for (String ingredient : noneOf) {
+                result.andNot(getPizzaIds(ingredient));
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the most expensive {@link PizzaDto} that contains the given ingredient.
+     *
+     * @param ingredient
+     *    Name of the ingredient
+     *
+     * @return {@link Optional} with the {@link PizzaDto} with the highest {@link PizzaDto#getCost()}, the one with the
+     *         lowest identifier if there are several, {@link Optional#empty()} if no pizza contains the ingredient
+     */
+    public Optional<PizzaDto> findMostExpensivePizza(final String ingredient) {
+        return ofNullable(ingredient)
+                .map(mostExpensivePizzaByIngredient::get);
+    }
+
+
+    private static PizzaDto mostExpensive(final PizzaDto pizza1,
+                                          final PizzaDto pizza2) {
+        int comparison = Double.compare(pizza1.getCost(), pizza2.getCost());
+        if (0 == comparison) {
+            return pizza1.getId() <= pizza2.getId() ? pizza1 : pizza2;
+        }
+        return 0 < comparison ? pizza1 : pizza2;
+    }
+
+
+    private BitSet getPizzaIds(final String ingredient) {
+        return null == ingredient
+                ? EMPTY
+                : pizzaIdsByIngredient.getOrDefault(ingredient, EMPTY);
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.pizza.service.catalogue;
+
+import com.pizza.dto.IngredientDto;
+import com.pizza.dto.IngredientPizzaSummaryDto;
+import com.pizza.dto.PizzaDto;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ *    Immutable snapshot of all the existing {@link PizzaDto}s, indexed by name, identifier and ingredient (see
+ * {@link IngredientIndex}). Any change creates a new instance, so it can be read by any number of threads without
+ * synchronization.
+ * <p>
+ *    The returned {@link PizzaDto}s are shared by all the readers of the snapshot, so they must not be modified.
+ */
+@ToString(of = { "version", "createdAt", "size" })
+public class PizzaCatalogue {
+
+    @Getter
+    private final long version;
+
+    @Getter
+    private final Instant createdAt;
+
+    // Sorted by identifier
+    @Getter
+    private final List<PizzaDto> pizzas;
+
+    @Getter
+    private final int size;
+
+    private final Map<String, PizzaDto> pizzasByName;
+
+    private final Map<Integer, PizzaDto> pizzasById;
+
+    private final IngredientIndex ingredientIndex;
+
+
+    private PizzaCatalogue(final long version,
+                           final Collection<PizzaDto> pizzas) {
+        this.version = version;
+        this.createdAt = Instant.now();
+        this.pizzas = pizzas.stream()
+                .filter(p -> null != p && null != p.getId() && 0 <= p.getId() && null != p.getName())
+                .sorted(Comparator.comparing(PizzaDto::getId))
+                .collect(Collectors.toUnmodifiableList());
+        this.size = this.pizzas.size();
+        this.pizzasByName = this.pizzas.stream()
+                .collect(Collectors.toUnmodifiableMap(PizzaDto::getName, p -> p, (p1, p2) -> p2));
+        this.pizzasById = this.pizzas.stream()
+                .collect(Collectors.toUnmodifiableMap(PizzaDto::getId, p -> p));
+        this.ingredientIndex = IngredientIndex.of(this.pizzas);
+    }
+
+
+    /**
+     * Creates a new {@link PizzaCatalogue} with the given {@link PizzaDto}s.
+     *
+     * @param version
+     *    Identifier of the snapshot, greater than the one of the previous snapshots
+     * @param pizzas
+     *    {@link PizzaDto}s to include, those without a valid identifier or name are ignored
+     *
+     * @return {@link PizzaCatalogue}
+     */
+    public static PizzaCatalogue of(final long version,
+                                    final Collection<PizzaDto> pizzas) {
+        return new PizzaCatalogue(
+                version,
+                ofNullable(pizzas)
+                        .orElseGet(List::of)
+        );
+    }
+
+
+    /**
+     *    Returns a new {@link PizzaCatalogue} with the {@link PizzaDto}s of this one, replacing the one with the same
+     * identifier as the given {@link PizzaDto} or adding it if there is none.
+     *
+     * @param version
+     *    Identifier of the new snapshot
+     * @param pizza
+     *    {@link PizzaDto} to include
+     *
+     * @return {@link PizzaCatalogue}
+     */
+    public PizzaCatalogue with(final long version,
+                               final PizzaDto pizza) {
+        return with(
+                version,
+                Collections.singletonList(pizza)
+        );
+    }
+
+
+    /**
+     *    Returns a new {@link PizzaCatalogue} with the {@link PizzaDto}s of this one, replacing the ones with the same
+     * identifier as the given {@link PizzaDto}s or adding them if there are none.
+     *
+     * @param version
+     *    Identifier of the new snapshot
+     * @param savedPizzas
+     *    {@link PizzaDto}s to include, if several of them have the same identifier the last one is included
+     *
+     * @return {@link PizzaCatalogue}
+     */
+    public PizzaCatalogue with(final long version,
+                               final Collection<PizzaDto> savedPizzas) {
+        Map<Integer, PizzaDto> savedPizzasById = ofNullable(savedPizzas)
+                .orElseGet(List::of)
+                .stream()
+                .filter(p -> null != p && null != p.getId())
+                .collect(Collectors.toMap(PizzaDto::getId, p -> p, (p1, p2) -> p2));
+        List<PizzaDto> newPizzas = pizzas.stream()
+                .filter(p -> !savedPizzasById.containsKey(p.getId()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        newPizzas.addAll(savedPizzasById.values());
+        return new PizzaCatalogue(
+                version,
+                newPizzas
+        );
+    }
+
+
+    /**
+     * Returns the {@link PizzaDto} which name matches with the given one.
+     *
+     * @param name
+     *    Name to search in the current {@link PizzaDto#getName()}s
+     *
+     * @return {@link Optional} of {@link PizzaDto}
+     */
+    public Optional<PizzaDto> findByName(final String name) {
+        return ofNullable(name)
+                .map(pizzasByName::get);
+    }
+
+
+    /**
+     * Returns the {@link PizzaDto} which identifier matches with the given one.
+     *
+     * @param id
+     *    Identifier to search in the current {@link PizzaDto#getId()}s
+     *
+     * @return {@link Optional} of {@link PizzaDto}
+     */
+    public Optional<PizzaDto> findById(final Integer id) {
+        return ofNullable(id)
+                .map(pizzasById::get);
+    }
+
+
+    /**
+     * Returns the {@link PizzaDto}s that contain the {@link IngredientDto} with the given name.
+     *
+     * @param ingredient
+     *    Name to search in the {@link IngredientDto#getName()}s of the current {@link PizzaDto}s
+     *
+     * @return {@link List} of {@link PizzaDto} sorted by identifier
+     */
+    public List<PizzaDto> findByIngredient(final String ingredient) {
+        return null == ingredient
+                ? List.of()
+                : findByIngredients(List.of(ingredient), null, null);
+    }
+
+
+    /**
+     * Returns the {@link PizzaDto}s whose {@link IngredientDto}s verify all the given filters.
+     *
+     * @param allOf
+     *    Names of the ingredients that every returned {@link PizzaDto} must contain
+     * @param anyOf
+     *    Names of the ingredients of which every returned {@link PizzaDto} must contain at least one
+     * @param noneOf
+     *    Names of the ingredients that the returned {@link PizzaDto}s must not contain
+     *
+     * @return {@link List} of {@link PizzaDto} sorted by identifier, all the existing ones if no filter is given
+     */
+    public List<PizzaDto> findByIngredients(final Collection<String> allOf,
+                                            final Collection<String> anyOf,
+                                            final Collection<String> noneOf) {
+        return ingredientIndex.find(allOf, anyOf, noneOf)
+                .stream()
+                .mapToObj(pizzasById::get)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+
+
+    /**
+     *    Returns every one of the given {@link IngredientDto#getName()} with its most expensive {@link PizzaDto}. They
+     * are precalculated when the catalogue is built, so it does not depend on the number of {@link PizzaDto}s.
+     *
+     * @param ingredientNames
+     *    {@link Collection} of {@link IngredientDto#getName()} to search
+     *
+     * @return {@link List} of {@link IngredientPizzaSummaryDto} sorted by ingredient, without the ingredients that are
+     *         not included in any {@link PizzaDto}
+     */
+    public List<IngredientPizzaSummaryDto> getIngredientWithItsMoreExpensivePizza(final Collection<String> ingredientNames) {
+        if (null == ingredientNames) {
+            return List.of();
+        }
+        return ingredientNames.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new))
+                .stream()
+                .flatMap(ingredient ->
+                        ingredientIndex.findMostExpensivePizza(ingredient)
+                                .map(pizza ->
+                                        new IngredientPizzaSummaryDto(
+                                                ingredient,
+                                                pizza.getName(),
+                                                pizza.getCost()
+                                        )
+                                )
+                                .stream()
+                )
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+}
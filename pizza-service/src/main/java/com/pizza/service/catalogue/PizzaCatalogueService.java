@@ -0,0 +1,335 @@
+package com.pizza.service.catalogue;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.pizza.configuration.catalogue.CatalogueConfiguration;
+import com.pizza.dto.IngredientPizzaSummaryDto;
+import com.pizza.dto.PizzaDto;
+import com.pizza.event.PizzaSavedEvent;
+import com.pizza.model.Pizza;
+import com.pizza.service.IngredientService;
+import com.pizza.service.PizzaService;
+import com.pizza.util.converter.PizzaConverter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+
+/**
+ *    Keeps the {@link PizzaCatalogue} used to serve the reads of {@link Pizza}s without querying the database. The
+ * snapshot is never modified, every change replaces it by a new one:
+ * <p>
+ *   - When {@link Pizza}s are saved by this instance, once the transaction has been committed, the new snapshot is
+ *     built from the current one and all the {@link Pizza}s saved in that transaction, and the other instances are
+ *     notified with a single message of a Hazelcast topic.
+ *   - When the notification is received from another instance, the snapshot is rebuilt with the content of the
+ *     database in the {@code persistenceScheduler}. The rebuilds requested while another one is running are merged
+ *     into a single one.
+ * <p>
+ *    Until the first snapshot has been built, or if it is disabled, {@link PizzaCatalogueService#getSnapshot()} returns
+ * {@link Optional#empty()} and the reads must be served by {@link PizzaService}.
+ */
+@Log4j2
+@Service
+public class PizzaCatalogueService {
+
+    private final CatalogueConfiguration configuration;
+
+    private final PizzaService pizzaService;
+
+    private final IngredientService ingredientService;
+
+    private final PizzaConverter converter;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final Scheduler persistenceScheduler;
+
+    private final AtomicReference<PizzaCatalogue> snapshot;
+
+    private final AtomicLong lastVersion;
+
+    private final AtomicInteger pendingRebuilds;
+
+    // Key of the transaction resource with the pizzas saved in the current transaction
+    private final Object savedPizzasResourceKey;
+
+
+    @Autowired
+    public PizzaCatalogueService(@Lazy final CatalogueConfiguration configuration,
+                                 @Lazy final PizzaService pizzaService,
+                                 @Lazy final IngredientService ingredientService,
+                                 @Lazy final PizzaConverter converter,
+                                 @Lazy final HazelcastInstance hazelcastInstance,
+                                 final PlatformTransactionManager transactionManager,
+                                 @Qualifier("persistenceScheduler") final Scheduler persistenceScheduler) {
+        this.configuration = configuration;
+        this.pizzaService = pizzaService;
+        this.ingredientService = ingredientService;
+        this.converter = converter;
+        this.hazelcastInstance = hazelcastInstance;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.persistenceScheduler = persistenceScheduler;
+        this.snapshot = new AtomicReference<>();
+        this.lastVersion = new AtomicLong(0);
+        this.pendingRebuilds = new AtomicInteger(0);
+        this.savedPizzasResourceKey = new Object();
+    }
+
+
+    /**
+     * Returns the current snapshot of the {@link Pizza}s.
+     *
+     * @return {@link Optional} with the {@link PizzaCatalogue} if it has been built, {@link Optional#empty()} otherwise
+     */
+    public Optional<PizzaCatalogue> getSnapshot() {
+        return Optional.ofNullable(
+                snapshot.get()
+        );
+    }
+
+
+    /**
+     *    Returns the {@link PizzaDto}s whose ingredients verify all the given filters, using the current snapshot or,
+     * if it has not been built yet or it is disabled, querying the database in the {@code persistenceScheduler}.
+     *
+     * @param allOf
+     *    Names of the ingredients that every returned {@link PizzaDto} must contain
+     * @param anyOf
+     *    Names of the ingredients of which every returned {@link PizzaDto} must contain at least one
+     * @param noneOf
+     *    Names of the ingredients that the returned {@link PizzaDto}s must not contain
+     *
+     * @return {@link Mono} with the {@link List} of {@link PizzaDto} sorted by identifier
+     */
+    public Mono<List<PizzaDto>> findByIngredients(final Collection<String> allOf,
+                                                  final Collection<String> anyOf,
+                                                  final Collection<String> noneOf) {
+        return getSnapshot()
+                .map(catalogue ->
+                        Mono.just(
+                                catalogue.findByIngredients(
+                                        allOf,
+                                        anyOf,
+                                        noneOf
+                                )
+                        )
+                )
+                .orElseGet(() ->
+                        Mono.fromCallable(() ->
+                                        readOnlyTransactionTemplate.execute(status ->
+                                                converter.fromModelsToDtos(
+                                                        pizzaService.findWithIngredientsByIngredients(
+                                                                allOf,
+                                                                anyOf,
+                                                                noneOf
+                                                        )
+                                                )
+                                        )
+                                )
+                                .subscribeOn(persistenceScheduler)
+                );
+    }
+
+
+    /**
+     *    Returns every one of the given ingredient names with its most expensive {@link Pizza}, using the current
+     * snapshot or, if it has not been built yet or it is disabled, querying the database in the
+     * {@code persistenceScheduler}.
+     *
+     * @param ingredientNames
+     *    {@link Collection} of ingredient names to search
+     *
+     * @return {@link Mono} with the {@link List} of {@link IngredientPizzaSummaryDto}
+     */
+    public Mono<List<IngredientPizzaSummaryDto>> getIngredientWithItsMoreExpensivePizza(final Collection<String> ingredientNames) {
+        return getSnapshot()
+                .map(catalogue ->
+                        Mono.just(
+                                catalogue.getIngredientWithItsMoreExpensivePizza(ingredientNames)
+                        )
+                )
+                .orElseGet(() ->
+                        Mono.fromCallable(() ->
+                                        readOnlyTransactionTemplate.execute(status ->
+                                                ingredientService.getIngredientWithItsMoreExpensivePizza(ingredientNames)
+                                        )
+                                )
+                                .subscribeOn(persistenceScheduler)
+                );
+    }
+
+
+    /**
+     * Subscribes to the changes made by other instances and builds the first snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!configuration.isEnabled()) {
+            return;
+        }
+        getTopic().addMessageListener(message -> {
+            if (!message.getPublishingMember().localMember()) {
+                scheduleRebuild();
+            }
+        });
+        scheduleRebuild();
+    }
+
+
+    /**
+     *    Includes the saved {@link Pizza} in a new snapshot and notifies the other instances, once the transaction
+     * that saved it has been committed. All the {@link Pizza}s saved in the same transaction are included together,
+     * so only one snapshot is built and only one notification is sent.
+     *
+     * @param event
+     *    {@link PizzaSavedEvent} with the saved {@link Pizza}
+     */
+    @EventListener
+    public void onPizzaSaved(final PizzaSavedEvent event) {
+        if (!configuration.isEnabled() ||
+                null == event ||
+                null == event.getPizza()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            getSavedPizzasOfCurrentTransaction()
+                    .add(event.getPizza());
+        } else {
+            includeSavedPizzas(
+                    List.of(event.getPizza())
+            );
+        }
+    }
+
+
+    /**
+     *    Rebuilds the snapshot with the content of the database in the {@code persistenceScheduler}. If there is a
+     * rebuild in progress, another one will be executed when it finishes.
+     */
+    public void scheduleRebuild() {
+        if (0 == pendingRebuilds.getAndIncrement()) {
+            persistenceScheduler.schedule(this::rebuild);
+        }
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private List<Pizza> getSavedPizzasOfCurrentTransaction() {
+        List<Pizza> savedPizzas = (List<Pizza>) TransactionSynchronizationManager.getResource(savedPizzasResourceKey);
+        if (null == savedPizzas) {
+            List<Pizza> newSavedPizzas = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(savedPizzasResourceKey, newSavedPizzas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    includeSavedPizzas(newSavedPizzas);
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(savedPizzasResourceKey);
+                }
+
+            });
+            savedPizzas = newSavedPizzas;
+        }
+        return savedPizzas;
+    }
+
+
+    private void includeSavedPizzas(final List<Pizza> savedPizzas) {
+        if (savedPizzas.isEmpty()) {
+            return;
+        }
+        final PizzaCatalogue current = snapshot.updateAndGet(previous ->
+                null == previous
+                        ? null
+                        : previous.with(
+                                lastVersion.incrementAndGet(),
+                                converter.fromModelsToDtos(savedPizzas)
+                          )
+        );
+        if (null == current) {
+            // The first snapshot could be loading with the content of the database before the commit
+            scheduleRebuild();
+        }
+        try {
+            getTopic().publish(
+                    lastVersion.get()
+            );
+        } catch (Exception e) {
+            log.error("The change of the pizza catalogue could not be sent to the other instances", e);
+        }
+    }
+
+
+    private void rebuild() {
+        int requestedRebuilds;
+        do {
+            requestedRebuilds = pendingRebuilds.get();
+            try {
+                PizzaCatalogue previous;
+                PizzaCatalogue current;
+                do {
+                    // Retried if the saved pizzas have been included while the database was read
+                    previous = snapshot.get();
+                    current = loadCatalogue(
+                            lastVersion.incrementAndGet()
+                    );
+                } while (!snapshot.compareAndSet(previous, current));
+
+                log.info(
+                        format("The pizza catalogue has been rebuilt: %s",
+                                current
+                        )
+                );
+            } catch (Exception e) {
+                log.error("The pizza catalogue could not be rebuilt, the previous one will be used", e);
+            }
+        } while (0 < pendingRebuilds.addAndGet(-requestedRebuilds));
+    }
+
+
+    private PizzaCatalogue loadCatalogue(final long version) {
+        return PizzaCatalogue.of(
+                version,
+                readOnlyTransactionTemplate.execute(status ->
+                        converter.fromModelsToDtos(
+                                pizzaService.findAllWithIngredients()
+                        )
+                )
+        );
+    }
+
+
+    private ITopic<Long> getTopic() {
+        return hazelcastInstance.getTopic(
+                configuration.getTopicName()
+        );
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.pizza.service.importer;
+
+import com.pizza.configuration.importer.PizzaImportConfiguration;
+import com.pizza.dto.PizzaDto;
+import com.pizza.dto.PizzaImportResultDto;
+import com.pizza.model.Pizza;
+import com.pizza.service.PizzaService;
+import com.pizza.util.converter.PizzaConverter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.pizza.dto.PizzaImportResultDto.Status.FAILED;
+import static com.pizza.dto.PizzaImportResultDto.Status.INVALID;
+import static com.pizza.dto.PizzaImportResultDto.Status.SAVED;
+import static java.lang.String.format;
+import static java.util.Optional.ofNullable;
+
+/**
+ *    Imports a stream of {@link PizzaDto}s without keeping all of them in memory: every one is validated when it is
+ * received and the valid ones are saved in chunks of {@code pizza.import.batchSize}, every chunk in its own transaction
+ * in the {@code persistenceScheduler}. The next chunk is not requested until the previous one has been saved, so a
+ * client sending faster than the database writes is slowed down instead of filling the memory.
+ * <p>
+ *    If a chunk cannot be saved, its transaction is rolled back and its pizzas are saved one by one, so only the ones
+ * that fail are reported as {@link PizzaImportResultDto.Status#FAILED}, like the empty ones.
+ */
+@Log4j2
+@Service
+public class PizzaImportService {
+
+    private final PizzaImportConfiguration configuration;
+
+    private final PizzaService pizzaService;
+
+    private final PizzaConverter converter;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Scheduler persistenceScheduler;
+
+
+    @Autowired
+    public PizzaImportService(@Lazy final PizzaImportConfiguration configuration,
+                              @Lazy final PizzaService pizzaService,
+                              @Lazy final PizzaConverter converter,
+                              @Lazy final Validator validator,
+                              final PlatformTransactionManager transactionManager,
+                              @Qualifier("persistenceScheduler") final Scheduler persistenceScheduler) {
+        this.configuration = configuration;
+        this.pizzaService = pizzaService;
+        this.converter = converter;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+
+    /**
+     * Validates and saves the given {@link PizzaDto}s.
+     *
+     * @param pizzas
+     *    {@link Flux} of {@link PizzaDto} to import
+     *
+     * @return {@link Flux} with the {@link PizzaImportResultDto} of every {@link PizzaDto}, in the same order
+     */
+    public Flux<PizzaImportResultDto> importPizzas(final Flux<PizzaDto> pizzas) {
+        return pizzas
+                .index((index, pizza) ->
+                        new ImportItem(
+                                index,
+                                pizza,
+                                validate(pizza)
+                        )
+                )
+                .buffer(configuration.getBatchSize())
+                .concatMap(chunk ->
+                                Mono.fromCallable(() ->
+                                                importChunk(chunk)
+                                        )
+                                        .subscribeOn(persistenceScheduler)
+                                        .flatMapIterable(Function.identity()),
+                           1
+                );
+    }
+
+
+    private List<PizzaImportResultDto> importChunk(final List<ImportItem> chunk) {
+        List<PizzaImportResultDto> results = new ArrayList<>(chunk.size());
+        List<ImportItem> validItems = new ArrayList<>(chunk.size());
+        chunk.forEach(item -> {
+            if (null == item.pizza) {
+                results.add(
+                        result(item, FAILED, null, List.of("The pizza is empty"))
+                );
+            } else if (item.errors.isEmpty()) {
+                validItems.add(item);
+            } else {
+                results.add(
+                        result(item, INVALID, null, item.errors)
+                );
+            }
+        });
+        if (!validItems.isEmpty()) {
+            results.addAll(
+                    save(validItems)
+            );
+        }
+        results.sort(Comparator.comparingLong(PizzaImportResultDto::getIndex));
+        return results;
+    }
+
+
+    private List<PizzaImportResultDto> save(final List<ImportItem> items) {
+        try {
+            return transactionTemplate.execute(status ->
+                    items.stream()
+                            .map(this::save)
+                            .collect(Collectors.toList())
+            );
+        } catch (Exception e) {
+            log.warn(
+                    format("The chunk of pizzas from the position: %d could not be saved, they will be saved one by one",
+                            items.get(0).index
+                    ),
+                    e
+            );
+            return items.stream()
+                    .map(item -> {
+                        try {
+                            return transactionTemplate.execute(status ->
+                                    save(item)
+                            );
+                        } catch (Exception itemException) {
+                            return result(item, FAILED, null, List.of(getErrorMessage(itemException)));
+                        }
+                    })
+                    .collect(Collectors.toList());
+        }
+    }
+
+
+    private PizzaImportResultDto save(final ImportItem item) {
+        return pizzaService.save(
+                        converter.fromDtoToModel(item.pizza)
+                )
+                .map(Pizza::getId)
+                .map(id ->
+                        result(item, SAVED, id, List.of())
+                )
+                .orElseGet(() ->
+                        result(item, FAILED, null, List.of("The pizza could not be saved"))
+                );
+    }
+
+
+    private List<String> validate(final PizzaDto pizza) {
+        return ofNullable(pizza)
+                .map(validator::validate)
+                .orElseGet(Set::of)
+                .stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+
+    private static String getErrorMessage(final Exception exception) {
+        return ofNullable(exception.getMessage())
+                .orElseGet(() -> exception.getClass().getName());
+    }
+
+
+    private static PizzaImportResultDto result(final ImportItem item,
+                                               final PizzaImportResultDto.Status status,
+                                               final Integer id,
+                                               final List<String> errors) {
+        return new PizzaImportResultDto(
+                item.index,
+                ofNullable(item.pizza)
+                        .map(PizzaDto::getName)
+                        .orElse(null),
+                status,
+                id,
+                errors
+        );
+    }
+
+
+    private static final class ImportItem {
+
+        private final long index;
+
+        private final PizzaDto pizza;
+
+        // Validation errors, empty if the pizza is valid
+        private final List<String> errors;
+
+        private ImportItem(final long index,
+                           final PizzaDto pizza,
+                           final List<String> errors) {
+            this.index = index;
+            this.pizza = pizza;
+            this.errors = errors;
+        }
+
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.pizza.util;
+
+import com.pizza.enums.PizzaEnum;
+import com.pizza.model.Pizza;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ *    Position in a list of {@link Pizza}s sorted by {@code property} and {@link Pizza#getId()}, used to get the next
+ * page of them seeking on both values instead of skipping the previous ones. The position is sent to the clients as
+ * an opaque continuation token (see {@link KeysetPosition#encode()}).
+ */
+@AllArgsConstructor
+@EqualsAndHashCode
+@Getter
+@ToString
+public class KeysetPosition {
+
+    public static final String ID_PROPERTY = "id";
+    public static final String NAME_PROPERTY = "name";
+    public static final String COST_PROPERTY = "cost";
+
+    public static final List<String> SORTABLE_PROPERTIES = List.of(ID_PROPERTY, NAME_PROPERTY, COST_PROPERTY);
+
+    private static final String SEPARATOR = "|";
+    private static final String SEPARATOR_REGEX = "\\|";
+
+    private final String property;
+
+    private final Sort.Direction direction;
+
+    // Value of property in the last returned Pizza, null in the first page
+    private final String lastValue;
+
+    // Identifier of the last returned Pizza, null in the first page
+    private final Integer lastId;
+
+
+    /**
+     * Returns the position of the first page of {@link Pizza}s sorted by the given {@code property} and {@code direction}.
+     *
+     * @param property
+     *    Property used to sort the {@link Pizza}s
+     * @param direction
+     *    {@link Sort.Direction} of the sorting
+     *
+     * @return {@link KeysetPosition}
+     *
+     * @throws IllegalArgumentException if {@code property} is not included in {@link KeysetPosition#SORTABLE_PROPERTIES}
+     */
+    public static KeysetPosition first(final String property,
+                                       final Sort.Direction direction) {
+        if (!SORTABLE_PROPERTIES.contains(property)) {
+            throw new IllegalArgumentException(
+                    format("The property: %s cannot be used to sort. Allowed properties: %s",
+                            property,
+                            SORTABLE_PROPERTIES
+                    )
+            );
+        }
+        return new KeysetPosition(
+                property,
+                null == direction
+                        ? Sort.Direction.DESC
+                        : direction,
+                null,
+                null
+        );
+    }
+
+
+    /**
+     * Returns the position just after the given {@link Pizza}, with the same sorting.
+     *
+     * @param pizza
+     *    Last {@link Pizza} of the current page
+     *
+     * @return {@link KeysetPosition}
+     */
+    public KeysetPosition after(final Pizza pizza) {
+        return new KeysetPosition(
+                property,
+                direction,
+                getValue(pizza),
+                pizza.getId()
+        );
+    }
+
+
+    /**
+     * Checks if this is the position of the first page.
+     */
+    public boolean isFirst() {
+        return null == lastId;
+    }
+
+
+    /**
+     * Converts this {@link KeysetPosition} into an opaque token that can be included in an URL.
+     *
+     * @return {@link String} with the token
+     */
+    public String encode() {
+        final String rawValue = String.join(
+                SEPARATOR,
+                property,
+                direction.name(),
+                String.valueOf(lastId),
+                null == lastValue
+                        ? ""
+                        : lastValue
+        );
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(
+                        rawValue.getBytes(StandardCharsets.UTF_8)
+                );
+    }
+
+
+    /**
+     * Gets the {@link KeysetPosition} included in the given token.
+     *
+     * @param token
+     *    Token generated by {@link KeysetPosition#encode()}
+     *
+     * @return {@link KeysetPosition}
+     *
+     * @throws IllegalArgumentException if {@code token} was not generated by {@link KeysetPosition#encode()}
+     */
+    public static KeysetPosition decode(final String token) {
+        try {
+            final String rawValue = new String(
+                    Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8
+            );
+            // The last value is the latest part, so it can contain the separator
+            final String[] parts = rawValue.split(SEPARATOR_REGEX, 4);
+            final KeysetPosition first = first(
+                    parts[0],
+                    Sort.Direction.valueOf(parts[1])
+            );
+            final Integer lastId = Integer.valueOf(parts[2]);
+            final String lastValue = parts[3];
+            validateValue(
+                    first.property,
+                    lastValue
+            );
+            return new KeysetPosition(
+                    first.property,
+                    first.direction,
+                    lastValue,
+                    lastId
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(
+                    format("The token: %s is not valid",
+                            token
+                    ),
+                    e
+            );
+        }
+    }
+
+
+    /**
+     * Checks if the given {@code value} could be generated by {@link KeysetPosition#getValue(Pizza)} for {@code property}.
+     *
+     * @param property
+     *    Property used to sort the {@link Pizza}s
+     * @param value
+     *    Value of {@code property} in the last returned {@link Pizza}
+     *
+     * @throws IllegalArgumentException if {@code value} is not valid for {@code property}
+     */
+    private static void validateValue(final String property,
+                                      final String value) {
+        switch (property) {
+            case NAME_PROPERTY:
+                PizzaEnum.getFromDatabaseValue(value)
+                        .orElseThrow(() ->
+                                new IllegalArgumentException(
+                                        format("The pizza name: %s does not exist",
+                                                value
+                                        )
+                                )
+                        );
+                break;
+            case COST_PROPERTY:
+                Double.parseDouble(value);
+                break;
+            default:
+                Integer.parseInt(value);
+        }
+    }
+
+
+    private String getValue(final Pizza pizza) {
+        switch (property) {
+            case NAME_PROPERTY:
+                return pizza.getName().getInternalPropertyValue();
+            case COST_PROPERTY:
+                return String.valueOf(pizza.getCost());
+            default:
+                return String.valueOf(pizza.getId());
+        }
+    }
+
+}
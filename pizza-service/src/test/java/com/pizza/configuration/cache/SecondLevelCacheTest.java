@@ -0,0 +1,143 @@
+package com.pizza.configuration.cache;
+
+import com.pizza.PizzaServiceApplication;
+import com.pizza.grpc.server.GrpcServerRunner;
+import com.pizza.model.Ingredient;
+import com.pizza.model.Pizza;
+import com.pizza.repository.IngredientRepository;
+import com.pizza.repository.PizzaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Set;
+
+import static com.pizza.configuration.Constants.CACHE_REGION;
+import static com.pizza.enums.PizzaEnum.CARBONARA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = PizzaServiceApplication.class)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private PizzaRepository pizzaRepository;
+
+    @Autowired
+    private IngredientRepository ingredientRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // To avoid gRPC server initialization
+    @MockBean
+    private GrpcServerRunner grpcServerRunner;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+
+    @BeforeEach
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+
+    @Test
+    @DisplayName("findById: when it is invoked twice then the second time the pizza and its ingredients are got from the cache")
+    public void findById_whenItIsInvokedTwice_thenTheSecondTimeThePizzaAndItsIngredientsAreGotFromTheCache() {
+        Integer pizzaId = pizzaRepository.findByName(CARBONARA).get().getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        Pizza first = findByIdWithIngredients(pizzaId);
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        Pizza second = findByIdWithIngredients(pizzaId);
+
+        assertEquals(first, second);
+        assertEquals(first.getIngredients(), second.getIngredients());
+        assertEquals(statementsAfterFirst, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(CACHE_REGION.PIZZA).getHitCount());
+        assertTrue(0 < statistics.getDomainDataRegionStatistics(CACHE_REGION.PIZZA_INGREDIENTS).getHitCount());
+        assertTrue(first.getIngredients().size() <= statistics.getDomainDataRegionStatistics(CACHE_REGION.INGREDIENT).getHitCount());
+        assertEquals(0.5, meterRegistry.get("hibernate.second.level.cache.hit.ratio").tag("region", CACHE_REGION.PIZZA).gauge().value());
+    }
+
+
+    @Test
+    @DisplayName("findByPizzaId: when it is invoked twice then the second time the result is got from the cache")
+    public void findByPizzaId_whenItIsInvokedTwice_thenTheSecondTimeTheResultIsGotFromTheCache() {
+        Integer pizzaId = pizzaRepository.findByName(CARBONARA).get().getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+
+        Set<Ingredient> first = ingredientRepository.findByPizzaId(pizzaId);
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        Set<Ingredient> second = ingredientRepository.findByPizzaId(pizzaId);
+
+        assertEquals(first, second);
+        assertEquals(statementsAfterFirst, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryRegionStatistics(CACHE_REGION.QUERIES).getHitCount());
+        assertEquals(0.5, meterRegistry.get("hibernate.query.cache.hit.ratio").gauge().value());
+    }
+
+
+    @Test
+    @DisplayName("findById: when the ingredients of the pizza are modified then the cached ones are not returned")
+    public void findById_whenTheIngredientsOfThePizzaAreModified_thenTheCachedOnesAreNotReturned() {
+        Integer pizzaId = pizzaRepository.findByName(CARBONARA).get().getId();
+        Set<Ingredient> originalIngredients = Set.copyOf(findByIdWithIngredients(pizzaId).getIngredients());
+        assertEquals(originalIngredients, ingredientRepository.findByPizzaId(pizzaId));
+
+        Ingredient removedIngredient = originalIngredients.iterator().next();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    pizzaRepository.findById(pizzaId).get()
+                            .getIngredients()
+                            .remove(removedIngredient)
+            );
+
+            assertEquals(originalIngredients.size() - 1, findByIdWithIngredients(pizzaId).getIngredients().size());
+            assertTrue(ingredientRepository.findByPizzaId(pizzaId).stream().noneMatch(removedIngredient::equals));
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    pizzaRepository.findById(pizzaId).get()
+                            .getIngredients()
+                            .add(
+                                    ingredientRepository.findById(removedIngredient.getId()).get()
+                            )
+            );
+        }
+        assertEquals(originalIngredients, findByIdWithIngredients(pizzaId).getIngredients());
+    }
+
+
+    private Pizza findByIdWithIngredients(final Integer pizzaId) {
+        return transactionTemplate.execute(status -> {
+            Pizza pizza = pizzaRepository.findById(pizzaId).get();
+            Hibernate.initialize(pizza.getIngredients());
+            return pizza;
+        });
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.pizza.configuration.cache.hibernate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalStorageAccessTest {
+
+    @Test
+    @DisplayName("getFromCache: when the key was stored then its value is returned")
+    public void getFromCache_whenTheKeyWasStored_thenItsValueIsReturned() {
+        LocalStorageAccess storage = new LocalStorageAccess(2, 60000);
+        storage.putIntoCache("key", "value", null);
+
+        assertEquals("value", storage.getFromCache("key", null));
+        assertTrue(storage.contains("key"));
+        assertNull(storage.getFromCache("notStoredKey", null));
+    }
+
+
+    @Test
+    @DisplayName("getFromCache: when the entry has expired then null is returned")
+    public void getFromCache_whenTheEntryHasExpired_thenNullIsReturned() throws InterruptedException {
+        LocalStorageAccess storage = new LocalStorageAccess(2, 1);
+        storage.putIntoCache("key", "value", null);
+        Thread.sleep(10);
+
+        assertNull(storage.getFromCache("key", null));
+        assertFalse(storage.contains("key"));
+        assertEquals(0, storage.size());
+    }
+
+
+    @Test
+    @DisplayName("putIntoCache: when the maximum number of entries is exceeded then the least recently used is removed")
+    public void putIntoCache_whenTheMaximumNumberOfEntriesIsExceeded_thenTheLeastRecentlyUsedIsRemoved() {
+        LocalStorageAccess storage = new LocalStorageAccess(2, 60000);
+        storage.putIntoCache("key1", "value1", null);
+        storage.putIntoCache("key2", "value2", null);
+        storage.getFromCache("key1", null);
+
+        storage.putIntoCache("key3", "value3", null);
+
+        assertEquals(2, storage.size());
+        assertEquals("value1", storage.getFromCache("key1", null));
+        assertNull(storage.getFromCache("key2", null));
+        assertEquals("value3", storage.getFromCache("key3", null));
+    }
+
+
+    @Test
+    @DisplayName("evictData: when it is invoked then all entries are removed")
+    public void evictData_whenItIsInvoked_thenAllEntriesAreRemoved() {
+        LocalStorageAccess storage = new LocalStorageAccess(2, 60000);
+        storage.putIntoCache("key1", "value1", null);
+        storage.putIntoCache("key2", "value2", null);
+
+        storage.evictData();
+
+        assertEquals(0, storage.size());
+    }
+
+}
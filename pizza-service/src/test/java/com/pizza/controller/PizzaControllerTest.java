@@ -4,11 +4,16 @@ import com.pizza.PizzaServiceApplication;
 import com.pizza.configuration.Constants;
 import com.pizza.configuration.rest.RestRoutes;
 import com.pizza.dto.IngredientDto;
+import com.pizza.dto.IngredientPizzaSummaryDto;
 import com.pizza.dto.PizzaDto;
+import com.pizza.dto.PizzaImportResultDto;
 import com.pizza.enums.PizzaEnum;
 import com.pizza.model.Ingredient;
 import com.pizza.model.Pizza;
 import com.pizza.service.PizzaService;
+import com.pizza.service.catalogue.PizzaCatalogue;
+import com.pizza.service.catalogue.PizzaCatalogueService;
+import com.pizza.util.KeysetPosition;
 import com.spring5microservices.common.dto.ErrorResponseDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,6 +25,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -37,8 +45,11 @@ import static com.pizza.TestDataFactory.buildIngredient;
 import static com.pizza.TestDataFactory.buildIngredientDto;
 import static com.pizza.TestDataFactory.buildPizza;
 import static com.pizza.TestDataFactory.buildPizzaDto;
+import static com.pizza.dto.PizzaImportResultDto.Status.INVALID;
+import static com.pizza.dto.PizzaImportResultDto.Status.SAVED;
 import static com.pizza.enums.PizzaEnum.CARBONARA;
 import static com.spring5microservices.common.enums.RestApiErrorCode.VALIDATION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -54,6 +65,9 @@ public class PizzaControllerTest extends BaseControllerTest {
     @MockBean
     private PizzaService mockPizzaService;
 
+    @MockBean
+    private PizzaCatalogueService mockPizzaCatalogueService;
+
     private WebTestClient webTestClient;
 
 
@@ -177,6 +191,112 @@ public class PizzaControllerTest extends BaseControllerTest {
     }
 
 
+    @Test
+    public void importPizzas_whenNoLoggedUserIsGiven_thenUnauthorizedHttpCodeIsReturned() {
+        // When/Then
+        webTestClient.post()
+                .uri(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.IMPORT)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+
+    @Test
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    public void importPizzas_whenNotValidAuthorityIsGiven_thenForbiddenHttpCodeIsReturned() {
+        // When/Then
+        webTestClient.post()
+                .uri(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.IMPORT)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+
+    static Stream<Arguments> importPizzasWhenValidAndInvalidPizzasAreGivenTestCases() {
+        String validPizza = "{\"name\":\"" + CARBONARA.getInternalPropertyValue() + "\",\"cost\":7.5,\"ingredients\":[{\"name\":\"Cheese\"}]}";
+        String invalidPizza = "{\"name\":\"" + CARBONARA.getInternalPropertyValue() + "\"}";
+        return Stream.of(
+                //@formatter:off
+                //            contentType,                     body
+                Arguments.of( MediaType.APPLICATION_NDJSON,    validPizza + "\n" + invalidPizza + "\n" ),
+                Arguments.of( MediaType.APPLICATION_JSON,      "[" + validPizza + "," + invalidPizza + "]" )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("importPizzasWhenValidAndInvalidPizzasAreGivenTestCases")
+    @DisplayName("importPizzas: when valid and invalid pizzas are given")
+    @WithMockUser(authorities = {Constants.ROLE_ADMIN})
+    public void importPizzas_whenValidAndInvalidPizzasAreGiven_thenOnlyValidOnesAreSavedAndTheResultOfEveryOneIsReturned(MediaType contentType,
+                                                                                                                          String body) {
+        // Given
+        Pizza savedPizza = buildPizza(1, CARBONARA, 7.5D, Set.of(buildIngredient(1, "Cheese")));
+
+        // When
+        when(mockPizzaService.save(any())).thenReturn(of(savedPizza));
+
+        // Then
+        List<PizzaImportResultDto> results = webTestClient.post()
+                .uri(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.IMPORT)
+                .contentType(contentType)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PizzaImportResultDto.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(
+                List.of(
+                        new PizzaImportResultDto(0, CARBONARA.getInternalPropertyValue(), SAVED, savedPizza.getId(), List.of()),
+                        new PizzaImportResultDto(1, CARBONARA.getInternalPropertyValue(), INVALID, null, List.of("cost: must not be null"))
+                ),
+                results
+        );
+        verify(mockPizzaService, times(1)).save(any());
+    }
+
+
+    @Test
+    public void exportAllWithIngredients_whenNoLoggedUserIsGiven_thenUnauthorizedHttpCodeIsReturned() {
+        // When/Then
+        webTestClient.get()
+                .uri(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.EXPORT)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+
+    @Test
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    public void exportAllWithIngredients_whenThereArePizzas_thenOkHttpCodeAndAllPizzaDtosAreReturned() {
+        // Given
+        Pizza carbonara = buildPizza(1, CARBONARA, 7D, Set.of(buildIngredient(1, "Cheese")));
+        Pizza margherita = buildPizza(2, PizzaEnum.MARGUERITA, 6D, Set.of());
+        PizzaDto carbonaraDto = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of(buildIngredientDto(1, "Cheese")));
+        PizzaDto margheritaDto = buildPizzaDto(2, PizzaEnum.MARGUERITA.getInternalPropertyValue(), 6D, Set.of());
+
+        // When
+        when(mockPizzaService.findKeysetPageWithIngredients(any(), anyInt())).thenReturn(new SliceImpl<>(List.of(carbonara, margherita)));
+
+        // Then
+        webTestClient.get()
+                .uri(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.EXPORT)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(PizzaDto.class)
+                .isEqualTo(List.of(carbonaraDto, margheritaDto));
+    }
+
+
     @Test
     public void findByName_whenNoLoggedUserIsGiven_thenUnauthorizedHttpCodeIsReturned() {
         // Given
@@ -260,6 +380,35 @@ public class PizzaControllerTest extends BaseControllerTest {
     }
 
 
+    @Test
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    public void findByName_whenTheCatalogueHasBeenBuilt_thenThePizzaDtoIsReturnedWithoutUsingTheService() {
+        // Given
+        PizzaDto pizzaDto = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of(buildIngredientDto(1, "Bacon")));
+        PizzaCatalogue catalogue = PizzaCatalogue.of(1, List.of(pizzaDto));
+
+        // When
+        when(mockPizzaCatalogueService.getSnapshot()).thenReturn(of(catalogue));
+
+        // Then
+        webTestClient.get()
+                .uri(RestRoutes.PIZZA.ROOT + "/" + pizzaDto.getName())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON_VALUE)
+                .expectBody(PizzaDto.class)
+                .isEqualTo(pizzaDto);
+
+        webTestClient.get()
+                .uri(RestRoutes.PIZZA.ROOT + "/" + PizzaEnum.HAWAIIAN.getInternalPropertyValue())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().isEmpty();
+
+        verify(mockPizzaService, times(0)).findByName(anyString());
+    }
+
+
     @Test
     public void findPageWithIngredients_whenNoLoggedUserIsGiven_thenUnauthorizedHttpCodeIsReturned() {
         // Given
@@ -388,6 +537,162 @@ public class PizzaControllerTest extends BaseControllerTest {
     }
 
 
+    @Test
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    public void findKeysetPageWithIngredients_whenTokenIsNotValid_thenBadRequestHttpCodeIsReturned() {
+        // When/Then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.KEYSET_PAGE_WITH_INGREDIENTS)
+                        .queryParam("size", 1)
+                        .queryParam("token", "notValid")
+                        .build())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(mockPizzaService, times(0)).findKeysetPageWithIngredients(any(), anyInt());
+    }
+
+
+    @Test
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    public void findKeysetPageWithIngredients_whenThereAreMoreResults_thenPageWithNextTokenIsReturned() {
+        // Given
+        int size = 1;
+        PizzaEnum pizzaName = CARBONARA;
+        IngredientDto ingredientDto = buildIngredientDto(1, "Bacon");
+        Ingredient ingredient = buildIngredient(ingredientDto.getId(), ingredientDto.getName());
+        PizzaDto pizzaDto = buildPizzaDto(1, pizzaName.getInternalPropertyValue(), 7D, Set.of(ingredientDto));
+        Pizza pizza = buildPizza(pizzaDto.getId(), pizzaName, pizzaDto.getCost(), Set.of(ingredient));
+        KeysetPosition position = KeysetPosition.first(KeysetPosition.COST_PROPERTY, Sort.Direction.ASC);
+
+        // When
+        when(mockPizzaService.findKeysetPageWithIngredients(position, size))
+                .thenReturn(new SliceImpl<>(List.of(pizza), PageRequest.of(0, size), true));
+        when(mockPizzaService.count()).thenReturn(3L);
+
+        // Then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.KEYSET_PAGE_WITH_INGREDIENTS)
+                        .queryParam("size", size)
+                        .queryParam("sort", KeysetPosition.COST_PROPERTY)
+                        .queryParam("direction", Sort.Direction.ASC)
+                        .queryParam("includeTotal", true)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON_VALUE)
+                .expectBody()
+                .jsonPath("$.content.[0].id").isEqualTo(pizzaDto.getId())
+                .jsonPath("$.content.[0].ingredients.[0].name").isEqualTo(ingredientDto.getName())
+                .jsonPath("$.nextToken").isEqualTo(position.after(pizza).encode())
+                .jsonPath("$.totalElements").isEqualTo(3);
+    }
+
+
+    @Test
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    public void findKeysetPageWithIngredients_whenThereAreNoMoreResults_thenPageWithoutNextTokenIsReturned() {
+        // Given
+        int size = 2;
+        Pizza pizza = buildPizza(3, CARBONARA, 7D, Set.of());
+        KeysetPosition position = KeysetPosition.first(KeysetPosition.ID_PROPERTY, Sort.Direction.DESC)
+                .after(buildPizza(4, PizzaEnum.HAWAIIAN, 8D, Set.of()));
+
+        // When
+        when(mockPizzaService.findKeysetPageWithIngredients(position, size))
+                .thenReturn(new SliceImpl<>(List.of(pizza), PageRequest.of(0, size), false));
+
+        // Then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.KEYSET_PAGE_WITH_INGREDIENTS)
+                        .queryParam("size", size)
+                        .queryParam("token", position.encode())
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.[0].id").isEqualTo(pizza.getId())
+                .jsonPath("$.nextToken").doesNotExist()
+                .jsonPath("$.totalElements").doesNotExist();
+
+        verify(mockPizzaService, times(0)).count();
+    }
+
+
+    @Test
+    public void findByIngredients_whenNoLoggedUserIsGiven_thenUnauthorizedHttpCodeIsReturned() {
+        // When/Then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.BY_INGREDIENTS)
+                        .queryParam("allOf", "Cheese")
+                        .build())
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+
+    @Test
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    public void findByIngredients_whenFiltersAreGiven_thenThePizzasThatVerifyThemAreReturned() {
+        // Given
+        IngredientDto cheese = buildIngredientDto(1, "Cheese");
+        IngredientDto bacon = buildIngredientDto(2, "Bacon");
+        PizzaDto carbonara = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of(cheese, bacon));
+
+        // When
+        when(mockPizzaCatalogueService.findByIngredients(Set.of("Cheese"), Set.of("Bacon", "Tomato"), Set.of("Pineapple")))
+                .thenReturn(Mono.just(List.of(carbonara)));
+
+        // Then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.BY_INGREDIENTS)
+                        .queryParam("allOf", "Cheese")
+                        .queryParam("anyOf", "Bacon", "Tomato")
+                        .queryParam("noneOf", "Pineapple")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON_VALUE)
+                .expectBodyList(PizzaDto.class)
+                .isEqualTo(List.of(carbonara));
+    }
+
+
+    @Test
+    public void getIngredientWithItsMoreExpensivePizza_whenNoLoggedUserIsGiven_thenUnauthorizedHttpCodeIsReturned() {
+        // When/Then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.MORE_EXPENSIVE_BY_INGREDIENT)
+                        .queryParam("ingredients", "Cheese")
+                        .build())
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+
+    @Test
+    @WithMockUser(authorities = {Constants.ROLE_USER})
+    public void getIngredientWithItsMoreExpensivePizza_whenIngredientsAreGiven_thenTheirMoreExpensivePizzasAreReturned() {
+        // Given
+        IngredientPizzaSummaryDto cheese = new IngredientPizzaSummaryDto("Cheese", CARBONARA.getInternalPropertyValue(), 7D);
+
+        // When
+        when(mockPizzaCatalogueService.getIngredientWithItsMoreExpensivePizza(Set.of("Cheese", "Tomato")))
+                .thenReturn(Mono.just(List.of(cheese)));
+
+        // Then
+        webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path(RestRoutes.PIZZA.ROOT + RestRoutes.PIZZA.MORE_EXPENSIVE_BY_INGREDIENT)
+                        .queryParam("ingredients", "Cheese", "Tomato")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON_VALUE)
+                .expectBodyList(IngredientPizzaSummaryDto.class)
+                .isEqualTo(List.of(cheese));
+    }
+
+
     @Test
     public void update_whenNoLoggedUserIsGiven_thenUnauthorizedHttpCodeIsReturned() {
         // When/Then
@@ -0,0 +1,93 @@
+package com.pizza.grpc.converter;
+
+import com.pizza.dto.IngredientDto;
+import com.pizza.dto.PizzaDto;
+import com.spring5microservices.grpc.IngredientResponse;
+import com.spring5microservices.grpc.PizzaResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.pizza.TestDataFactory.buildIngredientDto;
+import static com.pizza.TestDataFactory.buildIngredientResponse;
+import static com.pizza.TestDataFactory.buildPizzaDto;
+import static com.pizza.enums.PizzaEnum.CARBONARA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = PizzaGrpcConverterImpl.class)
+public class PizzaGrpcConverterTest {
+
+    @Autowired
+    private PizzaGrpcConverter converter;
+
+
+    @Test
+    @DisplayName("fromDtoToModel: when method is invoked then UnsupportedOperationException is thrown")
+    public void fromDtoToModel_whenMethodIsInvoked_thenUnsupportedOperationExceptionIsThrown() {
+        PizzaResponse dto = PizzaResponse.newBuilder().setId(1).build();
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> converter.fromDtoToModel(dto)
+        );
+    }
+
+
+    @Test
+    @DisplayName("fromModelToDto: when given model is null then null dto is returned")
+    public void fromModelToDto_whenGivenModelIsNull_thenNullIsReturned() {
+        assertNull(converter.fromModelToDto(null));
+    }
+
+
+    @Test
+    @DisplayName("fromModelToDto: when given model has no ingredients then equivalent dto is returned")
+    public void fromModelToDto_whenGivenModelHasNoIngredients_thenEquivalentDtoIsReturned() {
+        PizzaDto model = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, null);
+
+        PizzaResponse dto = converter.fromModelToDto(model);
+
+        assertEquals(model.getId(), dto.getId());
+        assertEquals(model.getName(), dto.getName());
+        assertEquals(model.getCost(), dto.getCost());
+        assertTrue(dto.getIngredientsList().isEmpty());
+    }
+
+
+    @Test
+    @DisplayName("fromModelToDto: when given model has ingredients then equivalent dto is returned")
+    public void fromModelToDto_whenGivenModelHasIngredients_thenEquivalentDtoIsReturned() {
+        IngredientDto ingredient = buildIngredientDto(2, "Bacon");
+        PizzaDto model = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of(ingredient));
+
+        PizzaResponse dto = converter.fromModelToDto(model);
+
+        assertEquals(model.getId(), dto.getId());
+        assertEquals(model.getName(), dto.getName());
+        assertEquals(model.getCost(), dto.getCost());
+        assertEquals(
+                List.of(buildIngredientResponse(ingredient.getId(), ingredient.getName())),
+                dto.getIngredientsList()
+        );
+    }
+
+
+    @Test
+    @DisplayName("fromModelsToDtos: when given models are not empty then equivalent dtos are returned")
+    public void fromModelsToDtos_whenGivenModelsAreNotEmpty_thenEquivalentDtosAreReturned() {
+        PizzaDto model = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of());
+
+        List<PizzaResponse> dtos = converter.fromModelsToDtos(List.of(model));
+
+        assertEquals(1, dtos.size());
+        assertEquals(model.getId(), dtos.get(0).getId());
+        assertEquals(List.<IngredientResponse>of(), dtos.get(0).getIngredientsList());
+    }
+
+}
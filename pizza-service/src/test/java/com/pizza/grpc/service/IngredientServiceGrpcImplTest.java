@@ -1,34 +1,52 @@
 package com.pizza.grpc.service;
 
+import com.pizza.dto.PizzaDto;
 import com.pizza.grpc.converter.IngredientGrpcConverter;
+import com.pizza.grpc.converter.PizzaGrpcConverter;
 import com.pizza.model.Ingredient;
 import com.pizza.service.IngredientService;
+import com.pizza.service.catalogue.PizzaCatalogue;
+import com.pizza.service.catalogue.PizzaCatalogueService;
+import com.spring5microservices.common.log.AccessLogger;
 import com.spring5microservices.grpc.IngredientResponse;
+import com.spring5microservices.grpc.IngredientsFilterRequest;
 import com.spring5microservices.grpc.PizzaRequest;
+import com.spring5microservices.grpc.PizzaResponse;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import static com.pizza.TestDataFactory.buildIngredient;
+import static com.pizza.TestDataFactory.buildIngredientDto;
 import static com.pizza.TestDataFactory.buildIngredientResponse;
+import static com.pizza.TestDataFactory.buildPizzaDto;
+import static com.pizza.enums.PizzaEnum.CARBONARA;
+import static com.pizza.enums.PizzaEnum.HAWAIIAN;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -40,12 +58,21 @@ public class IngredientServiceGrpcImplTest {
     @Mock
     private IngredientGrpcConverter mockIngredientGrpcConverter;
 
+    @Mock
+    private PizzaCatalogueService mockPizzaCatalogueService;
+
+    @Mock
+    private PizzaGrpcConverter mockPizzaGrpcConverter;
+
+    @Mock
+    private AccessLogger mockAccessLogger;
+
     private IngredientServiceGrpcImpl service;
 
 
     @BeforeEach
     public void init() {
-        service = new IngredientServiceGrpcImpl(mockIngredientService, mockIngredientGrpcConverter);
+        service = new IngredientServiceGrpcImpl(mockIngredientService, mockIngredientGrpcConverter, mockPizzaCatalogueService, mockPizzaGrpcConverter, mockAccessLogger);
     }
 
 
@@ -100,12 +127,87 @@ public class IngredientServiceGrpcImplTest {
     }
 
 
-    private StreamObserver<IngredientResponse> buildStreamObserverForTesting(final Collection<IngredientResponse> ingredientResponse,
-                                                                             final CountDownLatch latch) {
+    static Stream<Arguments> getPizzasByIngredientsTestCases() {
+        IngredientsFilterRequest emptyRequest = IngredientsFilterRequest.newBuilder().build();
+        IngredientsFilterRequest notEmptyRequest = IngredientsFilterRequest.newBuilder()
+                .addAllOf("Cheese")
+                .addNoneOf("Pineapple")
+                .build();
+
+        PizzaDto carbonara = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of(buildIngredientDto(1, "Cheese")));
+        PizzaDto hawaiian = buildPizzaDto(2, HAWAIIAN.getInternalPropertyValue(), 8D, Set.of(buildIngredientDto(1, "Cheese"), buildIngredientDto(2, "Pineapple")));
+        PizzaCatalogue catalogue = PizzaCatalogue.of(1, List.of(carbonara, hawaiian));
+        PizzaResponse carbonaraResponse = PizzaResponse.newBuilder().setId(carbonara.getId()).setName(carbonara.getName()).build();
+        PizzaResponse hawaiianResponse = PizzaResponse.newBuilder().setId(hawaiian.getId()).setName(hawaiian.getName()).build();
+        return Stream.of(
+                //@formatter:off
+                //            ingredientsFilterRequest,   catalogue,   expectedResult
+                Arguments.of( null,                       catalogue,   List.of() ),
+                Arguments.of( emptyRequest,               catalogue,   List.of(carbonaraResponse, hawaiianResponse) ),
+                Arguments.of( notEmptyRequest,            catalogue,   List.of(carbonaraResponse) )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("getPizzasByIngredientsTestCases")
+    @DisplayName("getPizzasByIngredients: test cases")
+    public void getPizzasByIngredients_testCases(IngredientsFilterRequest ingredientsFilterRequest,
+                                                 PizzaCatalogue catalogue,
+                                                 List<PizzaResponse> expectedResult) throws InterruptedException {
+        final List<PizzaResponse> result = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final StreamObserver<PizzaResponse> streamObserver = buildStreamObserverForTesting(
+                result,
+                latch
+        );
+
+        when(mockPizzaCatalogueService.findByIngredients(any(), any(), any()))
+                .thenAnswer(invocation ->
+                        Mono.just(
+                                catalogue.findByIngredients(
+                                        invocation.getArgument(0),
+                                        invocation.getArgument(1),
+                                        invocation.getArgument(2)
+                                )
+                        )
+                );
+        for (PizzaDto pizza : catalogue.getPizzas()) {
+            when(mockPizzaGrpcConverter.fromModelToDto(pizza))
+                    .thenReturn(PizzaResponse.newBuilder().setId(pizza.getId()).setName(pizza.getName()).build());
+        }
+
+        service.getPizzasByIngredients(ingredientsFilterRequest, streamObserver);
+        assertTrue(latch.await(1, TimeUnit.SECONDS));
+
+        assertEquals(expectedResult, result);
+    }
+
+
+    @Test
+    @DisplayName("getPizzasByIngredients: when the pizzas could not be found then a gRPC error is thrown")
+    public void getPizzasByIngredients_whenThePizzasCouldNotBeFound_thenGrpcErrorIsThrown() {
+        IngredientsFilterRequest request = IngredientsFilterRequest.newBuilder()
+                .addAllOf("Cheese")
+                .build();
+
+        when(mockPizzaCatalogueService.findByIngredients(any(), any(), any()))
+                .thenReturn(Mono.error(new IllegalStateException("Database is not available")));
+
+        StatusRuntimeException exception = assertThrows(
+                StatusRuntimeException.class,
+                () -> service.getPizzasByIngredients(request, buildStreamObserverForTesting(new ArrayList<>(), new CountDownLatch(1)))
+        );
+        assertEquals(Status.Code.INTERNAL, exception.getStatus().getCode());
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+
+    private <T> StreamObserver<T> buildStreamObserverForTesting(final Collection<T> responses,
+                                                                final CountDownLatch latch) {
         return new StreamObserver<>() {
             @Override
-            public void onNext(IngredientResponse value) {
-                ingredientResponse.add(value);
+            public void onNext(T value) {
+                responses.add(value);
             }
 
             @Override
@@ -22,6 +22,7 @@ import java.util.stream.Stream;
 import static com.pizza.TestDataFactory.buildIngredient;
 import static com.pizza.TestDataFactory.buildIngredientPizzaSummaryDto;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @ExtendWith(SpringExtension.class)
 @DataJpaTest
@@ -81,4 +82,35 @@ public class IngredientRepositoryTest {
         assertEquals(expectedResult, result);
     }
 
+
+
+    static Stream<Arguments> upsertAllTestCases() {
+        Ingredient existingIngredient = buildIngredient(1, "Bacon");
+        Ingredient newIngredient = buildIngredient(null, "NewIngredient");
+        return Stream.of(
+                //@formatter:off
+                //            ingredients,                                     expectedResult
+                Arguments.of( List.of(),                                       Set.of() ),
+                Arguments.of( List.of(buildIngredient(null, null)),            Set.of() ),
+                Arguments.of( List.of(buildIngredient(null, "Bacon")),         Set.of(existingIngredient) ),
+                Arguments.of( List.of(existingIngredient, newIngredient),      Set.of(existingIngredient, newIngredient) )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("upsertAllTestCases")
+    @DisplayName("upsertAll: test cases")
+    public void upsertAll_testCases(Collection<Ingredient> ingredients,
+                                    Set<Ingredient> expectedResult) {
+        List<Ingredient> result = repository.upsertAll(ingredients);
+
+        assertEquals(expectedResult, Set.copyOf(result));
+        result.forEach(i -> {
+            assertNotNull(i.getId());
+            if (i.getName().equals("Bacon")) {
+                assertEquals(1, i.getId());
+            }
+        });
+    }
+
 }
@@ -3,6 +3,7 @@ package com.pizza.repository;
 import com.pizza.configuration.persistence.PersistenceConfiguration;
 import com.pizza.enums.PizzaEnum;
 import com.pizza.model.Pizza;
+import com.pizza.util.KeysetPosition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -46,6 +48,21 @@ public class PizzaRepositoryTest {
     }
 
 
+    @Test
+    public void findAllWithIngredients_whenIsInvoked_thenAllPizzasWithTheirIngredientsAreReceived() {
+        // When
+        List<Pizza> pizzas = repository.findAllWithIngredients();
+
+        // Then
+        assertNotNull(pizzas);
+        assertThat(pizzas, containsInAnyOrder(carbonara, hawaiian, margherita));
+        pizzas.forEach(p -> {
+            Pizza expectedPizza = p.equals(carbonara) ? carbonara : (p.equals(hawaiian) ? hawaiian : margherita);
+            assertEquals(expectedPizza.getIngredients(), p.getIngredients());
+        });
+    }
+
+
     @Test
     public void findPageWithIngredients_whenNullPageableIsGiven_thenAllPizzasAreReceived() {
         // When
@@ -118,6 +135,64 @@ public class PizzaRepositoryTest {
     }
 
 
+    @Test
+    public void findKeysetPageWithIngredients_whenDefaultSortingIsUsed_thenPizzasAreReturnedByIdDescending() {
+        // Given
+        KeysetPosition position = KeysetPosition.first(KeysetPosition.ID_PROPERTY, Sort.Direction.DESC);
+
+        // When
+        Slice<Pizza> pizzaSlice = repository.findKeysetPageWithIngredients(position, 3);
+
+        // Then
+        assertNotNull(pizzaSlice);
+        assertEquals(3, pizzaSlice.getNumberOfElements());
+        assertFalse(pizzaSlice.hasNext());
+        assertTrue(pizzaSlice.getContent().get(0).getId() > pizzaSlice.getContent().get(1).getId());
+        assertTrue(pizzaSlice.getContent().get(1).getId() > pizzaSlice.getContent().get(2).getId());
+    }
+
+
+    @Test
+    public void findKeysetPageWithIngredients_whenPositionOfPreviousPageIsGiven_thenNextPizzasAreReturned() {
+        // Given
+        int size = 2;
+        KeysetPosition firstPosition = KeysetPosition.first(KeysetPosition.COST_PROPERTY, Sort.Direction.ASC);
+
+        // When
+        Slice<Pizza> pizzaSlice1 = repository.findKeysetPageWithIngredients(firstPosition, size);
+        KeysetPosition nextPosition = firstPosition.after(pizzaSlice1.getContent().get(size - 1));
+        Slice<Pizza> pizzaSlice2 = repository.findKeysetPageWithIngredients(nextPosition, size);
+
+        // Then
+        assertNotNull(pizzaSlice1);
+        assertEquals(2, pizzaSlice1.getNumberOfElements());
+        assertTrue(pizzaSlice1.hasNext());
+        assertThat(pizzaSlice1.getContent(), contains(margherita, carbonara));
+        assertEquals(carbonara.getIngredients(), pizzaSlice1.getContent().get(1).getIngredients());
+
+        assertNotNull(pizzaSlice2);
+        assertEquals(1, pizzaSlice2.getNumberOfElements());
+        assertFalse(pizzaSlice2.hasNext());
+        assertThat(pizzaSlice2.getContent(), contains(hawaiian));
+    }
+
+
+    @Test
+    public void findKeysetPageWithIngredients_whenSortingByNameDescending_thenPizzasAreReturnedInThatOrder() {
+        // Given
+        KeysetPosition position = KeysetPosition.first(KeysetPosition.NAME_PROPERTY, Sort.Direction.DESC)
+                .after(margherita);
+
+        // When
+        Slice<Pizza> pizzaSlice = repository.findKeysetPageWithIngredients(position, 5);
+
+        // Then
+        assertNotNull(pizzaSlice);
+        assertFalse(pizzaSlice.hasNext());
+        assertThat(pizzaSlice.getContent(), contains(hawaiian, carbonara));
+    }
+
+
     @Test
     public void findWithIngredientsByName_whenNoNameIsGiven_thenOptionalEmptyIsReturned() {
         // When
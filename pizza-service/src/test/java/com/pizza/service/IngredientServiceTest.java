@@ -1,5 +1,6 @@
 package com.pizza.service;
 
+import com.pizza.dto.IngredientPizzaSummaryDto;
 import com.pizza.model.Ingredient;
 import com.pizza.repository.IngredientRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -65,6 +66,32 @@ public class IngredientServiceTest {
     }
 
 
+    static Stream<Arguments> getIngredientWithItsMoreExpensivePizzaTestCases() {
+        IngredientPizzaSummaryDto cheese = new IngredientPizzaSummaryDto("Cheese", "Carbonara", 7D);
+        return Stream.of(
+                //@formatter:off
+                //            ingredientNames,          repositoryResult,   expectedResult
+                Arguments.of( null,                     null,               List.of() ),
+                Arguments.of( List.of(),                null,               List.of() ),
+                Arguments.of( List.of("Tomato"),        List.of(),          List.of() ),
+                Arguments.of( List.of("Cheese"),        List.of(cheese),    List.of(cheese) )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("getIngredientWithItsMoreExpensivePizzaTestCases")
+    @DisplayName("getIngredientWithItsMoreExpensivePizza: test cases")
+    public void getIngredientWithItsMoreExpensivePizza_testCases(Collection<String> ingredientNames,
+                                                                List<IngredientPizzaSummaryDto> repositoryResult,
+                                                                List<IngredientPizzaSummaryDto> expectedResult) {
+        when(mockIngredientRepository.getIngredientWithItsMoreExpensivePizza(ingredientNames)).thenReturn(repositoryResult);
+
+        List<IngredientPizzaSummaryDto> result = service.getIngredientWithItsMoreExpensivePizza(ingredientNames);
+
+        assertEquals(expectedResult, result);
+    }
+
+
     static Stream<Arguments> saveAllTestCases() {
         Ingredient ingredient1 = buildIngredient(1, "Cheese");
         Ingredient ingredient2 = buildIngredient(2, "Bacon");
@@ -93,4 +120,34 @@ public class IngredientServiceTest {
         assertEquals(expectedResult, result);
     }
 
+
+
+    static Stream<Arguments> upsertAllTestCases() {
+        Ingredient ingredient1 = buildIngredient(null, "Cheese");
+        Ingredient ingredient2 = buildIngredient(2, "Bacon");
+        List<Ingredient> allIngredients = List.of(ingredient1, ingredient2);
+        List<Ingredient> persistedIngredients = List.of(buildIngredient(1, "Cheese"), ingredient2);
+        return Stream.of(
+                //@formatter:off
+                //            ingredients,            repositoryResult,                  expectedResult
+                Arguments.of( null,                   null,                              List.of() ),
+                Arguments.of( null,                   List.of(),                         List.of() ),
+                Arguments.of( List.of(ingredient2),   List.of(ingredient2),              List.of(ingredient2) ),
+                Arguments.of( allIngredients,         persistedIngredients,              persistedIngredients )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("upsertAllTestCases")
+    @DisplayName("upsertAll: test cases")
+    public void upsertAll_testCases(Collection<Ingredient> ingredients,
+                                    List<Ingredient> repositoryResult,
+                                    List<Ingredient> expectedResult) {
+        when(mockIngredientRepository.upsertAll(ingredients)).thenReturn(repositoryResult);
+
+        List<Ingredient> result = service.upsertAll(ingredients);
+
+        assertEquals(expectedResult, result);
+    }
+
 }
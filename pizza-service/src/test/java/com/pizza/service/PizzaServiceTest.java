@@ -1,9 +1,11 @@
 package com.pizza.service;
 
 import com.pizza.enums.PizzaEnum;
+import com.pizza.event.PizzaSavedEvent;
 import com.pizza.model.Ingredient;
 import com.pizza.model.Pizza;
 import com.pizza.repository.PizzaRepository;
+import com.pizza.util.KeysetPosition;
 import com.pizza.util.PageUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,8 +14,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -43,12 +48,15 @@ public class PizzaServiceTest {
     @Mock
     private IngredientService mockIngredientService;
 
+    @Mock
+    private ApplicationEventPublisher mockEventPublisher;
+
     private PizzaService service;
 
 
     @BeforeEach
     public void init() {
-        service = new PizzaService(mockPizzaRepository, mockIngredientService);
+        service = new PizzaService(mockPizzaRepository, mockIngredientService, mockEventPublisher);
     }
 
 
@@ -116,6 +124,38 @@ public class PizzaServiceTest {
     }
 
 
+    static Stream<Arguments> findKeysetPageWithIngredientsTestCases() {
+        Pizza pizza = buildPizza(1, CARBONARA, 7D, Set.of(buildIngredient(1, "Cheese")));
+        KeysetPosition position = KeysetPosition.first(KeysetPosition.ID_PROPERTY, Sort.Direction.DESC);
+
+        Slice<Pizza> pizzaEmptySlice = new SliceImpl<>(List.of());
+        Slice<Pizza> pizzaSlice = new SliceImpl<>(List.of(pizza));
+        return Stream.of(
+                //@formatter:off
+                //            position,   size,   repositoryResult,   expectedResult
+                Arguments.of( null,       1,      null,               pizzaEmptySlice ),
+                Arguments.of( position,   1,      pizzaEmptySlice,    pizzaEmptySlice ),
+                Arguments.of( position,   1,      pizzaSlice,         pizzaSlice )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("findKeysetPageWithIngredientsTestCases")
+    @DisplayName("findKeysetPageWithIngredients: test cases")
+    public void findKeysetPageWithIngredients_testCases(KeysetPosition position,
+                                                        int size,
+                                                        Slice<Pizza> repositoryResult,
+                                                        Slice<Pizza> expectedResult) {
+        when(mockPizzaRepository.findKeysetPageWithIngredients(position, size))
+                .thenReturn(repositoryResult);
+
+        Slice<Pizza> result = service.findKeysetPageWithIngredients(position, size);
+
+        assertEquals(expectedResult.getContent(), result.getContent());
+        assertEquals(expectedResult.hasNext(), result.hasNext());
+    }
+
+
     static Stream<Arguments> saveTestCases() {
         Ingredient ingredient = buildIngredient(1, "Cheese");
         Pizza pizza = buildPizza(1, CARBONARA, 7D, Set.of(ingredient));
@@ -134,15 +174,22 @@ public class PizzaServiceTest {
     public void save_testCases(Pizza pizza,
                                Pizza repositoryResult,
                                Optional<Pizza> expectedResult) {
+        Set<Ingredient> ingredients = Objects.isNull(pizza) ? null : pizza.getIngredients();
+        if (Objects.nonNull(ingredients)) {
+            when(mockIngredientService.upsertAll(ingredients)).thenReturn(List.copyOf(ingredients));
+        }
         when(mockPizzaRepository.save(pizza)).thenReturn(repositoryResult);
 
         Optional<Pizza> result = service.save(pizza);
 
         assertEquals(expectedResult, result);
-        if (Objects.nonNull(pizza)) {
+        if (Objects.nonNull(ingredients)) {
             verify(mockIngredientService, times(1))
-                    .saveAll(pizza.getIngredients());
+                    .upsertAll(ingredients);
+            assertEquals(ingredients, pizza.getIngredients());
         }
+        verify(mockEventPublisher, times(expectedResult.isPresent() ? 1 : 0))
+                .publishEvent(new PizzaSavedEvent(repositoryResult));
     }
 
 }
@@ -0,0 +1,191 @@
+package com.pizza.service;
+
+import com.pizza.model.Ingredient;
+import com.pizza.model.Pizza;
+import com.pizza.util.KeysetPosition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.pizza.TestDataFactory.buildIngredient;
+import static com.pizza.TestDataFactory.buildPizza;
+import static com.pizza.enums.PizzaEnum.CARBONARA;
+import static com.pizza.enums.PizzaEnum.MARGUERITA;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+public class ReactivePizzaServiceTest {
+
+    @Mock
+    private PizzaService mockPizzaService;
+
+    @Mock
+    private PlatformTransactionManager mockTransactionManager;
+
+    private ReactivePizzaService service;
+
+
+    @BeforeEach
+    public void init() {
+        when(mockTransactionManager.getTransaction(any()))
+                .thenReturn(new SimpleTransactionStatus());
+        service = new ReactivePizzaService(mockPizzaService, mockTransactionManager, Schedulers.immediate());
+    }
+
+
+    @Test
+    @DisplayName("findByName: when the pizza does not exist then an empty Mono is returned")
+    public void findByName_whenPizzaDoesNotExist_thenEmptyMonoIsReturned() {
+        when(mockPizzaService.findByName(CARBONARA.getInternalPropertyValue()))
+                .thenReturn(empty());
+
+        StepVerifier.create(service.findByName(CARBONARA.getInternalPropertyValue()))
+                .verifyComplete();
+
+        verify(mockTransactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+
+    @Test
+    @DisplayName("findByName: when the pizza exists then it is returned")
+    public void findByName_whenPizzaExists_thenItIsReturned() {
+        Pizza pizza = buildPizza(1, CARBONARA, 7D, Set.of(buildIngredient(1, "Cheese")));
+        when(mockPizzaService.findByName(CARBONARA.getInternalPropertyValue()))
+                .thenReturn(of(pizza));
+
+        StepVerifier.create(service.findByName(CARBONARA.getInternalPropertyValue()))
+                .expectNext(pizza)
+                .verifyComplete();
+    }
+
+
+    @Test
+    @DisplayName("findPageWithIngredients: when the Mono is not subscribed then the database is not queried")
+    public void findPageWithIngredients_whenMonoIsNotSubscribed_thenDatabaseIsNotQueried() {
+        Pizza pizza = buildPizza(1, CARBONARA, 7D, Set.of(buildIngredient(1, "Cheese")));
+        Page<Pizza> page = new PageImpl<>(List.of(pizza));
+        when(mockPizzaService.findPageWithIngredients(0, 1, null))
+                .thenReturn(page);
+
+        Mono<Page<Pizza>> result = service.findPageWithIngredients(0, 1, null);
+
+        verify(mockPizzaService, never()).findPageWithIngredients(0, 1, null);
+        StepVerifier.create(result)
+                .expectNext(page)
+                .verifyComplete();
+        verify(mockPizzaService, times(1)).findPageWithIngredients(0, 1, null);
+    }
+
+
+    @Test
+    @DisplayName("save: when the pizza is saved then its transaction is committed")
+    public void save_whenPizzaIsSaved_thenItsTransactionIsCommitted() {
+        Ingredient ingredient = buildIngredient(1, "Cheese");
+        Pizza beforePizza = buildPizza(null, CARBONARA, 7D, Set.of(ingredient));
+        Pizza afterPizza = buildPizza(1, CARBONARA, 7D, Set.of(ingredient));
+        when(mockPizzaService.save(beforePizza))
+                .thenReturn(of(afterPizza));
+
+        StepVerifier.create(service.save(beforePizza))
+                .expectNext(afterPizza)
+                .verifyComplete();
+
+        verify(mockTransactionManager, times(1)).getTransaction(argThat(d -> !d.isReadOnly()));
+        verify(mockTransactionManager, times(1)).commit(any());
+    }
+
+
+    @Test
+    @DisplayName("save: when there is an error then its transaction is rolled back")
+    public void save_whenThereIsAnError_thenItsTransactionIsRolledBack() {
+        Pizza pizza = buildPizza(null, CARBONARA, 7D, Set.of());
+        when(mockPizzaService.save(pizza))
+                .thenThrow(new IllegalStateException("Testing error"));
+
+        StepVerifier.create(service.save(pizza))
+                .verifyError(IllegalStateException.class);
+
+        verify(mockTransactionManager, times(1)).rollback(any());
+        verify(mockTransactionManager, never()).commit(any());
+    }
+
+
+
+    @Test
+    @DisplayName("streamAllWithIngredients: when there are several chunks then every one is read after the previous one in its own transaction")
+    public void streamAllWithIngredients_whenThereAreSeveralChunks_thenEveryOneIsReadInItsOwnTransaction() {
+        Pizza carbonara = buildPizza(1, CARBONARA, 7D, Set.of(buildIngredient(1, "Cheese")));
+        Pizza margherita = buildPizza(2, MARGUERITA, 6D, Set.of());
+        KeysetPosition first = KeysetPosition.first(KeysetPosition.ID_PROPERTY, Sort.Direction.ASC);
+        when(mockPizzaService.findKeysetPageWithIngredients(first, 1))
+                .thenReturn(new SliceImpl<>(List.of(carbonara), PageRequest.of(0, 1), true));
+        when(mockPizzaService.findKeysetPageWithIngredients(first.after(carbonara), 1))
+                .thenReturn(new SliceImpl<>(List.of(margherita), PageRequest.of(0, 1), false));
+
+        StepVerifier.create(service.streamAllWithIngredients(1))
+                .expectNext(carbonara, margherita)
+                .verifyComplete();
+
+        verify(mockTransactionManager, times(2)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(mockTransactionManager, times(2)).commit(any());
+    }
+
+
+    @Test
+    @DisplayName("streamAllWithIngredients: when the subscription is cancelled then the next chunks are not read")
+    public void streamAllWithIngredients_whenSubscriptionIsCancelled_thenNextChunksAreNotRead() {
+        Pizza carbonara = buildPizza(1, CARBONARA, 7D, Set.of(buildIngredient(1, "Cheese")));
+        Pizza margherita = buildPizza(2, MARGUERITA, 6D, Set.of());
+        KeysetPosition first = KeysetPosition.first(KeysetPosition.ID_PROPERTY, Sort.Direction.ASC);
+        when(mockPizzaService.findKeysetPageWithIngredients(first, 2))
+                .thenReturn(new SliceImpl<>(List.of(carbonara, margherita), PageRequest.of(0, 2), true));
+
+        StepVerifier.create(service.streamAllWithIngredients(2), 1)
+                .expectNext(carbonara)
+                .thenCancel()
+                .verify();
+
+        verify(mockPizzaService, times(1)).findKeysetPageWithIngredients(any(), anyInt());
+        verify(mockTransactionManager, times(1)).commit(any());
+    }
+
+
+    @Test
+    @DisplayName("streamAllWithIngredients: when a chunk cannot be read then its transaction is rolled back and the error returned")
+    public void streamAllWithIngredients_whenChunkCannotBeRead_thenItsTransactionIsRolledBackAndErrorIsReturned() {
+        when(mockPizzaService.findKeysetPageWithIngredients(any(), anyInt()))
+                .thenThrow(new IllegalStateException("Database is not available"));
+
+        StepVerifier.create(service.streamAllWithIngredients(10))
+                .verifyError(IllegalStateException.class);
+
+        verify(mockTransactionManager, times(1)).rollback(any());
+        verify(mockTransactionManager, never()).commit(any());
+    }
+
+}
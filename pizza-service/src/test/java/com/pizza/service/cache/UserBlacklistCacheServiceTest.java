@@ -12,9 +12,15 @@ import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -26,11 +32,14 @@ public class UserBlacklistCacheServiceTest {
     @Mock
     private CacheService mockCacheService;
 
+    @Mock
+    private UserBlacklistLocalCopy mockLocalCopy;
+
     private UserBlacklistCacheService service;
 
     @BeforeEach
     public void init() {
-        service = new UserBlacklistCacheService(mockCacheConfiguration, mockCacheService);
+        service = new UserBlacklistCacheService(mockCacheConfiguration, mockCacheService, mockLocalCopy);
         when(mockCacheConfiguration.getUserBlacklistCacheName())
                 .thenReturn("TestCache");
     }
@@ -55,6 +64,38 @@ public class UserBlacklistCacheServiceTest {
     }
 
 
+    private List<Object[]> containsWithSynchronizedLocalCopyTestCases() {
+        String username = "username";
+        return asList(
+                //             username,   localCopyResult,   cacheServiceResult,   expectedResult
+                new Object[] { null,       false,             false,                false },
+                new Object[] { username,   false,             true,                 false },
+                new Object[] { username,   true,              false,                false },
+                new Object[] { username,   true,              true,                 true });
+    }
+
+    @Test
+    public void containsWithSynchronizedLocalCopy_testCases() {
+        for (Object[] parameters: containsWithSynchronizedLocalCopyTestCases()) {
+            when(mockLocalCopy.isSynchronized()).thenReturn(true);
+            when(mockLocalCopy.mightContain(eq((String)parameters[0]))).thenReturn((boolean)parameters[1]);
+            when(mockCacheService.contains(anyString(), eq((String)parameters[0]))).thenReturn((boolean)parameters[2]);
+            boolean operationResult = service.contains((String)parameters[0]);
+            assertEquals(parameters[3], operationResult);
+        }
+    }
+
+
+    @Test
+    public void contains_whenTheLocalCopyDoesNotContainTheUsername_thenTheCacheIsNotQueried() {
+        when(mockLocalCopy.isSynchronized()).thenReturn(true);
+        when(mockLocalCopy.mightContain(anyString())).thenReturn(false);
+
+        assertFalse(service.contains("username"));
+        verify(mockCacheService, never()).contains(anyString(), any());
+    }
+
+
     private List<Object[]> putTestCases() {
         String username = "username";
         return asList(
@@ -74,6 +115,15 @@ public class UserBlacklistCacheServiceTest {
     }
 
 
+    @Test
+    public void put_whenTheUsernameIsStored_thenItIsIncludedInTheLocalCopy() {
+        when(mockCacheService.put(anyString(), eq("username"), anyBoolean())).thenReturn(true);
+
+        assertTrue(service.put("username"));
+        verify(mockLocalCopy, times(1)).add("username");
+    }
+
+
     private List<Object[]> removeTestCases() {
         String username = "username";
         return asList(
@@ -92,4 +142,13 @@ public class UserBlacklistCacheServiceTest {
         }
     }
 
+
+    @Test
+    public void remove_whenItIsInvoked_thenTheUsernameIsRemovedFromTheLocalCopy() {
+        when(mockCacheService.remove(anyString(), eq("username"))).thenReturn(true);
+
+        assertTrue(service.remove("username"));
+        verify(mockLocalCopy, times(1)).remove("username");
+    }
+
 }
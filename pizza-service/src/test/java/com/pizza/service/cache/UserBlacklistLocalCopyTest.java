@@ -0,0 +1,184 @@
+package com.pizza.service.cache;
+
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.core.EntryEventType;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapEvent;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryMergedListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapListener;
+import com.pizza.configuration.cache.CacheConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+public class UserBlacklistLocalCopyTest {
+
+    @Mock
+    private CacheConfiguration mockCacheConfiguration;
+
+    @Mock
+    private HazelcastInstance mockHazelcastInstance;
+
+    @Mock
+    private IMap<Object, Object> mockMap;
+
+    private UserBlacklistLocalCopy localCopy;
+
+    @BeforeEach
+    public void init() {
+        localCopy = new UserBlacklistLocalCopy(mockCacheConfiguration, mockHazelcastInstance);
+        when(mockCacheConfiguration.getUserBlacklistCacheName())
+                .thenReturn("TestCache");
+        when(mockHazelcastInstance.getMap("TestCache"))
+                .thenReturn(mockMap);
+    }
+
+
+    @Test
+    @DisplayName("start: when it is disabled then it is not synchronized")
+    public void start_whenItIsDisabled_thenItIsNotSynchronized() {
+        when(mockCacheConfiguration.isUserBlacklistLocalCopyEnabled()).thenReturn(false);
+
+        localCopy.start();
+
+        assertFalse(localCopy.isSynchronized());
+        verify(mockHazelcastInstance, never()).getMap(anyString());
+    }
+
+
+    @Test
+    @DisplayName("start: when the map cannot be loaded then it is not synchronized")
+    public void start_whenTheMapCannotBeLoaded_thenItIsNotSynchronized() {
+        when(mockCacheConfiguration.isUserBlacklistLocalCopyEnabled()).thenReturn(true);
+        when(mockMap.keySet()).thenThrow(new IllegalStateException());
+
+        localCopy.start();
+
+        assertFalse(localCopy.isSynchronized());
+    }
+
+
+    @Test
+    @DisplayName("start: when it is enabled then the current usernames are loaded")
+    public void start_whenItIsEnabled_thenTheCurrentUsernamesAreLoaded() {
+        when(mockCacheConfiguration.isUserBlacklistLocalCopyEnabled()).thenReturn(true);
+        when(mockMap.keySet()).thenReturn(Set.of("user1", "user2"));
+
+        localCopy.start();
+
+        assertTrue(localCopy.isSynchronized());
+        assertTrue(localCopy.mightContain("user1"));
+        assertTrue(localCopy.mightContain("user2"));
+        assertFalse(localCopy.mightContain("user3"));
+        assertFalse(localCopy.mightContain(null));
+    }
+
+
+    @Test
+    @DisplayName("start: when the map is modified then the changes are included")
+    @SuppressWarnings("unchecked")
+    public void start_whenTheMapIsModified_thenTheChangesAreIncluded() {
+        ArgumentCaptor<MapListener> listenerCaptor = ArgumentCaptor.forClass(MapListener.class);
+        when(mockCacheConfiguration.isUserBlacklistLocalCopyEnabled()).thenReturn(true);
+        when(mockMap.keySet()).thenReturn(Set.of("user1"));
+
+        localCopy.start();
+        verify(mockMap).addEntryListener(listenerCaptor.capture(), anyBoolean());
+        MapListener listener = listenerCaptor.getValue();
+
+        ((EntryAddedListener<Object, Object>) listener).entryAdded(
+                new EntryEvent<>("TestCache", null, EntryEventType.ADDED.getType(), "user2", null)
+        );
+        assertTrue(localCopy.mightContain("user2"));
+
+        ((EntryRemovedListener<Object, Object>) listener).entryRemoved(
+                new EntryEvent<>("TestCache", null, EntryEventType.REMOVED.getType(), "user2", null)
+        );
+        assertFalse(localCopy.mightContain("user2"));
+
+        ((EntryExpiredListener<Object, Object>) listener).entryExpired(
+                new EntryEvent<>("TestCache", null, EntryEventType.EXPIRED.getType(), "user1", null)
+        );
+        assertFalse(localCopy.mightContain("user1"));
+
+        ((EntryMergedListener<Object, Object>) listener).entryMerged(
+                new EntryEvent<>("TestCache", null, EntryEventType.MERGED.getType(), "user4", null)
+        );
+        assertTrue(localCopy.mightContain("user4"));
+
+        localCopy.add("user3");
+        ((MapClearedListener) listener).mapCleared(
+                new MapEvent("TestCache", null, EntryEventType.CLEAR_ALL.getType(), 1)
+        );
+        assertFalse(localCopy.mightContain("user3"));
+    }
+
+
+    @Test
+    @DisplayName("resync: when events were lost then the usernames of the map are loaded again")
+    public void resync_whenEventsWereLost_thenTheUsernamesOfTheMapAreLoadedAgain() {
+        when(mockCacheConfiguration.isUserBlacklistLocalCopyEnabled()).thenReturn(true);
+        when(mockMap.keySet()).thenReturn(Set.of("user1", "user2"));
+        localCopy.start();
+
+        when(mockMap.keySet()).thenReturn(Set.of("user2", "user3"));
+
+        assertTrue(localCopy.resync());
+        assertFalse(localCopy.mightContain("user1"));
+        assertTrue(localCopy.mightContain("user2"));
+        assertTrue(localCopy.mightContain("user3"));
+    }
+
+
+    @Test
+    @DisplayName("isSynchronized: when the last resync is older than twice the resync interval then it is not synchronized")
+    public void isSynchronized_whenTheLastResyncIsTooOld_thenItIsNotSynchronized() {
+        when(mockCacheConfiguration.isUserBlacklistLocalCopyEnabled()).thenReturn(true);
+        when(mockMap.keySet()).thenReturn(Set.of("user1"));
+        long beforeResync = System.nanoTime();
+        localCopy.start();
+
+        when(mockCacheConfiguration.getUserBlacklistLocalCopyResyncSeconds()).thenReturn(10);
+
+        assertTrue(localCopy.isSynchronized(beforeResync + TimeUnit.SECONDS.toNanos(15)));
+        assertFalse(localCopy.isSynchronized(System.nanoTime() + TimeUnit.SECONDS.toNanos(21)));
+    }
+
+
+    @Test
+    @DisplayName("add and remove: when they are invoked then the usernames are updated without waiting for the map")
+    public void addAndRemove_whenTheyAreInvoked_thenTheUsernamesAreUpdatedWithoutWaitingForTheMap() {
+        localCopy.add("user1");
+        assertTrue(localCopy.mightContain("user1"));
+
+        localCopy.remove("user1");
+        assertFalse(localCopy.mightContain("user1"));
+
+        localCopy.add(null);
+        localCopy.remove(null);
+        verify(mockMap, never()).addEntryListener(any(MapListener.class), anyBoolean());
+    }
+
+}
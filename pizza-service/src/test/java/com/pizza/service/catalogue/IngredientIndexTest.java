@@ -0,0 +1,113 @@
+package com.pizza.service.catalogue;
+
+import com.pizza.dto.IngredientDto;
+import com.pizza.dto.PizzaDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.pizza.TestDataFactory.buildIngredientDto;
+import static com.pizza.TestDataFactory.buildPizzaDto;
+import static com.pizza.enums.PizzaEnum.CARBONARA;
+import static com.pizza.enums.PizzaEnum.HAWAIIAN;
+import static com.pizza.enums.PizzaEnum.MARGUERITA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IngredientIndexTest {
+
+    static Stream<Arguments> findTestCases() {
+        IngredientDto cheese = buildIngredientDto(1, "Cheese");
+        IngredientDto bacon = buildIngredientDto(2, "Bacon");
+        IngredientDto pineapple = buildIngredientDto(3, "Pineapple");
+        IngredientDto tomato = buildIngredientDto(4, "Tomato");
+        List<PizzaDto> pizzas = List.of(
+                buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of(cheese, bacon)),
+                buildPizzaDto(2, HAWAIIAN.getInternalPropertyValue(), 8D, Set.of(cheese, pineapple, tomato)),
+                buildPizzaDto(5, MARGUERITA.getInternalPropertyValue(), 5D, Set.of(cheese, tomato))
+        );
+        return Stream.of(
+                //@formatter:off
+                //            pizzas,      allOf,                           anyOf,                              noneOf,                expectedResult
+                Arguments.of( List.of(),   List.of("Cheese"),               null,                               null,                  List.of() ),
+                Arguments.of( pizzas,      null,                            null,                               null,                  List.of(1, 2, 5) ),
+                Arguments.of( pizzas,      List.of(),                       List.of(),                          List.of(),             List.of(1, 2, 5) ),
+                Arguments.of( pizzas,      List.of("Cheese"),               null,                               null,                  List.of(1, 2, 5) ),
+                Arguments.of( pizzas,      List.of("Cheese", "Tomato"),     null,                               null,                  List.of(2, 5) ),
+                Arguments.of( pizzas,      List.of("Cheese", "Mushrooms"),  null,                               null,                  List.of() ),
+                Arguments.of( pizzas,      null,                            List.of("Bacon", "Pineapple"),      null,                  List.of(1, 2) ),
+                Arguments.of( pizzas,      null,                            List.of("Mushrooms"),               null,                  List.of() ),
+                Arguments.of( pizzas,      null,                            null,                               List.of("Tomato"),     List.of(1) ),
+                Arguments.of( pizzas,      null,                            null,                               List.of("Mushrooms"),  List.of(1, 2, 5) ),
+                Arguments.of( pizzas,      List.of("Tomato"),               List.of("Pineapple", "Bacon"),      null,                  List.of(2) ),
+                Arguments.of( pizzas,      List.of("Cheese"),               List.of("Tomato", "Bacon"),         List.of("Pineapple"),  List.of(1, 5) )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("findTestCases")
+    @DisplayName("find: test cases")
+    public void find_testCases(List<PizzaDto> pizzas,
+                               List<String> allOf,
+                               List<String> anyOf,
+                               List<String> noneOf,
+                               List<Integer> expectedResult) {
+        IngredientIndex index = IngredientIndex.of(pizzas);
+
+        BitSet result = index.find(allOf, anyOf, noneOf);
+        // The index is not modified by the returned bitmaps
+        result.clear();
+
+        assertEquals(
+                expectedResult,
+                index.find(allOf, anyOf, noneOf)
+                        .stream()
+                        .boxed()
+                        .collect(Collectors.toList())
+        );
+    }
+
+
+
+    static Stream<Arguments> findMostExpensivePizzaTestCases() {
+        IngredientDto cheese = buildIngredientDto(1, "Cheese");
+        IngredientDto bacon = buildIngredientDto(2, "Bacon");
+        IngredientDto tomato = buildIngredientDto(4, "Tomato");
+        PizzaDto carbonara = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of(cheese, bacon));
+        PizzaDto hawaiian = buildPizzaDto(2, HAWAIIAN.getInternalPropertyValue(), 8D, Set.of(cheese, tomato));
+        PizzaDto margherita = buildPizzaDto(5, MARGUERITA.getInternalPropertyValue(), 8D, Set.of(cheese, tomato));
+        List<PizzaDto> pizzas = List.of(margherita, carbonara, hawaiian);
+        return Stream.of(
+                //@formatter:off
+                //            pizzas,      ingredient,    expectedResult
+                Arguments.of( List.of(),   "Cheese",      Optional.empty() ),
+                Arguments.of( pizzas,      null,          Optional.empty() ),
+                Arguments.of( pizzas,      "Mushrooms",   Optional.empty() ),
+                Arguments.of( pizzas,      "Bacon",       Optional.of(carbonara) ),
+                // Same cost, the one with the lowest identifier
+                Arguments.of( pizzas,      "Cheese",      Optional.of(hawaiian) ),
+                Arguments.of( pizzas,      "Tomato",      Optional.of(hawaiian) )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("findMostExpensivePizzaTestCases")
+    @DisplayName("findMostExpensivePizza: test cases")
+    public void findMostExpensivePizza_testCases(List<PizzaDto> pizzas,
+                                                 String ingredient,
+                                                 Optional<PizzaDto> expectedResult) {
+        Optional<PizzaDto> result = IngredientIndex.of(pizzas)
+                .findMostExpensivePizza(ingredient);
+
+        assertEquals(expectedResult, result);
+        result.ifPresent(p -> assertEquals(expectedResult.get().getId(), p.getId()));
+    }
+
+}
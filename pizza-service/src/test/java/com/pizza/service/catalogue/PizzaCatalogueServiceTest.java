@@ -0,0 +1,291 @@
+package com.pizza.service.catalogue;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.pizza.configuration.catalogue.CatalogueConfiguration;
+import com.pizza.dto.IngredientPizzaSummaryDto;
+import com.pizza.dto.PizzaDto;
+import com.pizza.event.PizzaSavedEvent;
+import com.pizza.model.Pizza;
+import com.pizza.service.IngredientService;
+import com.pizza.service.PizzaService;
+import com.pizza.util.converter.PizzaConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.pizza.TestDataFactory.buildIngredient;
+import static com.pizza.TestDataFactory.buildIngredientDto;
+import static com.pizza.TestDataFactory.buildPizza;
+import static com.pizza.TestDataFactory.buildPizzaDto;
+import static com.pizza.enums.PizzaEnum.CARBONARA;
+import static com.pizza.enums.PizzaEnum.HAWAIIAN;
+import static java.util.Optional.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+public class PizzaCatalogueServiceTest {
+
+    @Mock
+    private CatalogueConfiguration mockCatalogueConfiguration;
+
+    @Mock
+    private PizzaService mockPizzaService;
+
+    @Mock
+    private IngredientService mockIngredientService;
+
+    @Mock
+    private PizzaConverter mockPizzaConverter;
+
+    @Mock
+    private HazelcastInstance mockHazelcastInstance;
+
+    @Mock
+    private ITopic<Long> mockTopic;
+
+    @Mock
+    private PlatformTransactionManager mockTransactionManager;
+
+    private PizzaCatalogueService service;
+
+    // Elements used to test the functionality
+    private final Pizza carbonara = buildPizza(1, CARBONARA, 7D, Set.of(buildIngredient(1, "Cheese")));
+    private final PizzaDto carbonaraDto = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of(buildIngredientDto(1, "Cheese")));
+    private final Pizza hawaiian = buildPizza(2, HAWAIIAN, 8D, Set.of(buildIngredient(2, "Pineapple")));
+    private final PizzaDto hawaiianDto = buildPizzaDto(2, HAWAIIAN.getInternalPropertyValue(), 8D, Set.of(buildIngredientDto(2, "Pineapple")));
+
+
+    @BeforeEach
+    public void init() {
+        when(mockCatalogueConfiguration.isEnabled()).thenReturn(true);
+        when(mockCatalogueConfiguration.getTopicName()).thenReturn("pizzaCatalogue");
+        when(mockHazelcastInstance.<Long>getTopic("pizzaCatalogue")).thenReturn(mockTopic);
+        when(mockTransactionManager.getTransaction(any()))
+                .thenReturn(new SimpleTransactionStatus());
+        service = new PizzaCatalogueService(
+                mockCatalogueConfiguration,
+                mockPizzaService,
+                mockIngredientService,
+                mockPizzaConverter,
+                mockHazelcastInstance,
+                mockTransactionManager,
+                Schedulers.immediate()
+        );
+    }
+
+
+    @Test
+    @DisplayName("start: when the catalogue is disabled then it is not built")
+    public void start_whenCatalogueIsDisabled_thenItIsNotBuilt() {
+        when(mockCatalogueConfiguration.isEnabled()).thenReturn(false);
+
+        service.start();
+
+        assertFalse(service.getSnapshot().isPresent());
+        verify(mockPizzaService, never()).findAllWithIngredients();
+        verify(mockTopic, never()).addMessageListener(any());
+    }
+
+
+    @Test
+    @DisplayName("start: when the catalogue is enabled then it is built and the changes of other instances are listened")
+    public void start_whenCatalogueIsEnabled_thenItIsBuiltAndTheChangesOfOtherInstancesAreListened() {
+        when(mockPizzaService.findAllWithIngredients()).thenReturn(List.of(carbonara));
+        when(mockPizzaConverter.fromModelsToDtos(List.of(carbonara))).thenReturn(List.of(carbonaraDto));
+
+        service.start();
+
+        assertTrue(service.getSnapshot().isPresent());
+        assertEquals(of(carbonaraDto), service.getSnapshot().get().findByName(CARBONARA.getInternalPropertyValue()));
+        verify(mockTopic, times(1)).addMessageListener(any());
+        verify(mockTransactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+
+    @Test
+    @DisplayName("findByIngredients: when the catalogue has not been built then the pizzas are found in the database")
+    public void findByIngredients_whenCatalogueHasNotBeenBuilt_thenThePizzasAreFoundInTheDatabase() {
+        when(mockPizzaService.findWithIngredientsByIngredients(List.of("Cheese"), null, null)).thenReturn(List.of(carbonara));
+        when(mockPizzaConverter.fromModelsToDtos(List.of(carbonara))).thenReturn(List.of(carbonaraDto));
+
+        StepVerifier.create(service.findByIngredients(List.of("Cheese"), null, null))
+                .expectNext(List.of(carbonaraDto))
+                .verifyComplete();
+
+        assertFalse(service.getSnapshot().isPresent());
+        verify(mockPizzaService, never()).findAllWithIngredients();
+        verify(mockTransactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+
+    @Test
+    @DisplayName("findByIngredients: when the catalogue has been built then the pizzas are found without reading the database")
+    public void findByIngredients_whenCatalogueHasBeenBuilt_thenThePizzasAreFoundWithoutReadingTheDatabase() {
+        when(mockPizzaService.findAllWithIngredients()).thenReturn(List.of(carbonara, hawaiian));
+        when(mockPizzaConverter.fromModelsToDtos(List.of(carbonara, hawaiian))).thenReturn(List.of(carbonaraDto, hawaiianDto));
+        service.scheduleRebuild();
+
+        StepVerifier.create(service.findByIngredients(null, null, List.of("Pineapple")))
+                .expectNext(List.of(carbonaraDto))
+                .verifyComplete();
+
+        verify(mockPizzaService, times(1)).findAllWithIngredients();
+        verify(mockPizzaService, never()).findWithIngredientsByIngredients(any(), any(), any());
+    }
+
+
+    @Test
+    @DisplayName("getIngredientWithItsMoreExpensivePizza: when the catalogue has not been built then they are found in the database")
+    public void getIngredientWithItsMoreExpensivePizza_whenCatalogueHasNotBeenBuilt_thenTheyAreFoundInTheDatabase() {
+        IngredientPizzaSummaryDto cheese = new IngredientPizzaSummaryDto("Cheese", CARBONARA.getInternalPropertyValue(), 7D);
+        when(mockIngredientService.getIngredientWithItsMoreExpensivePizza(List.of("Cheese"))).thenReturn(List.of(cheese));
+
+        StepVerifier.create(service.getIngredientWithItsMoreExpensivePizza(List.of("Cheese")))
+                .expectNext(List.of(cheese))
+                .verifyComplete();
+
+        verify(mockTransactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+
+    @Test
+    @DisplayName("getIngredientWithItsMoreExpensivePizza: when the catalogue has been built then they are found without reading the database")
+    public void getIngredientWithItsMoreExpensivePizza_whenCatalogueHasBeenBuilt_thenTheyAreFoundWithoutReadingTheDatabase() {
+        when(mockPizzaService.findAllWithIngredients()).thenReturn(List.of(carbonara, hawaiian));
+        when(mockPizzaConverter.fromModelsToDtos(List.of(carbonara, hawaiian))).thenReturn(List.of(carbonaraDto, hawaiianDto));
+        service.scheduleRebuild();
+
+        StepVerifier.create(service.getIngredientWithItsMoreExpensivePizza(List.of("Pineapple", "Tomato")))
+                .expectNext(List.of(new IngredientPizzaSummaryDto("Pineapple", HAWAIIAN.getInternalPropertyValue(), 8D)))
+                .verifyComplete();
+
+        verify(mockIngredientService, never()).getIngredientWithItsMoreExpensivePizza(any());
+    }
+
+
+    @Test
+    @DisplayName("scheduleRebuild: when the database could not be read then the previous catalogue is kept")
+    public void scheduleRebuild_whenDatabaseCouldNotBeRead_thenPreviousCatalogueIsKept() {
+        when(mockPizzaService.findAllWithIngredients())
+                .thenReturn(List.of(carbonara))
+                .thenThrow(new IllegalStateException("Database is not available"));
+        when(mockPizzaConverter.fromModelsToDtos(List.of(carbonara))).thenReturn(List.of(carbonaraDto));
+
+        service.scheduleRebuild();
+        PizzaCatalogue previous = service.getSnapshot().get();
+        service.scheduleRebuild();
+
+        assertEquals(previous, service.getSnapshot().get());
+        verify(mockPizzaService, times(2)).findAllWithIngredients();
+    }
+
+
+    @Test
+    @DisplayName("onPizzaSaved: when the catalogue has been built then a new one including the pizza is created and the other instances are notified")
+    public void onPizzaSaved_whenCatalogueHasBeenBuilt_thenNewOneIncludingThePizzaIsCreatedAndTheOtherInstancesAreNotified() {
+        when(mockPizzaService.findAllWithIngredients()).thenReturn(List.of(carbonara));
+        when(mockPizzaConverter.fromModelsToDtos(List.of(carbonara))).thenReturn(List.of(carbonaraDto));
+        when(mockPizzaConverter.fromModelsToDtos(List.of(hawaiian))).thenReturn(List.of(hawaiianDto));
+
+        service.scheduleRebuild();
+        PizzaCatalogue previous = service.getSnapshot().get();
+        service.onPizzaSaved(new PizzaSavedEvent(hawaiian));
+        PizzaCatalogue current = service.getSnapshot().get();
+
+        assertTrue(current.getVersion() > previous.getVersion());
+        assertEquals(List.of(carbonaraDto, hawaiianDto), current.getPizzas());
+        assertEquals(List.of(carbonaraDto), previous.getPizzas());
+        verify(mockTopic, times(1)).publish(current.getVersion());
+        verify(mockPizzaService, times(1)).findAllWithIngredients();
+    }
+
+
+    @Test
+    @DisplayName("onPizzaSaved: when several pizzas are saved in the same transaction then they are included together once it is committed")
+    public void onPizzaSaved_whenSeveralPizzasAreSavedInTheSameTransaction_thenTheyAreIncludedTogetherOnceItIsCommitted() {
+        when(mockPizzaService.findAllWithIngredients()).thenReturn(List.of());
+        when(mockPizzaConverter.fromModelsToDtos(List.of())).thenReturn(List.of());
+        when(mockPizzaConverter.fromModelsToDtos(List.of(carbonara, hawaiian))).thenReturn(List.of(carbonaraDto, hawaiianDto));
+        service.scheduleRebuild();
+        PizzaCatalogue previous = service.getSnapshot().get();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.onPizzaSaved(new PizzaSavedEvent(carbonara));
+            service.onPizzaSaved(new PizzaSavedEvent(hawaiian));
+
+            // Not included until the transaction is committed
+            assertEquals(previous, service.getSnapshot().get());
+            verify(mockTopic, never()).publish(anyLong());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, synchronizations.size());
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        PizzaCatalogue current = service.getSnapshot().get();
+        assertEquals(previous.getVersion() + 1, current.getVersion());
+        assertEquals(List.of(carbonaraDto, hawaiianDto), current.getPizzas());
+        verify(mockTopic, times(1)).publish(current.getVersion());
+        assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+    }
+
+
+    @Test
+    @DisplayName("onPizzaSaved: when the pizza is saved while the first catalogue is loaded then it is loaded again")
+    public void onPizzaSaved_whenPizzaIsSavedWhileTheFirstCatalogueIsLoaded_thenItIsLoadedAgain() {
+        when(mockPizzaService.findAllWithIngredients())
+                .thenAnswer(invocation -> {
+                    // Committed after the database was read
+                    service.onPizzaSaved(new PizzaSavedEvent(hawaiian));
+                    return List.of(carbonara);
+                })
+                .thenReturn(List.of(carbonara, hawaiian));
+        when(mockPizzaConverter.fromModelsToDtos(List.of(carbonara))).thenReturn(List.of(carbonaraDto));
+        when(mockPizzaConverter.fromModelsToDtos(List.of(carbonara, hawaiian))).thenReturn(List.of(carbonaraDto, hawaiianDto));
+
+        service.scheduleRebuild();
+
+        assertEquals(List.of(carbonaraDto, hawaiianDto), service.getSnapshot().get().getPizzas());
+        verify(mockPizzaService, times(2)).findAllWithIngredients();
+    }
+
+
+    @Test
+    @DisplayName("onPizzaSaved: when the catalogue is disabled then nothing is done")
+    public void onPizzaSaved_whenCatalogueIsDisabled_thenNothingIsDone() {
+        when(mockCatalogueConfiguration.isEnabled()).thenReturn(false);
+
+        service.onPizzaSaved(new PizzaSavedEvent(hawaiian));
+
+        assertFalse(service.getSnapshot().isPresent());
+        verify(mockTopic, never()).publish(anyLong());
+    }
+
+}
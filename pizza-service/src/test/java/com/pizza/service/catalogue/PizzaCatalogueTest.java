@@ -0,0 +1,147 @@
+package com.pizza.service.catalogue;
+
+import com.pizza.dto.IngredientDto;
+import com.pizza.dto.IngredientPizzaSummaryDto;
+import com.pizza.dto.PizzaDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static com.pizza.TestDataFactory.buildIngredientDto;
+import static com.pizza.TestDataFactory.buildPizzaDto;
+import static com.pizza.enums.PizzaEnum.CARBONARA;
+import static com.pizza.enums.PizzaEnum.HAWAIIAN;
+import static com.pizza.enums.PizzaEnum.MARGUERITA;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PizzaCatalogueTest {
+
+    private final IngredientDto cheese = buildIngredientDto(1, "Cheese");
+    private final IngredientDto bacon = buildIngredientDto(2, "Bacon");
+    private final IngredientDto pineapple = buildIngredientDto(3, "Pineapple");
+
+    private final PizzaDto carbonara = buildPizzaDto(1, CARBONARA.getInternalPropertyValue(), 7D, Set.of(cheese, bacon));
+    private final PizzaDto hawaiian = buildPizzaDto(2, HAWAIIAN.getInternalPropertyValue(), 8D, Set.of(cheese, pineapple));
+
+
+    @Test
+    @DisplayName("of: when null pizzas are given then an empty catalogue is returned")
+    public void of_whenNullPizzasAreGiven_thenEmptyCatalogueIsReturned() {
+        PizzaCatalogue catalogue = PizzaCatalogue.of(1, null);
+
+        assertEquals(1, catalogue.getVersion());
+        assertEquals(0, catalogue.getSize());
+        assertTrue(catalogue.getPizzas().isEmpty());
+        assertEquals(empty(), catalogue.findByName(CARBONARA.getInternalPropertyValue()));
+        assertEquals(empty(), catalogue.findById(1));
+        assertTrue(catalogue.findByIngredient(cheese.getName()).isEmpty());
+    }
+
+
+    @Test
+    @DisplayName("of: when pizzas are given then they are indexed by name, identifier and ingredient")
+    public void of_whenPizzasAreGiven_thenTheyAreIndexedByNameIdentifierAndIngredient() {
+        PizzaDto withoutId = buildPizzaDto(null, MARGUERITA.getInternalPropertyValue(), 5D, Set.of(cheese));
+
+        PizzaCatalogue catalogue = PizzaCatalogue.of(2, List.of(hawaiian, withoutId, carbonara));
+
+        assertEquals(2, catalogue.getVersion());
+        assertEquals(2, catalogue.getSize());
+        assertEquals(List.of(carbonara, hawaiian), catalogue.getPizzas());
+        assertEquals(of(carbonara), catalogue.findByName(CARBONARA.getInternalPropertyValue()));
+        assertEquals(empty(), catalogue.findByName(MARGUERITA.getInternalPropertyValue()));
+        assertEquals(empty(), catalogue.findByName(null));
+        assertEquals(of(hawaiian), catalogue.findById(2));
+        assertEquals(empty(), catalogue.findById(3));
+        assertEquals(List.of(carbonara, hawaiian), catalogue.findByIngredient(cheese.getName()));
+        assertEquals(List.of(carbonara), catalogue.findByIngredient(bacon.getName()));
+        assertTrue(catalogue.findByIngredient("Tomato").isEmpty());
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> catalogue.getPizzas().clear()
+        );
+    }
+
+
+    @Test
+    @DisplayName("with: when the pizza exists then a new catalogue with its new information is returned")
+    public void with_whenPizzaExists_thenNewCatalogueWithItsNewInformationIsReturned() {
+        PizzaCatalogue catalogue = PizzaCatalogue.of(1, List.of(carbonara, hawaiian));
+        PizzaDto updatedHawaiian = buildPizzaDto(2, MARGUERITA.getInternalPropertyValue(), 6D, Set.of(pineapple));
+
+        PizzaCatalogue result = catalogue.with(2, updatedHawaiian);
+
+        assertEquals(2, result.getVersion());
+        assertEquals(List.of(carbonara, updatedHawaiian), result.getPizzas());
+        assertEquals(empty(), result.findByName(HAWAIIAN.getInternalPropertyValue()));
+        assertEquals(of(updatedHawaiian), result.findByName(MARGUERITA.getInternalPropertyValue()));
+        assertEquals(List.of(carbonara), result.findByIngredient(cheese.getName()));
+        // The original catalogue has not been modified
+        assertEquals(of(hawaiian), catalogue.findByName(HAWAIIAN.getInternalPropertyValue()));
+        assertEquals(List.of(carbonara, hawaiian), catalogue.findByIngredient(cheese.getName()));
+    }
+
+
+    @Test
+    @DisplayName("with: when the pizza does not exist then a new catalogue including it is returned")
+    public void with_whenPizzaDoesNotExist_thenNewCatalogueIncludingItIsReturned() {
+        PizzaCatalogue catalogue = PizzaCatalogue.of(1, List.of(hawaiian));
+
+        PizzaCatalogue result = catalogue.with(2, carbonara);
+
+        assertEquals(List.of(carbonara, hawaiian), result.getPizzas());
+        assertEquals(of(carbonara), result.findById(1));
+        assertEquals(1, catalogue.getSize());
+    }
+
+
+    @Test
+    @DisplayName("findByIngredients: when filters are given then the pizzas that verify all of them are returned")
+    public void findByIngredients_whenFiltersAreGiven_thenThePizzasThatVerifyAllOfThemAreReturned() {
+        PizzaCatalogue catalogue = PizzaCatalogue.of(1, List.of(carbonara, hawaiian));
+
+        assertEquals(List.of(carbonara, hawaiian), catalogue.findByIngredients(null, null, null));
+        assertEquals(List.of(carbonara, hawaiian), catalogue.findByIngredients(List.of(cheese.getName()), null, null));
+        assertEquals(List.of(hawaiian), catalogue.findByIngredients(List.of(cheese.getName()), null, List.of(bacon.getName())));
+        assertEquals(List.of(carbonara), catalogue.findByIngredients(null, List.of(bacon.getName(), "Tomato"), null));
+        assertTrue(catalogue.findByIngredients(List.of(bacon.getName(), pineapple.getName()), null, null).isEmpty());
+    }
+
+
+
+    @Test
+    @DisplayName("getIngredientWithItsMoreExpensivePizza: when ingredients are given then their most expensive pizzas are returned sorted by ingredient")
+    public void getIngredientWithItsMoreExpensivePizza_whenIngredientsAreGiven_thenTheirMostExpensivePizzasAreReturnedSortedByIngredient() {
+        PizzaCatalogue catalogue = PizzaCatalogue.of(1, List.of(carbonara, hawaiian));
+        PizzaDto cheaperHawaiian = buildPizzaDto(hawaiian.getId(), hawaiian.getName(), 6D, hawaiian.getIngredients());
+
+        assertTrue(catalogue.getIngredientWithItsMoreExpensivePizza(null).isEmpty());
+        assertTrue(catalogue.getIngredientWithItsMoreExpensivePizza(List.of("Mushrooms")).isEmpty());
+        assertEquals(
+                List.of(
+                        new IngredientPizzaSummaryDto(bacon.getName(), carbonara.getName(), carbonara.getCost()),
+                        new IngredientPizzaSummaryDto(cheese.getName(), hawaiian.getName(), hawaiian.getCost()),
+                        new IngredientPizzaSummaryDto(pineapple.getName(), hawaiian.getName(), hawaiian.getCost())
+                ),
+                catalogue.getIngredientWithItsMoreExpensivePizza(
+                        Arrays.asList(pineapple.getName(), cheese.getName(), "Mushrooms", null, bacon.getName())
+                )
+        );
+        // The precalculated information is updated with the changes
+        assertEquals(
+                List.of(
+                        new IngredientPizzaSummaryDto(cheese.getName(), carbonara.getName(), carbonara.getCost())
+                ),
+                catalogue.with(2, cheaperHawaiian)
+                        .getIngredientWithItsMoreExpensivePizza(List.of(cheese.getName()))
+        );
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.pizza.service.importer;
+
+import com.pizza.configuration.importer.PizzaImportConfiguration;
+import com.pizza.dto.PizzaDto;
+import com.pizza.dto.PizzaImportResultDto;
+import com.pizza.model.Pizza;
+import com.pizza.service.PizzaService;
+import com.pizza.util.converter.PizzaConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import javax.validation.Validation;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.pizza.TestDataFactory.buildPizza;
+import static com.pizza.TestDataFactory.buildPizzaDto;
+import static com.pizza.dto.PizzaImportResultDto.Status.FAILED;
+import static com.pizza.dto.PizzaImportResultDto.Status.INVALID;
+import static com.pizza.dto.PizzaImportResultDto.Status.SAVED;
+import static com.pizza.enums.PizzaEnum.CARBONARA;
+import static com.pizza.enums.PizzaEnum.HAWAIIAN;
+import static com.pizza.enums.PizzaEnum.MARGUERITA;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+public class PizzaImportServiceTest {
+
+    @Mock
+    private PizzaImportConfiguration mockConfiguration;
+
+    @Mock
+    private PizzaService mockPizzaService;
+
+    @Mock
+    private PizzaConverter mockConverter;
+
+    @Mock
+    private PlatformTransactionManager mockTransactionManager;
+
+    private PizzaImportService service;
+
+
+    @BeforeEach
+    public void init() {
+        when(mockConfiguration.getBatchSize()).thenReturn(2);
+        when(mockTransactionManager.getTransaction(any()))
+                .thenReturn(new SimpleTransactionStatus());
+        service = new PizzaImportService(
+                mockConfiguration,
+                mockPizzaService,
+                mockConverter,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                mockTransactionManager,
+                Schedulers.immediate()
+        );
+    }
+
+
+    @Test
+    @DisplayName("importPizzas: when no pizza is given then no transaction is started")
+    public void importPizzas_whenNoPizzaIsGiven_thenNoTransactionIsStarted() {
+        StepVerifier.create(service.importPizzas(Flux.empty()))
+                .verifyComplete();
+
+        verify(mockTransactionManager, never()).getTransaction(any());
+    }
+
+
+    @Test
+    @DisplayName("importPizzas: when valid and invalid pizzas are given then only the valid ones are saved, in chunks")
+    public void importPizzas_whenValidAndInvalidPizzasAreGiven_thenOnlyTheValidOnesAreSavedInChunks() {
+        PizzaDto carbonaraDto = buildPizzaDto(null, CARBONARA.getInternalPropertyValue(), 7D, Set.of());
+        PizzaDto invalidDto = buildPizzaDto(null, HAWAIIAN.getInternalPropertyValue(), -1D, Set.of());
+        PizzaDto margheritaDto = buildPizzaDto(null, MARGUERITA.getInternalPropertyValue(), 6D, Set.of());
+        Pizza carbonara = buildPizza(null, CARBONARA, 7D, Set.of());
+        Pizza margherita = buildPizza(null, MARGUERITA, 6D, Set.of());
+
+        when(mockConverter.fromDtoToModel(carbonaraDto)).thenReturn(carbonara);
+        when(mockConverter.fromDtoToModel(margheritaDto)).thenReturn(margherita);
+        when(mockPizzaService.save(carbonara)).thenReturn(Optional.of(buildPizza(1, CARBONARA, 7D, Set.of())));
+        when(mockPizzaService.save(margherita)).thenReturn(Optional.of(buildPizza(3, MARGUERITA, 6D, Set.of())));
+
+        StepVerifier.create(service.importPizzas(Flux.just(carbonaraDto, invalidDto, margheritaDto)))
+                .expectNext(new PizzaImportResultDto(0, CARBONARA.getInternalPropertyValue(), SAVED, 1, List.of()))
+                .expectNext(new PizzaImportResultDto(1, HAWAIIAN.getInternalPropertyValue(), INVALID, null, List.of("cost: must be greater than 0")))
+                .expectNext(new PizzaImportResultDto(2, MARGUERITA.getInternalPropertyValue(), SAVED, 3, List.of()))
+                .verifyComplete();
+
+        // One transaction for every chunk of 2 pizzas
+        verify(mockTransactionManager, times(2)).getTransaction(any());
+        verify(mockTransactionManager, times(2)).commit(any());
+    }
+
+
+    @Test
+    @DisplayName("importPizzas: when a pizza of the chunk fails then the rest of them are saved one by one")
+    public void importPizzas_whenAPizzaOfTheChunkFails_thenTheRestOfThemAreSavedOneByOne() {
+        PizzaDto carbonaraDto = buildPizzaDto(null, CARBONARA.getInternalPropertyValue(), 7D, Set.of());
+        PizzaDto margheritaDto = buildPizzaDto(null, MARGUERITA.getInternalPropertyValue(), 6D, Set.of());
+        Pizza carbonara = buildPizza(null, CARBONARA, 7D, Set.of());
+        Pizza margherita = buildPizza(null, MARGUERITA, 6D, Set.of());
+
+        when(mockConverter.fromDtoToModel(carbonaraDto)).thenReturn(carbonara);
+        when(mockConverter.fromDtoToModel(margheritaDto)).thenReturn(margherita);
+        when(mockPizzaService.save(carbonara)).thenThrow(new IllegalStateException("Duplicated name"));
+        when(mockPizzaService.save(margherita)).thenReturn(Optional.of(buildPizza(3, MARGUERITA, 6D, Set.of())));
+
+        StepVerifier.create(service.importPizzas(Flux.just(carbonaraDto, margheritaDto)))
+                .expectNext(new PizzaImportResultDto(0, CARBONARA.getInternalPropertyValue(), FAILED, null, List.of("Duplicated name")))
+                .expectNext(new PizzaImportResultDto(1, MARGUERITA.getInternalPropertyValue(), SAVED, 3, List.of()))
+                .verifyComplete();
+
+        // The chunk and every one of its pizzas
+        verify(mockTransactionManager, times(3)).getTransaction(any());
+        verify(mockTransactionManager, times(2)).rollback(any());
+        verify(mockTransactionManager, times(1)).commit(any());
+    }
+
+
+    @Test
+    @DisplayName("importPizzas: when the error saving a pizza has no message then the name of the exception is returned")
+    public void importPizzas_whenTheErrorSavingAPizzaHasNoMessage_thenTheNameOfTheExceptionIsReturned() {
+        PizzaDto carbonaraDto = buildPizzaDto(null, CARBONARA.getInternalPropertyValue(), 7D, Set.of());
+        Pizza carbonara = buildPizza(null, CARBONARA, 7D, Set.of());
+
+        when(mockConverter.fromDtoToModel(carbonaraDto)).thenReturn(carbonara);
+        when(mockPizzaService.save(carbonara)).thenThrow(new NullPointerException());
+
+        StepVerifier.create(service.importPizzas(Flux.just(carbonaraDto)))
+                .expectNext(new PizzaImportResultDto(0, CARBONARA.getInternalPropertyValue(), FAILED, null, List.of(NullPointerException.class.getName())))
+                .verifyComplete();
+    }
+
+}
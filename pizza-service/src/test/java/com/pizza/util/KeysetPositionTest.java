@@ -0,0 +1,119 @@
+package com.pizza.util;
+
+import com.pizza.model.Pizza;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.domain.Sort;
+
+import java.util.Base64;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static com.pizza.TestDataFactory.buildPizza;
+import static com.pizza.enums.PizzaEnum.FRUTTI_DI_MARE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeysetPositionTest {
+
+    @Test
+    @DisplayName("first: when the property cannot be used to sort then an exception is thrown")
+    public void first_whenPropertyCannotBeUsedToSort_thenIllegalArgumentExceptionIsThrown() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> KeysetPosition.first("ingredients", Sort.Direction.ASC)
+        );
+    }
+
+
+    @Test
+    @DisplayName("first: when no direction is given then descending is used")
+    public void first_whenNoDirectionIsGiven_thenDescendingIsUsed() {
+        KeysetPosition result = KeysetPosition.first(KeysetPosition.COST_PROPERTY, null);
+
+        assertEquals(KeysetPosition.COST_PROPERTY, result.getProperty());
+        assertEquals(Sort.Direction.DESC, result.getDirection());
+        assertNull(result.getLastValue());
+        assertNull(result.getLastId());
+        assertTrue(result.isFirst());
+    }
+
+
+    static Stream<Arguments> afterTestCases() {
+        Pizza pizza = buildPizza(4, FRUTTI_DI_MARE, 12.5D, Set.of());
+        return Stream.of(
+                //@formatter:off
+                //            property,                         expectedLastValue
+                Arguments.of( KeysetPosition.ID_PROPERTY,       "4" ),
+                Arguments.of( KeysetPosition.NAME_PROPERTY,     FRUTTI_DI_MARE.getInternalPropertyValue() ),
+                Arguments.of( KeysetPosition.COST_PROPERTY,     "12.5" )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("afterTestCases")
+    @DisplayName("after: test cases")
+    public void after_testCases(String property,
+                                String expectedLastValue) {
+        Pizza pizza = buildPizza(4, FRUTTI_DI_MARE, 12.5D, Set.of());
+
+        KeysetPosition result = KeysetPosition.first(property, Sort.Direction.ASC)
+                .after(pizza);
+
+        assertEquals(property, result.getProperty());
+        assertEquals(Sort.Direction.ASC, result.getDirection());
+        assertEquals(expectedLastValue, result.getLastValue());
+        assertEquals(pizza.getId(), result.getLastId());
+        assertFalse(result.isFirst());
+    }
+
+
+    @Test
+    @DisplayName("decode: when the token was generated by encode then the same position is returned")
+    public void decode_whenTokenWasGeneratedByEncode_thenSamePositionIsReturned() {
+        KeysetPosition position = KeysetPosition.first(KeysetPosition.NAME_PROPERTY, Sort.Direction.DESC)
+                .after(buildPizza(4, FRUTTI_DI_MARE, 12.5D, Set.of()));
+
+        assertEquals(position, KeysetPosition.decode(position.encode()));
+    }
+
+
+    static Stream<Arguments> decodeWhenTokenIsNotValidTestCases() {
+        return Stream.of(
+                //@formatter:off
+                //            token
+                Arguments.of( (String) null ),
+                Arguments.of( "not base 64 !" ),
+                Arguments.of( encode("id|DESC") ),
+                Arguments.of( encode("ingredients|DESC|1|1") ),
+                Arguments.of( encode("id|UP|1|1") ),
+                Arguments.of( encode("cost|ASC|1|expensive") ),
+                Arguments.of( encode("name|ASC|1|Pineapple") ),
+                Arguments.of( encode("name|ASC|1|") ),
+                Arguments.of( encode("id|ASC|1|first") ),
+                Arguments.of( encode("id|ASC|1|1.5") )
+        ); //@formatter:on
+    }
+
+    @ParameterizedTest
+    @MethodSource("decodeWhenTokenIsNotValidTestCases")
+    @DisplayName("decode: when the token is not valid then an exception is thrown")
+    public void decode_whenTokenIsNotValid_thenIllegalArgumentExceptionIsThrown(String token) {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> KeysetPosition.decode(token)
+        );
+    }
+
+
+    private static String encode(final String rawValue) {
+        return Base64.getUrlEncoder().encodeToString(rawValue.getBytes());
+    }
+
+}
@@ -4,12 +4,12 @@ import com.security.jwt.configuration.rest.RestRoutes;
 import com.security.jwt.model.JwtClientDetails;
 import com.security.jwt.service.cache.JwtClientDetailsCacheService;
 import com.spring5microservices.common.dto.ErrorResponseDto;
+import com.spring5microservices.common.log.AccessLogger;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
@@ -24,18 +24,21 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
-@Log4j2
 @RestController
 @RequestMapping(value = RestRoutes.CACHE.ROOT)
 @Validated
 public class CacheController extends BaseController {
 
+    private final AccessLogger accessLogger;
+
     private final JwtClientDetailsCacheService jwtClientDetailsCacheService;
 
 
     @Autowired
-    public CacheController(@Lazy final JwtClientDetailsCacheService jwtClientDetailsCacheService) {
+    public CacheController(@Lazy final JwtClientDetailsCacheService jwtClientDetailsCacheService,
+                           @Lazy final AccessLogger accessLogger) {
         this.jwtClientDetailsCacheService = jwtClientDetailsCacheService;
+        this.accessLogger = accessLogger;
     }
 
 
@@ -76,7 +79,7 @@ public class CacheController extends BaseController {
     )
     @PutMapping(value = RestRoutes.CACHE.CLEAR)
     public Mono<ResponseEntity> clear() {
-        log.info("Cleaning cache");
+        accessLogger.log("Cleaning cache");
         return jwtClientDetailsCacheService.clear()
                 ? Mono.just(
                         new ResponseEntity<>(OK)
@@ -6,12 +6,12 @@ import com.security.jwt.service.SecurityService;
 import com.spring5microservices.common.dto.AuthenticationInformationDto;
 import com.spring5microservices.common.dto.ErrorResponseDto;
 import com.spring5microservices.common.dto.UsernameAuthoritiesDto;
+import com.spring5microservices.common.log.AccessLogger;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
@@ -27,22 +27,24 @@ import reactor.core.publisher.Mono;
 import javax.validation.Valid;
 import javax.validation.constraints.Size;
 
-import static java.lang.String.format;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
-@Log4j2
 @RestController
 @RequestMapping(value = RestRoutes.SECURITY.ROOT)
 @Validated
 public class SecurityController extends BaseController {
 
+    private final AccessLogger accessLogger;
+
     private final SecurityService service;
 
 
     @Autowired
-    public SecurityController(@Lazy final SecurityService service) {
+    public SecurityController(@Lazy final SecurityService service,
+                              @Lazy final AccessLogger accessLogger) {
         this.service = service;
+        this.accessLogger = accessLogger;
     }
 
 
@@ -104,9 +106,9 @@ public class SecurityController extends BaseController {
     @PostMapping(value = RestRoutes.SECURITY.LOGIN)
     @Transactional(readOnly = true)
     public Mono<ResponseEntity<AuthenticationInformationDto>> login(@RequestBody @Valid final AuthenticationRequestDto authenticationRequestDto) {
-        log.info(
-                format("Requesting login with: %s",
-                        authenticationRequestDto)
+        accessLogger.log(
+                "Requesting login of the username: {}",
+                authenticationRequestDto.getUsername()
         );
         return getPrincipal()
                 .map(userDetails ->
@@ -187,9 +189,9 @@ public class SecurityController extends BaseController {
     @PostMapping(value = RestRoutes.SECURITY.REFRESH)
     @Transactional(readOnly = true)
     public Mono<ResponseEntity<AuthenticationInformationDto>> refresh(@RequestBody @Size(min = 1) final String refreshToken) {
-        log.info(
-                format("Requesting refresh action using the provided token: %s",
-                        refreshToken)
+        accessLogger.logWithDetail(
+                "Requesting refresh action using the provided token",
+                refreshToken
         );
         return getPrincipal()
                 .map(userDetails ->
@@ -259,9 +261,9 @@ public class SecurityController extends BaseController {
     @PostMapping(RestRoutes.SECURITY.AUTHORIZATION_INFO)
     @Transactional(readOnly = true)
     public Mono<ResponseEntity<UsernameAuthoritiesDto>> authorizationInformation(@RequestBody @Size(min = 1) final String accessToken) {
-        log.info(
-                format("Extracting authorization information of the token: %s",
-                        accessToken)
+        accessLogger.logSampledWithDetail(
+                "Extracting authorization information of the provided token",
+                accessToken
         );
         return getPrincipal()
                 .map(userDetails ->